@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.IterationResultMetaData;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ResultCodec;
+import org.openjdk.jmh.results.ResultRole;
+import org.openjdk.jmh.results.SampleTimeResult;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.results.ThroughputResult;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.Defaults;
+import org.openjdk.jmh.runner.WorkloadParams;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
+import org.openjdk.jmh.runner.link.BinaryLinkClient;
+import org.openjdk.jmh.runner.link.BinaryLinkServer;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.openjdk.jmh.util.NullOutputStream;
+import org.openjdk.jmh.util.SampleBuffer;
+import org.openjdk.jmh.util.Utils;
+import org.openjdk.jmh.util.Version;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of pushing the iteration data from the forked VM to the host VM.
+ * The interesting part is the forked VM side: it runs while the benchmark is running,
+ * or in between iterations. Note the push benchmarks also pay for the host side that
+ * runs in the same VM, see encode* benchmarks for the forked VM side alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryLinkBench {
+
+    @Param({"thrpt", "sample"})
+    String mode;
+
+    @Param({"1", "16"})
+    int threads;
+
+    private BinaryLinkServer server;
+    private BinaryLinkClient client;
+    private OutputFormat linkOutput;
+
+    private BenchmarkParams benchParams;
+    private IterationParams iterParams;
+    private IterationResult result;
+
+    private ResultCodec codec;
+    private DataOutputStream codecOut;
+
+    @Setup
+    public void setup() throws IOException {
+        OutputFormat sink = OutputFormatFactory.createFormatInstance(new PrintStream(new NullOutputStream()), VerboseMode.SILENT);
+        server = new BinaryLinkServer(new OptionsBuilder().build(), sink);
+        client = new BinaryLinkClient(server.getHost(), server.getPort());
+        linkOutput = client.getOutputFormat();
+
+        iterParams = new IterationParams(IterationType.MEASUREMENT, 5, TimeValue.seconds(1), 1);
+        benchParams = new BenchmarkParams("bench", "generated", false,
+                threads, new int[]{threads}, Collections.<String>emptyList(),
+                1, 0,
+                new IterationParams(IterationType.WARMUP, 5, TimeValue.seconds(1), 1),
+                iterParams,
+                Mode.deepValueOf(mode), new WorkloadParams(), TimeUnit.MICROSECONDS, 1,
+                Utils.getCurrentJvm(), Collections.<String>emptyList(),
+                System.getProperty("java.version"), System.getProperty("java.vm.name"), System.getProperty("java.vm.version"), Version.getPlainVersion(),
+                TimeValue.minutes(10), BenchmarkParams.DEFAULT_EXECUTOR,
+                Defaults.ARRIVAL_RATE, Defaults.ARRIVAL_PROCESS,
+                TimeValue.NONE, TimeValue.NONE, false,
+                false, 1);
+
+        Random r = new Random(42);
+        result = new IterationResult(benchParams, iterParams, new IterationResultMetaData(1000000, 1000000));
+        for (int t = 0; t < threads; t++) {
+            switch (benchParams.getMode()) {
+                case Throughput:
+                    result.addResult(new ThroughputResult(ResultRole.PRIMARY, "bench", 1000000, 1000000000L, TimeUnit.MICROSECONDS));
+                    break;
+                case SampleTime:
+                    SampleBuffer buffer = new SampleBuffer();
+                    for (int s = 0; s < 100000; s++) {
+                        buffer.add(100 + (long) Math.abs(r.nextGaussian() * 1000));
+                    }
+                    result.addResult(new SampleTimeResult(ResultRole.PRIMARY, "bench", buffer, TimeUnit.MICROSECONDS));
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled mode: " + mode);
+            }
+        }
+        result.addResult(new ScalarResult("gc.alloc.rate", 42, "MB/sec", AggregationPolicy.AVG));
+        result.addResult(new ScalarResult("gc.count", 1, "counts", AggregationPolicy.SUM));
+
+        codec = new ResultCodec();
+        codecOut = new DataOutputStream(new NullOutputStream());
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        server.getResults();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        client.close();
+        server.waitFinish();
+        server.terminate();
+    }
+
+    @Benchmark
+    public void pushResults() throws IOException {
+        client.pushResults(result);
+    }
+
+    @Benchmark
+    public void pushIterationResult() {
+        linkOutput.iterationResult(benchParams, iterParams, 1, result);
+    }
+
+    @Benchmark
+    public void println() {
+        linkOutput.println("Iteration   1: 42.000 us/op");
+    }
+
+    @Benchmark
+    public void encodeResults() throws IOException {
+        for (Result r : result.getRawPrimaryResults()) {
+            codec.writeResult(codecOut, r);
+        }
+        for (Result r : result.getRawSecondaryResults().values()) {
+            codec.writeResult(codecOut, r);
+        }
+    }
+
+    /**
+     * Baseline: Java serialization of the same result, as if the stream was reset before it.
+     */
+    @Benchmark
+    public void encodeJavaSerialization() throws IOException {
+        try (ObjectOutputStream oos = new ObjectOutputStream(new NullOutputStream())) {
+            oos.writeObject(result);
+        }
+    }
+
+}
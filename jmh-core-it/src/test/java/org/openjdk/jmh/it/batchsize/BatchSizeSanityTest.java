@@ -96,6 +96,7 @@ public class BatchSizeSanityTest {
                 break;
             case AverageTime:
             case SampleTime:
+            case RateLimited:
             case SingleShotTime:
                 expectedScore = SLEEP_TIME_MS * batchSize;
                 actualScore   = stats.getMin();
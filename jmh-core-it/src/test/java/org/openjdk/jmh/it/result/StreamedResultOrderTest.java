@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.it.result;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.it.Fixtures;
+import org.openjdk.jmh.results.ResultRecord;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.JSONResultReader;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests if streamed JSON results follow the completion order: forked benchmarks
+ * run before the embedded ones, while the summary is sorted.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1, time = 100, timeUnit = TimeUnit.MILLISECONDS)
+public class StreamedResultOrderTest {
+
+    @Benchmark
+    @Fork(0)
+    public void embedded() {
+        Fixtures.work();
+    }
+
+    @Benchmark
+    @Fork(1)
+    public void forked() {
+        Fixtures.work();
+    }
+
+    @Test
+    public void test() throws RunnerException, IOException {
+        File file = FileUtils.tempFile("result");
+        try {
+            Options opts = new OptionsBuilder()
+                    .include(Fixtures.getTestMask(this.getClass()))
+                    .shouldFailOnError(true)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(file.getAbsolutePath())
+                    .build();
+            Collection<RunResult> results = new Runner(opts).run();
+
+            List<String> summary = new ArrayList<>();
+            for (RunResult r : results) {
+                summary.add(r.getParams().getBenchmark());
+            }
+
+            List<String> streamed = new ArrayList<>();
+            for (ResultRecord r : JSONResultReader.read(file)) {
+                streamed.add(r.getBenchmark());
+            }
+
+            String prefix = this.getClass().getName() + ".";
+            Assert.assertEquals(Arrays.asList(prefix + "embedded", prefix + "forked"), summary);
+            Assert.assertEquals(Arrays.asList(prefix + "forked", prefix + "embedded"), streamed);
+        } finally {
+            file.delete();
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.it.times;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.it.Fixtures;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+public class ThreadStatePooledTimesTest {
+
+    @State(Scope.Thread)
+    public static class MyState {
+
+        private boolean fresh;
+        private int countSetupRun;
+        private int countSetupIteration;
+        private int countSetupPooled;
+        private int countTearDownIteration;
+        private int countTearDownPooled;
+        private int countInvocations;
+
+        @Setup(Level.Trial)
+        public void setup1() {
+            countSetupRun++;
+        }
+
+        @Setup(Level.Iteration)
+        public void setup2() {
+            countSetupIteration++;
+        }
+
+        @Setup(Level.Pooled)
+        public void setup3() {
+            Assert.assertFalse("Pooled setup is not called twice in a row", fresh);
+            fresh = true;
+            countSetupPooled++;
+        }
+
+        @TearDown(Level.Pooled)
+        public void tearDown3() {
+            fresh = false;
+            countTearDownPooled++;
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown2() {
+            countTearDownIteration++;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDownLATEST() { // this name ensures this is the latest teardown to run
+            Assert.assertEquals("Setup1 called once", 1, countSetupRun);
+            Assert.assertEquals("Setup2 called twice", 2, countSetupIteration);
+            Assert.assertEquals("TearDown2 called twice", 2, countTearDownIteration);
+            Assert.assertEquals("Setup3 = TearDown3", countSetupPooled, countTearDownPooled);
+            Assert.assertTrue("Invocations <= Setup3", countInvocations <= countSetupPooled);
+        }
+
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.All)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 2, time = 100, timeUnit = TimeUnit.MILLISECONDS)
+    @Fork(1)
+    @Threads(2)
+    public void test(MyState state) {
+        Fixtures.work();
+        Assert.assertTrue("Each invocation gets the fresh state", state.fresh);
+        state.fresh = false;
+        state.countInvocations++;
+    }
+
+    @Test
+    public void invokeAPI() throws RunnerException {
+        for (int c = 0; c < Fixtures.repetitionCount(); c++) {
+            Options opt = new OptionsBuilder()
+                    .include(Fixtures.getTestMask(this.getClass()))
+                    .shouldFailOnError(true)
+                    .build();
+            new Runner(opt).run();
+        }
+    }
+
+}
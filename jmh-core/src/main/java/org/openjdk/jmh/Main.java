@@ -67,6 +67,16 @@ public class Main {
                 return;
             }
 
+            if (cmdOptions.shouldListResultStore()) {
+                try {
+                    runner.listResultStore(cmdOptions);
+                } catch (RunnerException e) {
+                    System.err.println("ERROR: " + e.getMessage());
+                    System.exit(1);
+                }
+                return;
+            }
+
             try {
                 runner.run();
             } catch (NoBenchmarksException e) {
@@ -89,6 +99,10 @@ public class Main {
                     ex = ex.getCause();
                 }
                 System.exit(1);
+            } catch (RegressionException e) {
+                // The run has completed, and the comparison is printed, set the non-zero exit code.
+                System.err.println(e.getMessage());
+                System.exit(1);
             } catch (RunnerException e) {
                 System.err.print("ERROR: ");
                 e.printStackTrace(System.err);
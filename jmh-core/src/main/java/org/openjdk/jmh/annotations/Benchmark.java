@@ -63,6 +63,14 @@ import java.lang.annotation.Target;
  *
  * <p>Benchmark method may declare Exceptions and Throwables to throw. Any exception actually
  * raised and thrown will be treated as benchmark failure.</p>
+ *
+ * <p>Benchmark method declared to return {@code CompletionStage}, {@code CompletableFuture},
+ * or {@code Future} is treated as asynchronous: the operation is measured to completion,
+ * rather than to the method return. Throughput counts the completed operations, and the
+ * latency from submit to completion is recorded for every operation. The number of
+ * in-flight operations per thread is capped, see {@code -inflight}. Failed operations are
+ * treated as benchmark failures. {@link Level#Invocation} and {@link Level#Pooled}
+ * helpers are not supported for asynchronous methods.</p>
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
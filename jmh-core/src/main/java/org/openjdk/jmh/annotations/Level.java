@@ -83,4 +83,28 @@ public enum Level {
      * worker thread already calling {@link TearDown} for the same object.</p>
      */
     Invocation,
+
+    /**
+     * Pooled level: to be executed for each benchmark method execution, like
+     * {@link #Invocation}, but without timestamping each invocation.
+     *
+     * <p>Harness keeps a pool of separate {@link State} instances, each initialized
+     * the same way as the regular instance. Before the timed region, fixture methods
+     * at this level are executed for all pooled instances; then, the {@link Benchmark}
+     * method is executed back-to-back, each invocation getting its own freshly set up
+     * instance, and the whole batch is timed at once; after the timed region, fixture
+     * methods are executed for all pooled instances again. This keeps the fresh state
+     * for every invocation, while the timestamping cost is amortized over the entire
+     * pool. The pool size is 64 instances, and can be overridden with
+     * {@code -Djmh.poolSize}.</p>
+     *
+     * <p>This level is only usable with {@link Scope#Thread} states, and can not be
+     * mixed with {@link #Invocation} helpers for the same {@link Benchmark} method.
+     * Pooled instances are only used for the timed invocations; warmup catch-up
+     * invocations, as well as {@link Mode#RateLimited} invocations, run on the regular
+     * instance, executing fixture methods around each invocation. When the iteration
+     * ends in the middle of the batch, the unused pooled instances are torn down
+     * as well, so that every setup is paired with its teardown.</p>
+     */
+    Pooled,
 }
@@ -80,7 +80,22 @@ public enum Mode {
     SingleShotTime("ss", "Single shot invocation time"),
 
     /**
-     * Meta-mode: all the benchmark modes.
+     * <p>Rate limited: measures the time for each operation, issuing operations at the fixed rate.</p>
+     *
+     * <p>Unlike other modes, this mode is open-loop: the {@link Benchmark} methods are called
+     * according to the precomputed schedule of intended start times, regardless of how long the
+     * previous calls took. The time for each operation is measured from its intended start time,
+     * so the queueing delays are included, once the benchmark is unable to keep up with the
+     * arrival rate. Achieved and requested arrival rates are reported as secondary results.
+     * The rate is set per thread, see {@link org.openjdk.jmh.runner.options.ChainedOptionsBuilder#arrivalRate(int)}.
+     * This mode is time-based, and it will run until the iteration time expires.</p>
+     *
+     * <p>This mode is not included in {@link #All}, and runs only when requested explicitly.</p>
+     */
+    RateLimited("rate", "Rate limited time, time/op"),
+
+    /**
+     * Meta-mode: all the benchmark modes, except {@link #RateLimited}.
      * This is mostly useful for internal JMH testing.
      */
     All("all", "All benchmark modes"),
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.generators.core;
+
+/**
+ * Tells how the {@link org.openjdk.jmh.annotations.Benchmark} method completes. Asynchronous
+ * methods are recognized by the declared return type: completion stages get the completion
+ * hook attached, other futures are polled.
+ */
+enum AsyncType {
+    NONE,
+    STAGE,
+    FUTURE,
+    ;
+
+    static AsyncType of(MethodInfo mi) {
+        String type = mi.getReturnType();
+        int generic = type.indexOf('<');
+        if (generic >= 0) {
+            type = type.substring(0, generic);
+        }
+
+        switch (type) {
+            case "java.util.concurrent.CompletionStage":
+            case "java.util.concurrent.CompletableFuture":
+                return STAGE;
+            case "java.util.concurrent.Future":
+            case "java.util.concurrent.RunnableFuture":
+            case "java.util.concurrent.ScheduledFuture":
+            case "java.util.concurrent.FutureTask":
+            case "java.util.concurrent.ForkJoinTask":
+                return FUTURE;
+            default:
+                return NONE;
+        }
+    }
+
+}
@@ -467,6 +467,8 @@ public class BenchmarkGenerator {
         writer.println(ident(1) + "ThreadParams threadParams;");
         writer.println(ident(1) + "Blackhole blackhole;");
         writer.println(ident(1) + "Control notifyControl;");
+        writer.println(ident(1) + "long sampleLow;");
+        writer.println(ident(1) + "long sampleHigh = SampleBuffer.DEFAULT_RESERVED_VALUE;");
 
         // write all methods
         for (Mode benchmarkKind : Mode.values()) {
@@ -486,6 +488,14 @@ public class BenchmarkGenerator {
         }
         writer.println();
 
+        // Write out the completion hooks, if needed
+        for (MethodInfo method : info.methodGroup.methods()) {
+            if (AsyncType.of(method) == AsyncType.STAGE) {
+                generateAsyncHook(writer);
+                break;
+            }
+        }
+
         // Write out the required objects
         states.writeStateOverrides(session, destination);
 
@@ -505,6 +515,7 @@ public class BenchmarkGenerator {
                 BenchmarkTaskResult.class,
                 Result.class, ThroughputResult.class, AverageTimeResult.class,
                 SampleTimeResult.class, SingleShotResult.class, SampleBuffer.class,
+                ArrivalSchedule.class, TimeSeriesRecorder.class, TimeSeriesResult.class, TimerCalibration.class, CpuTimer.class, AsyncTracker.class,
                 Mode.class, Fork.class, Measurement.class, Threads.class, Warmup.class,
                 BenchmarkMode.class, RawResults.class, ResultRole.class,
                 Field.class, BenchmarkParams.class, IterationParams.class,
@@ -537,6 +548,9 @@ public class BenchmarkGenerator {
             case SingleShotTime:
                 generateSingleShotTime(writer, benchmarkKind, methodGroup, states);
                 break;
+            case RateLimited:
+                generateRateLimited(writer, benchmarkKind, methodGroup, states);
+                break;
             default:
                 throw new AssertionError("Shouldn't be here");
         }
@@ -555,11 +569,13 @@ public class BenchmarkGenerator {
 
             writer.println(ident(2) + "if (threadParams.getSubgroupIndex() == " + subGroup + ") {");
             writer.println(ident(3) + "RawResults res = new RawResults();");
+            writer.println(ident(3) + "res.series = TimeSeriesRecorder.forIteration(benchmarkParams, iterationParams);");
 
+            asyncProlog(writer, 3, method);
             iterationProlog(writer, 3, method, states);
 
             // synchronize iterations prolog: announce ready
-            writer.println(ident(3) + "control.announceWarmupReady();");
+            writer.println(ident(3) + "control.announceWarmupReady(threadParams.getThreadIndex());");
 
             // synchronize iterations prolog: catchup loop
             writer.println(ident(3) + "while (control.warmupShouldWait) {");
@@ -572,18 +588,25 @@ public class BenchmarkGenerator {
             writer.println(ident(3) + "}");
             writer.println();
 
+            asyncLatencyBuffer(writer, 3, method);
+            asyncMeasureProlog(writer, 3, method, "asyncBuffer", "null");
+
             // control objects get a special treatment
             writer.println(ident(3) + "notifyControl.startMeasurement = true;");
 
             // measurement loop call
+            cpuTimeProlog(writer, 3);
             writer.println(ident(3) + method.getName() + "_" + benchmarkKind.shortLabel() + JMH_STUB_SUFFIX +
-                    "(" + getStubArgs() + prefix(states.getArgList(method)) + ");");
+                    "(" + getStubArgs() + prefix(states.getArgList(method)) + prefix(asyncArgs(method)) + ");");
+            cpuTimeEpilog(writer, 3);
+
+            asyncMeasureEpilog(writer, 3, method);
 
             // control objects get a special treatment
             writer.println(ident(3) + "notifyControl.stopMeasurement = true;");
 
             // synchronize iterations epilog: announce ready
-            writer.println(ident(3) + "control.announceWarmdownReady();");
+            writer.println(ident(3) + "control.announceWarmdownReady(threadParams.getThreadIndex());");
 
             // synchronize iterations epilog: catchup loop
             writer.println(ident(3) + "try {");
@@ -595,6 +618,7 @@ public class BenchmarkGenerator {
 
             writer.println(ident(5) + "res.allOps++;");
             writer.println(ident(4) + "}");
+            asyncDrain(writer, 4, method);
             writer.println(ident(4) + "control.preTearDown();");
             writer.println(ident(3) + "} catch (InterruptedException ie) {");
             writer.println(ident(4) + "control.preTearDownForce();");
@@ -631,10 +655,16 @@ public class BenchmarkGenerator {
                 writer.println(ident(3) + "results.add(new ThroughputResult(ResultRole.PRIMARY, \"" + methodGroup.getName() + "\", res.measuredOps, res.getTime(), benchmarkParams.getTimeUnit()));");
                 writer.println(ident(3) + "results.add(new ThroughputResult(ResultRole.SECONDARY, \"" + method.getName() + "\", res.measuredOps, res.getTime(), benchmarkParams.getTimeUnit()));");
             }
+            writer.println(ident(3) + "if (res.series != null) {");
+            writer.println(ident(4) + "results.add(TimeSeriesResult.throughput(res.series, benchmarkParams.getTimeUnit(), opsPerInv, batchSize));");
+            writer.println(ident(3) + "}");
             for (String res : states.getAuxResults(method, "ThroughputResult")) {
                 writer.println(ident(3) + "results.add(" + res + ");");
             }
 
+            asyncResults(writer, 3, method);
+            cpuTimeResults(writer, 3, "res.measuredOps");
+
             methodEpilog(writer);
 
             writer.println(ident(3) + "return results;");
@@ -652,21 +682,8 @@ public class BenchmarkGenerator {
             compilerControl.defaultForceInline(method);
 
             writer.println(ident(1) + "public static" + (methodGroup.isStrictFP() ? " strictfp" : "") + " void " + methodName + "(" +
-                    getStubTypeArgs() + prefix(states.getTypeArgList(method)) + ") throws Throwable {");
-            writer.println(ident(2) + "long operations = 0;");
-            writer.println(ident(2) + "long realTime = 0;");
-            writer.println(ident(2) + "result.startTime = System.nanoTime();");
-            writer.println(ident(2) + "do {");
-
-            invocationProlog(writer, 3, method, states, true);
-            writer.println(ident(3) + emitCall(method, states) + ';');
-            invocationEpilog(writer, 3, method, states, true);
-
-            writer.println(ident(3) + "operations++;");
-            writer.println(ident(2) + "} while(!control.isDone);");
-            writer.println(ident(2) + "result.stopTime = System.nanoTime();");
-            writer.println(ident(2) + "result.realTime = realTime;");
-            writer.println(ident(2) + "result.measuredOps = operations;");
+                    getStubTypeArgs() + prefix(states.getTypeArgList(method)) + prefix(asyncTypeArgs(method)) + ") throws Throwable {");
+            countingLoop(writer, method, states);
             writer.println(ident(1) + "}");
             writer.println();
         }
@@ -691,11 +708,13 @@ public class BenchmarkGenerator {
 
             writer.println(ident(2) + "if (threadParams.getSubgroupIndex() == " + subGroup + ") {");
             writer.println(ident(3) + "RawResults res = new RawResults();");
+            writer.println(ident(3) + "res.series = TimeSeriesRecorder.forIteration(benchmarkParams, iterationParams);");
 
+            asyncProlog(writer, 3, method);
             iterationProlog(writer, 3, method, states);
 
             // synchronize iterations prolog: announce ready
-            writer.println(ident(3) + "control.announceWarmupReady();");
+            writer.println(ident(3) + "control.announceWarmupReady(threadParams.getThreadIndex());");
 
             // synchronize iterations prolog: catchup loop
             writer.println(ident(3) + "while (control.warmupShouldWait) {");
@@ -708,17 +727,24 @@ public class BenchmarkGenerator {
             writer.println(ident(3) + "}");
             writer.println();
 
+            asyncLatencyBuffer(writer, 3, method);
+            asyncMeasureProlog(writer, 3, method, "asyncBuffer", "null");
+
             // control objects get a special treatment
             writer.println(ident(3) + "notifyControl.startMeasurement = true;");
 
             // measurement loop call
-            writer.println(ident(3) + method.getName() + "_" + benchmarkKind.shortLabel() + JMH_STUB_SUFFIX + "(" + getStubArgs() + prefix(states.getArgList(method)) + ");");
+            cpuTimeProlog(writer, 3);
+            writer.println(ident(3) + method.getName() + "_" + benchmarkKind.shortLabel() + JMH_STUB_SUFFIX + "(" + getStubArgs() + prefix(states.getArgList(method)) + prefix(asyncArgs(method)) + ");");
+            cpuTimeEpilog(writer, 3);
+
+            asyncMeasureEpilog(writer, 3, method);
 
             // control objects get a special treatment
             writer.println(ident(3) + "notifyControl.stopMeasurement = true;");
 
             // synchronize iterations epilog: announce ready
-            writer.println(ident(3) + "control.announceWarmdownReady();");
+            writer.println(ident(3) + "control.announceWarmdownReady(threadParams.getThreadIndex());");
 
             // synchronize iterations epilog: catchup loop
             writer.println(ident(3) + "try {");
@@ -730,6 +756,7 @@ public class BenchmarkGenerator {
 
             writer.println(ident(5) + "res.allOps++;");
             writer.println(ident(4) + "}");
+            asyncDrain(writer, 4, method);
             writer.println(ident(4) + "control.preTearDown();");
             writer.println(ident(3) + "} catch (InterruptedException ie) {");
             writer.println(ident(4) + "control.preTearDownForce();");
@@ -765,8 +792,13 @@ public class BenchmarkGenerator {
                 writer.println(ident(3) + "results.add(new AverageTimeResult(ResultRole.PRIMARY, \"" + methodGroup.getName() + "\", res.measuredOps, res.getTime(), benchmarkParams.getTimeUnit()));");
                 writer.println(ident(3) + "results.add(new AverageTimeResult(ResultRole.SECONDARY, \"" + method.getName() + "\", res.measuredOps, res.getTime(), benchmarkParams.getTimeUnit()));");
             }
+            writer.println(ident(3) + "if (res.series != null) {");
+            writer.println(ident(4) + "results.add(TimeSeriesResult.averageTime(res.series, benchmarkParams.getTimeUnit(), opsPerInv, batchSize));");
+            writer.println(ident(3) + "}");
             addAuxCounters(writer, "AverageTimeResult", states, method);
 
+            asyncResults(writer, 3, method);
+            cpuTimeResults(writer, 3, "res.measuredOps");
             methodEpilog(writer);
 
             writer.println(ident(3) + "return results;");
@@ -783,26 +815,59 @@ public class BenchmarkGenerator {
             compilerControl.defaultForceInline(method);
 
             writer.println(ident(1) + "public static" + (methodGroup.isStrictFP() ? " strictfp" : "") + " void " + methodName +
-                    "(" + getStubTypeArgs() + prefix(states.getTypeArgList(method)) + ") throws Throwable {");
-            writer.println(ident(2) + "long operations = 0;");
-            writer.println(ident(2) + "long realTime = 0;");
-            writer.println(ident(2) + "result.startTime = System.nanoTime();");
-            writer.println(ident(2) + "do {");
-
-            invocationProlog(writer, 3, method, states, true);
-            writer.println(ident(3) + emitCall(method, states) + ';');
-            invocationEpilog(writer, 3, method, states, true);
-
-            writer.println(ident(3) + "operations++;");
-            writer.println(ident(2) + "} while(!control.isDone);");
-            writer.println(ident(2) + "result.stopTime = System.nanoTime();");
-            writer.println(ident(2) + "result.realTime = realTime;");
-            writer.println(ident(2) + "result.measuredOps = operations;");
+                    "(" + getStubTypeArgs() + prefix(states.getTypeArgList(method)) + prefix(asyncTypeArgs(method)) + ") throws Throwable {");
+            countingLoop(writer, method, states);
             writer.println(ident(1) + "}");
             writer.println();
         }
     }
 
+    /**
+     * Emits the measurement loop that counts operations. When time series are requested,
+     * the separate copy of the loop reports the running count to the recorder, with the
+     * stride that recorder dictates. This keeps the timer reads off the common path, and
+     * the loop without time series intact.
+     */
+    private void countingLoop(PrintWriter writer, MethodInfo method, StateObjectHandler states) {
+        writer.println(ident(2) + "long operations = 0;");
+        writer.println(ident(2) + "long realTime = 0;");
+        writer.println(ident(2) + "result.startTime = System.nanoTime();");
+        writer.println(ident(2) + "TimeSeriesRecorder series = result.series;");
+        poolProlog(writer, 2, method, states);
+        writer.println(ident(2) + "if (series == null) {");
+        writer.println(ident(3) + "do {");
+
+        invocationProlog(writer, 4, method, states, true);
+        writer.println(ident(4) + emitCall(method, states) + ';');
+        invocationEpilog(writer, 4, method, states, true);
+
+        writer.println(ident(4) + "operations++;");
+        writer.println(ident(3) + "} while(!control.isDone);");
+        writer.println(ident(2) + "} else {");
+        writer.println(ident(3) + "long seriesMask = series.start(result.startTime);");
+        writer.println(ident(3) + "do {");
+
+        invocationProlog(writer, 4, method, states, true);
+        writer.println(ident(4) + emitCall(method, states) + ';');
+        invocationEpilog(writer, 4, method, states, true);
+
+        writer.println(ident(4) + "operations++;");
+        writer.println(ident(4) + "if ((operations & seriesMask) == 0) {");
+        writer.println(ident(5) + "seriesMask = series.tick(System.nanoTime(), operations);");
+        writer.println(ident(4) + "}");
+        writer.println(ident(3) + "} while(!control.isDone);");
+        writer.println(ident(2) + "}");
+        asyncDrain(writer, 2, method);
+        poolEpilog(writer, 2, method, states);
+        writer.println(ident(2) + "result.stopTime = System.nanoTime();");
+        writer.println(ident(2) + "if (series != null) {");
+        writer.println(ident(3) + "series.tick(result.stopTime, operations);");
+        writer.println(ident(3) + "series.stop(result.stopTime);");
+        writer.println(ident(2) + "}");
+        writer.println(ident(2) + "result.realTime = realTime;");
+        writer.println(ident(2) + "result.measuredOps = operations;");
+    }
+
     private String getStubArgs() {
         return "control, res, benchmarkParams, iterationParams, threadParams, blackhole, notifyControl, startRndMask";
     }
@@ -824,6 +889,147 @@ public class BenchmarkGenerator {
         writer.println(ident(2) + "}");
     }
 
+    private void cpuTimeProlog(PrintWriter writer, int prefix) {
+        writer.println(ident(prefix) + "long cpuStart = benchmarkParams.shouldMeasureCpuTime() ? CpuTimer.threadCpuTime() : -1;");
+        writer.println(ident(prefix) + "long wallStart = System.nanoTime();");
+    }
+
+    private void cpuTimeEpilog(PrintWriter writer, int prefix) {
+        writer.println(ident(prefix) + "if (cpuStart >= 0) {");
+        writer.println(ident(prefix + 1) + "res.cpuTime = CpuTimer.threadCpuTime() - cpuStart;");
+        writer.println(ident(prefix + 1) + "res.wallTime = System.nanoTime() - wallStart;");
+        writer.println(ident(prefix) + "}");
+    }
+
+    private void cpuTimeResults(PrintWriter writer, int prefix, String ops) {
+        // CPU time and wall time per op go side by side, the ratio tells how much of the wall time was spent on CPU.
+        // Both are taken around the whole measurement loop, so that fixtures and timestamps affect them equally.
+        writer.println(ident(prefix) + "if (cpuStart >= 0) {");
+        writer.println(ident(prefix + 1) + "results.add(new AverageTimeResult(ResultRole.SECONDARY, \"\\u00b7cpu.time\", " + ops + ", res.cpuTime, benchmarkParams.getTimeUnit()));");
+        writer.println(ident(prefix + 1) + "results.add(new AverageTimeResult(ResultRole.SECONDARY, \"\\u00b7wall.time\", " + ops + ", res.wallTime, benchmarkParams.getTimeUnit()));");
+        writer.println(ident(prefix + 1) + "results.add(new ScalarResult(\"\\u00b7cpu.util\", 1.0 * res.cpuTime / res.wallTime, \"cpu/wall\", AggregationPolicy.AVG));");
+        writer.println(ident(prefix) + "}");
+    }
+
+    /**
+     * Asynchronous benchmark methods get the per-thread tracker that caps the number of
+     * in-flight operations, and measures every operation to completion. Catch-up loops
+     * use the tracker too, but only the measured operations have their latencies recorded.
+     */
+    private void asyncProlog(PrintWriter writer, int prefix, MethodInfo method) {
+        AsyncType type = AsyncType.of(method);
+        if (type == AsyncType.NONE) return;
+
+        writer.println(ident(prefix) + "AsyncTracker async = new AsyncTracker(benchmarkParams.getMaxInFlight(), benchmarkParams.getOpsPerInvocation());");
+        if (type == AsyncType.STAGE) {
+            writer.println(ident(prefix) + "_jmh_AsyncHook[] asyncHooks = _jmh_AsyncHook.forTracker(async);");
+        }
+    }
+
+    /**
+     * Throughput and average time modes record the latencies of asynchronous operations into
+     * the separate buffer; sampling modes share their own buffer instead. The buffer is only
+     * needed from the measurement on.
+     */
+    private void asyncLatencyBuffer(PrintWriter writer, int prefix, MethodInfo method) {
+        if (AsyncType.of(method) == AsyncType.NONE) return;
+        newSampleBuffer(writer, prefix, "asyncBuffer");
+    }
+
+    /**
+     * Sample buffers allocate the bins for the range of samples seen in the previous iteration
+     * of this thread, and keep the allocations away from measurement.
+     */
+    private void newSampleBuffer(PrintWriter writer, int prefix, String buffer) {
+        writer.println(ident(prefix) + "SampleBuffer " + buffer + " = new SampleBuffer();");
+        writer.println(ident(prefix) + buffer + ".reserve(sampleLow, sampleHigh);");
+    }
+
+    private void rememberSampleRange(PrintWriter writer, int prefix, String buffer) {
+        writer.println(ident(prefix) + "if (" + buffer + ".count() > 0) {");
+        writer.println(ident(prefix + 1) + "sampleLow = " + buffer + ".getMinValue();");
+        writer.println(ident(prefix + 1) + "sampleHigh = " + buffer + ".getMaxValue();");
+        writer.println(ident(prefix) + "}");
+    }
+
+    private void asyncMeasureProlog(PrintWriter writer, int prefix, MethodInfo method, String buffer, String series) {
+        if (AsyncType.of(method) == AsyncType.NONE) return;
+        asyncDrain(writer, prefix, method);
+        writer.println(ident(prefix) + "async.record(" + buffer + ", " + series + ");");
+    }
+
+    private void asyncMeasureEpilog(PrintWriter writer, int prefix, MethodInfo method) {
+        if (AsyncType.of(method) == AsyncType.NONE) return;
+        writer.println(ident(prefix) + "async.record(null, null);");
+    }
+
+    private void asyncDrain(PrintWriter writer, int prefix, MethodInfo method) {
+        if (AsyncType.of(method) == AsyncType.NONE) return;
+        writer.println(ident(prefix) + "async.drain();");
+    }
+
+    private void asyncResults(PrintWriter writer, int prefix, MethodInfo method) {
+        if (AsyncType.of(method) == AsyncType.NONE) return;
+        rememberSampleRange(writer, prefix, "asyncBuffer");
+        writer.println(ident(prefix) + "results.add(new SampleTimeResult(ResultRole.SECONDARY, \"\\u00b7latency\", asyncBuffer, benchmarkParams.getTimeUnit()));");
+    }
+
+    private String asyncArgs(MethodInfo method) {
+        switch (AsyncType.of(method)) {
+            case STAGE:
+                return "async, asyncHooks";
+            case FUTURE:
+                return "async";
+            default:
+                return "";
+        }
+    }
+
+    private String asyncTypeArgs(MethodInfo method) {
+        switch (AsyncType.of(method)) {
+            case STAGE:
+                return "AsyncTracker async, _jmh_AsyncHook[] asyncHooks";
+            case FUTURE:
+                return "AsyncTracker async";
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Completion hooks for the methods returning completion stages, one per in-flight slot,
+     * so that completing the operation does not allocate on harness side. The class is only
+     * emitted when needed, since it requires Java 8.
+     */
+    private void generateAsyncHook(PrintWriter writer) {
+        writer.println(ident(1) + "static final class _jmh_AsyncHook implements java.util.function.BiConsumer<Object, Throwable> {");
+        writer.println(ident(2) + "final AsyncTracker tracker;");
+        writer.println(ident(2) + "final int slot;");
+        writer.println();
+        writer.println(ident(2) + "_jmh_AsyncHook(AsyncTracker tracker, int slot) {");
+        writer.println(ident(3) + "this.tracker = tracker;");
+        writer.println(ident(3) + "this.slot = slot;");
+        writer.println(ident(2) + "}");
+        writer.println();
+        writer.println(ident(2) + "static _jmh_AsyncHook[] forTracker(AsyncTracker tracker) {");
+        writer.println(ident(3) + "_jmh_AsyncHook[] hooks = new _jmh_AsyncHook[tracker.capacity()];");
+        writer.println(ident(3) + "for (int s = 0; s < hooks.length; s++) {");
+        writer.println(ident(4) + "hooks[s] = new _jmh_AsyncHook(tracker, s);");
+        writer.println(ident(3) + "}");
+        writer.println(ident(3) + "return hooks;");
+        writer.println(ident(2) + "}");
+        writer.println();
+        writer.println(ident(2) + "void attach(java.util.concurrent.CompletionStage<?> stage) {");
+        writer.println(ident(3) + "stage.whenComplete(this);");
+        writer.println(ident(2) + "}");
+        writer.println();
+        writer.println(ident(2) + "public void accept(Object result, Throwable failure) {");
+        writer.println(ident(3) + "tracker.complete(slot, failure);");
+        writer.println(ident(2) + "}");
+        writer.println(ident(1) + "}");
+        writer.println();
+    }
+
     private void methodEpilog(PrintWriter writer) {
         writer.println(ident(3) + "this.blackhole.evaporate(\"Yes, I am Stephen Hawking, and know a thing or two about black holes.\");");
     }
@@ -849,11 +1055,14 @@ public class BenchmarkGenerator {
 
             writer.println(ident(2) + "if (threadParams.getSubgroupIndex() == " + subGroup + ") {");
             writer.println(ident(3) + "RawResults res = new RawResults();");
+            newSampleBuffer(writer, 3, "buffer");
+            writer.println(ident(3) + "res.series = TimeSeriesRecorder.forIteration(benchmarkParams, iterationParams);");
 
+            asyncProlog(writer, 3, method);
             iterationProlog(writer, 3, method, states);
 
             // synchronize iterations prolog: announce ready
-            writer.println(ident(3) + "control.announceWarmupReady();");
+            writer.println(ident(3) + "control.announceWarmupReady(threadParams.getThreadIndex());");
 
             // synchronize iterations prolog: catchup loop
             writer.println(ident(3) + "while (control.warmupShouldWait) {");
@@ -866,6 +1075,8 @@ public class BenchmarkGenerator {
             writer.println(ident(3) + "}");
             writer.println();
 
+            asyncMeasureProlog(writer, 3, method, "buffer", "res.series");
+
             // control objects get a special treatment
             writer.println(ident(3) + "notifyControl.startMeasurement = true;");
 
@@ -873,15 +1084,18 @@ public class BenchmarkGenerator {
             writer.println(ident(3) + "int targetSamples = (int) (control.getDuration(TimeUnit.MILLISECONDS) * 20); // at max, 20 timestamps per millisecond");
             writer.println(ident(3) + "int batchSize = iterationParams.getBatchSize();");
             writer.println(ident(3) + "int opsPerInv = benchmarkParams.getOpsPerInvocation();");
-            writer.println(ident(3) + "SampleBuffer buffer = new SampleBuffer();");
+            cpuTimeProlog(writer, 3);
             writer.println(ident(3) + method.getName() + "_" + benchmarkKind.shortLabel() + JMH_STUB_SUFFIX + "(" +
-                    getStubArgs() + ", buffer, targetSamples, opsPerInv, batchSize" + prefix(states.getArgList(method)) + ");");
+                    getStubArgs() + ", buffer, targetSamples, opsPerInv, batchSize" + prefix(states.getArgList(method)) + prefix(asyncArgs(method)) + ");");
+            cpuTimeEpilog(writer, 3);
+
+            asyncMeasureEpilog(writer, 3, method);
 
             // control objects get a special treatment
             writer.println(ident(3) + "notifyControl.stopMeasurement = true;");
 
             // synchronize iterations epilog: announce ready
-            writer.println(ident(3) + "control.announceWarmdownReady();");
+            writer.println(ident(3) + "control.announceWarmdownReady(threadParams.getThreadIndex());");
 
             // synchronize iterations epilog: catchup loop
             writer.println(ident(3) + "try {");
@@ -893,6 +1107,7 @@ public class BenchmarkGenerator {
 
             writer.println(ident(5) + "res.allOps++;");
             writer.println(ident(4) + "}");
+            asyncDrain(writer, 4, method);
             writer.println(ident(4) + "control.preTearDown();");
             writer.println(ident(3) + "} catch (InterruptedException ie) {");
             writer.println(ident(4) + "control.preTearDownForce();");
@@ -916,12 +1131,23 @@ public class BenchmarkGenerator {
             writer.println(ident(3) + "res.measuredOps *= opsPerInv;");
 
             writer.println(ident(3) + "BenchmarkTaskResult results = new BenchmarkTaskResult(res.allOps, res.measuredOps);");
+            rememberSampleRange(writer, 3, "buffer");
             if (isSingleMethod) {
                 writer.println(ident(3) + "results.add(new SampleTimeResult(ResultRole.PRIMARY, \"" + method.getName() + "\", buffer, benchmarkParams.getTimeUnit()));");
             } else {
                 writer.println(ident(3) + "results.add(new SampleTimeResult(ResultRole.PRIMARY, \"" + methodGroup.getName() + "\", buffer, benchmarkParams.getTimeUnit()));");
                 writer.println(ident(3) + "results.add(new SampleTimeResult(ResultRole.SECONDARY, \"" + method.getName() + "\", buffer, benchmarkParams.getTimeUnit()));");
             }
+
+            // coordinated omission correction: corrected samples go along with the raw ones
+            writer.println(ident(3) + "long coInterval = benchmarkParams.getCoInterval().convertTo(TimeUnit.NANOSECONDS);");
+            writer.println(ident(3) + "if (coInterval > 0) {");
+            writer.println(ident(4) + "results.add(new SampleTimeResult(ResultRole.SECONDARY, \"\\u00b7co\", buffer.copyCorrectedForCoordinatedOmission(coInterval), benchmarkParams.getTimeUnit()));");
+            writer.println(ident(3) + "}");
+            writer.println(ident(3) + "if (res.series != null) {");
+            writer.println(ident(4) + "results.add(TimeSeriesResult.sampleTime(res.series, benchmarkParams.getTimeUnit()));");
+            writer.println(ident(3) + "}");
+            cpuTimeResults(writer, 3, "res.measuredOps");
             methodEpilog(writer);
 
             writer.println(ident(3) + "return results;");
@@ -938,7 +1164,7 @@ public class BenchmarkGenerator {
             compilerControl.defaultForceInline(method);
 
             writer.println(ident(1) + "public static" + (methodGroup.isStrictFP() ? " strictfp" : "") + " void " + methodName + "(" +
-                    getStubTypeArgs() + ", SampleBuffer buffer, int targetSamples, long opsPerInv, int batchSize" + prefix(states.getTypeArgList(method)) + ") throws Throwable {");
+                    getStubTypeArgs() + ", SampleBuffer buffer, int targetSamples, long opsPerInv, int batchSize" + prefix(states.getTypeArgList(method)) + prefix(asyncTypeArgs(method)) + ") throws Throwable {");
 
             writer.println(ident(2) + "long realTime = 0;");
             writer.println(ident(2) + "long operations = 0;");
@@ -946,37 +1172,207 @@ public class BenchmarkGenerator {
             writer.println(ident(2) + "int rndMask = startRndMask;");
             writer.println(ident(2) + "long time = 0;");
             writer.println(ident(2) + "int currentStride = 0;");
+            writer.println(ident(2) + "long timerCost = control.benchmarkParams.shouldCompensateTimer() ? Math.round(TimerCalibration.get().getLatency()) : 0;");
+            writer.println(ident(2) + "TimeSeriesRecorder series = result.series;");
+            writer.println(ident(2) + "if (series != null) {");
+            writer.println(ident(3) + "series.start(System.nanoTime());");
+            writer.println(ident(2) + "}");
+            poolProlog(writer, 2, method, states);
             writer.println(ident(2) + "do {");
 
             invocationProlog(writer, 3, method, states, true);
 
-            writer.println(ident(3) + "rnd = (rnd * 1664525 + 1013904223);");
-            writer.println(ident(3) + "boolean sample = (rnd & rndMask) == 0;");
-            writer.println(ident(3) + "if (sample) {");
-            writer.println(ident(4) + "time = System.nanoTime();");
+            if (AsyncType.of(method) != AsyncType.NONE) {
+                // asynchronous operations are timed by the tracker, every single one of them
+                writer.println(ident(3) + "for (int b = 0; b < batchSize; b++) {");
+                writer.println(ident(4) + "if (control.volatileSpoiler) return;");
+                writer.println(ident(4) + "" + emitCall(method, states) + ';');
+                writer.println(ident(3) + "}");
+            } else {
+                writer.println(ident(3) + "rnd = (rnd * 1664525 + 1013904223);");
+                writer.println(ident(3) + "boolean sample = (rnd & rndMask) == 0;");
+                writer.println(ident(3) + "if (sample) {");
+                writer.println(ident(4) + "time = System.nanoTime();");
+                writer.println(ident(3) + "}");
+
+                writer.println(ident(3) + "for (int b = 0; b < batchSize; b++) {");
+                writer.println(ident(4) + "if (control.volatileSpoiler) return;");
+                writer.println(ident(4) + "" + emitCall(method, states) + ';');
+                writer.println(ident(3) + "}");
+
+                writer.println(ident(3) + "if (sample) {");
+                writer.println(ident(4) + "long sampleTime = Math.max(0, System.nanoTime() - time - timerCost) / opsPerInv;");
+                writer.println(ident(4) + "buffer.add(sampleTime);");
+                writer.println(ident(4) + "if (series != null) {");
+                writer.println(ident(5) + "series.sample(time, sampleTime);");
+                writer.println(ident(4) + "}");
+                writer.println(ident(4) + "if (currentStride++ > targetSamples) {");
+                writer.println(ident(5) + "buffer.half();");
+                writer.println(ident(5) + "currentStride = 0;");
+                writer.println(ident(5) + "rndMask = (rndMask << 1) + 1;");
+                writer.println(ident(4) + "}");
+                writer.println(ident(3) + "}");
+            }
+
+            invocationEpilog(writer, 3, method, states, true);
+
+            writer.println(ident(3) + "operations++;");
+            writer.println(ident(2) + "} while(!control.isDone);");
+            asyncDrain(writer, 2, method);
+            poolEpilog(writer, 2, method, states);
+            writer.println(ident(2) + "startRndMask = Math.max(startRndMask, rndMask);");
+            writer.println(ident(2) + "if (series != null) {");
+            writer.println(ident(3) + "series.stop(System.nanoTime());");
+            writer.println(ident(2) + "}");
+
+            writer.println(ident(2) + "result.realTime = realTime;");
+            writer.println(ident(2) + "result.measuredOps = operations;");
+            writer.println(ident(1) + "}");
+            writer.println();
+        }
+    }
+
+    private void generateRateLimited(PrintWriter writer, Mode benchmarkKind, MethodGroup methodGroup, StateObjectHandler states) {
+        writer.println(ident(1) + "public BenchmarkTaskResult " + methodGroup.getName() + "_" + benchmarkKind +
+                "(InfraControl control, ThreadParams threadParams) throws Throwable {");
+
+        methodProlog(writer);
+
+        boolean isSingleMethod = (methodGroup.methods().size() == 1);
+        int subGroup = -1;
+        for (MethodInfo method : methodGroup.methods()) {
+            subGroup++;
+
+            writer.println(ident(2) + "if (threadParams.getSubgroupIndex() == " + subGroup + ") {");
+            writer.println(ident(3) + "RawResults res = new RawResults();");
+            newSampleBuffer(writer, 3, "buffer");
+
+            asyncProlog(writer, 3, method);
+            iterationProlog(writer, 3, method, states);
+
+            // synchronize iterations prolog: announce ready
+            writer.println(ident(3) + "control.announceWarmupReady(threadParams.getThreadIndex());");
+
+            // synchronize iterations prolog: catchup loop
+            writer.println(ident(3) + "while (control.warmupShouldWait) {");
+
+            invocationProlog(writer, 4, method, states, false);
+            writer.println(ident(4) + emitCall(method, states) + ';');
+            invocationEpilog(writer, 4, method, states, false);
+
+            writer.println(ident(4) + "res.allOps++;");
             writer.println(ident(3) + "}");
+            writer.println();
+
+            asyncMeasureProlog(writer, 3, method, "buffer", "null");
+
+            // control objects get a special treatment
+            writer.println(ident(3) + "notifyControl.startMeasurement = true;");
 
-            writer.println(ident(3) + "for (int b = 0; b < batchSize; b++) {");
-            writer.println(ident(4) + "if (control.volatileSpoiler) return;");
-            writer.println(ident(4) + "" + emitCall(method, states) + ';');
+            // measurement loop call
+            writer.println(ident(3) + "int batchSize = iterationParams.getBatchSize();");
+            writer.println(ident(3) + "int opsPerInv = benchmarkParams.getOpsPerInvocation();");
+            writer.println(ident(3) + "ArrivalSchedule schedule = new ArrivalSchedule(benchmarkParams, threadParams);");
+            writer.println(ident(3) + method.getName() + "_" + benchmarkKind.shortLabel() + JMH_STUB_SUFFIX + "(" +
+                    getStubArgs() + ", buffer, schedule, opsPerInv, batchSize" + prefix(states.getArgList(method)) + prefix(asyncArgs(method)) + ");");
+
+            asyncMeasureEpilog(writer, 3, method);
+
+            // control objects get a special treatment
+            writer.println(ident(3) + "notifyControl.stopMeasurement = true;");
+
+            // synchronize iterations epilog: announce ready
+            writer.println(ident(3) + "control.announceWarmdownReady(threadParams.getThreadIndex());");
+
+            // synchronize iterations epilog: catchup loop
+            writer.println(ident(3) + "try {");
+            writer.println(ident(4) + "while (control.warmdownShouldWait) {");
+
+            invocationProlog(writer, 5, method, states, false);
+            writer.println(ident(5) + emitCall(method, states) + ';');
+            invocationEpilog(writer, 5, method, states, false);
+
+            writer.println(ident(5) + "res.allOps++;");
+            writer.println(ident(4) + "}");
+            asyncDrain(writer, 4, method);
+            writer.println(ident(4) + "control.preTearDown();");
+            writer.println(ident(3) + "} catch (InterruptedException ie) {");
+            writer.println(ident(4) + "control.preTearDownForce();");
             writer.println(ident(3) + "}");
 
-            writer.println(ident(3) + "if (sample) {");
-            writer.println(ident(4) + "buffer.add((System.nanoTime() - time) / opsPerInv);");
-            writer.println(ident(4) + "if (currentStride++ > targetSamples) {");
-            writer.println(ident(5) + "buffer.half();");
-            writer.println(ident(5) + "currentStride = 0;");
-            writer.println(ident(5) + "rndMask = (rndMask << 1) + 1;");
+            iterationEpilog(writer, 3, method, states);
+
+            /*
+               Arrival rates are counted in the scheduled operations, that is, in the batched
+               @Benchmark invocations, and they are computed before adjusting the operation counts.
+               Then, adjust the operation counts the same way as SampleTime does.
+             */
+
+            writer.println(ident(3) + "long arrivals = res.measuredOps;");
+            writer.println(ident(3) + "long duration = res.stopTime - res.startTime;");
+
+            writer.println(ident(3) + "res.allOps += res.measuredOps * batchSize;");
+
+            writer.println(ident(3) + "res.allOps *= opsPerInv;");
+            writer.println(ident(3) + "res.allOps /= batchSize;");
+            writer.println(ident(3) + "res.measuredOps *= opsPerInv;");
+
+            writer.println(ident(3) + "BenchmarkTaskResult results = new BenchmarkTaskResult(res.allOps, res.measuredOps);");
+            rememberSampleRange(writer, 3, "buffer");
+            if (isSingleMethod) {
+                writer.println(ident(3) + "results.add(new SampleTimeResult(ResultRole.PRIMARY, \"" + method.getName() + "\", buffer, benchmarkParams.getTimeUnit()));");
+            } else {
+                writer.println(ident(3) + "results.add(new SampleTimeResult(ResultRole.PRIMARY, \"" + methodGroup.getName() + "\", buffer, benchmarkParams.getTimeUnit()));");
+                writer.println(ident(3) + "results.add(new SampleTimeResult(ResultRole.SECONDARY, \"" + method.getName() + "\", buffer, benchmarkParams.getTimeUnit()));");
+            }
+            writer.println(ident(3) + "results.add(new ThroughputResult(ResultRole.SECONDARY, \"achievedRate\", arrivals, duration, TimeUnit.SECONDS));");
+            writer.println(ident(3) + "results.add(new ThroughputResult(ResultRole.SECONDARY, \"requestedRate\", " +
+                    "1.0 * benchmarkParams.getArrivalRate() * duration / TimeUnit.SECONDS.toNanos(1), duration, TimeUnit.SECONDS));");
+            methodEpilog(writer);
+
+            writer.println(ident(3) + "return results;");
+            writer.println(ident(2) + "} else");
+        }
+        writer.println(ident(3) + "throw new IllegalStateException(\"Harness failed to distribute threads among groups properly\");");
+        writer.println(ident(1) + "}");
+
+        writer.println();
+
+        // measurement loop bodies
+        for (MethodInfo method : methodGroup.methods()) {
+            String methodName = method.getName() + "_" + benchmarkKind.shortLabel() + JMH_STUB_SUFFIX;
+            compilerControl.defaultForceInline(method);
+
+            writer.println(ident(1) + "public static" + (methodGroup.isStrictFP() ? " strictfp" : "") + " void " + methodName + "(" +
+                    getStubTypeArgs() + ", SampleBuffer buffer, ArrivalSchedule schedule, long opsPerInv, int batchSize" + prefix(states.getTypeArgList(method)) + prefix(asyncTypeArgs(method)) + ") throws Throwable {");
+
+            writer.println(ident(2) + "long operations = 0;");
+            writer.println(ident(2) + "result.startTime = System.nanoTime();");
+            writer.println(ident(2) + "schedule.start(result.startTime);");
+            writer.println(ident(2) + "do {");
+
+            // invocation helpers run ahead of the intended start time, unless we are behind the schedule
+            invocationProlog(writer, 3, method, states, false);
+
+            writer.println(ident(3) + "boolean arrived = schedule.await(control);");
+            writer.println(ident(3) + "if (arrived) {");
+            writer.println(ident(4) + "for (int b = 0; b < batchSize; b++) {");
+            writer.println(ident(5) + "if (control.volatileSpoiler) return;");
+            writer.println(ident(5) + "" + emitCall(method, states, "schedule.intended()") + ';');
             writer.println(ident(4) + "}");
+            if (AsyncType.of(method) == AsyncType.NONE) {
+                writer.println(ident(4) + "buffer.add((System.nanoTime() - schedule.intended()) / opsPerInv);");
+            }
+            writer.println(ident(4) + "schedule.advance();");
+            writer.println(ident(4) + "operations++;");
             writer.println(ident(3) + "}");
 
-            invocationEpilog(writer, 3, method, states, true);
+            invocationEpilog(writer, 3, method, states, false);
 
-            writer.println(ident(3) + "operations++;");
+            writer.println(ident(3) + "if (!arrived) break;");
             writer.println(ident(2) + "} while(!control.isDone);");
-            writer.println(ident(2) + "startRndMask = Math.max(startRndMask, rndMask);");
-
-            writer.println(ident(2) + "result.realTime = realTime;");
+            asyncDrain(writer, 2, method);
+            writer.println(ident(2) + "result.stopTime = System.nanoTime();");
             writer.println(ident(2) + "result.measuredOps = operations;");
             writer.println(ident(1) + "}");
             writer.println();
@@ -997,6 +1393,7 @@ public class BenchmarkGenerator {
 
             writer.println(ident(2) + "if (threadParams.getSubgroupIndex() == " + subGroup + ") {");
 
+            asyncProlog(writer, 3, method);
             iterationProlog(writer, 3, method, states);
 
             // control objects get a special treatment
@@ -1005,8 +1402,10 @@ public class BenchmarkGenerator {
             // measurement loop call
             writer.println(ident(3) + "RawResults res = new RawResults();");
             writer.println(ident(3) + "int batchSize = iterationParams.getBatchSize();");
+            cpuTimeProlog(writer, 3);
             writer.println(ident(3) + method.getName() + "_" + benchmarkKind.shortLabel() + JMH_STUB_SUFFIX + "(" +
-                    getStubArgs() + ", batchSize" + prefix(states.getArgList(method)) + ");");
+                    getStubArgs() + ", batchSize" + prefix(states.getArgList(method)) + prefix(asyncArgs(method)) + ");");
+            cpuTimeEpilog(writer, 3);
 
             writer.println(ident(3) + "control.preTearDown();");
 
@@ -1029,6 +1428,7 @@ public class BenchmarkGenerator {
                 writer.println(ident(3) + "results.add(new SingleShotResult(ResultRole.PRIMARY, \"" + methodGroup.getName() + "\", res.getTime(), benchmarkParams.getTimeUnit()));");
                 writer.println(ident(3) + "results.add(new SingleShotResult(ResultRole.SECONDARY, \"" + method.getName() + "\", res.getTime(), benchmarkParams.getTimeUnit()));");
             }
+            cpuTimeResults(writer, 3, "totalOps");
             methodEpilog(writer);
 
             writer.println(ident(3) + "return results;");
@@ -1045,9 +1445,10 @@ public class BenchmarkGenerator {
             compilerControl.defaultForceInline(method);
 
             writer.println(ident(1) + "public static" + (methodGroup.isStrictFP() ? " strictfp" : "") + " void " + methodName +
-                    "(" + getStubTypeArgs() + ", int batchSize" + prefix(states.getTypeArgList(method)) + ") throws Throwable {");
+                    "(" + getStubTypeArgs() + ", int batchSize" + prefix(states.getTypeArgList(method)) + prefix(asyncTypeArgs(method)) + ") throws Throwable {");
 
             writer.println(ident(2) + "long realTime = 0;");
+            poolProlog(writer, 2, method, states);
             writer.println(ident(2) + "result.startTime = System.nanoTime();");
             writer.println(ident(2) + "for (int b = 0; b < batchSize; b++) {");
             writer.println(ident(3) + "if (control.volatileSpoiler) return;");
@@ -1059,6 +1460,8 @@ public class BenchmarkGenerator {
             invocationEpilog(writer, 3, method, states, true);
 
             writer.println(ident(2) + "}");
+            asyncDrain(writer, 2, method);
+            poolEpilog(writer, 2, method, states);
             writer.println(ident(2) + "result.stopTime = System.nanoTime();");
             writer.println(ident(2) + "result.realTime = realTime;");
             writer.println(ident(1) + "}");
@@ -1073,6 +1476,21 @@ public class BenchmarkGenerator {
             if (pauseMeasurement)
                 writer.println(ident(prefix) + "long rt = System.nanoTime();");
         }
+        if (states.hasPooledStubs(method)) {
+            if (pauseMeasurement) {
+                // set up the entire pool before timing the batch of invocations
+                writer.println(ident(prefix) + "if (poolIdx == 0) {");
+                for (String s : states.getPoolSetups(method))
+                    writer.println(ident(prefix + 1) + s);
+                writer.println(ident(prefix + 1) + "prt = System.nanoTime();");
+                writer.println(ident(prefix) + "}");
+                for (String s : states.getPoolSelects(method, "poolIdx"))
+                    writer.println(ident(prefix) + s);
+            } else {
+                for (String s : states.getPooledSetups(method))
+                    writer.println(ident(prefix) + s);
+            }
+        }
     }
 
     private void invocationEpilog(PrintWriter writer, int prefix, MethodInfo method, StateObjectHandler states, boolean pauseMeasurement) {
@@ -1082,6 +1500,39 @@ public class BenchmarkGenerator {
             for (String s : states.getInvocationTearDowns(method))
                 writer.println(ident(prefix) + s);
         }
+        if (states.hasPooledStubs(method)) {
+            if (pauseMeasurement) {
+                writer.println(ident(prefix) + "if (++poolIdx == poolSize) {");
+                writer.println(ident(prefix + 1) + "realTime += (System.nanoTime() - prt);");
+                for (String s : states.getPoolTearDowns(method))
+                    writer.println(ident(prefix + 1) + s);
+                writer.println(ident(prefix + 1) + "poolIdx = 0;");
+                writer.println(ident(prefix) + "}");
+            } else {
+                for (String s : states.getPooledTearDowns(method))
+                    writer.println(ident(prefix) + s);
+            }
+        }
+    }
+
+    private void poolProlog(PrintWriter writer, int prefix, MethodInfo method, StateObjectHandler states) {
+        if (states.hasPooledStubs(method)) {
+            for (String s : states.getPoolDeclarations(method))
+                writer.println(ident(prefix) + s);
+            writer.println(ident(prefix) + "int poolIdx = 0;");
+            writer.println(ident(prefix) + "long prt = 0;");
+        }
+    }
+
+    private void poolEpilog(PrintWriter writer, int prefix, MethodInfo method, StateObjectHandler states) {
+        if (states.hasPooledStubs(method)) {
+            // the loop might have finished in the middle of the batch
+            writer.println(ident(prefix) + "if (poolIdx > 0) {");
+            writer.println(ident(prefix + 1) + "realTime += (System.nanoTime() - prt);");
+            for (String s : states.getPoolTearDowns(method))
+                writer.println(ident(prefix + 1) + s);
+            writer.println(ident(prefix) + "}");
+        }
     }
 
     private void iterationProlog(PrintWriter writer, int prefix, MethodInfo method, StateObjectHandler states) {
@@ -1110,10 +1561,23 @@ public class BenchmarkGenerator {
     }
 
     private String emitCall(MethodInfo method, StateObjectHandler states) {
-        if ("void".equalsIgnoreCase(method.getReturnType())) {
-            return states.getImplicit("bench").localIdentifier + "." + method.getName() + "(" + states.getBenchmarkArgList(method) + ")";
-        } else {
-            return "blackhole.consume(" + states.getImplicit("bench").localIdentifier + "." + method.getName() + "(" + states.getBenchmarkArgList(method) + "))";
+        return emitCall(method, states, "");
+    }
+
+    private String emitCall(MethodInfo method, StateObjectHandler states, String startTime) {
+        String call = states.getImplicit("bench").localIdentifier + "." + method.getName() + "(" + states.getBenchmarkArgList(method) + ")";
+        switch (AsyncType.of(method)) {
+            case STAGE:
+                // the slot is acquired before the call: array index is evaluated before the method argument
+                return "asyncHooks[async.begin(" + startTime + ")].attach(" + call + ")";
+            case FUTURE:
+                return "async.track(async.begin(" + startTime + "), " + call + ")";
+            default:
+                if ("void".equalsIgnoreCase(method.getReturnType())) {
+                    return call;
+                } else {
+                    return "blackhole.consume(" + call + ")";
+                }
         }
     }
 
@@ -212,6 +212,19 @@ class StateObjectHandler {
                     resolveDependencies(method, pci, pso);
                 }
             }
+
+            if (hasPooledStubs(method) && hasInvocationStubs(method)) {
+                throw new GenerationException(Level.class.getSimpleName() + "." + Level.Pooled + " and " +
+                        Level.class.getSimpleName() + "." + Level.Invocation + " helpers can not be used for the same " +
+                        "@" + Benchmark.class.getSimpleName() + " method.", method);
+            }
+
+            if (AsyncType.of(method) != AsyncType.NONE && (hasPooledStubs(method) || hasInvocationStubs(method))) {
+                throw new GenerationException(Level.class.getSimpleName() + "." + Level.Pooled + " and " +
+                        Level.class.getSimpleName() + "." + Level.Invocation + " helpers can not be used for the " +
+                        "asynchronous @" + Benchmark.class.getSimpleName() + " method, since the operation is " +
+                        "still in flight when the method returns.", method);
+            }
         }
     }
 
@@ -355,6 +368,20 @@ class StateObjectHandler {
                 compileControl.defaultForceInline(mi);
             }
         }
+
+        if (isPooled(so) && so.scope != Scope.Thread) {
+            throw new GenerationException(Level.class.getSimpleName() + "." + Level.Pooled +
+                    " helpers can only be used with " + Scope.class.getSimpleName() + "." + Scope.Thread + " states.", ci);
+        }
+    }
+
+    private static boolean isPooled(StateObject so) {
+        for (HelperMethodInvocation hmi : so.getHelpers()) {
+            if (hmi.helperLevel == Level.Pooled) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private boolean isAuxCompatible(String typeName) {
@@ -604,6 +631,9 @@ class StateObjectHandler {
                         result.add(so.localIdentifier + "." + mi.method.getName() + "(" + Utils.join(args, ",") + ");");
                     }
                 }
+                if (helperLevel == Level.Iteration && isPooled(so)) {
+                    result.addAll(poolLoop(so, so.localIdentifier + ".jmhPool", helperLevel, HelperType.SETUP));
+                }
             }
 
             if (so.scope == Scope.Benchmark || so.scope == Scope.Group) {
@@ -644,6 +674,9 @@ class StateObjectHandler {
                         result.add(so.localIdentifier + "." + mi.method.getName() + "(" + Utils.join(args, ",") + ");");
                     }
                 }
+                if ((helperLevel == Level.Iteration || helperLevel == Level.Trial) && isPooled(so)) {
+                    result.addAll(poolLoop(so, so.localIdentifier + ".jmhPool", helperLevel, HelperType.TEARDOWN));
+                }
             }
 
             if (so.scope == Scope.Benchmark || so.scope == Scope.Group) {
@@ -695,6 +728,86 @@ class StateObjectHandler {
         return !getInvocationSetups(method).isEmpty() || !getInvocationTearDowns(method).isEmpty();
     }
 
+    public boolean hasPooledStubs(MethodInfo method) {
+        return !getPooledStates(method).isEmpty();
+    }
+
+    private List<StateObject> getPooledStates(MethodInfo method) {
+        List<StateObject> result = new ArrayList<>();
+        for (StateObject so : stateOrder(method, true)) {
+            if (isPooled(so)) {
+                result.add(so);
+            }
+        }
+        return result;
+    }
+
+    private List<String> poolLoop(StateObject so, String pool, Level helperLevel, HelperType type) {
+        List<String> calls = new ArrayList<>();
+        for (HelperMethodInvocation mi : so.getHelpers()) {
+            if (mi.helperLevel == helperLevel && mi.type == type) {
+                Collection<String> args = so.helperArgs.get(mi.method.getQualifiedName());
+                calls.add("    " + so.localIdentifier + "_p." + mi.method.getName() + "(" + Utils.join(args, ",") + ");");
+            }
+        }
+
+        List<String> result = new ArrayList<>();
+        if (!calls.isEmpty()) {
+            result.add("for (" + so.type + " " + so.localIdentifier + "_p : " + pool + ") {");
+            result.addAll(calls);
+            result.add("}");
+        }
+        return result;
+    }
+
+    /**
+     * Pooled instances are captured before the measurement loop: the locals are then
+     * rebound to the pooled instances, one for every invocation.
+     */
+    public Collection<String> getPoolDeclarations(MethodInfo method) {
+        List<String> result = new ArrayList<>();
+        for (StateObject so : getPooledStates(method)) {
+            result.add(so.type + "[] " + so.localIdentifier + "_pool = " + so.localIdentifier + ".jmhPool;");
+        }
+        result.add("int poolSize = " + getPooledStates(method).get(0).localIdentifier + "_pool.length;");
+        return result;
+    }
+
+    public Collection<String> getPoolSetups(MethodInfo method) {
+        List<String> result = new ArrayList<>();
+        for (StateObject so : getPooledStates(method)) {
+            result.addAll(poolLoop(so, so.localIdentifier + "_pool", Level.Pooled, HelperType.SETUP));
+        }
+        return result;
+    }
+
+    public Collection<String> getPoolTearDowns(MethodInfo method) {
+        List<StateObject> sos = getPooledStates(method);
+        Collections.reverse(sos);
+
+        List<String> result = new ArrayList<>();
+        for (StateObject so : sos) {
+            result.addAll(poolLoop(so, so.localIdentifier + "_pool", Level.Pooled, HelperType.TEARDOWN));
+        }
+        return result;
+    }
+
+    public Collection<String> getPoolSelects(MethodInfo method, String index) {
+        List<String> result = new ArrayList<>();
+        for (StateObject so : getPooledStates(method)) {
+            result.add(so.localIdentifier + " = " + so.localIdentifier + "_pool[" + index + "];");
+        }
+        return result;
+    }
+
+    public Collection<String> getPooledSetups(MethodInfo method) {
+        return getHelperBlock(method, Level.Pooled, HelperType.SETUP);
+    }
+
+    public Collection<String> getPooledTearDowns(MethodInfo method) {
+        return getHelperBlock(method, Level.Pooled, HelperType.TEARDOWN);
+    }
+
     public Collection<String> getInvocationSetups(MethodInfo method) {
         return getHelperBlock(method, Level.Invocation, HelperType.SETUP);
     }
@@ -798,6 +911,26 @@ class StateObjectHandler {
                 Collection<String> args = so.helperArgs.get(hmi.method.getQualifiedName());
                 result.add("        val." + hmi.method.getName() + "(" + Utils.join(args, ",") + ");");
             }
+            if (isPooled(so)) {
+                result.add("        val.jmhPool = new " + so.type + "[InfraControl.POOL_SIZE];");
+                result.add("        for (int p = 0; p < val.jmhPool.length; p++) {");
+                result.add("            " + so.type + " inst = new " + so.type + "();");
+                for (String paramName : so.getParamsLabels()) {
+                    for (FieldInfo paramField : so.getParam(paramName)) {
+                        result.add("            f = " + paramField.getDeclaringClass().getQualifiedName() + ".class.getDeclaredField(\"" + paramName + "\");");
+                        result.add("            f.setAccessible(true);");
+                        result.add("            f.set(inst, " + so.getParamAccessor(paramField) + ");");
+                    }
+                }
+                for (HelperMethodInvocation hmi : so.getHelpers()) {
+                    if (hmi.helperLevel != Level.Trial) continue;
+                    if (hmi.type != HelperType.SETUP) continue;
+                    Collection<String> args = so.helperArgs.get(hmi.method.getQualifiedName());
+                    result.add("            inst." + hmi.method.getName() + "(" + Utils.join(args, ",") + ");");
+                }
+                result.add("            val.jmhPool[p] = inst;");
+                result.add("        }");
+            }
             result.add("        " + so.fieldIdentifier + " = val;");
             result.add("    }");
             result.add("    return val;");
@@ -995,6 +1128,9 @@ class StateObjectHandler {
 
                 pw.println("package " + so.packageName + ";");
                 pw.println("public class " + so.type + " extends " + so.type + "_B3 {");
+                if (isPooled(so)) {
+                    pw.println("    public " + so.type + "[] jmhPool;");
+                }
                 pw.println("}");
                 pw.println("");
 
@@ -26,6 +26,7 @@ package org.openjdk.jmh.infra;
 
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.runner.WorkloadParams;
+import org.openjdk.jmh.runner.options.ArrivalProcess;
 import org.openjdk.jmh.runner.options.TimeValue;
 import org.openjdk.jmh.util.Utils;
 import org.openjdk.jmh.util.Version;
@@ -53,6 +54,11 @@ import java.util.concurrent.TimeUnit;
 public class BenchmarkParams extends BenchmarkParamsL4 {
     private static final long serialVersionUID = -1068219503090299117L;
 
+    /**
+     * Executor type the worker threads run on, unless overridden with {@code -Djmh.executor}.
+     */
+    public static final String DEFAULT_EXECUTOR = "FIXED_TPE";
+
     /**
      * Do the class hierarchy trick to evade false sharing, and check if it's working in runtime.
      * @see org.openjdk.jmh.infra.Blackhole description for the rationale
@@ -64,6 +70,9 @@ public class BenchmarkParams extends BenchmarkParamsL4 {
         Utils.check(BenchmarkParams.class, "mode", "params");
         Utils.check(BenchmarkParams.class, "timeUnit", "opsPerInvocation");
         Utils.check(BenchmarkParams.class, "jvm", "jvmArgs");
+        Utils.check(BenchmarkParams.class, "timeout", "executor");
+        Utils.check(BenchmarkParams.class, "arrivalRate", "arrivalProcess");
+        Utils.check(BenchmarkParams.class, "coInterval", "seriesInterval", "timerCompensation", "cpuTime", "maxInFlight");
     }
 
     public BenchmarkParams(String benchmark, String generatedTarget, boolean synchIterations,
@@ -74,7 +83,10 @@ public class BenchmarkParams extends BenchmarkParamsL4 {
                            TimeUnit timeUnit, int opsPerInvocation,
                            String jvm, Collection<String> jvmArgs,
                            String jdkVersion, String vmName, String vmVersion, String jmhVersion,
-                           TimeValue timeout) {
+                           TimeValue timeout, String executor,
+                           int arrivalRate, ArrivalProcess arrivalProcess,
+                           TimeValue coInterval, TimeValue seriesInterval, boolean timerCompensation,
+                           boolean cpuTime, int maxInFlight) {
         super(benchmark, generatedTarget, synchIterations,
                 threads, threadGroups, threadGroupLabels,
                 forks, warmupForks,
@@ -83,7 +95,10 @@ public class BenchmarkParams extends BenchmarkParamsL4 {
                 timeUnit, opsPerInvocation,
                 jvm, jvmArgs,
                 jdkVersion, vmName, vmVersion, jmhVersion,
-                timeout);
+                timeout, executor,
+                arrivalRate, arrivalProcess,
+                coInterval, seriesInterval, timerCompensation,
+                cpuTime, maxInFlight);
     }
 }
 
@@ -99,7 +114,10 @@ abstract class BenchmarkParamsL4 extends BenchmarkParamsL3 {
                              TimeUnit timeUnit, int opsPerInvocation,
                              String jvm, Collection<String> jvmArgs,
                              String jdkVersion, String vmName, String vmVersion, String jmhVersion,
-                             TimeValue timeout) {
+                             TimeValue timeout, String executor,
+                             int arrivalRate, ArrivalProcess arrivalProcess,
+                             TimeValue coInterval, TimeValue seriesInterval, boolean timerCompensation,
+                             boolean cpuTime, int maxInFlight) {
         super(benchmark, generatedTarget, synchIterations,
                 threads, threadGroups, threadGroupLabels,
                 forks, warmupForks,
@@ -108,7 +126,10 @@ abstract class BenchmarkParamsL4 extends BenchmarkParamsL3 {
                 timeUnit, opsPerInvocation,
                 jvm, jvmArgs,
                 jdkVersion, vmName, vmVersion, jmhVersion,
-                timeout);
+                timeout, executor,
+                arrivalRate, arrivalProcess,
+                coInterval, seriesInterval, timerCompensation,
+                cpuTime, maxInFlight);
     }
 }
 
@@ -140,7 +161,10 @@ abstract class BenchmarkParamsL3 extends BenchmarkParamsL2 {
                              TimeUnit timeUnit, int opsPerInvocation,
                              String jvm, Collection<String> jvmArgs,
                              String jdkVersion, String vmName, String vmVersion, String jmhVersion,
-                             TimeValue timeout) {
+                             TimeValue timeout, String executor,
+                             int arrivalRate, ArrivalProcess arrivalProcess,
+                             TimeValue coInterval, TimeValue seriesInterval, boolean timerCompensation,
+                             boolean cpuTime, int maxInFlight) {
         super(benchmark, generatedTarget, synchIterations,
                 threads, threadGroups, threadGroupLabels,
                 forks, warmupForks,
@@ -149,7 +173,10 @@ abstract class BenchmarkParamsL3 extends BenchmarkParamsL2 {
                 timeUnit, opsPerInvocation,
                 jvm, jvmArgs,
                 jdkVersion, vmName, vmVersion, jmhVersion,
-                timeout);
+                timeout, executor,
+                arrivalRate, arrivalProcess,
+                coInterval, seriesInterval, timerCompensation,
+                cpuTime, maxInFlight);
     }
 }
 
@@ -200,6 +227,14 @@ abstract class BenchmarkParamsL2 extends BenchmarkParamsL1 implements Serializab
     protected final String vmName;
     protected final String vmVersion;
     protected final TimeValue timeout;
+    protected final String executor;
+    protected final int arrivalRate;
+    protected final ArrivalProcess arrivalProcess;
+    protected final TimeValue coInterval;
+    protected final TimeValue seriesInterval;
+    protected final boolean timerCompensation;
+    protected final boolean cpuTime;
+    protected final int maxInFlight;
 
     public BenchmarkParamsL2(String benchmark, String generatedTarget, boolean synchIterations,
                              int threads, int[] threadGroups, Collection<String> threadGroupLabels,
@@ -209,7 +244,10 @@ abstract class BenchmarkParamsL2 extends BenchmarkParamsL1 implements Serializab
                              TimeUnit timeUnit, int opsPerInvocation,
                              String jvm, Collection<String> jvmArgs,
                              String jdkVersion, String vmName, String vmVersion, String jmhVersion,
-                             TimeValue timeout) {
+                             TimeValue timeout, String executor,
+                             int arrivalRate, ArrivalProcess arrivalProcess,
+                             TimeValue coInterval, TimeValue seriesInterval, boolean timerCompensation,
+                             boolean cpuTime, int maxInFlight) {
         this.benchmark = benchmark;
         this.generatedTarget = generatedTarget;
         this.synchIterations = synchIterations;
@@ -231,6 +269,14 @@ abstract class BenchmarkParamsL2 extends BenchmarkParamsL1 implements Serializab
         this.vmVersion = vmVersion;
         this.jmhVersion = jmhVersion;
         this.timeout = timeout;
+        this.executor = executor;
+        this.arrivalRate = arrivalRate;
+        this.arrivalProcess = arrivalProcess;
+        this.coInterval = coInterval;
+        this.seriesInterval = seriesInterval;
+        this.timerCompensation = timerCompensation;
+        this.cpuTime = cpuTime;
+        this.maxInFlight = maxInFlight;
     }
 
     /**
@@ -240,6 +286,64 @@ abstract class BenchmarkParamsL2 extends BenchmarkParamsL1 implements Serializab
         return timeout;
     }
 
+    /**
+     * @return executor type the worker threads run on, see {@code -Djmh.executor}
+     */
+    public String getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return target arrival rate for {@link Mode#RateLimited}, operations per second per thread
+     */
+    public int getArrivalRate() {
+        return arrivalRate;
+    }
+
+    /**
+     * @return arrival process for {@link Mode#RateLimited}
+     */
+    public ArrivalProcess getArrivalProcess() {
+        return arrivalProcess;
+    }
+
+    /**
+     * @return expected interval between operations for coordinated omission correction
+     *         in {@link Mode#SampleTime}; {@link TimeValue#NONE}, if correction is disabled
+     */
+    public TimeValue getCoInterval() {
+        return coInterval;
+    }
+
+    /**
+     * @return sub-interval length for intra-iteration time series; {@link TimeValue#NONE},
+     *         if time series are disabled
+     */
+    public TimeValue getSeriesInterval() {
+        return seriesInterval;
+    }
+
+    /**
+     * @return should the calibrated timer overhead be subtracted from {@link Mode#SampleTime} samples?
+     */
+    public boolean shouldCompensateTimer() {
+        return timerCompensation;
+    }
+
+    /**
+     * @return should the per-thread CPU time be measured along with the wall time?
+     */
+    public boolean shouldMeasureCpuTime() {
+        return cpuTime;
+    }
+
+    /**
+     * @return maximum number of in-flight operations per thread for asynchronous benchmarks
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
     /**
      * @return do we synchronize iterations?
      */
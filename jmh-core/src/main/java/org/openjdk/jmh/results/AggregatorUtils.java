@@ -24,10 +24,21 @@
  */
 package org.openjdk.jmh.results;
 
+import org.openjdk.jmh.util.ListStatistics;
+import org.openjdk.jmh.util.Statistics;
+import org.openjdk.jmh.util.TDigestStatistics;
+
 import java.util.Collection;
 
 public final class AggregatorUtils {
 
+    /**
+     * Number of aggregated scores past which the scores are kept in the streaming
+     * quantile sketch instead of the list. Sketch keeps the memory footprint and
+     * percentile computation cost bounded, at the expense of approximate percentiles.
+     */
+    static final int SKETCH_THRESHOLD = Integer.getInteger("jmh.aggregation.sketchThreshold", 10_000);
+
     private AggregatorUtils() {
         // prevent instantation
     }
@@ -80,4 +91,27 @@ public final class AggregatorUtils {
         return result;
     }
 
+    /**
+     * Aggregates the scores of the given results into the statistics. Small result sets
+     * are kept exactly, large result sets are kept in the {@link TDigestStatistics} sketch.
+     *
+     * @param results results to aggregate
+     * @return statistics over scores
+     */
+    static Statistics aggregateScores(Collection<? extends Result> results) {
+        if (results.size() > SKETCH_THRESHOLD) {
+            TDigestStatistics stats = new TDigestStatistics();
+            for (Result r : results) {
+                stats.addValue(r.getScore());
+            }
+            return stats;
+        } else {
+            ListStatistics stats = new ListStatistics();
+            for (Result r : results) {
+                stats.addValue(r.getScore());
+            }
+            return stats;
+        }
+    }
+
 }
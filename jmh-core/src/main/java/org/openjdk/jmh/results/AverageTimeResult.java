@@ -25,7 +25,6 @@
 package org.openjdk.jmh.results;
 
 import org.openjdk.jmh.runner.options.TimeValue;
-import org.openjdk.jmh.util.ListStatistics;
 import org.openjdk.jmh.util.Statistics;
 
 import java.util.Collection;
@@ -60,10 +59,7 @@ public class AverageTimeResult extends Result<AverageTimeResult> {
     static class ResultAggregator implements Aggregator<AverageTimeResult> {
         @Override
         public AverageTimeResult aggregate(Collection<AverageTimeResult> results) {
-            ListStatistics stat = new ListStatistics();
-            for (AverageTimeResult r : results) {
-                stat.addValue(r.getScore());
-            }
+            Statistics stat = AggregatorUtils.aggregateScores(results);
             return new AverageTimeResult(
                     AggregatorUtils.aggregateRoles(results),
                     AggregatorUtils.aggregateLabels(results),
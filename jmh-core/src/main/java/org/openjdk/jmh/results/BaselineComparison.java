@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results;
+
+import org.apache.commons.math3.stat.inference.MannWhitneyUTest;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.util.ScoreFormatter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Comparison of the benchmark result against its baseline.
+ *
+ * <p>Speedup is the ratio of scores, oriented so that values above 1 are improvements:
+ * current over baseline for throughput, and baseline over current for time per operation.
+ * Per-iteration scores of both runs are compared with the Mann-Whitney U test, and the
+ * confidence interval for the speedup is estimated with the bootstrap. The difference is
+ * significant if the test rejects the null hypothesis at {@link #ALPHA}, and the confidence
+ * interval does not include 1. The significant slowdown is the regression if the whole
+ * confidence interval is below {@code 1 - threshold}.</p>
+ */
+public class BaselineComparison {
+
+    /**
+     * Significance level; the confidence interval is at {@code 1 - ALPHA}.
+     */
+    public static final double ALPHA = 0.01;
+
+    /**
+     * Number of bootstrap resamples.
+     */
+    static final int RESAMPLES = 10000;
+
+    /**
+     * Fixed seed keeps the comparison reproducible.
+     */
+    private static final long SEED = 42;
+
+    public enum Verdict {
+        /**
+         * Significantly faster.
+         */
+        FASTER,
+
+        /**
+         * No significant difference.
+         */
+        SAME,
+
+        /**
+         * Significantly slower, but within the threshold.
+         */
+        SLOWER,
+
+        /**
+         * Significantly slower, and beyond the threshold.
+         */
+        REGRESSION,
+
+        /**
+         * Not enough per-iteration data to test.
+         */
+        UNKNOWN,
+    }
+
+    private final ResultRecord baseline;
+    private final ResultRecord current;
+    private final double speedup;
+    private final double ciLow;
+    private final double ciHigh;
+    private final double pValue;
+    private final Verdict verdict;
+
+    private BaselineComparison(ResultRecord baseline, ResultRecord current, double speedup,
+                               double ciLow, double ciHigh, double pValue, Verdict verdict) {
+        this.baseline = baseline;
+        this.current = current;
+        this.speedup = speedup;
+        this.ciLow = ciLow;
+        this.ciHigh = ciHigh;
+        this.pValue = pValue;
+        this.verdict = verdict;
+    }
+
+    /**
+     * Compares the result against the baseline.
+     *
+     * @param baseline baseline result
+     * @param current current result
+     * @param threshold tolerated slowdown, as the fraction of the baseline
+     * @return comparison
+     * @throws IllegalArgumentException if results are not comparable
+     */
+    public static BaselineComparison compare(ResultRecord baseline, ResultRecord current, double threshold) {
+        if (!baseline.getKey().equals(current.getKey())) {
+            throw new IllegalArgumentException("Comparing different benchmarks: " + baseline.getKey() + " and " + current.getKey());
+        }
+        if (!baseline.getScoreUnit().equals(current.getScoreUnit())) {
+            throw new IllegalArgumentException("Score units differ for " + current.getLabel() + ": " +
+                    baseline.getScoreUnit() + " and " + current.getScoreUnit());
+        }
+
+        boolean higherIsBetter = current.getMode() == Mode.Throughput;
+        double speedup = ratio(baseline.getScore(), current.getScore(), higherIsBetter);
+
+        double[] b = baseline.getRawData();
+        double[] c = current.getRawData();
+        if (b.length < 2 || c.length < 2) {
+            return new BaselineComparison(baseline, current, speedup, Double.NaN, Double.NaN, Double.NaN, Verdict.UNKNOWN);
+        }
+
+        double pValue = new MannWhitneyUTest().mannWhitneyUTest(b, c);
+
+        double[] ratios = new double[RESAMPLES];
+        Random r = new Random(SEED);
+        for (int i = 0; i < RESAMPLES; i++) {
+            ratios[i] = ratio(resampledMean(b, r), resampledMean(c, r), higherIsBetter);
+        }
+        Arrays.sort(ratios);
+        double ciLow = ratios[(int) Math.floor((ALPHA / 2) * (RESAMPLES - 1))];
+        double ciHigh = ratios[(int) Math.ceil((1 - ALPHA / 2) * (RESAMPLES - 1))];
+
+        Verdict verdict;
+        boolean significant = pValue < ALPHA && (ciLow > 1 || ciHigh < 1);
+        if (!significant) {
+            verdict = Verdict.SAME;
+        } else if (speedup > 1) {
+            verdict = Verdict.FASTER;
+        } else if (ciHigh < 1 - threshold) {
+            verdict = Verdict.REGRESSION;
+        } else {
+            verdict = Verdict.SLOWER;
+        }
+
+        return new BaselineComparison(baseline, current, speedup, ciLow, ciHigh, pValue, verdict);
+    }
+
+    private static double ratio(double baseline, double current, boolean higherIsBetter) {
+        return higherIsBetter ? current / baseline : baseline / current;
+    }
+
+    private static double resampledMean(double[] data, Random r) {
+        double sum = 0;
+        for (int i = 0; i < data.length; i++) {
+            sum += data[r.nextInt(data.length)];
+        }
+        return sum / data.length;
+    }
+
+    public ResultRecord getBaseline() {
+        return baseline;
+    }
+
+    public ResultRecord getCurrent() {
+        return current;
+    }
+
+    /**
+     * @return speedup over the baseline; above 1 is better
+     */
+    public double getSpeedup() {
+        return speedup;
+    }
+
+    /**
+     * @return lower bound of the speedup confidence interval; {@link Double#NaN} if unknown
+     */
+    public double getSpeedupLow() {
+        return ciLow;
+    }
+
+    /**
+     * @return upper bound of the speedup confidence interval; {@link Double#NaN} if unknown
+     */
+    public double getSpeedupHigh() {
+        return ciHigh;
+    }
+
+    /**
+     * @return p-value of the Mann-Whitney U test; {@link Double#NaN} if unknown
+     */
+    public double getPValue() {
+        return pValue;
+    }
+
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    /**
+     * Formats the comparisons as the table.
+     *
+     * @param comparisons comparisons
+     * @return table lines
+     */
+    public static List<String> formatTable(Collection<BaselineComparison> comparisons) {
+        String[] header = {"Benchmark", "Mode", "Baseline", "Current", "Units", "Speedup",
+                String.format("%.0f%% CI", (1 - ALPHA) * 100), "p-value", "Verdict"};
+        List<String[]> rows = new ArrayList<>();
+        rows.add(header);
+        for (BaselineComparison c : comparisons) {
+            boolean known = c.verdict != Verdict.UNKNOWN;
+            rows.add(new String[]{
+                    c.current.getLabel(),
+                    c.current.getMode().shortLabel(),
+                    ScoreFormatter.format(c.baseline.getScore()),
+                    ScoreFormatter.format(c.current.getScore()),
+                    c.current.getScoreUnit(),
+                    String.format("%.3f", c.speedup),
+                    known ? String.format("[%.3f, %.3f]", c.ciLow, c.ciHigh) : "",
+                    known ? String.format("%.4f", c.pValue) : "",
+                    (c.verdict == Verdict.REGRESSION) ? "*** REGRESSION" : c.verdict.toString().toLowerCase(),
+            });
+        }
+
+        int[] widths = new int[header.length];
+        for (String[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                widths[i] = Math.max(widths[i], row[i].length());
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (String[] row : rows) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    sb.append("  ");
+                }
+                // benchmark and verdict are left-aligned
+                String fmt = (i == 0 || i == row.length - 1) ? "%-" + widths[i] + "s" : "%" + widths[i] + "s";
+                sb.append(String.format(fmt, row[i]));
+            }
+            lines.add(sb.toString().replaceAll("\\s+$", ""));
+        }
+        return lines;
+    }
+
+}
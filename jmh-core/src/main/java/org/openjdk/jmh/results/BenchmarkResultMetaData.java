@@ -36,14 +36,29 @@ public class BenchmarkResultMetaData implements Serializable {
     private final long stopTime;
     private final long warmupOps;
     private final long measurementOps;
+    private final int warmupIterations;
+    private final double timerLatency;
+    private final double timerGranularity;
 
     public BenchmarkResultMetaData(long warmupTime, long measurementTime, long stopTime, long warmupOps, long measurementOps) {
+        this(warmupTime, measurementTime, stopTime, warmupOps, measurementOps, -1);
+    }
+
+    public BenchmarkResultMetaData(long warmupTime, long measurementTime, long stopTime, long warmupOps, long measurementOps, int warmupIterations) {
+        this(warmupTime, measurementTime, stopTime, warmupOps, measurementOps, warmupIterations, Double.NaN, Double.NaN);
+    }
+
+    public BenchmarkResultMetaData(long warmupTime, long measurementTime, long stopTime, long warmupOps, long measurementOps, int warmupIterations,
+                                   double timerLatency, double timerGranularity) {
         this.startTime = Long.MIN_VALUE;
         this.warmupTime = warmupTime;
         this.measurementTime = measurementTime;
         this.stopTime = stopTime;
         this.warmupOps = warmupOps;
         this.measurementOps = measurementOps;
+        this.warmupIterations = warmupIterations;
+        this.timerLatency = timerLatency;
+        this.timerGranularity = timerGranularity;
     }
 
     public long getStartTime() {
@@ -73,6 +88,34 @@ public class BenchmarkResultMetaData implements Serializable {
         return warmupOps;
     }
 
+    /**
+     * Number of warmup iterations actually executed. This is the configured
+     * warmup count, unless steady-state warmup had chosen the warmup length.
+     *
+     * @return number of warmup iterations, -1 if unknown
+     */
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+
+    /**
+     * Latency of {@link System#nanoTime()}, as calibrated in the VM that ran the benchmark.
+     *
+     * @return timer latency, ns; NaN if unknown
+     */
+    public double getTimerLatency() {
+        return timerLatency;
+    }
+
+    /**
+     * Granularity of {@link System#nanoTime()}, as calibrated in the VM that ran the benchmark.
+     *
+     * @return timer granularity, ns; NaN if unknown
+     */
+    public double getTimerGranularity() {
+        return timerGranularity;
+    }
+
     public void adjustStart(long startTime) {
         this.startTime = startTime;
     }
@@ -41,6 +41,11 @@ public class IterationResult implements Serializable {
     private static final Multimap<String, Result> EMPTY_MAP = new TreeMultimap<>();
     private static final List<Result> EMPTY_LIST = Collections.emptyList();
 
+    /**
+     * Composable thread results are folded after this many accumulate.
+     */
+    private static final int FOLD_THRESHOLD = 1024;
+
     private final BenchmarkParams benchmarkParams;
     private final IterationParams params;
     private final IterationResultMetaData metadata;
@@ -76,6 +81,11 @@ public class IterationResult implements Serializable {
                 primaryResults = newResults;
             } else {
                 primaryResults.add(result);
+                if (primaryResults.size() >= FOLD_THRESHOLD && result.isThreadAggregationComposable()) {
+                    List<Result> newResults = new ArrayList<>();
+                    newResults.add(aggregate(primaryResults));
+                    primaryResults = newResults;
+                }
             }
         }
 
@@ -83,10 +93,24 @@ public class IterationResult implements Serializable {
             if (secondaryResults == EMPTY_MAP) {
                 secondaryResults = new TreeMultimap<>();
             }
-            secondaryResults.put(result.getLabel(), result);
+            String label = result.getLabel();
+            secondaryResults.put(label, result);
+
+            Collection<Result> rs = secondaryResults.get(label);
+            if (rs.size() >= FOLD_THRESHOLD && result.isThreadAggregationComposable()) {
+                Result folded = aggregate(rs);
+                secondaryResults.remove(label);
+                secondaryResults.put(label, folded);
+            }
         }
     }
 
+    private static Result aggregate(Collection<Result> results) {
+        @SuppressWarnings("unchecked")
+        Aggregator<Result> aggregator = results.iterator().next().getThreadAggregator();
+        return aggregator.aggregate(results);
+    }
+
     public Collection<Result> getRawPrimaryResults() {
         return primaryResults;
     }
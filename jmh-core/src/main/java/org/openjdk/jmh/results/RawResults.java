@@ -24,6 +24,8 @@
  */
 package org.openjdk.jmh.results;
 
+import org.openjdk.jmh.runner.TimeSeriesRecorder;
+
 public class RawResults {
 
     public long allOps;
@@ -31,6 +33,9 @@ public class RawResults {
     public long realTime;
     public long startTime;
     public long stopTime;
+    public long cpuTime;
+    public long wallTime;
+    public TimeSeriesRecorder series;
 
     public long getTime() {
         return (realTime > 0) ? realTime : (stopTime - startTime);
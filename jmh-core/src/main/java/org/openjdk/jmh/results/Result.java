@@ -24,6 +24,7 @@
  */
 package org.openjdk.jmh.results;
 
+import org.openjdk.jmh.util.ConfidenceMethod;
 import org.openjdk.jmh.util.Deduplicator;
 import org.openjdk.jmh.util.ScoreFormatter;
 import org.openjdk.jmh.util.SingletonStatistics;
@@ -125,9 +126,19 @@ public abstract class Result<T extends Result<T>> implements Serializable {
      * @see #getScore()
      */
     public double getScoreError() {
+        return getScoreError(ConfidenceMethod.STUDENT);
+    }
+
+    /**
+     * The score error for this result, computed with the given method.
+     * @param method confidence interval method
+     * @return score error, if available
+     * @see #getScore()
+     */
+    public double getScoreError(ConfidenceMethod method) {
         switch (policy) {
             case AVG:
-                return statistics.getMeanErrorAt(0.999);
+                return statistics.getMeanErrorAt(0.999, method);
             case SUM:
             case MIN:
             case MAX:
@@ -143,9 +154,19 @@ public abstract class Result<T extends Result<T>> implements Serializable {
      * @see #getScore()
      */
     public double[] getScoreConfidence() {
+        return getScoreConfidence(ConfidenceMethod.STUDENT);
+    }
+
+    /**
+     * The score confidence interval for this result, computed with the given method.
+     * @param method confidence interval method
+     * @return score confidence interval, if available; if not, the CI will match {@link #getScore()}
+     * @see #getScore()
+     */
+    public double[] getScoreConfidence(ConfidenceMethod method) {
         switch (policy) {
             case AVG:
-                return statistics.getConfidenceIntervalAt(0.999);
+                return statistics.getConfidenceIntervalAt(0.999, method);
             case MAX:
             case MIN:
             case SUM:
@@ -176,6 +197,16 @@ public abstract class Result<T extends Result<T>> implements Serializable {
      */
     protected abstract Aggregator<T> getIterationAggregator();
 
+    /**
+     * Tells if thread aggregation is composable, i.e. aggregating the partially aggregated
+     * results yields the same result as aggregating all thread results at once. This allows
+     * to fold the thread results early, and keep the footprint bounded with lots of threads.
+     * @return true, if thread aggregator is composable
+     */
+    protected boolean isThreadAggregationComposable() {
+        return false;
+    }
+
     /**
      * Returns "0" result. This is used for un-biased aggregation of secondary results.
      * For instance, profilers might omit results in some iterations, thus we should pretend there were 0 results.
@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results;
+
+import org.openjdk.jmh.util.ListStatistics;
+import org.openjdk.jmh.util.SampleBuffer;
+import org.openjdk.jmh.util.SingletonStatistics;
+import org.openjdk.jmh.util.Statistics;
+import org.openjdk.jmh.util.Utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compact binary encoding for the results. Built-in results are encoded
+ * field by field, with labels and units interned in the per-stream string
+ * table. Everything else falls back to Java serialization.
+ *
+ * <p>Codec is stateful, and should be used either for writing or for reading
+ * the single stream. Codec is not thread-safe.
+ */
+public class ResultCodec {
+
+    private static final int RESULT_SERIALIZED     = 0;
+    private static final int RESULT_THROUGHPUT     = 1;
+    private static final int RESULT_AVERAGE_TIME   = 2;
+    private static final int RESULT_SAMPLE_TIME    = 3;
+    private static final int RESULT_SINGLE_SHOT    = 4;
+    private static final int RESULT_SCALAR         = 5;
+    private static final int RESULT_SCALAR_DERIVED = 6;
+    private static final int RESULT_TEXT           = 7;
+
+    private static final int STAT_SERIALIZED = 0;
+    private static final int STAT_SINGLETON  = 1;
+    private static final int STAT_LIST       = 2;
+
+    private static final ResultRole[] ROLES = ResultRole.values();
+    private static final AggregationPolicy[] POLICIES = AggregationPolicy.values();
+    private static final TimeUnit[] TIME_UNITS = TimeUnit.values();
+
+    private final Map<String, Integer> writtenStrings = new HashMap<>();
+    private final List<String> readStrings = new ArrayList<>();
+
+    /**
+     * Writes the string, interning it in the string table. Use this for
+     * the strings that repeat often, e.g. labels and units.
+     *
+     * @param out output
+     * @param s string, may be null
+     * @throws IOException if output fails
+     */
+    public void writeString(DataOutput out, String s) throws IOException {
+        if (s == null) {
+            Utils.writeVarLong(out, 0);
+            return;
+        }
+
+        Integer id = writtenStrings.get(s);
+        if (id != null) {
+            Utils.writeVarLong(out, (id + 1L) << 1);
+        } else {
+            writtenStrings.put(s, writtenStrings.size());
+            Utils.writeVarLong(out, 1);
+            writeText(out, s);
+        }
+    }
+
+    /**
+     * Reads the string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in input
+     * @return string, may be null
+     * @throws IOException if input fails, or data is malformed
+     */
+    public String readString(DataInput in) throws IOException {
+        long v = Utils.readVarLong(in);
+        if (v == 0) {
+            return null;
+        }
+        if (v == 1) {
+            String s = readText(in);
+            readStrings.add(s);
+            return s;
+        }
+
+        long id = (v >> 1) - 1;
+        if ((v & 1) != 0 || id >= readStrings.size()) {
+            throw new IOException("Malformed string reference: " + v);
+        }
+        return readStrings.get((int) id);
+    }
+
+    /**
+     * Writes the string as is, without interning.
+     *
+     * @param out output
+     * @param s string, not null
+     * @throws IOException if output fails
+     */
+    public void writeText(DataOutput out, String s) throws IOException {
+        writeBytes(out, s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the string written by {@link #writeText(DataOutput, String)}.
+     *
+     * @param in input
+     * @return string
+     * @throws IOException if input fails, or data is malformed
+     */
+    public String readText(DataInput in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the length-prefixed byte array.
+     *
+     * @param out output
+     * @param bytes bytes
+     * @throws IOException if output fails
+     */
+    public void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        Utils.writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the byte array written by {@link #writeBytes(DataOutput, byte[])}.
+     *
+     * @param in input
+     * @return bytes
+     * @throws IOException if input fails, or data is malformed
+     */
+    public byte[] readBytes(DataInput in) throws IOException {
+        long len = Utils.readVarLong(in);
+        if (len > Integer.MAX_VALUE) {
+            throw new IOException("Malformed array length: " + len);
+        }
+        byte[] bytes = new byte[(int) len];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes the object with Java serialization.
+     *
+     * @param out output
+     * @param o object
+     * @throws IOException if output fails
+     */
+    public void writeSerialized(DataOutput out, Object o) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(o);
+        }
+        writeBytes(out, bos.toByteArray());
+    }
+
+    /**
+     * Reads the object written by {@link #writeSerialized(DataOutput, Object)}.
+     *
+     * @param in input
+     * @return object
+     * @throws IOException if input fails, or data is malformed
+     */
+    public Object readSerialized(DataInput in) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+            return ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Writes the result.
+     *
+     * @param out output
+     * @param r result
+     * @throws IOException if output fails
+     */
+    public void writeResult(DataOutput out, Result r) throws IOException {
+        // Only exact classes are encoded field by field: subclasses might carry their own state.
+        Class<?> klass = r.getClass();
+        if (klass == ThroughputResult.class) {
+            out.writeByte(RESULT_THROUGHPUT);
+            writeCommon(out, r);
+        } else if (klass == AverageTimeResult.class) {
+            out.writeByte(RESULT_AVERAGE_TIME);
+            writeCommon(out, r);
+        } else if (klass == SingleShotResult.class) {
+            out.writeByte(RESULT_SINGLE_SHOT);
+            writeCommon(out, r);
+        } else if (klass == ScalarResult.class) {
+            out.writeByte(RESULT_SCALAR);
+            writeCommon(out, r);
+        } else if (klass == ScalarDerivativeResult.class) {
+            out.writeByte(RESULT_SCALAR_DERIVED);
+            writeCommon(out, r);
+        } else if (klass == SampleTimeResult.class) {
+            SampleTimeResult str = (SampleTimeResult) r;
+            out.writeByte(RESULT_SAMPLE_TIME);
+            out.writeByte(r.role.ordinal());
+            writeString(out, r.label);
+            writeString(out, r.unit);
+            out.writeByte(str.outputTimeUnit.ordinal());
+            str.buffer.write(out);
+        } else if (klass == TextResult.class) {
+            TextResult tr = (TextResult) r;
+            out.writeByte(RESULT_TEXT);
+            writeString(out, tr.label);
+            writeText(out, tr.output);
+        } else {
+            out.writeByte(RESULT_SERIALIZED);
+            writeSerialized(out, r);
+        }
+    }
+
+    /**
+     * Reads the result written by {@link #writeResult(DataOutput, Result)}.
+     *
+     * @param in input
+     * @return result
+     * @throws IOException if input fails, or data is malformed
+     */
+    public Result readResult(DataInput in) throws IOException {
+        int kind = in.readUnsignedByte();
+        switch (kind) {
+            case RESULT_THROUGHPUT: {
+                ResultRole role = readEnum(in, ROLES);
+                String label = readString(in);
+                String unit = readString(in);
+                AggregationPolicy policy = readEnum(in, POLICIES);
+                return new ThroughputResult(role, label, readStatistics(in), unit, policy);
+            }
+            case RESULT_AVERAGE_TIME: {
+                ResultRole role = readEnum(in, ROLES);
+                String label = readString(in);
+                String unit = readString(in);
+                readEnum(in, POLICIES);
+                return new AverageTimeResult(role, label, readStatistics(in), unit);
+            }
+            case RESULT_SINGLE_SHOT: {
+                ResultRole role = readEnum(in, ROLES);
+                String label = readString(in);
+                String unit = readString(in);
+                readEnum(in, POLICIES);
+                return new SingleShotResult(role, label, readStatistics(in), unit);
+            }
+            case RESULT_SCALAR: {
+                readEnum(in, ROLES);
+                String label = readString(in);
+                String unit = readString(in);
+                AggregationPolicy policy = readEnum(in, POLICIES);
+                return new ScalarResult(label, readStatistics(in), unit, policy);
+            }
+            case RESULT_SCALAR_DERIVED: {
+                readEnum(in, ROLES);
+                String label = readString(in);
+                String unit = readString(in);
+                AggregationPolicy policy = readEnum(in, POLICIES);
+                return new ScalarDerivativeResult(label, readStatistics(in), unit, policy);
+            }
+            case RESULT_SAMPLE_TIME: {
+                ResultRole role = readEnum(in, ROLES);
+                String label = readString(in);
+                String unit = readString(in);
+                TimeUnit tu = readEnum(in, TIME_UNITS);
+                return new SampleTimeResult(role, label, SampleBuffer.read(in), unit, tu);
+            }
+            case RESULT_TEXT: {
+                String label = readString(in);
+                return new TextResult(readText(in), label);
+            }
+            case RESULT_SERIALIZED:
+                return (Result) readSerialized(in);
+            default:
+                throw new IOException("Unknown result kind: " + kind);
+        }
+    }
+
+    private void writeCommon(DataOutput out, Result r) throws IOException {
+        out.writeByte(r.role.ordinal());
+        writeString(out, r.label);
+        writeString(out, r.unit);
+        out.writeByte(r.policy.ordinal());
+        writeStatistics(out, r.statistics);
+    }
+
+    private void writeStatistics(DataOutput out, Statistics s) throws IOException {
+        Class<?> klass = s.getClass();
+        if (klass == SingletonStatistics.class) {
+            out.writeByte(STAT_SINGLETON);
+            out.writeDouble(s.getMax());
+        } else if (klass == ListStatistics.class) {
+            out.writeByte(STAT_LIST);
+            Utils.writeVarLong(out, s.getN());
+            Iterator<Map.Entry<Double, Long>> it = s.getRawData();
+            while (it.hasNext()) {
+                out.writeDouble(it.next().getKey());
+            }
+        } else {
+            out.writeByte(STAT_SERIALIZED);
+            writeSerialized(out, s);
+        }
+    }
+
+    private Statistics readStatistics(DataInput in) throws IOException {
+        int kind = in.readUnsignedByte();
+        switch (kind) {
+            case STAT_SINGLETON:
+                return new SingletonStatistics(in.readDouble());
+            case STAT_LIST: {
+                long n = Utils.readVarLong(in);
+                if (n > Integer.MAX_VALUE) {
+                    throw new IOException("Malformed statistics length: " + n);
+                }
+                double[] values = new double[(int) n];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = in.readDouble();
+                }
+                return new ListStatistics(values);
+            }
+            case STAT_SERIALIZED:
+                return (Statistics) readSerialized(in);
+            default:
+                throw new IOException("Unknown statistics kind: " + kind);
+        }
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInput in, E[] values) throws IOException {
+        int ord = in.readUnsignedByte();
+        if (ord >= values.length) {
+            throw new IOException("Malformed enum ordinal: " + ord);
+        }
+        return values[ord];
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Primary result of the benchmark, as recorded in the result file: benchmark identity,
+ * score, and the per-iteration scores from all forks. This is what is needed to compare
+ * the runs, without reconstructing the complete {@link RunResult}.
+ */
+public class ResultRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String benchmark;
+    private final Mode mode;
+    private final SortedMap<String, String> params;
+    private final String scoreUnit;
+    private final double score;
+    private final double[] rawData;
+
+    public ResultRecord(String benchmark, Mode mode, Map<String, String> params,
+                        String scoreUnit, double score, double[] rawData) {
+        this.benchmark = benchmark;
+        this.mode = mode;
+        this.params = Collections.unmodifiableSortedMap(new TreeMap<>(params));
+        this.scoreUnit = scoreUnit;
+        this.score = score;
+        this.rawData = rawData.clone();
+    }
+
+    /**
+     * Records the run result.
+     *
+     * @param result run result
+     * @return record
+     */
+    public static ResultRecord of(RunResult result) {
+        BenchmarkParams bp = result.getParams();
+
+        Map<String, String> params = new TreeMap<>();
+        for (String k : bp.getParamsKeys()) {
+            params.put(k, bp.getParam(k));
+        }
+
+        List<Double> data = new ArrayList<>();
+        for (BenchmarkResult br : result.getBenchmarkResults()) {
+            for (IterationResult ir : br.getIterationResults()) {
+                data.add(ir.getPrimaryResult().getScore());
+            }
+        }
+        double[] rawData = new double[data.size()];
+        for (int i = 0; i < rawData.length; i++) {
+            rawData[i] = data.get(i);
+        }
+
+        Result pr = result.getPrimaryResult();
+        return new ResultRecord(bp.getBenchmark(), bp.getMode(), params, pr.getScoreUnit(), pr.getScore(), rawData);
+    }
+
+    public String getBenchmark() {
+        return benchmark;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public SortedMap<String, String> getParams() {
+        return params;
+    }
+
+    public String getScoreUnit() {
+        return scoreUnit;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * @return primary scores of all measurement iterations in all forks
+     */
+    public double[] getRawData() {
+        return rawData.clone();
+    }
+
+    /**
+     * Records of the same benchmark, mode and parameters have the same key.
+     *
+     * @return identity key
+     */
+    public String getKey() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(benchmark).append(" ").append(mode.shortLabel());
+        for (Map.Entry<String, String> e : params.entrySet()) {
+            sb.append(" ").append(e.getKey()).append("=").append(e.getValue());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return benchmark name with the parameters, if any
+     */
+    public String getLabel() {
+        if (params.isEmpty()) {
+            return benchmark;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> e : params.entrySet()) {
+            sb.append(sb.length() == 0 ? " (" : ", ");
+            sb.append(e.getKey()).append(" = ").append(e.getValue());
+        }
+        sb.append(")");
+        return benchmark + sb;
+    }
+
+}
@@ -38,8 +38,8 @@ import java.util.concurrent.TimeUnit;
 public class SampleTimeResult extends Result<SampleTimeResult> {
     private static final long serialVersionUID = -295298353763294757L;
 
-    private final SampleBuffer buffer;
-    private final TimeUnit outputTimeUnit;
+    final SampleBuffer buffer;
+    final TimeUnit outputTimeUnit;
 
     public SampleTimeResult(ResultRole role, String label, SampleBuffer buffer, TimeUnit outputTimeUnit) {
         this(role, label,
@@ -57,6 +57,13 @@ public class SampleTimeResult extends Result<SampleTimeResult> {
         this.outputTimeUnit = outputTimeUnit;
     }
 
+    /**
+     * @return the histogram of the samples, in nanoseconds
+     */
+    public SampleBuffer getBuffer() {
+        return buffer;
+    }
+
     private static Statistics of(SampleBuffer buffer, TimeUnit outputTimeUnit) {
         double tuMultiplier = 1.0D * outputTimeUnit.convert(1, TimeUnit.DAYS) / TimeUnit.NANOSECONDS.convert(1, TimeUnit.DAYS);
         return buffer.getStatistics(tuMultiplier);
@@ -86,6 +93,11 @@ public class SampleTimeResult extends Result<SampleTimeResult> {
         return new JoiningAggregator();
     }
 
+    @Override
+    protected boolean isThreadAggregationComposable() {
+        return true;
+    }
+
     @Override
     protected Aggregator<SampleTimeResult> getIterationAggregator() {
         return new JoiningAggregator();
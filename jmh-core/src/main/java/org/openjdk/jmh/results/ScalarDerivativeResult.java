@@ -24,7 +24,6 @@
  */
 package org.openjdk.jmh.results;
 
-import org.openjdk.jmh.util.ListStatistics;
 import org.openjdk.jmh.util.Statistics;
 
 import java.util.Collection;
@@ -58,10 +57,7 @@ public class ScalarDerivativeResult extends Result<ScalarDerivativeResult> {
     static class ScalarResultAggregator implements Aggregator<ScalarDerivativeResult> {
         @Override
         public ScalarDerivativeResult aggregate(Collection<ScalarDerivativeResult> results) {
-            ListStatistics stats = new ListStatistics();
-            for (ScalarDerivativeResult r : results) {
-                stats.addValue(r.getScore());
-            }
+            Statistics stats = AggregatorUtils.aggregateScores(results);
             return new ScalarDerivativeResult(
                     AggregatorUtils.aggregateLabels(results),
                     stats,
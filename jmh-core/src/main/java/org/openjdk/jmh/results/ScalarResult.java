@@ -24,7 +24,6 @@
  */
 package org.openjdk.jmh.results;
 
-import org.openjdk.jmh.util.ListStatistics;
 import org.openjdk.jmh.util.Statistics;
 
 import java.util.Collection;
@@ -58,10 +57,7 @@ public class ScalarResult extends Result<ScalarResult> {
     static class ScalarResultAggregator implements Aggregator<ScalarResult> {
         @Override
         public ScalarResult aggregate(Collection<ScalarResult> results) {
-            ListStatistics stats = new ListStatistics();
-            for (ScalarResult r : results) {
-                stats.addValue(r.getScore());
-            }
+            Statistics stats = AggregatorUtils.aggregateScores(results);
             return new ScalarResult(
                     AggregatorUtils.aggregateLabels(results),
                     stats,
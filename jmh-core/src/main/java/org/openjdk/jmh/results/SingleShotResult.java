@@ -25,7 +25,6 @@
 package org.openjdk.jmh.results;
 
 import org.openjdk.jmh.runner.options.TimeValue;
-import org.openjdk.jmh.util.ListStatistics;
 import org.openjdk.jmh.util.Statistics;
 
 import java.util.Collection;
@@ -68,10 +67,7 @@ public class SingleShotResult extends Result<SingleShotResult> {
     static class AveragingAggregator implements Aggregator<SingleShotResult> {
         @Override
         public SingleShotResult aggregate(Collection<SingleShotResult> results) {
-            ListStatistics stat = new ListStatistics();
-            for (SingleShotResult r : results) {
-                stat.addValue(r.getScore());
-            }
+            Statistics stat = AggregatorUtils.aggregateScores(results);
             return new SingleShotResult(
                     AggregatorUtils.aggregateRoles(results),
                     AggregatorUtils.aggregateLabels(results),
@@ -25,7 +25,6 @@
 package org.openjdk.jmh.results;
 
 import org.openjdk.jmh.runner.options.TimeValue;
-import org.openjdk.jmh.util.ListStatistics;
 import org.openjdk.jmh.util.Statistics;
 
 import java.util.Collection;
@@ -53,6 +52,11 @@ public class ThroughputResult extends Result<ThroughputResult> {
         return new ThroughputAggregator(AggregationPolicy.SUM);
     }
 
+    @Override
+    protected boolean isThreadAggregationComposable() {
+        return true;
+    }
+
     @Override
     protected Aggregator<ThroughputResult> getIterationAggregator() {
         return new ThroughputAggregator(AggregationPolicy.AVG);
@@ -67,10 +71,7 @@ public class ThroughputResult extends Result<ThroughputResult> {
 
         @Override
         public ThroughputResult aggregate(Collection<ThroughputResult> results) {
-            ListStatistics stat = new ListStatistics();
-            for (ThroughputResult r : results) {
-                stat.addValue(r.getScore());
-            }
+            Statistics stat = AggregatorUtils.aggregateScores(results);
             return new ThroughputResult(
                     AggregatorUtils.aggregateRoles(results),
                     AggregatorUtils.aggregateLabels(results),
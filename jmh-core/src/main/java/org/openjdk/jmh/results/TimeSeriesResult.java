@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results;
+
+import org.openjdk.jmh.runner.TimeSeriesRecorder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.util.ListStatistics;
+import org.openjdk.jmh.util.ScoreFormatter;
+import org.openjdk.jmh.util.Statistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result class that holds the intra-iteration time series: the score for every
+ * sub-interval of the iteration. The score of the result itself is the average
+ * over the sub-intervals.
+ *
+ * <p>Threads are aggregated sub-interval by sub-interval. Iterations are aggregated
+ * by averaging the sub-intervals, keeping the series of individual iterations
+ * for the report.</p>
+ */
+public class TimeSeriesResult extends Result<TimeSeriesResult> {
+    private static final long serialVersionUID = -5839428370419382611L;
+
+    public static final String LABEL = Defaults.PREFIX + "series";
+
+    private static final String SPARKS = " \u2581\u2582\u2583\u2584\u2585\u2586\u2587\u2588";
+
+    private final double[] values;
+    private final long intervalNs;
+    private final AggregationPolicy threadPolicy;
+    private final List<double[]> rows;
+
+    public TimeSeriesResult(ResultRole role, String label, double[] values, long intervalNs, String unit, AggregationPolicy threadPolicy) {
+        this(role, label, values, intervalNs, unit, threadPolicy, Collections.<double[]>emptyList());
+    }
+
+    TimeSeriesResult(ResultRole role, String label, double[] values, long intervalNs, String unit,
+                     AggregationPolicy threadPolicy, List<double[]> rows) {
+        super(role, label, of(values), unit, AggregationPolicy.AVG);
+        this.values = values;
+        this.intervalNs = intervalNs;
+        this.threadPolicy = threadPolicy;
+        this.rows = rows;
+    }
+
+    public static TimeSeriesResult throughput(TimeSeriesRecorder recorder, TimeUnit tu, int opsPerInv, int batchSize) {
+        return new TimeSeriesResult(ResultRole.SECONDARY, LABEL,
+                recorder.throughput(tu, opsPerInv, batchSize), recorder.getInterval(),
+                "ops/" + TimeValue.tuToString(tu), AggregationPolicy.SUM);
+    }
+
+    public static TimeSeriesResult averageTime(TimeSeriesRecorder recorder, TimeUnit tu, int opsPerInv, int batchSize) {
+        return new TimeSeriesResult(ResultRole.SECONDARY, LABEL,
+                recorder.averageTime(tu, opsPerInv, batchSize), recorder.getInterval(),
+                TimeValue.tuToString(tu) + "/op", AggregationPolicy.AVG);
+    }
+
+    public static TimeSeriesResult sampleTime(TimeSeriesRecorder recorder, TimeUnit tu) {
+        return new TimeSeriesResult(ResultRole.SECONDARY, LABEL,
+                recorder.sampleTime(tu), recorder.getInterval(),
+                TimeValue.tuToString(tu) + "/op", AggregationPolicy.AVG);
+    }
+
+    private static Statistics of(double[] values) {
+        ListStatistics s = new ListStatistics();
+        for (double v : values) {
+            if (!Double.isNaN(v)) {
+                s.addValue(v);
+            }
+        }
+        return s;
+    }
+
+    /**
+     * @return scores for sub-intervals; NaN for sub-intervals where score is not defined
+     */
+    public double[] getValues() {
+        return values.clone();
+    }
+
+    /**
+     * @return sub-interval length, ns
+     */
+    public long getInterval() {
+        return intervalNs;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "  " + sparkline(values, min(Collections.singletonList(values)), max(Collections.singletonList(values)));
+    }
+
+    @Override
+    public String extendedInfo() {
+        List<double[]> rs = rows.isEmpty() ? Collections.singletonList(values) : rows;
+        double min = min(rs);
+        double max = max(rs);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("  Time series, %s per %s, from %s to %s:%n",
+                getScoreUnit(), interval(intervalNs),
+                ScoreFormatter.format(min), ScoreFormatter.format(max)));
+        int n = 0;
+        for (double[] row : rs) {
+            sb.append(String.format("    %3d: %s%n", ++n, sparkline(row, min, max)));
+        }
+        return sb.toString();
+    }
+
+    private static TimeValue interval(long ns) {
+        for (TimeUnit tu : new TimeUnit[]{TimeUnit.SECONDS, TimeUnit.MILLISECONDS, TimeUnit.MICROSECONDS}) {
+            long v = tu.convert(ns, TimeUnit.NANOSECONDS);
+            if (v > 0 && tu.toNanos(v) == ns) {
+                return new TimeValue(v, tu);
+            }
+        }
+        return TimeValue.nanoseconds(ns);
+    }
+
+    static String sparkline(double[] vs, double min, double max) {
+        StringBuilder sb = new StringBuilder();
+        int levels = SPARKS.length() - 1;
+        for (double v : vs) {
+            if (Double.isNaN(v)) {
+                sb.append(SPARKS.charAt(0));
+            } else if (max > min) {
+                int level = 1 + (int) Math.round((v - min) / (max - min) * (levels - 1));
+                sb.append(SPARKS.charAt(Math.max(1, Math.min(levels, level))));
+            } else {
+                sb.append(SPARKS.charAt(levels));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static double min(List<double[]> rows) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double[] row : rows) {
+            for (double v : row) {
+                if (!Double.isNaN(v)) {
+                    min = Math.min(min, v);
+                }
+            }
+        }
+        return min;
+    }
+
+    private static double max(List<double[]> rows) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double[] row : rows) {
+            for (double v : row) {
+                if (!Double.isNaN(v)) {
+                    max = Math.max(max, v);
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Combines the series sub-interval by sub-interval, ignoring undefined values.
+     */
+    static double[] combine(Collection<double[]> series, AggregationPolicy policy) {
+        int len = 0;
+        for (double[] s : series) {
+            len = Math.max(len, s.length);
+        }
+
+        double[] result = new double[len];
+        for (int i = 0; i < len; i++) {
+            double sum = 0;
+            int n = 0;
+            for (double[] s : series) {
+                if (i < s.length && !Double.isNaN(s[i])) {
+                    sum += s[i];
+                    n++;
+                }
+            }
+            if (n == 0) {
+                result[i] = Double.NaN;
+            } else {
+                result[i] = (policy == AggregationPolicy.SUM) ? sum : sum / n;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected Aggregator<TimeSeriesResult> getThreadAggregator() {
+        return new ThreadAggregator();
+    }
+
+    @Override
+    protected Aggregator<TimeSeriesResult> getIterationAggregator() {
+        return new IterationAggregator();
+    }
+
+    static class ThreadAggregator implements Aggregator<TimeSeriesResult> {
+        @Override
+        public TimeSeriesResult aggregate(Collection<TimeSeriesResult> results) {
+            List<double[]> series = new ArrayList<>();
+            for (TimeSeriesResult r : results) {
+                series.add(r.values);
+            }
+            TimeSeriesResult first = results.iterator().next();
+            return new TimeSeriesResult(
+                    AggregatorUtils.aggregateRoles(results),
+                    AggregatorUtils.aggregateLabels(results),
+                    combine(series, first.threadPolicy),
+                    first.intervalNs,
+                    AggregatorUtils.aggregateUnits(results),
+                    first.threadPolicy
+            );
+        }
+    }
+
+    /**
+     * Averages the iterations, but keeps the individual iterations around.
+     */
+    static class IterationAggregator implements Aggregator<TimeSeriesResult> {
+        @Override
+        public TimeSeriesResult aggregate(Collection<TimeSeriesResult> results) {
+            List<double[]> rows = new ArrayList<>();
+            for (TimeSeriesResult r : results) {
+                if (r.rows.isEmpty()) {
+                    rows.add(r.values);
+                } else {
+                    rows.addAll(r.rows);
+                }
+            }
+            TimeSeriesResult first = results.iterator().next();
+            return new TimeSeriesResult(
+                    AggregatorUtils.aggregateRoles(results),
+                    AggregatorUtils.aggregateLabels(results),
+                    combine(rows, AggregationPolicy.AVG),
+                    first.intervalNs,
+                    AggregatorUtils.aggregateUnits(results),
+                    first.threadPolicy,
+                    rows
+            );
+        }
+    }
+
+}
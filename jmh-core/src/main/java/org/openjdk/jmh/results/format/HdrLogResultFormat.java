@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results.format;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.SampleTimeResult;
+import org.openjdk.jmh.util.HistogramLog;
+
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the sampled histograms as HdrHistogram interval log. Every measurement
+ * iteration is the interval, tagged with benchmark name and parameters. Intervals
+ * of the consecutive forks follow each other.
+ */
+class HdrLogResultFormat implements ResultFormat {
+
+    private final PrintStream out;
+
+    public HdrLogResultFormat(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeOut(Collection<RunResult> results) {
+        HistogramLog.writeHeader(out);
+
+        for (RunResult rr : results) {
+            BenchmarkParams params = rr.getParams();
+            String tag = HistogramLog.toTag(getTag(params));
+            double length = params.getMeasurement().getTime().convertTo(TimeUnit.MILLISECONDS) / 1000D;
+
+            double start = 0;
+            for (BenchmarkResult br : rr.getBenchmarkResults()) {
+                for (IterationResult ir : br.getIterationResults()) {
+                    Result pr = ir.getPrimaryResult();
+                    if (pr instanceof SampleTimeResult) {
+                        HistogramLog.writeInterval(out,
+                                new HistogramLog.Interval(tag, start, length, ((SampleTimeResult) pr).getBuffer()));
+                        start += length;
+                    }
+                }
+            }
+        }
+    }
+
+    private static String getTag(BenchmarkParams params) {
+        StringBuilder sb = new StringBuilder(params.getBenchmark());
+        for (String k : params.getParamsKeys()) {
+            sb.append(":").append(k).append("=").append(params.getParam(k));
+        }
+        return sb.toString();
+    }
+
+}
@@ -24,12 +24,18 @@
  */
 package org.openjdk.jmh.results.format;
 
+import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.BenchmarkResult;
 import org.openjdk.jmh.results.IterationResult;
 import org.openjdk.jmh.results.Result;
 import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.SampleTimeResult;
+import org.openjdk.jmh.results.TimeSeriesResult;
+import org.openjdk.jmh.util.ConfidenceMethod;
+import org.openjdk.jmh.util.HistogramLog;
 import org.openjdk.jmh.util.Statistics;
+import org.openjdk.jmh.util.TDigestStatistics;
 import org.openjdk.jmh.util.Utils;
 
 import java.io.PrintStream;
@@ -38,6 +44,7 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 class JSONResultFormat implements ResultFormat {
 
@@ -45,115 +52,173 @@ class JSONResultFormat implements ResultFormat {
             Boolean.parseBoolean(System.getProperty("jmh.json.rawData", "true"));
 
     private final PrintStream out;
+    private final ConfidenceMethod method;
 
-    public JSONResultFormat(PrintStream out) {
+    public JSONResultFormat(PrintStream out, ConfidenceMethod method) {
         this.out = out;
+        this.method = method;
     }
 
     @Override
     public void writeOut(Collection<RunResult> results) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-
+        begin();
         boolean first = true;
-
-        pw.println("[");
         for (RunResult runResult : results) {
-            BenchmarkParams params = runResult.getParams();
+            writeOut(runResult, first);
+            first = false;
+        }
+        end(first);
+    }
 
-            if (first) {
-                first = false;
-                pw.println();
-            } else {
-                pw.println(",");
-            }
+    /**
+     * Starts the document. Results are then written one by one, and the document
+     * is finished with {@link #end(boolean)}. Only one result is held in memory at once.
+     */
+    void begin() {
+        out.print("[\n");
+        out.flush();
+    }
 
-            pw.println("{");
-            pw.println("\"jmhVersion\" : \"" + params.getJmhVersion() + "\",");
-            pw.println("\"benchmark\" : \"" + params.getBenchmark() + "\",");
-            pw.println("\"mode\" : \"" + params.getMode().shortLabel() + "\",");
-            pw.println("\"threads\" : " + params.getThreads() + ",");
-            pw.println("\"forks\" : " + params.getForks() + ",");
-            pw.println("\"jvm\" : " + toJsonString(params.getJvm()) + ",");
-            // if empty, write an empty array.
-            pw.println("\"jvmArgs\" : [");
-            printStringArray(pw, params.getJvmArgs());
-            pw.println("],");
-            pw.println("\"jdkVersion\" : " + toJsonString(params.getJdkVersion()) + ",");
-            pw.println("\"vmName\" : " + toJsonString(params.getVmName()) + ",");
-            pw.println("\"vmVersion\" : " + toJsonString(params.getVmVersion()) + ",");
-            pw.println("\"warmupIterations\" : " + params.getWarmup().getCount() + ",");
-            pw.println("\"warmupTime\" : \"" + params.getWarmup().getTime() + "\",");
-            pw.println("\"warmupBatchSize\" : " + params.getWarmup().getBatchSize() + ",");
-            pw.println("\"measurementIterations\" : " + params.getMeasurement().getCount() + ",");
-            pw.println("\"measurementTime\" : \"" + params.getMeasurement().getTime() + "\",");
-            pw.println("\"measurementBatchSize\" : " + params.getMeasurement().getBatchSize() + ",");
-
-            if (!params.getParamsKeys().isEmpty()) {
-                pw.println("\"params\" : {");
-                pw.println(emitParams(params));
-                pw.println("},");
+    void writeOut(RunResult runResult, boolean first) {
+        if (!first) {
+            out.print(",\n");
+        }
+
+        // documents are tidied result by result, with the indent of array element
+        String[] lines = tidy(emitResult(runResult)).split("\n");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                sb.append("\n");
             }
+            sb.append("    ").append(lines[i]);
+        }
+        out.print(sb.toString());
+        out.flush();
+    }
+
+    void end(boolean empty) {
+        out.print(empty ? "]\n\n\n" : "\n]\n\n\n");
+        out.flush();
+    }
 
-            Result primaryResult = runResult.getPrimaryResult();
-            pw.println("\"primaryMetric\" : {");
-            pw.println("\"score\" : " + emit(primaryResult.getScore()) + ",");
-            pw.println("\"scoreError\" : " + emit(primaryResult.getScoreError()) + ",");
-            pw.println("\"scoreConfidence\" : " + emit(primaryResult.getScoreConfidence()) + ",");
-            pw.println(emitPercentiles(primaryResult.getStatistics()));
-            pw.println("\"scoreUnit\" : \"" + primaryResult.getScoreUnit() + "\",");
-
-            switch (params.getMode()) {
-                case SampleTime:
-                    pw.println("\"rawDataHistogram\" :");
-                    pw.println(getRawData(runResult, true));
-                    break;
-                default:
+    private String emitResult(RunResult runResult) {
+        StringWriter sw = new StringWriter();
+        PrintWriter pw = new PrintWriter(sw);
+
+        BenchmarkParams params = runResult.getParams();
+
+        pw.println("{");
+        pw.println("\"jmhVersion\" : \"" + params.getJmhVersion() + "\",");
+        pw.println("\"benchmark\" : \"" + params.getBenchmark() + "\",");
+        pw.println("\"mode\" : \"" + params.getMode().shortLabel() + "\",");
+        pw.println("\"threads\" : " + params.getThreads() + ",");
+        pw.println("\"forks\" : " + params.getForks() + ",");
+        pw.println("\"jvm\" : " + toJsonString(params.getJvm()) + ",");
+        // if empty, write an empty array.
+        pw.println("\"jvmArgs\" : [");
+        printStringArray(pw, params.getJvmArgs());
+        pw.println("],");
+        pw.println("\"jdkVersion\" : " + toJsonString(params.getJdkVersion()) + ",");
+        pw.println("\"vmName\" : " + toJsonString(params.getVmName()) + ",");
+        pw.println("\"vmVersion\" : " + toJsonString(params.getVmVersion()) + ",");
+        pw.println("\"warmupIterations\" : " + params.getWarmup().getCount() + ",");
+        pw.println("\"warmupTime\" : \"" + params.getWarmup().getTime() + "\",");
+        pw.println("\"warmupBatchSize\" : " + params.getWarmup().getBatchSize() + ",");
+        pw.println("\"measurementIterations\" : " + params.getMeasurement().getCount() + ",");
+        pw.println("\"measurementTime\" : \"" + params.getMeasurement().getTime() + "\",");
+        pw.println("\"measurementBatchSize\" : " + params.getMeasurement().getBatchSize() + ",");
+        if (params.getSeriesInterval().convertTo(TimeUnit.NANOSECONDS) > 0) {
+            pw.println("\"seriesInterval\" : \"" + params.getSeriesInterval() + "\",");
+        }
+        if (params.getMode() == Mode.RateLimited) {
+            pw.println("\"arrivalRate\" : " + params.getArrivalRate() + ",");
+            pw.println("\"arrivalProcess\" : \"" + params.getArrivalProcess() + "\",");
+        }
+
+        if (!params.getParamsKeys().isEmpty()) {
+            pw.println("\"params\" : {");
+            pw.println(emitParams(params));
+            pw.println("},");
+        }
+
+        Result primaryResult = runResult.getPrimaryResult();
+        pw.println("\"primaryMetric\" : {");
+        double[] scoreConfidence = primaryResult.getScoreConfidence(method);
+        double scoreError = (method == ConfidenceMethod.STUDENT) ?
+                primaryResult.getScoreError() :
+                (scoreConfidence[1] - scoreConfidence[0]) / 2;
+        pw.println("\"score\" : " + emit(primaryResult.getScore()) + ",");
+        pw.println("\"scoreError\" : " + emit(scoreError) + ",");
+        pw.println("\"scoreConfidence\" : " + emit(scoreConfidence) + ",");
+        if (method != ConfidenceMethod.STUDENT) {
+            pw.println("\"scoreConfidenceMethod\" : \"" + method.name().toLowerCase() + "\",");
+        }
+        pw.println(emitPercentiles(primaryResult.getStatistics()));
+        pw.println("\"scoreUnit\" : \"" + primaryResult.getScoreUnit() + "\",");
+
+        switch (params.getMode()) {
+            case SampleTime:
+            case RateLimited:
+                pw.println("\"rawDataHistogram\" :");
+                pw.println(getRawData(runResult, true) + ",");
+                pw.println("\"rawDataHdrHistogram\" :");
+                pw.println(getRawHdrData(runResult));
+                break;
+            default:
+                if (primaryResult.getStatistics() instanceof TDigestStatistics) {
+                    pw.println("\"rawDataSketch\" :");
+                    pw.println(getRawSketch((TDigestStatistics) primaryResult.getStatistics()));
+                } else {
                     pw.println("\"rawData\" :");
                     pw.println(getRawData(runResult, false));
-            }
+                }
+        }
 
-            pw.println("},"); // primaryMetric end
-
-            Collection<String> secondaries = new ArrayList<>();
-            for (Map.Entry<String, Result> e : runResult.getSecondaryResults().entrySet()) {
-                String secondaryName = e.getKey();
-                Result result = e.getValue();
-
-                StringBuilder sb = new StringBuilder();
-                sb.append("\"").append(secondaryName).append("\" : {");
-                sb.append("\"score\" : ").append(emit(result.getScore())).append(",");
-                sb.append("\"scoreError\" : ").append(emit(result.getScoreError())).append(",");
-                sb.append("\"scoreConfidence\" : ").append(emit(result.getScoreConfidence())).append(",");
-                sb.append(emitPercentiles(result.getStatistics()));
-                sb.append("\"scoreUnit\" : \"").append(result.getScoreUnit()).append("\",");
-                sb.append("\"rawData\" : ");
-
-                Collection<String> l2 = new ArrayList<>();
-                for (BenchmarkResult benchmarkResult : runResult.getBenchmarkResults()) {
-                    Collection<String> scores = new ArrayList<>();
-                    for (IterationResult r : benchmarkResult.getIterationResults()) {
-                        Result rr = r.getSecondaryResults().get(secondaryName);
-                        if (rr != null) {
-                            scores.add(emit(rr.getScore()));
-                        }
+        pw.println("},"); // primaryMetric end
+
+        Collection<String> secondaries = new ArrayList<>();
+        for (Map.Entry<String, Result> e : runResult.getSecondaryResults().entrySet()) {
+            String secondaryName = e.getKey();
+            Result result = e.getValue();
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("\"").append(secondaryName).append("\" : {");
+            sb.append("\"score\" : ").append(emit(result.getScore())).append(",");
+            sb.append("\"scoreError\" : ").append(emit(result.getScoreError())).append(",");
+            sb.append("\"scoreConfidence\" : ").append(emit(result.getScoreConfidence())).append(",");
+            sb.append(emitPercentiles(result.getStatistics()));
+            sb.append("\"scoreUnit\" : \"").append(result.getScoreUnit()).append("\",");
+            sb.append("\"rawData\" : ");
+
+            Collection<String> l2 = new ArrayList<>();
+            for (BenchmarkResult benchmarkResult : runResult.getBenchmarkResults()) {
+                Collection<String> scores = new ArrayList<>();
+                for (IterationResult r : benchmarkResult.getIterationResults()) {
+                    Result rr = r.getSecondaryResults().get(secondaryName);
+                    if (rr != null) {
+                        scores.add(emit(rr.getScore()));
                     }
-                    l2.add(printMultiple(scores, "[", "]"));
                 }
-
-                sb.append(printMultiple(l2, "[", "]"));
-                sb.append("}");
-                secondaries.add(sb.toString());
+                l2.add(printMultiple(scores, "[", "]"));
             }
-            pw.println("\"secondaryMetrics\" : {");
-            pw.println(printMultiple(secondaries, "", ""));
-            pw.println("}");
 
-            pw.print("}"); // benchmark end
+            sb.append(printMultiple(l2, "[", "]"));
+
+            if (result instanceof TimeSeriesResult) {
+                sb.append(",\"rawDataSeries\" : ");
+                sb.append(getRawSeriesData(runResult, secondaryName));
+            }
+            sb.append("}");
+            secondaries.add(sb.toString());
         }
-        pw.println("]");
+        pw.println("\"secondaryMetrics\" : {");
+        pw.println(printMultiple(secondaries, "", ""));
+        pw.println("}");
 
-        out.println(tidy(sw.toString()));
+        pw.print("}"); // benchmark end
+        pw.flush();
+        return sw.toString();
     }
 
     private String getRawData(RunResult runResult, boolean histogram) {
@@ -182,6 +247,65 @@ class JSONResultFormat implements ResultFormat {
         return sb.toString();
     }
 
+    /**
+     * Emits the lossless histograms in compressed HdrHistogram encoding, see {@link HistogramLog}.
+     */
+    private String getRawHdrData(RunResult runResult) {
+        Collection<String> runs = new ArrayList<>();
+
+        if (PRINT_RAW_DATA) {
+            for (BenchmarkResult benchmarkResult : runResult.getBenchmarkResults()) {
+                Collection<String> iterations = new ArrayList<>();
+                for (IterationResult r : benchmarkResult.getIterationResults()) {
+                    Result pr = r.getPrimaryResult();
+                    if (pr instanceof SampleTimeResult) {
+                        iterations.add("\"" + HistogramLog.encode(((SampleTimeResult) pr).getBuffer()) + "\"");
+                    }
+                }
+                runs.add(printMultiple(iterations, "[", "]"));
+            }
+        }
+        return printMultiple(runs, "[", "]");
+    }
+
+    /**
+     * Emits the aggregated scores sketch, when there are too many scores to emit them one by one.
+     */
+    private String getRawSketch(TDigestStatistics stats) {
+        Collection<String> centroids = new ArrayList<>();
+        if (PRINT_RAW_DATA) {
+            for (Map.Entry<Double, Long> c : Utils.adaptForLoop(stats.getRawData())) {
+                centroids.add("[" + emit(c.getKey()) + ", " + c.getValue() + "]");
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        sb.append("\"type\" : \"t-digest\",");
+        sb.append("\"compression\" : ").append(emit(stats.getCompression())).append(",");
+        sb.append("\"count\" : ").append(stats.getN()).append(",");
+        sb.append("\"min\" : ").append(emit(stats.getMin())).append(",");
+        sb.append("\"max\" : ").append(emit(stats.getMax())).append(",");
+        sb.append("\"centroids\" : ").append(printMultiple(centroids, "[", "]"));
+        sb.append("}");
+        return sb.toString();
+    }
+
+    private String getRawSeriesData(RunResult runResult, String label) {
+        Collection<String> runs = new ArrayList<>();
+        for (BenchmarkResult benchmarkResult : runResult.getBenchmarkResults()) {
+            Collection<String> iterations = new ArrayList<>();
+            for (IterationResult r : benchmarkResult.getIterationResults()) {
+                Result rr = r.getSecondaryResults().get(label);
+                if (rr instanceof TimeSeriesResult) {
+                    iterations.add(emit(((TimeSeriesResult) rr).getValues()));
+                }
+            }
+            runs.add(printMultiple(iterations, "[", "]"));
+        }
+        return printMultiple(runs, "[", "]");
+    }
+
     private String emitParams(BenchmarkParams params) {
         StringBuilder sb = new StringBuilder();
         boolean isFirst = true;
@@ -0,0 +1,495 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results.format;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.ResultRecord;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the primary results back from the files written by {@link ResultFormatType#JSON}.
+ *
+ * <p>The reader is streaming: the results are parsed one by one with {@link #next()}, so that
+ * only one result is held in memory at once.</p>
+ */
+public class JSONResultReader implements Closeable {
+
+    private final Reader reader;
+    private final Parser parser;
+
+    /**
+     * @param reader reader to read the document from
+     * @throws IOException if reader fails
+     */
+    public JSONResultReader(Reader reader) throws IOException {
+        this.reader = reader;
+        this.parser = new Parser(reader);
+    }
+
+    /**
+     * Opens the result file for reading. The gzip-compressed files are detected
+     * and decompressed on the fly.
+     *
+     * @param file file to read
+     * @return reader
+     * @throws IOException if file cannot be opened
+     */
+    public static JSONResultReader open(File file) throws IOException {
+        InputStream is = new BufferedInputStream(new FileInputStream(file));
+        try {
+            is.mark(2);
+            int b0 = is.read();
+            int b1 = is.read();
+            is.reset();
+            if (b0 == (GZIPInputStream.GZIP_MAGIC & 0xFF) && b1 == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+                is = new PartialGZIPInputStream(is);
+            }
+            return new JSONResultReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            is.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next result.
+     *
+     * @return record; null if there are no more records
+     * @throws IOException if document cannot be read, or it is not the JMH JSON result
+     */
+    public ResultRecord next() throws IOException {
+        if (!parser.nextElement()) {
+            return null;
+        }
+        return toRecord(asMap(parser.parseValue(), "benchmark result"));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the result file.
+     *
+     * @param file file to read, possibly gzip-compressed
+     * @return records, in file order
+     * @throws IOException if file cannot be read, or it is not the JMH JSON result file
+     */
+    public static List<ResultRecord> read(File file) throws IOException {
+        try (JSONResultReader r = open(file)) {
+            return r.readAll();
+        }
+    }
+
+    /**
+     * Reads the results.
+     *
+     * @param reader reader to read from
+     * @return records, in document order
+     * @throws IOException if document cannot be read, or it is not the JMH JSON result
+     */
+    public static List<ResultRecord> read(Reader reader) throws IOException {
+        return new JSONResultReader(reader).readAll();
+    }
+
+    private List<ResultRecord> readAll() throws IOException {
+        List<ResultRecord> records = new ArrayList<>();
+        ResultRecord r;
+        while ((r = next()) != null) {
+            records.add(r);
+        }
+        return records;
+    }
+
+    private static ResultRecord toRecord(Map<String, Object> m) throws IOException {
+        String benchmark = asString(m.get("benchmark"), "benchmark");
+        Mode mode;
+        try {
+            mode = Mode.deepValueOf(asString(m.get("mode"), "mode"));
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            throw new IOException("Unknown mode for " + benchmark + ": " + m.get("mode"));
+        }
+
+        Map<String, String> params = new TreeMap<>();
+        if (m.containsKey("params")) {
+            for (Map.Entry<String, Object> e : asMap(m.get("params"), "params").entrySet()) {
+                params.put(e.getKey(), asString(e.getValue(), "param value"));
+            }
+        }
+
+        Map<String, Object> primary = asMap(m.get("primaryMetric"), "primaryMetric");
+        String unit = asString(primary.get("scoreUnit"), "scoreUnit");
+        double score = asDouble(primary.get("score"));
+
+        List<Double> data = new ArrayList<>();
+        if (primary.containsKey("rawData")) {
+            for (Object fork : asList(primary.get("rawData"))) {
+                for (Object it : asList(fork)) {
+                    data.add(asDouble(it));
+                }
+            }
+        } else if (primary.containsKey("rawDataSketch")) {
+            // too many scores were aggregated into the sketch, centroids approximate them
+            Map<String, Object> sketch = asMap(primary.get("rawDataSketch"), "rawDataSketch");
+            for (Object centroid : asList(sketch.get("centroids"))) {
+                List<Object> vc = asList(centroid);
+                if (vc.size() != 2) {
+                    throw new IOException("Expected [mean, count] sketch centroid: " + vc);
+                }
+                double v = asDouble(vc.get(0));
+                long count = (long) asDouble(vc.get(1));
+                for (long c = 0; c < count; c++) {
+                    data.add(v);
+                }
+            }
+        } else if (primary.containsKey("rawDataHistogram")) {
+            // per-iteration score is the mean of the samples
+            for (Object fork : asList(primary.get("rawDataHistogram"))) {
+                for (Object it : asList(fork)) {
+                    double sum = 0;
+                    double count = 0;
+                    for (Object bucket : asList(it)) {
+                        List<Object> vc = asList(bucket);
+                        if (vc.size() != 2) {
+                            throw new IOException("Expected [value, count] histogram bucket: " + vc);
+                        }
+                        sum += asDouble(vc.get(0)) * asDouble(vc.get(1));
+                        count += asDouble(vc.get(1));
+                    }
+                    if (count > 0) {
+                        data.add(sum / count);
+                    }
+                }
+            }
+        }
+
+        double[] rawData = new double[data.size()];
+        for (int i = 0; i < rawData.length; i++) {
+            rawData[i] = data.get(i);
+        }
+        return new ResultRecord(benchmark, mode, params, unit, score, rawData);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object o, String what) throws IOException {
+        if (!(o instanceof Map)) {
+            throw new IOException("Expected the object for " + what + ", got: " + o);
+        }
+        return (Map<String, Object>) o;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> asList(Object o) throws IOException {
+        if (!(o instanceof List)) {
+            throw new IOException("Expected the array, got: " + o);
+        }
+        return (List<Object>) o;
+    }
+
+    private static String asString(Object o, String what) throws IOException {
+        if (o instanceof String) {
+            return (String) o;
+        }
+        if (o instanceof Double) {
+            return String.valueOf(o);
+        }
+        throw new IOException("Expected the string for " + what + ", got: " + o);
+    }
+
+    private static double asDouble(Object o) throws IOException {
+        if (o instanceof Double) {
+            return (Double) o;
+        }
+        // see JSONResultFormat.emit(double)
+        if ("NaN".equals(o)) {
+            return Double.NaN;
+        }
+        if ("+INF".equals(o)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if ("-INF".equals(o)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        throw new IOException("Expected the number, got: " + o);
+    }
+
+    /**
+     * Reads the gzip stream which may be cut short, e.g. when the results are still being
+     * written, or the run has crashed: the cut is reported as the end of stream, so that all
+     * complete results before it are still readable.
+     */
+    private static class PartialGZIPInputStream extends GZIPInputStream {
+        PartialGZIPInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            try {
+                return super.read(buf, off, len);
+            } catch (EOFException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Minimal JSON parser: objects are read into maps, arrays into lists,
+     * numbers into doubles.
+     */
+    private static class Parser {
+        private final Reader reader;
+        private int ch;
+        private int line = 1;
+        private boolean started;
+        private boolean finished;
+
+        Parser(Reader reader) throws IOException {
+            this.reader = (reader instanceof BufferedReader) ? reader : new BufferedReader(reader);
+            advance();
+        }
+
+        private void advance() throws IOException {
+            ch = reader.read();
+            if (ch == '\n') {
+                line++;
+            }
+        }
+
+        private IOException error(String msg) {
+            return new IOException("Malformed JSON at line " + line + ": " + msg);
+        }
+
+        private void skipWhitespace() throws IOException {
+            while (ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r') {
+                advance();
+            }
+        }
+
+        private void expect(char c) throws IOException {
+            skipWhitespace();
+            if (ch != c) {
+                throw error("expected '" + c + "'");
+            }
+            advance();
+        }
+
+        /**
+         * Advances to the next element of the top-level array.
+         *
+         * @return false, if there are no more elements
+         */
+        boolean nextElement() throws IOException {
+            if (finished) {
+                return false;
+            }
+            skipWhitespace();
+            if (!started) {
+                if (ch != '[') {
+                    throw new IOException("Expected the array of benchmark results");
+                }
+                started = true;
+                advance();
+                skipWhitespace();
+                if (ch != ']') {
+                    return true;
+                }
+            } else if (ch == ',') {
+                advance();
+                return true;
+            } else if (ch != ']') {
+                throw error((ch == -1) ? "unexpected end" : "expected ',' or ']'");
+            }
+
+            advance();
+            skipWhitespace();
+            if (ch != -1) {
+                throw error("trailing characters");
+            }
+            finished = true;
+            return false;
+        }
+
+        Object parseValue() throws IOException {
+            skipWhitespace();
+            switch (ch) {
+                case '{':
+                    return parseObject();
+                case '[':
+                    return parseArray();
+                case '"':
+                    return parseString();
+                case 't':
+                    parseLiteral("true");
+                    return Boolean.TRUE;
+                case 'f':
+                    parseLiteral("false");
+                    return Boolean.FALSE;
+                case 'n':
+                    parseLiteral("null");
+                    return null;
+                default:
+                    if (ch == '-' || (ch >= '0' && ch <= '9')) {
+                        return parseNumber();
+                    }
+                    throw error((ch == -1) ? "unexpected end" : "unexpected character '" + (char) ch + "'");
+            }
+        }
+
+        private Map<String, Object> parseObject() throws IOException {
+            Map<String, Object> m = new LinkedHashMap<>();
+            advance();
+            skipWhitespace();
+            if (ch == '}') {
+                advance();
+                return m;
+            }
+            while (true) {
+                skipWhitespace();
+                if (ch != '"') {
+                    throw error("expected the key");
+                }
+                String key = parseString();
+                expect(':');
+                m.put(key, parseValue());
+                skipWhitespace();
+                if (ch == ',') {
+                    advance();
+                } else if (ch == '}') {
+                    advance();
+                    return m;
+                } else {
+                    throw error("expected ',' or '}'");
+                }
+            }
+        }
+
+        private List<Object> parseArray() throws IOException {
+            List<Object> l = new ArrayList<>();
+            advance();
+            skipWhitespace();
+            if (ch == ']') {
+                advance();
+                return l;
+            }
+            while (true) {
+                l.add(parseValue());
+                skipWhitespace();
+                if (ch == ',') {
+                    advance();
+                } else if (ch == ']') {
+                    advance();
+                    return l;
+                } else {
+                    throw error("expected ',' or ']'");
+                }
+            }
+        }
+
+        private String parseString() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            advance();
+            while (ch != '"') {
+                if (ch == -1) {
+                    throw error("unterminated string");
+                }
+                if (ch == '\\') {
+                    advance();
+                    switch (ch) {
+                        case '"':  sb.append('"'); break;
+                        case '\\': sb.append('\\'); break;
+                        case '/':  sb.append('/'); break;
+                        case 'b':  sb.append('\b'); break;
+                        case 'f':  sb.append('\f'); break;
+                        case 'n':  sb.append('\n'); break;
+                        case 'r':  sb.append('\r'); break;
+                        case 't':  sb.append('\t'); break;
+                        case 'u': {
+                            int c = 0;
+                            for (int i = 0; i < 4; i++) {
+                                advance();
+                                int d = Character.digit(ch, 16);
+                                if (d < 0) {
+                                    throw error("bad unicode escape");
+                                }
+                                c = c * 16 + d;
+                            }
+                            sb.append((char) c);
+                            break;
+                        }
+                        default:
+                            throw error("bad escape");
+                    }
+                } else {
+                    sb.append((char) ch);
+                }
+                advance();
+            }
+            advance();
+            return sb.toString();
+        }
+
+        private Double parseNumber() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            while (ch == '-' || ch == '+' || ch == '.' || ch == 'e' || ch == 'E' || (ch >= '0' && ch <= '9')) {
+                sb.append((char) ch);
+                advance();
+            }
+            try {
+                return Double.valueOf(sb.toString());
+            } catch (NumberFormatException e) {
+                throw error("bad number " + sb);
+            }
+        }
+
+        private void parseLiteral(String literal) throws IOException {
+            for (char c : literal.toCharArray()) {
+                if (ch != c) {
+                    throw error("expected " + literal);
+                }
+                advance();
+            }
+        }
+    }
+
+}
@@ -28,6 +28,7 @@ import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.Result;
 import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.util.ClassUtils;
+import org.openjdk.jmh.util.ConfidenceMethod;
 import org.openjdk.jmh.util.ScoreFormatter;
 
 import java.io.PrintStream;
@@ -41,9 +42,11 @@ import java.util.TreeSet;
 class LaTeXResultFormat implements ResultFormat {
 
     private final PrintStream out;
+    private final ConfidenceMethod method;
 
-    public LaTeXResultFormat(PrintStream out) {
+    public LaTeXResultFormat(PrintStream out, ConfidenceMethod method) {
         this.out = out;
+        this.method = method;
     }
 
     @Override
@@ -76,12 +79,12 @@ class LaTeXResultFormat implements ResultFormat {
             String benchmark = bp.getBenchmark();
             Result res = rr.getPrimaryResult();
 
-            printLine(benchmark, bp, params, prefixes, singleUnit, res);
+            printLine(benchmark, bp, params, prefixes, singleUnit, res, res.getScoreError(method));
 
             Map<String, Result> secondaries = rr.getSecondaryResults();
             for (String label : secondaries.keySet()) {
                 Result subRes = secondaries.get(label);
-                printLine(benchmark + ":" + label, bp, params, prefixes, singleUnit, subRes);
+                printLine(benchmark + ":" + label, bp, params, prefixes, singleUnit, subRes, subRes.getScoreError());
             }
         }
 
@@ -107,15 +110,15 @@ class LaTeXResultFormat implements ResultFormat {
     }
 
     private void printLine(String label, BenchmarkParams benchParams, SortedSet<String> params,
-                           Map<String, String> prefixes, boolean singleUnit, Result res) {
+                           Map<String, String> prefixes, boolean singleUnit, Result res, double scoreError) {
         out.printf("\\texttt{%s} & ", escape(prefixes.get(label)));
         for (String p : params) {
             out.printf("\\texttt{%s} & ", escape(benchParams.getParam(p)));
         }
         out.printf("\\texttt{%s} & ", ScoreFormatter.formatLatex(res.getScore()));
 
-        if (!Double.isNaN(res.getScoreError()) && !ScoreFormatter.isApproximate(res.getScore())) {
-            out.printf("\\scriptsize $\\pm$ \\texttt{%s} ", ScoreFormatter.formatError(res.getScoreError()));
+        if (!Double.isNaN(scoreError) && !ScoreFormatter.isApproximate(res.getScore())) {
+            out.printf("\\scriptsize $\\pm$ \\texttt{%s} ", ScoreFormatter.formatError(scoreError));
         }
 
         if (!singleUnit) {
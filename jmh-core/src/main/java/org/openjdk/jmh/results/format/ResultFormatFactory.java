@@ -25,10 +25,15 @@
 package org.openjdk.jmh.results.format;
 
 import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.util.ConfidenceMethod;
 
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.Collection;
+import java.util.zip.GZIPOutputStream;
 
 public class ResultFormatFactory {
 
@@ -41,12 +46,24 @@ public class ResultFormatFactory {
      * @return result format
      */
     public static ResultFormat getInstance(final ResultFormatType type, final String file) {
+        return getInstance(type, file, ConfidenceMethod.STUDENT);
+    }
+
+    /**
+     * Get the instance of ResultFormat of given type which writes the result to file.
+     * The file is compressed with gzip if its name ends with {@code .gz}.
+     * @param type result format type
+     * @param file target file
+     * @param method confidence interval method for the primary score
+     * @return result format
+     */
+    public static ResultFormat getInstance(final ResultFormatType type, final String file, final ConfidenceMethod method) {
         return new ResultFormat() {
             @Override
             public void writeOut(Collection<RunResult> results) {
                 try {
-                    PrintStream pw = new PrintStream(file, "UTF-8");
-                    ResultFormat rf = getInstance(type, pw);
+                    PrintStream pw = open(file);
+                    ResultFormat rf = getInstance(type, pw, method);
                     rf.writeOut(results);
                     pw.flush();
                     pw.close();
@@ -57,6 +74,60 @@ public class ResultFormatFactory {
         };
     }
 
+    /**
+     * @param type result format type
+     * @return true, if results of this type can be written out one by one
+     */
+    public static boolean isStreaming(ResultFormatType type) {
+        return type == ResultFormatType.JSON;
+    }
+
+    /**
+     * Get the instance of StreamingResultFormat of given type which writes the results to file
+     * as they arrive. The file is compressed with gzip if its name ends with {@code .gz}; the compressed
+     * stream is flushed after every result, so that the completed results are readable while the run is
+     * still going.
+     *
+     * @param type result format type, should be {@link #isStreaming(ResultFormatType) streaming}
+     * @param file target file
+     * @param method confidence interval method for the primary score
+     * @return streaming result format
+     * @throws IOException if file cannot be opened
+     */
+    public static StreamingResultFormat getStreamingInstance(ResultFormatType type, String file, ConfidenceMethod method) throws IOException {
+        if (!isStreaming(type)) {
+            throw new IllegalArgumentException("Unsupported streaming result format: " + type);
+        }
+
+        final PrintStream pw = open(file);
+        final JSONResultFormat rf = new JSONResultFormat(pw, method);
+        rf.begin();
+
+        return new StreamingResultFormat() {
+            private boolean first = true;
+
+            @Override
+            public void writeOut(RunResult result) {
+                rf.writeOut(result, first);
+                first = false;
+            }
+
+            @Override
+            public void close() {
+                rf.end(first);
+                pw.close();
+            }
+        };
+    }
+
+    private static PrintStream open(String file) throws IOException {
+        OutputStream os = new FileOutputStream(file);
+        if (file.endsWith(".gz")) {
+            os = new GZIPOutputStream(os, true);
+        }
+        return new PrintStream(new BufferedOutputStream(os), false, "UTF-8");
+    }
+
     /**
      * Get the instance of ResultFormat of given type which write the result to out.
      * It is a user responsibility to initialize and finish the out as appropriate.
@@ -66,11 +137,24 @@ public class ResultFormatFactory {
      * @return result format.
      */
     public static ResultFormat getInstance(ResultFormatType type, PrintStream out) {
+        return getInstance(type, out, ConfidenceMethod.STUDENT);
+    }
+
+    /**
+     * Get the instance of ResultFormat of given type which write the result to out.
+     * It is a user responsibility to initialize and finish the out as appropriate.
+     *
+     * @param type result format type
+     * @param out target out
+     * @param method confidence interval method for the primary score
+     * @return result format.
+     */
+    public static ResultFormat getInstance(ResultFormatType type, PrintStream out, ConfidenceMethod method) {
         switch (type) {
             case TEXT:
-                return new TextResultFormat(out);
+                return new TextResultFormat(out, method);
             case CSV:
-                return new XSVResultFormat(out, ",");
+                return new XSVResultFormat(out, ",", method);
             case SCSV:
                 /*
                  *    Since some implementations, notably Excel, think it is a good
@@ -78,11 +162,13 @@ public class ResultFormatFactory {
                  *    comma in some locales, this is the specialised
                  *     Semi-Colon Separated Values formatter.
                  */
-                return new XSVResultFormat(out, ";");
+                return new XSVResultFormat(out, ";", method);
             case JSON:
-                return new JSONResultFormat(out);
+                return new JSONResultFormat(out, method);
             case LATEX:
-                return new LaTeXResultFormat(out);
+                return new LaTeXResultFormat(out, method);
+            case HDRLOG:
+                return new HdrLogResultFormat(out);
             default:
                 throw new IllegalStateException("Unsupported result format: " + type);
         }
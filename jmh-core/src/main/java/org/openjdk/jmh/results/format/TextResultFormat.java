@@ -28,21 +28,25 @@ import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.Result;
 import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.util.ClassUtils;
+import org.openjdk.jmh.util.ConfidenceMethod;
 import org.openjdk.jmh.util.ScoreFormatter;
 
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
 class TextResultFormat implements ResultFormat {
     private final PrintStream out;
+    private final ConfidenceMethod method;
 
-    public TextResultFormat(PrintStream out) {
+    public TextResultFormat(PrintStream out, ConfidenceMethod method) {
         this.out = out;
+        this.method = method;
     }
 
     @Override
@@ -87,13 +91,19 @@ class TextResultFormat implements ResultFormat {
         int scoreErrLen = "Error".length();
         int unitLen     = "Units".length();
 
+        // bootstrap intervals are expensive, compute primary errors once
+        Map<RunResult, Double> primErrors = new IdentityHashMap<>();
+        for (RunResult res : runResults) {
+            primErrors.put(res, res.getPrimaryResult().getScoreError(method));
+        }
+
         for (RunResult res : runResults) {
             Result primRes = res.getPrimaryResult();
 
             modeLen     = Math.max(modeLen,     res.getParams().getMode().shortLabel().length());
             samplesLen  = Math.max(samplesLen,  String.format("%d",   primRes.getSampleCount()).length());
             scoreLen    = Math.max(scoreLen,    ScoreFormatter.format(primRes.getScore()).length());
-            scoreErrLen = Math.max(scoreErrLen, ScoreFormatter.format(primRes.getScoreError()).length());
+            scoreErrLen = Math.max(scoreErrLen, ScoreFormatter.format(primErrors.get(res)).length());
             unitLen     = Math.max(unitLen,     primRes.getScoreUnit().length());
 
             for (Result subRes : res.getSecondaryResults().values()) {
@@ -142,9 +152,10 @@ class TextResultFormat implements ResultFormat {
 
                 out.print(ScoreFormatter.format(scoreLen, pRes.getScore()));
 
-                if (!Double.isNaN(pRes.getScoreError()) && !ScoreFormatter.isApproximate(pRes.getScore())) {
+                double pErr = primErrors.get(res);
+                if (!Double.isNaN(pErr) && !ScoreFormatter.isApproximate(pRes.getScore())) {
                     out.print(" \u00B1");
-                    out.print(ScoreFormatter.formatError(scoreErrLen, pRes.getScoreError()));
+                    out.print(ScoreFormatter.formatError(scoreErrLen, pErr));
                 } else {
                     out.print("  ");
                     out.printf("%" + scoreErrLen + "s", "");
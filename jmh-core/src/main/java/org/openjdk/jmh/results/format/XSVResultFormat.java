@@ -27,6 +27,7 @@ package org.openjdk.jmh.results.format;
 import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.Result;
 import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.util.ConfidenceMethod;
 
 import java.io.PrintStream;
 import java.util.Collection;
@@ -40,10 +41,12 @@ class XSVResultFormat implements ResultFormat {
 
     private final PrintStream out;
     private final String delimiter;
+    private final ConfidenceMethod method;
 
-    public XSVResultFormat(PrintStream out, String delimiter) {
+    public XSVResultFormat(PrintStream out, String delimiter, ConfidenceMethod method) {
         this.out = out;
         this.delimiter = delimiter;
+        this.method = method;
     }
 
     @Override
@@ -59,11 +62,11 @@ class XSVResultFormat implements ResultFormat {
             BenchmarkParams benchParams = rr.getParams();
             Result res = rr.getPrimaryResult();
 
-            printLine(benchParams.getBenchmark(), benchParams, params, res);
+            printLine(benchParams.getBenchmark(), benchParams, params, res, res.getScoreError(method));
 
             for (String label : rr.getSecondaryResults().keySet()) {
                 Result subRes = rr.getSecondaryResults().get(label);
-                printLine(benchParams.getBenchmark() + ":" + subRes.getLabel(), benchParams, params, subRes);
+                printLine(benchParams.getBenchmark() + ":" + subRes.getLabel(), benchParams, params, subRes, subRes.getScoreError());
             }
         }
     }
@@ -89,7 +92,8 @@ class XSVResultFormat implements ResultFormat {
         out.print("\r\n");
     }
 
-    private void printLine(String label, BenchmarkParams benchmarkParams, SortedSet<String> params, Result result) {
+    private void printLine(String label, BenchmarkParams benchmarkParams, SortedSet<String> params, Result result,
+                           double scoreError) {
         out.print("\"");
         out.print(label);
         out.print("\"");
@@ -104,7 +108,7 @@ class XSVResultFormat implements ResultFormat {
         out.print(delimiter);
         out.print(emit(result.getScore()));
         out.print(delimiter);
-        out.print(emit(result.getScoreError()));
+        out.print(emit(scoreError));
         out.print(delimiter);
         out.print("\"");
         out.print(result.getScoreUnit());
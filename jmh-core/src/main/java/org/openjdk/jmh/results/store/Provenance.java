@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results.store;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Collection;
+
+/**
+ * Figures out where the results come from: source revision, host, and JVM.
+ * All lookups are local, and never fail: the unknown values are reported as such.
+ */
+class Provenance {
+
+    static final String UNKNOWN = "unknown";
+
+    private Provenance() {
+        // prevent instantiation
+    }
+
+    static String jvm(BenchmarkParams params) {
+        return params.getJdkVersion() + ", " + params.getVmName() + ", " + params.getVmVersion();
+    }
+
+    static String host() {
+        String name = System.getenv("HOSTNAME");
+        if (name == null || name.isEmpty()) {
+            name = System.getenv("COMPUTERNAME");
+        }
+        if (name == null || name.isEmpty()) {
+            try {
+                name = InetAddress.getLocalHost().getHostName();
+            } catch (IOException e) {
+                name = UNKNOWN;
+            }
+        }
+        return name + " (" + System.getProperty("os.name") + " " + System.getProperty("os.version") + ", " +
+                System.getProperty("os.arch") + ", " + Runtime.getRuntime().availableProcessors() + " CPUs)";
+    }
+
+    /**
+     * Resolves the git revision checked out in the given directory, or any of its parents.
+     * Reads the repository files directly, without calling out to git.
+     *
+     * @param dir directory to start from
+     * @return revision hash, or {@link #UNKNOWN} if not found
+     */
+    static String revision(File dir) {
+        try {
+            for (File d = dir.getAbsoluteFile(); d != null; d = d.getParentFile()) {
+                File git = new File(d, ".git");
+                if (git.isDirectory()) {
+                    return resolveHead(git);
+                }
+                if (git.isFile()) {
+                    // worktree or submodule: ".git" is the pointer to the actual git dir
+                    String pointer = firstLine(git);
+                    if (pointer != null && pointer.startsWith("gitdir:")) {
+                        File gitDir = new File(pointer.substring("gitdir:".length()).trim());
+                        if (!gitDir.isAbsolute()) {
+                            gitDir = new File(d, gitDir.getPath());
+                        }
+                        return resolveHead(gitDir);
+                    }
+                    return UNKNOWN;
+                }
+            }
+        } catch (IOException e) {
+            // fall-through
+        }
+        return UNKNOWN;
+    }
+
+    private static String resolveHead(File gitDir) throws IOException {
+        String head = firstLine(new File(gitDir, "HEAD"));
+        if (head == null) {
+            return UNKNOWN;
+        }
+        if (!head.startsWith("ref:")) {
+            // detached head
+            return head;
+        }
+        String ref = head.substring("ref:".length()).trim();
+
+        // worktrees keep the refs in the common dir
+        File common = gitDir;
+        String commonDir = firstLine(new File(gitDir, "commondir"));
+        if (commonDir != null) {
+            common = new File(commonDir);
+            if (!common.isAbsolute()) {
+                common = new File(gitDir, commonDir);
+            }
+        }
+
+        for (File base : new File[]{gitDir, common}) {
+            String sha = firstLine(new File(base, ref));
+            if (sha != null) {
+                return sha;
+            }
+        }
+
+        for (File base : new File[]{gitDir, common}) {
+            File packed = new File(base, "packed-refs");
+            if (packed.isFile()) {
+                for (String line : FileUtils.readAllLines(packed)) {
+                    if (line.endsWith(" " + ref)) {
+                        return line.substring(0, line.indexOf(' '));
+                    }
+                }
+            }
+        }
+
+        // unborn branch
+        return UNKNOWN;
+    }
+
+    private static String firstLine(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        Collection<String> lines = FileUtils.readAllLines(file);
+        for (String line : lines) {
+            String l = line.trim();
+            if (!l.isEmpty()) {
+                return l;
+            }
+        }
+        return null;
+    }
+
+}
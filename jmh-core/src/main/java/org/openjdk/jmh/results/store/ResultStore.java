@@ -0,0 +1,605 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results.store;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Append-only local store for benchmark results.</p>
+ *
+ * <p>The store is the directory with a string dictionary, and a set of fixed-width column
+ * files, one record per benchmark result. Columns are memory-mapped for reading. Every append
+ * gets the new run number, and records the source revision, host and JVM fingerprints along
+ * with the scores, so that the history for every benchmark/mode/params series can be traced
+ * over the runs.</p>
+ *
+ * <p>Appends are serialized with the file lock, and may come from several processes. The
+ * store tolerates the torn writes: the partially written record is ignored by readers, and
+ * overwritten by the next append. The files are never truncated, so that the mappings held
+ * by other stores stay valid, and the stale bytes may linger past the last record. The series
+ * indexes are kept in memory, and are built when the store is opened.</p>
+ */
+public class ResultStore implements Closeable {
+
+    static final int VERSION = 1;
+
+    private static final String VERSION_FILE = "VERSION";
+    private static final String STRINGS_FILE = "strings.dat";
+    private static final String LOCK_FILE = "lock";
+
+    private final File dir;
+
+    private final RandomAccessFile lockFile;
+    private final FileChannel strings;
+    private long stringsEnd;
+    private final List<String> stringById;
+    private final Map<String, Integer> idByString;
+
+    private final Column time;
+    private final Column run;
+    private final Column series;
+    private final Column benchmark;
+    private final Column mode;
+    private final Column params;
+    private final Column jvm;
+    private final Column revision;
+    private final Column host;
+    private final Column score;
+    private final Column error;
+    private final Column unit;
+    private final Column samples;
+    private final List<Column> columns;
+
+    private int rows;
+    private int lastRun;
+    private final Map<Integer, IntList> rowsBySeries;
+    private final Map<Integer, SortedSet<Integer>> seriesByBenchmark;
+
+    private ResultStore(File dir) throws IOException {
+        this.dir = dir;
+        this.stringById = new ArrayList<>();
+        this.idByString = new HashMap<>();
+        this.rowsBySeries = new HashMap<>();
+        this.seriesByBenchmark = new HashMap<>();
+        this.columns = new ArrayList<>();
+
+        this.time = column("time", 8);
+        this.run = column("run", 4);
+        this.series = column("series", 4);
+        this.benchmark = column("bench", 4);
+        this.mode = column("mode", 4);
+        this.params = column("params", 4);
+        this.jvm = column("jvm", 4);
+        this.revision = column("rev", 4);
+        this.host = column("host", 4);
+        this.score = column("score", 8);
+        this.error = column("error", 8);
+        this.unit = column("unit", 4);
+        this.samples = column("samples", 8);
+
+        this.lockFile = new RandomAccessFile(new File(dir, LOCK_FILE), "rw");
+        this.strings = new RandomAccessFile(new File(dir, STRINGS_FILE), "rw").getChannel();
+    }
+
+    /**
+     * Opens the store, creating it if needed.
+     *
+     * @param dir store directory
+     * @return result store
+     * @throws IOException if store cannot be opened, or has the unsupported version
+     */
+    public static ResultStore open(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create result store directory: " + dir);
+        }
+
+        File versionFile = new File(dir, VERSION_FILE);
+        if (versionFile.exists()) {
+            String v = new String(Files.readAllBytes(versionFile.toPath()), StandardCharsets.UTF_8).trim();
+            if (!String.valueOf(VERSION).equals(v)) {
+                throw new IOException("Unsupported result store version " + v + " in " + dir + ", expected " + VERSION);
+            }
+        } else {
+            Files.write(versionFile.toPath(), (VERSION + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        ResultStore store = new ResultStore(dir);
+        try {
+            store.load();
+        } catch (IOException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    public File getDirectory() {
+        return dir;
+    }
+
+    /**
+     * @return number of results in the store
+     */
+    public synchronized int size() {
+        return rows;
+    }
+
+    /**
+     * @return number of runs in the store
+     */
+    public synchronized int getRunCount() {
+        return lastRun;
+    }
+
+    /**
+     * @return all benchmark names in the store
+     */
+    public synchronized SortedSet<String> getBenchmarks() {
+        SortedSet<String> result = new TreeSet<>();
+        for (Integer id : seriesByBenchmark.keySet()) {
+            result.add(stringById.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Appends the results as the new run. The run is tagged with the source revision
+     * found in the current directory, and the current host fingerprint.
+     *
+     * @param results results to append
+     * @return run number
+     * @throws IOException if store cannot be written
+     */
+    public int append(Collection<RunResult> results) throws IOException {
+        return append(results, System.currentTimeMillis(),
+                Provenance.revision(new File(System.getProperty("user.dir"))), Provenance.host());
+    }
+
+    int append(Collection<RunResult> results, long time, String revision, String host) throws IOException {
+        List<StoredResult> entries = new ArrayList<>();
+        for (RunResult r : results) {
+            BenchmarkParams bp = r.getParams();
+            Result pr = r.getPrimaryResult();
+
+            SortedMap<String, String> ps = new TreeMap<>();
+            for (String k : bp.getParamsKeys()) {
+                ps.put(k, bp.getParam(k));
+            }
+
+            entries.add(new StoredResult(0, time, bp.getBenchmark(), bp.getMode(), ps,
+                    Provenance.jvm(bp), revision, host,
+                    pr.getScore(), pr.getScoreError(), pr.getScoreUnit(), pr.getSampleCount()));
+        }
+        return appendEntries(entries);
+    }
+
+    /**
+     * Appends the entries as the new run. Run numbers in entries are ignored.
+     */
+    synchronized int appendEntries(Collection<StoredResult> entries) throws IOException {
+        try (FileLock ignored = lockFile.getChannel().lock()) {
+            // catch up with the other writers; the torn tails past the loaded
+            // records and strings are overwritten in place
+            load();
+
+            int newRun = lastRun + 1;
+            int count = entries.size();
+            for (Column c : columns) {
+                c.buffer = ByteBuffer.allocate(count * c.width);
+            }
+
+            for (StoredResult e : entries) {
+                SortedMap<String, String> ps = e.getParams();
+                time.buffer.putLong(e.getTime());
+                run.buffer.putInt(newRun);
+                series.buffer.putInt(intern(seriesKey(e.getBenchmark(), e.getMode(), ps)));
+                benchmark.buffer.putInt(intern(e.getBenchmark()));
+                mode.buffer.putInt(intern(e.getMode().name()));
+                params.buffer.putInt(intern(encodeParams(ps)));
+                jvm.buffer.putInt(intern(e.getJvm()));
+                revision.buffer.putInt(intern(e.getRevision()));
+                host.buffer.putInt(intern(e.getHost()));
+                score.buffer.putDouble(e.getScore());
+                error.buffer.putDouble(e.getScoreError());
+                unit.buffer.putInt(intern(e.getScoreUnit()));
+                samples.buffer.putLong(e.getSampleCount());
+            }
+
+            // strings should be durable before anything refers to them
+            strings.force(false);
+
+            for (Column c : columns) {
+                c.buffer.flip();
+                long pos = (long) rows * c.width;
+                while (c.buffer.hasRemaining()) {
+                    pos += c.channel.write(c.buffer, pos);
+                }
+                c.buffer = null;
+                c.channel.force(false);
+            }
+
+            load();
+            return newRun;
+        }
+    }
+
+    /**
+     * Returns the history for the exact benchmark, mode and params.
+     *
+     * @param benchmark benchmark name
+     * @param mode benchmark mode
+     * @param params benchmark params
+     * @return results in run order; empty list if there are none
+     */
+    public synchronized List<StoredResult> history(String benchmark, Mode mode, Map<String, String> params) {
+        Integer id = idByString.get(seriesKey(benchmark, mode, new TreeMap<>(params)));
+        if (id == null) {
+            return Collections.emptyList();
+        }
+        return materialize(rowsBySeries.get(id));
+    }
+
+    /**
+     * Finds the histories for all series matching the filters.
+     *
+     * @param includes benchmark name regexps to include; all benchmarks are included if empty
+     * @param excludes benchmark name regexps to exclude
+     * @param paramFilter allowed param values; series with other values for these params are excluded
+     * @return matching histories, each in run order, sorted by benchmark, mode and params
+     */
+    public synchronized List<List<StoredResult>> find(Collection<String> includes, Collection<String> excludes,
+                                                      Map<String, Collection<String>> paramFilter) {
+        List<Pattern> incs = compile(includes);
+        List<Pattern> excs = compile(excludes);
+
+        SortedMap<String, Integer> matched = new TreeMap<>();
+        for (Map.Entry<Integer, SortedSet<Integer>> e : seriesByBenchmark.entrySet()) {
+            String name = stringById.get(e.getKey());
+            if (!incs.isEmpty() && !matches(incs, name)) continue;
+            if (matches(excs, name)) continue;
+
+            for (Integer sid : e.getValue()) {
+                int firstRow = rowsBySeries.get(sid).get(0);
+                if (acceptParams(decodeParams(stringById.get(params.getInt(firstRow))), paramFilter)) {
+                    matched.put(stringById.get(sid), sid);
+                }
+            }
+        }
+
+        List<List<StoredResult>> result = new ArrayList<>();
+        for (Integer sid : matched.values()) {
+            result.add(materialize(rowsBySeries.get(sid)));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        IOException ex = null;
+        List<Closeable> cs = new ArrayList<>();
+        for (Column c : columns) {
+            cs.add(c.channel);
+        }
+        cs.add(strings);
+        cs.add(lockFile);
+        for (Closeable c : cs) {
+            try {
+                if (c != null) {
+                    c.close();
+                }
+            } catch (IOException e) {
+                ex = e;
+            }
+        }
+        if (ex != null) {
+            throw ex;
+        }
+    }
+
+    private Column column(String name, int width) throws IOException {
+        Column c = new Column(width, new RandomAccessFile(new File(dir, name + ".col"), "rw").getChannel());
+        columns.add(c);
+        return c;
+    }
+
+    private static List<Pattern> compile(Collection<String> regexps) {
+        List<Pattern> ps = new ArrayList<>();
+        for (String r : regexps) {
+            ps.add(Pattern.compile(r));
+        }
+        return ps;
+    }
+
+    private static boolean matches(List<Pattern> patterns, String name) {
+        for (Pattern p : patterns) {
+            if (p.matcher(name).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptParams(Map<String, String> ps, Map<String, Collection<String>> filter) {
+        for (Map.Entry<String, Collection<String>> e : filter.entrySet()) {
+            String v = ps.get(e.getKey());
+            if (v != null && !e.getValue().contains(v)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<StoredResult> materialize(IntList rs) {
+        List<StoredResult> result = new ArrayList<>(rs.size());
+        for (int i = 0; i < rs.size(); i++) {
+            int r = rs.get(i);
+            result.add(new StoredResult(
+                    run.getInt(r),
+                    time.getLong(r),
+                    stringById.get(benchmark.getInt(r)),
+                    Mode.valueOf(stringById.get(mode.getInt(r))),
+                    decodeParams(stringById.get(params.getInt(r))),
+                    stringById.get(jvm.getInt(r)),
+                    stringById.get(revision.getInt(r)),
+                    stringById.get(host.getInt(r)),
+                    score.getDouble(r),
+                    error.getDouble(r),
+                    stringById.get(unit.getInt(r)),
+                    samples.getLong(r)
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * Reads the records appended since the last load, the strings they refer to, and indexes them.
+     */
+    private void load() throws IOException {
+        long newRows = Long.MAX_VALUE;
+        for (Column c : columns) {
+            newRows = Math.min(newRows, c.channel.size() / c.width);
+        }
+        if (newRows > Integer.MAX_VALUE / 8) {
+            throw new IOException("Result store is too large: " + newRows + " records");
+        }
+
+        for (Column c : columns) {
+            c.map = c.channel.map(FileChannel.MapMode.READ_ONLY, 0, newRows * c.width);
+        }
+
+        Column[] refs = new Column[] {series, benchmark, mode, params, jvm, revision, host, unit};
+
+        int maxId = -1;
+        for (int r = rows; r < newRows; r++) {
+            for (Column c : refs) {
+                maxId = Math.max(maxId, c.getInt(r));
+            }
+        }
+        loadStrings(maxId);
+
+        for (int r = rows; r < newRows; r++) {
+            for (Column c : refs) {
+                int id = c.getInt(r);
+                if (id < 0 || id >= stringById.size()) {
+                    throw new IOException("Result store is corrupted: record " + r + " refers to unknown string " + id);
+                }
+            }
+
+            int sid = series.getInt(r);
+            IntList rs = rowsBySeries.get(sid);
+            if (rs == null) {
+                rs = new IntList();
+                rowsBySeries.put(sid, rs);
+            }
+            rs.add(r);
+
+            int bid = benchmark.getInt(r);
+            SortedSet<Integer> ss = seriesByBenchmark.get(bid);
+            if (ss == null) {
+                ss = new TreeSet<>();
+                seriesByBenchmark.put(bid, ss);
+            }
+            ss.add(sid);
+
+            lastRun = Math.max(lastRun, run.getInt(r));
+        }
+        rows = (int) newRows;
+    }
+
+    /**
+     * Reads the strings up to the given id. The strings past the ones referred to by the
+     * records may be left over from the torn append, and would be overwritten by the next
+     * append, so they are never read.
+     */
+    private void loadStrings(int maxId) throws IOException {
+        long size = strings.size();
+        if (maxId < stringById.size() || size <= stringsEnd) {
+            return;
+        }
+        ByteBuffer buf = strings.map(FileChannel.MapMode.READ_ONLY, stringsEnd, size - stringsEnd);
+        while (stringById.size() <= maxId && buf.remaining() >= 4) {
+            int len = buf.getInt();
+            if (len < 0 || len > buf.remaining()) {
+                // torn write, the records referring past it are caught by the caller
+                break;
+            }
+            byte[] bytes = new byte[len];
+            buf.get(bytes);
+            String s = new String(bytes, StandardCharsets.UTF_8);
+            idByString.put(s, stringById.size());
+            stringById.add(s);
+            stringsEnd += 4 + len;
+        }
+    }
+
+    private int intern(String s) throws IOException {
+        Integer id = idByString.get(s);
+        if (id != null) {
+            return id;
+        }
+
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(4 + bytes.length);
+        buf.putInt(bytes.length);
+        buf.put(bytes);
+        buf.flip();
+
+        long pos = stringsEnd;
+        while (buf.hasRemaining()) {
+            pos += strings.write(buf, pos);
+        }
+        stringsEnd = pos;
+
+        int newId = stringById.size();
+        stringById.add(s);
+        idByString.put(s, newId);
+        return newId;
+    }
+
+    static String seriesKey(String benchmark, Mode mode, SortedMap<String, String> params) {
+        return benchmark + " " + mode.name() + " " + encodeParams(params);
+    }
+
+    static String encodeParams(SortedMap<String, String> params) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> e : params.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            escape(sb, e.getKey());
+            sb.append('=');
+            escape(sb, e.getValue());
+        }
+        return sb.toString();
+    }
+
+    static SortedMap<String, String> decodeParams(String encoded) {
+        SortedMap<String, String> result = new TreeMap<>();
+        StringBuilder key = new StringBuilder();
+        StringBuilder value = new StringBuilder();
+        StringBuilder cur = key;
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            if (c == '\\' && i + 1 < encoded.length()) {
+                cur.append(encoded.charAt(++i));
+            } else if (c == '=' && cur == key) {
+                cur = value;
+            } else if (c == ',') {
+                result.put(key.toString(), value.toString());
+                key.setLength(0);
+                value.setLength(0);
+                cur = key;
+            } else {
+                cur.append(c);
+            }
+        }
+        if (cur == value) {
+            result.put(key.toString(), value.toString());
+        }
+        return result;
+    }
+
+    private static void escape(StringBuilder sb, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' || c == ',' || c == '=') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+    }
+
+    private static class Column {
+        final int width;
+        final FileChannel channel;
+        MappedByteBuffer map;
+        ByteBuffer buffer;
+
+        Column(int width, FileChannel channel) {
+            this.width = width;
+            this.channel = channel;
+        }
+
+        int getInt(int row) {
+            return map.getInt(row * width);
+        }
+
+        long getLong(int row) {
+            return map.getLong(row * width);
+        }
+
+        double getDouble(int row) {
+            return map.getDouble(row * width);
+        }
+    }
+
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int v) {
+            if (size == values.length) {
+                int[] nv = new int[size * 2];
+                System.arraycopy(values, 0, nv, 0, size);
+                values = nv;
+            }
+            values[size++] = v;
+        }
+
+        int get(int idx) {
+            return values[idx];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+}
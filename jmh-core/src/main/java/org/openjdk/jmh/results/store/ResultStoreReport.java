@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results.store;
+
+import org.openjdk.jmh.util.ScoreFormatter;
+
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Prints the history, trends and change points for the result store series.
+ */
+public class ResultStoreReport {
+
+    private final PrintStream out;
+    private final boolean verbose;
+    private final SimpleDateFormat dateFormat;
+
+    /**
+     * @param out stream to print to
+     * @param verbose print the full history for every series
+     */
+    public ResultStoreReport(PrintStream out, boolean verbose) {
+        this.out = out;
+        this.verbose = verbose;
+        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    }
+
+    public void print(ResultStore store, List<List<StoredResult>> histories) {
+        out.println("Result store: " + store.getDirectory() + " (" + store.size() + " results in " +
+                store.getRunCount() + " runs)");
+
+        if (histories.isEmpty()) {
+            out.println();
+            out.println("No matching results.");
+            return;
+        }
+
+        for (List<StoredResult> history : histories) {
+            out.println();
+            print(history);
+        }
+    }
+
+    private void print(List<StoredResult> history) {
+        StoredResult first = history.get(0);
+        StoredResult last = history.get(history.size() - 1);
+
+        out.println("Benchmark: " + first.getBenchmark() + ", mode: " + first.getMode().shortLabel() +
+                (first.getParams().isEmpty() ? "" : ", params: " + first.getParams()));
+        out.println("  Runs:   " + history.size() + ", from " + describe(first) + " to " + describe(last));
+        out.println("  Last:   " + score(last) + "  [" + tags(last) + "]");
+
+        double[] scores = new double[history.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = history.get(i).getScore();
+        }
+
+        double slope = TrendAnalysis.slope(scores);
+        if (!Double.isNaN(slope)) {
+            out.printf("  Trend:  %+.3f%% per run%n", slope);
+        }
+
+        List<TrendAnalysis.ChangePoint> cps = TrendAnalysis.changePoints(scores);
+        if (!cps.isEmpty()) {
+            out.println("  Change points:");
+            for (TrendAnalysis.ChangePoint cp : cps) {
+                StoredResult at = history.get(cp.getIndex());
+                out.printf("    %s: %s -> %s %s (%+.2f%%)  [%s]%n",
+                        describe(at),
+                        ScoreFormatter.format(cp.getBefore()),
+                        ScoreFormatter.format(cp.getAfter()),
+                        at.getScoreUnit(),
+                        cp.getShift() * 100,
+                        tags(at));
+            }
+        }
+
+        if (verbose) {
+            out.println("  History:");
+            for (StoredResult r : history) {
+                out.println("    " + describe(r) + ": " + score(r) + "  [" + tags(r) + "]");
+            }
+        }
+    }
+
+    private String describe(StoredResult r) {
+        return "#" + r.getRun() + " (" + dateFormat.format(new Date(r.getTime())) + ")";
+    }
+
+    private static String score(StoredResult r) {
+        String s = ScoreFormatter.format(r.getScore());
+        if (!Double.isNaN(r.getScoreError())) {
+            s += " \u00B1 " + ScoreFormatter.formatError(r.getScoreError());
+        }
+        return s + " " + r.getScoreUnit();
+    }
+
+    private static String tags(StoredResult r) {
+        String rev = r.getRevision();
+        if (rev.length() > 12) {
+            rev = rev.substring(0, 12);
+        }
+        return "rev " + rev + ", " + r.getHost() + ", " + r.getJvm();
+    }
+
+}
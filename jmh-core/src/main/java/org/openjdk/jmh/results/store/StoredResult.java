@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results.store;
+
+import org.openjdk.jmh.annotations.Mode;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Date;
+import java.util.SortedMap;
+
+/**
+ * Single benchmark result, as recorded in the {@link ResultStore}.
+ */
+public class StoredResult implements Serializable {
+    private static final long serialVersionUID = 4016209826617853112L;
+
+    private final int run;
+    private final long time;
+    private final String benchmark;
+    private final Mode mode;
+    private final SortedMap<String, String> params;
+    private final String jvm;
+    private final String revision;
+    private final String host;
+    private final double score;
+    private final double scoreError;
+    private final String scoreUnit;
+    private final long sampleCount;
+
+    StoredResult(int run, long time, String benchmark, Mode mode, SortedMap<String, String> params,
+                 String jvm, String revision, String host,
+                 double score, double scoreError, String scoreUnit, long sampleCount) {
+        this.run = run;
+        this.time = time;
+        this.benchmark = benchmark;
+        this.mode = mode;
+        this.params = Collections.unmodifiableSortedMap(params);
+        this.jvm = jvm;
+        this.revision = revision;
+        this.host = host;
+        this.score = score;
+        this.scoreError = scoreError;
+        this.scoreUnit = scoreUnit;
+        this.sampleCount = sampleCount;
+    }
+
+    /**
+     * @return run number; all results appended at once share the run number
+     */
+    public int getRun() {
+        return run;
+    }
+
+    /**
+     * @return time of the run, in milliseconds since epoch
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public String getBenchmark() {
+        return benchmark;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public SortedMap<String, String> getParams() {
+        return params;
+    }
+
+    /**
+     * @return JDK version, VM name and VM version the benchmark ran with
+     */
+    public String getJvm() {
+        return jvm;
+    }
+
+    /**
+     * @return source revision the benchmark ran at
+     */
+    public String getRevision() {
+        return revision;
+    }
+
+    /**
+     * @return host fingerprint the benchmark ran at
+     */
+    public String getHost() {
+        return host;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public double getScoreError() {
+        return scoreError;
+    }
+
+    public String getScoreUnit() {
+        return scoreUnit;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + run + " " + new Date(time) + " " + benchmark + " " + mode.shortLabel() + " " + params +
+                " = " + score + " \u00B1 " + scoreError + " " + scoreUnit + " [" + revision + ", " + host + ", " + jvm + "]";
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results.store;
+
+import org.apache.commons.math3.distribution.TDistribution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Trend analysis over the score history.
+ */
+public class TrendAnalysis {
+
+    /**
+     * Slope is estimated over this many last points.
+     */
+    static final int SLOPE_WINDOW = 1000;
+
+    /**
+     * Minimal number of points at each side of the change point.
+     */
+    static final int MIN_SEGMENT = 3;
+
+    /**
+     * Change point should be significant at this level.
+     */
+    static final double SIGNIFICANCE = 0.001;
+
+    /**
+     * Change point should shift the mean at least by this fraction.
+     */
+    static final double MIN_SHIFT = 0.02;
+
+    private TrendAnalysis() {
+        // prevent instantiation
+    }
+
+    /**
+     * Estimates the relative slope of the scores with Theil-Sen estimator,
+     * which is robust against the outliers.
+     *
+     * @param scores scores in run order
+     * @return median slope per run, in percent of the median score; NaN if there are less than 3 scores
+     */
+    public static double slope(double[] scores) {
+        int from = Math.max(0, scores.length - SLOPE_WINDOW);
+        int n = scores.length - from;
+        if (n < 3) {
+            return Double.NaN;
+        }
+
+        double[] slopes = new double[n * (n - 1) / 2];
+        int c = 0;
+        for (int i = from; i < scores.length; i++) {
+            for (int j = i + 1; j < scores.length; j++) {
+                slopes[c++] = (scores[j] - scores[i]) / (j - i);
+            }
+        }
+
+        double median = median(Arrays.copyOfRange(scores, from, scores.length));
+        if (median == 0) {
+            return Double.NaN;
+        }
+        return median(slopes) / Math.abs(median) * 100;
+    }
+
+    /**
+     * Finds the change points in scores with binary segmentation: the segment is split
+     * where the Welch's t-test statistics is maximal, if the split is significant, and
+     * then both halves are searched further.
+     *
+     * @param scores scores in run order
+     * @return change points, ordered by index
+     */
+    public static List<ChangePoint> changePoints(double[] scores) {
+        int n = scores.length;
+        double[] sum = new double[n + 1];
+        double[] sumSq = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            sum[i + 1] = sum[i] + scores[i];
+            sumSq[i + 1] = sumSq[i] + scores[i] * scores[i];
+        }
+
+        List<ChangePoint> result = new ArrayList<>();
+        segment(sum, sumSq, 0, n, result);
+        Collections.sort(result, new Comparator<ChangePoint>() {
+            @Override
+            public int compare(ChangePoint o1, ChangePoint o2) {
+                return Integer.compare(o1.getIndex(), o2.getIndex());
+            }
+        });
+        return result;
+    }
+
+    private static void segment(double[] sum, double[] sumSq, int lo, int hi, List<ChangePoint> result) {
+        ChangePoint best = null;
+        for (int k = lo + MIN_SEGMENT; k <= hi - MIN_SEGMENT; k++) {
+            ChangePoint cp = test(sum, sumSq, lo, k, hi);
+            if (best == null || cp.t > best.t) {
+                best = cp;
+            }
+        }
+
+        if (best != null && best.getPValue() < SIGNIFICANCE &&
+                Math.abs(best.getShift()) >= MIN_SHIFT) {
+            result.add(best);
+            segment(sum, sumSq, lo, best.getIndex(), result);
+            segment(sum, sumSq, best.getIndex(), hi, result);
+        }
+    }
+
+    private static ChangePoint test(double[] sum, double[] sumSq, int lo, int k, int hi) {
+        int n1 = k - lo;
+        int n2 = hi - k;
+        double m1 = (sum[k] - sum[lo]) / n1;
+        double m2 = (sum[hi] - sum[k]) / n2;
+        double v1 = Math.max(0, (sumSq[k] - sumSq[lo] - n1 * m1 * m1) / (n1 - 1));
+        double v2 = Math.max(0, (sumSq[hi] - sumSq[k] - n2 * m2 * m2) / (n2 - 1));
+
+        double se2 = v1 / n1 + v2 / n2;
+        double t;
+        double p;
+        if (se2 == 0) {
+            // no noise: any difference is significant
+            t = (m1 == m2) ? 0 : Double.POSITIVE_INFINITY;
+            p = (m1 == m2) ? 1 : 0;
+        } else {
+            t = Math.abs(m2 - m1) / Math.sqrt(se2);
+            double df = se2 * se2 / (sq(v1 / n1) / (n1 - 1) + sq(v2 / n2) / (n2 - 1));
+            p = 2 * new TDistribution(df).cumulativeProbability(-t);
+        }
+        return new ChangePoint(k, m1, m2, t, p);
+    }
+
+    private static double sq(double v) {
+        return v * v;
+    }
+
+    private static double median(double[] vs) {
+        Arrays.sort(vs);
+        int n = vs.length;
+        return (n % 2 == 1) ? vs[n / 2] : (vs[n / 2 - 1] + vs[n / 2]) / 2;
+    }
+
+    /**
+     * Change point in the score history.
+     */
+    public static class ChangePoint {
+        private final int index;
+        private final double before;
+        private final double after;
+        private final double t;
+        private final double pValue;
+
+        ChangePoint(int index, double before, double after, double t, double pValue) {
+            this.index = index;
+            this.before = before;
+            this.after = after;
+            this.t = t;
+            this.pValue = pValue;
+        }
+
+        /**
+         * @return index of the first score after the change
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return mean score in the segment before the change
+         */
+        public double getBefore() {
+            return before;
+        }
+
+        /**
+         * @return mean score in the segment after the change
+         */
+        public double getAfter() {
+            return after;
+        }
+
+        /**
+         * @return relative change of the mean score
+         */
+        public double getShift() {
+            return (before == 0) ? Double.NaN : (after - before) / Math.abs(before);
+        }
+
+        /**
+         * @return p-value for the change
+         */
+        public double getPValue() {
+            return pValue;
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ package org.openjdk.jmh.runner;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class ActionPlan implements Serializable {
@@ -55,6 +56,30 @@ public class ActionPlan implements Serializable {
         return actions;
     }
 
+    /**
+     * Produces the plan with measurement actions rotated by given distance.
+     * All other actions keep their original order ahead of measurements.
+     *
+     * @param distance rotation distance
+     * @return rotated plan
+     */
+    public ActionPlan rotateMeasurements(int distance) {
+        List<Action> measurements = getMeasurementActions();
+        ActionPlan result = new ActionPlan(type);
+        for (Action action : actions) {
+            if (!measurements.contains(action)) {
+                result.add(action);
+            }
+        }
+        if (!measurements.isEmpty()) {
+            Collections.rotate(measurements, -(distance % measurements.size()));
+        }
+        for (Action action : measurements) {
+            result.add(action);
+        }
+        return result;
+    }
+
     public List<Action> getMeasurementActions() {
         List<Action> result = new ArrayList<>();
         for (Action action : actions) {
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.runner.options.ArrivalProcess;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Schedule of intended start times for {@link org.openjdk.jmh.annotations.Mode#RateLimited}
+ * benchmarks.
+ *
+ * <p>The intervals between arrivals are precomputed, so that the measurement loop
+ * only adds them up. The schedule does not care when the operations actually complete:
+ * once the benchmark falls behind, the intended start times are in the past, and the
+ * operations are issued back to back until the benchmark catches up.</p>
+ */
+public final class ArrivalSchedule {
+
+    /**
+     * Number of precomputed intervals, power of two.
+     */
+    private static final int INTERVALS = 4096;
+
+    /**
+     * Do not park closer than this to the intended start time, spin instead:
+     * waking up from park takes tens of microseconds.
+     */
+    private static final long SPIN_NS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final long[] intervals;
+    private final int mask;
+    private final long offset;
+    private int index;
+    private long intended;
+
+    public ArrivalSchedule(BenchmarkParams benchmarkParams, ThreadParams threadParams) {
+        this(benchmarkParams.getArrivalRate(), benchmarkParams.getArrivalProcess(),
+                threadParams.getThreadIndex(), threadParams.getThreadCount());
+    }
+
+    ArrivalSchedule(int rate, ArrivalProcess process, int threadIndex, int threadCount) {
+        double mean = 1.0 * TimeUnit.SECONDS.toNanos(1) / rate;
+
+        switch (process) {
+            case CONSTANT:
+                intervals = new long[] { Math.round(mean) };
+                break;
+            case POISSON:
+                intervals = exponential(mean, new Random(System.nanoTime() + threadIndex));
+                break;
+            default:
+                throw new IllegalStateException("Unknown arrival process: " + process);
+        }
+        mask = intervals.length - 1;
+
+        // spread the threads over the first interval, so that they do not arrive all at once
+        offset = Math.round(mean * threadIndex / threadCount);
+    }
+
+    /**
+     * Exponentially distributed intervals, normalized to the exact mean: the schedule
+     * wraps around, and otherwise the achieved rate would be off by the sampling error.
+     */
+    private static long[] exponential(double mean, Random random) {
+        double[] raw = new double[INTERVALS];
+        double sum = 0;
+        for (int c = 0; c < INTERVALS; c++) {
+            raw[c] = -Math.log(1 - random.nextDouble());
+            sum += raw[c];
+        }
+
+        long[] r = new long[INTERVALS];
+        double scale = mean * INTERVALS / sum;
+        for (int c = 0; c < INTERVALS; c++) {
+            r[c] = Math.round(raw[c] * scale);
+        }
+        return r;
+    }
+
+    /**
+     * Starts the schedule.
+     * @param now current timestamp, as {@link System#nanoTime()}
+     */
+    public void start(long now) {
+        intended = now + offset;
+    }
+
+    /**
+     * @return intended start time of the current operation, as {@link System#nanoTime()}
+     */
+    public long intended() {
+        return intended;
+    }
+
+    /**
+     * Moves to the next operation.
+     */
+    public void advance() {
+        intended += intervals[index++ & mask];
+    }
+
+    /**
+     * Waits until the intended start time of the current operation.
+     * @param control control to check for the iteration end
+     * @return false, if iteration had ended before the intended start time
+     */
+    public boolean await(InfraControl control) {
+        long left;
+        while ((left = intended - System.nanoTime()) > 0) {
+            if (control.isDone) {
+                return false;
+            }
+            if (left > SPIN_NS) {
+                LockSupport.parkNanos(left - SPIN_NS);
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.openjdk.jmh.util.SampleBuffer;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks the in-flight operations of asynchronous benchmark, on behalf of a single
+ * benchmark thread.
+ *
+ * <p>Benchmark thread acquires the slot with {@link #begin()} before submitting the
+ * operation, and then either attaches the completion hook that calls
+ * {@link #complete(int, Throwable)}, or hands over the {@link Future} to poll with
+ * {@link #track(int, Future)}. The number of slots caps the number of operations in
+ * flight: when all slots are busy, benchmark thread waits for some operation to complete.
+ * Completion hooks only timestamp the slot, and do not allocate. Completed operations
+ * are then harvested by the benchmark thread, which records their submit-to-completion
+ * latencies.</p>
+ *
+ * <p>Operation failures are rethrown in the benchmark thread.</p>
+ */
+public final class AsyncTracker {
+
+    private static final long PENDING = Long.MIN_VALUE;
+
+    private final long opsPerInv;
+
+    private final long[] startTimes;
+    private final AtomicLongArray doneTimes;
+    private final Future<?>[] futures;
+    private final AtomicReference<Throwable> failure;
+
+    private final int[] free;
+    private int freeCount;
+    private final int[] busy;
+    private int busyCount;
+
+    private SampleBuffer buffer;
+    private TimeSeriesRecorder series;
+    private long completed;
+
+    public AsyncTracker(int maxInFlight, long opsPerInv) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in-flight operations should be positive: " + maxInFlight);
+        }
+        this.opsPerInv = opsPerInv;
+        this.startTimes = new long[maxInFlight];
+        this.doneTimes = new AtomicLongArray(maxInFlight);
+        this.futures = new Future<?>[maxInFlight];
+        this.failure = new AtomicReference<>();
+        this.free = new int[maxInFlight];
+        this.busy = new int[maxInFlight];
+        for (int s = 0; s < maxInFlight; s++) {
+            doneTimes.set(s, PENDING);
+            free[s] = maxInFlight - 1 - s;
+        }
+        this.freeCount = maxInFlight;
+    }
+
+    /**
+     * @return number of slots, that is, max number of in-flight operations
+     */
+    public int capacity() {
+        return startTimes.length;
+    }
+
+    /**
+     * Sets where to record the latencies of completed operations. Either
+     * destination can be null.
+     *
+     * @param buffer sample buffer for latencies
+     * @param series time series recorder for latencies
+     */
+    public void record(SampleBuffer buffer, TimeSeriesRecorder series) {
+        this.buffer = buffer;
+        this.series = series;
+    }
+
+    /**
+     * Acquires the slot for the new operation, waiting for some in-flight operations
+     * to complete if needed. Operation start time is taken after the slot is acquired.
+     *
+     * @return slot index
+     * @throws Throwable if any operation had failed
+     */
+    public int begin() throws Throwable {
+        int slot = acquire();
+        startTimes[slot] = System.nanoTime();
+        return slot;
+    }
+
+    /**
+     * Acquires the slot for the new operation, waiting for some in-flight operations
+     * to complete if needed.
+     *
+     * @param startTime time to measure the latency from, ns
+     * @return slot index
+     * @throws Throwable if any operation had failed
+     */
+    public int begin(long startTime) throws Throwable {
+        int slot = acquire();
+        startTimes[slot] = startTime;
+        return slot;
+    }
+
+    /**
+     * Hands over the future for the operation in the slot. The future is polled
+     * when harvesting, so that the completion time is only as precise as the polling.
+     *
+     * @param slot slot index
+     * @param future operation future
+     */
+    public void track(int slot, Future<?> future) {
+        if (future == null) {
+            throw new NullPointerException("Asynchronous @Benchmark method returned null");
+        }
+        futures[slot] = future;
+    }
+
+    /**
+     * Marks the operation in the slot completed. This is to be called from the
+     * completion hooks, in any thread.
+     *
+     * @param slot slot index
+     * @param error operation failure, or null
+     */
+    public void complete(int slot, Throwable error) {
+        long now = System.nanoTime();
+        if (error != null) {
+            failure.compareAndSet(null, error);
+        }
+        doneTimes.set(slot, now);
+    }
+
+    /**
+     * Waits for all in-flight operations to complete.
+     *
+     * @throws Throwable if any operation had failed
+     */
+    public void drain() throws Throwable {
+        while (busyCount > 0) {
+            if (harvest() == 0) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("Interrupted while waiting for " + busyCount + " in-flight operations");
+                }
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * @return number of operations completed so far
+     */
+    public long completed() {
+        return completed;
+    }
+
+    private int acquire() throws Throwable {
+        while (freeCount == 0) {
+            if (harvest() == 0) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("Interrupted while waiting for a free slot, " + busyCount + " operations in flight");
+                }
+                Thread.yield();
+            }
+        }
+        int slot = free[--freeCount];
+        busy[busyCount++] = slot;
+        return slot;
+    }
+
+    private int harvest() throws Throwable {
+        int harvested = 0;
+        int i = 0;
+        while (i < busyCount) {
+            int slot = busy[i];
+            long doneTime = doneTimes.get(slot);
+            Future<?> f = futures[slot];
+            if (doneTime == PENDING && f != null && f.isDone()) {
+                doneTime = System.nanoTime();
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    failure.compareAndSet(null, e.getCause());
+                } catch (CancellationException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+
+            if (doneTime == PENDING) {
+                i++;
+                continue;
+            }
+
+            long latency = (doneTime - startTimes[slot]) / opsPerInv;
+            if (buffer != null) {
+                buffer.add(latency);
+            }
+            if (series != null) {
+                series.sample(startTimes[slot], latency);
+            }
+            completed++;
+            harvested++;
+
+            doneTimes.set(slot, PENDING);
+            futures[slot] = null;
+            busy[i] = busy[--busyCount];
+            free[freeCount++] = slot;
+        }
+
+        Throwable t = failure.get();
+        if (t != null) {
+            throw t;
+        }
+        return harvested;
+    }
+
+}
@@ -32,10 +32,13 @@ import org.openjdk.jmh.results.BenchmarkResultMetaData;
 import org.openjdk.jmh.results.IterationResult;
 import org.openjdk.jmh.runner.format.OutputFormat;
 import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.util.ListStatistics;
 import org.openjdk.jmh.util.Multimap;
+import org.openjdk.jmh.util.Statistics;
 import org.openjdk.jmh.util.TreeMultimap;
 import org.openjdk.jmh.util.Utils;
 
+import java.lang.management.CompilationMXBean;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
@@ -68,10 +71,18 @@ abstract class BaseRunner {
     }
 
     protected void runBenchmarksForked(ActionPlan actionPlan, IterationResultAcceptor acceptor) {
+        // host VM can only announce the single benchmark per fork, announce the rest here
+        boolean shared = actionPlan.getMeasurementActions().size() > 1;
+
         for (Action action : actionPlan.getActions()) {
             BenchmarkParams params = action.getParams();
             ActionMode mode = action.getMode();
 
+            if (shared && mode != ActionMode.WARMUP) {
+                out.startBenchmark(params);
+                out.println("");
+            }
+
             doSingle(params, mode, acceptor);
         }
     }
@@ -102,7 +113,7 @@ abstract class BaseRunner {
                 }
 
                 @Override
-                public void acceptMeta(BenchmarkResultMetaData md) {
+                public void acceptMeta(BenchmarkParams p, BenchmarkResultMetaData md) {
                     mds.add(md);
                 }
             };
@@ -163,6 +174,10 @@ abstract class BaseRunner {
         benchmarkStart = current;
     }
 
+    protected void etaExtraBenchmark(BenchmarkParams params) {
+        projectedTotalTime += estimateTimeSingleFork(params);
+    }
+
     protected void etaBeforeBenchmarks(Collection<ActionPlan> plans) {
         projectedTotalTime = 0;
         for (ActionPlan plan : plans) {
@@ -243,6 +258,14 @@ abstract class BaseRunner {
     }
 
     protected void runBenchmark(BenchmarkParams benchParams, BenchmarkHandler handler, IterationResultAcceptor acceptor) {
+        // calibrate before the benchmark threads start, and before anything is timed
+        TimerCalibration timer = TimerCalibration.get();
+        out.verbosePrintln("Timer: " + timer);
+
+        if (benchParams.shouldMeasureCpuTime() && !CpuTimer.isSupported()) {
+            out.println("# WARNING: Thread CPU time is not available, CPU time will not be reported");
+        }
+
         long warmupTime = System.currentTimeMillis();
 
         long allWarmup = 0;
@@ -250,7 +273,28 @@ abstract class BaseRunner {
 
         // warmup
         IterationParams wp = benchParams.getWarmup();
-        for (int i = 1; i <= wp.getCount(); i++) {
+
+        // steady-state warmup treats iteration count as the minimum
+        int maxWarmupIterations = wp.getCount();
+        SteadyStateDetector steadyState = null;
+        CompilationMXBean compilation = null;
+        if (options.getWarmupWindow().hasValue() && maxWarmupIterations > 0) {
+            maxWarmupIterations = Math.max(maxWarmupIterations, options.getMaxWarmupIterations().orElse(Defaults.MAX_WARMUP_ITERATIONS));
+
+            boolean quietCompilation = options.shouldWarmupQuietCompilation().orElse(Defaults.WARMUP_QUIET_COMPILATION);
+            if (quietCompilation) {
+                compilation = ManagementFactory.getCompilationMXBean();
+                if (compilation == null || !compilation.isCompilationTimeMonitoringSupported()) {
+                    out.println("# WARNING: JIT compilation time is not available, steady-state warmup will not wait for quiet compilation");
+                    compilation = null;
+                    quietCompilation = false;
+                }
+            }
+            steadyState = new SteadyStateDetector(options.getWarmupWindow().get(), quietCompilation);
+        }
+
+        int warmupIterations = 0;
+        for (int i = 1; i <= maxWarmupIterations; i++) {
             // will run system gc if we should
             if (runSystemGC()) {
                 out.verbosePrintln("System.gc() executed");
@@ -262,13 +306,36 @@ abstract class BaseRunner {
             out.iterationResult(benchParams, wp, i, ir);
 
             allWarmup += ir.getMetadata().getAllOps();
+            warmupIterations = i;
+
+            if (steadyState != null) {
+                steadyState.add(ir.getPrimaryResult().getScore(),
+                        (compilation != null) ? compilation.getTotalCompilationTime() : 0);
+
+                boolean steady = (i >= wp.getCount()) && steadyState.isSteady();
+                if (steady || i == maxWarmupIterations) {
+                    out.println("# Steady-state warmup: " +
+                            (steady ? "reached" : "did not reach") +
+                            " the steady state after " + i + " iterations");
+                    break;
+                }
+            }
         }
 
         long measurementTime = System.currentTimeMillis();
 
         // measurement
         IterationParams mp = benchParams.getMeasurement();
-        for (int i = 1; i <= mp.getCount(); i++) {
+
+        // adaptive measurement treats iteration count as the minimum, and only
+        // knows the iteration is last when the scores had converged before it
+        int maxIterations = mp.getCount();
+        if (isAdaptive() && maxIterations > 0) {
+            maxIterations = Math.max(maxIterations, options.getMaxMeasurementIterations().orElse(Defaults.MAX_MEASUREMENT_ITERATIONS));
+        }
+        ListStatistics scores = new ListStatistics();
+
+        for (int i = 1; i <= maxIterations; i++) {
             // will run system gc if we should
             if (runSystemGC()) {
                 out.verbosePrintln("System.gc() executed");
@@ -277,26 +344,86 @@ abstract class BaseRunner {
             // run benchmark iteration
             out.iteration(benchParams, mp, i);
 
-            boolean isLastIteration = (i == mp.getCount());
+            boolean isLastIteration = (i == maxIterations) ||
+                    (i >= mp.getCount() && hasConverged(scores));
             IterationResult ir = handler.runIteration(benchParams, mp, isLastIteration);
             out.iterationResult(benchParams, mp, i, ir);
 
             allMeasurement += ir.getMetadata().getAllOps();
+            scores.addValue(ir.getPrimaryResult().getScore());
 
             if (acceptor != null) {
                 acceptor.accept(ir);
             }
+
+            if (isLastIteration) {
+                if (i > mp.getCount()) {
+                    out.println("# Adaptive measurement: " +
+                            (hasConverged(scores) ? "reached" : "did not reach") +
+                            " the target error after " + i + " iterations");
+                }
+                break;
+            }
         }
 
         long stopTime = System.currentTimeMillis();
 
+        checkTimer(benchParams, timer, scores);
+
         BenchmarkResultMetaData md = new BenchmarkResultMetaData(
                 warmupTime, measurementTime, stopTime,
-                allWarmup, allMeasurement);
+                allWarmup, allMeasurement, warmupIterations,
+                timer.getLatency(), timer.getGranularity());
 
         if (acceptor != null) {
-            acceptor.acceptMeta(md);
+            acceptor.acceptMeta(benchParams, md);
+        }
+    }
+
+    /**
+     * Warns if the timestamps are taken too close to each other, so that
+     * the timer latency and granularity dominate the time/op score.
+     */
+    private void checkTimer(BenchmarkParams benchParams, TimerCalibration timer, Statistics scores) {
+        Mode mode = benchParams.getMode();
+        if ((mode != Mode.SampleTime && mode != Mode.SingleShotTime) || scores.getN() == 0) {
+            return;
+        }
+
+        // every timestamp pair covers at least one invocation, doing opsPerInvocation ops
+        double nsPerOp = scores.getMean() * benchParams.getTimeUnit().toNanos(1);
+        double nsPerSample = nsPerOp * benchParams.getOpsPerInvocation();
+        if (timer.isSignificantFor(nsPerSample)) {
+            out.println(String.format("# WARNING: Score is within %dx of the timer cost (%s), the timer contributes " +
+                            "significantly to the result. Consider doing more ops per invocation" +
+                            (mode == Mode.SampleTime && !benchParams.shouldCompensateTimer() ? ", or -tc true" : "") + ".",
+                    TimerCalibration.WARNING_FACTOR, timer));
+        }
+    }
+
+    protected boolean isAdaptive() {
+        return options.getTargetError().hasValue();
+    }
+
+    /**
+     * Checks if the scores had converged for adaptive measurement, that is,
+     * the confidence interval for the mean is within the target relative error.
+     *
+     * @param scores score statistics
+     * @return true, if adaptive measurement is enabled and scores had converged
+     */
+    protected boolean hasConverged(Statistics scores) {
+        if (!isAdaptive()) {
+            return false;
         }
+
+        double[] ci = scores.getConfidenceIntervalAt(options.getTargetConfidence().orElse(Defaults.TARGET_CONFIDENCE));
+        double mean = scores.getMean();
+        if (Double.isNaN(ci[0]) || Double.isNaN(ci[1]) || mean == 0) {
+            return false;
+        }
+
+        return (ci[1] - ci[0]) / 2 <= options.getTargetError().get() * Math.abs(mean);
     }
 
     /**
@@ -41,6 +41,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -53,9 +54,25 @@ class BenchmarkHandler {
      */
     private final ExecutorService executor;
 
+    private final ExecutorType executorType;
+
     // (Aleksey) Forgive me, Father, for I have sinned.
     private final ThreadLocal<ThreadData> threadData;
 
+    /**
+     * Per-task data, used instead of {@link #threadData} when executor does not reuse threads.
+     */
+    private final ThreadData[] taskData;
+
+    /**
+     * Thread params are computed on demand when the worker binds, instead
+     * of pre-populating them: this keeps setup cheap for large thread counts.
+     */
+    private final AtomicInteger nextThreadIdx;
+    private final int threads;
+    private final int[] threadGroups;
+    private final Class<?> clazz;
+
     private final OutputFormat out;
     private final List<InternalProfiler> profilers;
     private final List<InternalProfiler> profilersRev;
@@ -72,67 +89,107 @@ class BenchmarkHandler {
         this.profilersRev = new ArrayList<>(profilers);
         Collections.reverse(profilersRev);
 
-        final BlockingQueue<ThreadParams> tps = new ArrayBlockingQueue<>(executionParams.getThreads());
-        tps.addAll(distributeThreads(executionParams.getThreads(), executionParams.getThreadGroups()));
+        this.nextThreadIdx = new AtomicInteger();
+        this.threads = executionParams.getThreads();
+        this.threadGroups = executionParams.getThreadGroups();
 
-        this.threadData = new ThreadLocal<ThreadData>() {
-            @Override
-            protected ThreadData initialValue() {
-                try {
-                    Object o = clazz.getConstructor().newInstance();
-                    ThreadParams t = tps.poll();
-                    if (t == null) {
-                        throw new IllegalStateException("Cannot get another thread params");
-                    }
-                    return new ThreadData(o, t);
-                } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
-                    throw new RuntimeException("Class " + clazz.getName() + " instantiation error ", e);
+        try {
+            this.executorType = ExecutorType.valueOf(executionParams.getExecutor());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unknown executor type: " + executionParams.getExecutor(), e);
+        }
+
+        if (executorType.reusesThreads()) {
+            this.threadData = new ThreadLocal<ThreadData>() {
+                @Override
+                protected ThreadData initialValue() {
+                    return newThreadData();
                 }
-            }
-        };
+            };
+            this.taskData = null;
+        } else {
+            // Executor would give us the fresh thread for every task, bind the data
+            // to the task slot instead, so that state survives between the iterations.
+            this.threadData = null;
+            this.taskData = new ThreadData[executionParams.getThreads()];
+        }
+        this.clazz = clazz;
 
         this.out = out;
         try {
-            this.executor = EXECUTOR_TYPE.createExecutor(executionParams.getThreads(), executionParams.getBenchmark());
+            this.executor = executorType.createExecutor(executionParams.getThreads(), executionParams.getBenchmark());
         } catch (Exception e) {
             throw new IllegalStateException(e);
         }
     }
 
+    private ThreadData newThreadData() {
+        try {
+            Object o = clazz.getConstructor().newInstance();
+            int idx = nextThreadIdx.getAndIncrement();
+            if (idx >= threads) {
+                throw new IllegalStateException("Cannot get another thread params");
+            }
+            return new ThreadData(o, threadParams(idx, threads, threadGroups));
+        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException | InvocationTargetException e) {
+            throw new RuntimeException("Class " + clazz.getName() + " instantiation error ", e);
+        }
+    }
+
+    private ThreadData getThreadData(int slot) {
+        if (taskData == null) {
+            return threadData.get();
+        }
+
+        // Every slot is only touched by a single task at a time, and executor
+        // submission orders the accesses between the iterations.
+        ThreadData td = taskData[slot];
+        if (td == null) {
+            td = newThreadData();
+            taskData[slot] = td;
+        }
+        return td;
+    }
+
     static List<ThreadParams> distributeThreads(int threads, int[] groups) {
         List<ThreadParams> result = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            result.add(threadParams(t, threads, groups));
+        }
+        return result;
+    }
+
+    /**
+     * Computes the thread params for a given thread, as if threads were laid out
+     * group after group, filling the subgroups in order.
+     *
+     * @param t thread index
+     * @param threads total number of threads
+     * @param groups subgroup distribution
+     * @return thread params
+     */
+    static ThreadParams threadParams(int t, int threads, int[] groups) {
         int totalGroupThreads = Utils.sum(groups);
         int totalGroups = (int) Math.ceil(1D * threads / totalGroupThreads);
         int totalSubgroups = groups.length;
 
-        int currentGroupThread = 0;
-        int currentSubgroupThread = 0;
-        int currentGroup = 0;
-        int currentSubgroup = 0;
-        for (int t = 0; t < threads; t++) {
-            while (currentSubgroupThread >= groups[currentSubgroup]) {
-                currentSubgroup++;
-                if (currentSubgroup == groups.length) {
-                    currentGroup++;
-                    currentSubgroup = 0;
-                    currentGroupThread = 0;
-                }
-                currentSubgroupThread = 0;
-            }
+        int currentGroup = t / totalGroupThreads;
+        int currentGroupThread = t % totalGroupThreads;
 
-            result.add(new ThreadParams(
-                    t, threads,
-                    currentGroup, totalGroups,
-                    currentSubgroup, totalSubgroups,
-                    currentGroupThread, totalGroupThreads,
-                    currentSubgroupThread, groups[currentSubgroup]
-                  )
-            );
-
-            currentGroupThread++;
-            currentSubgroupThread++;
+        int currentSubgroup = 0;
+        int currentSubgroupThread = currentGroupThread;
+        while (currentSubgroupThread >= groups[currentSubgroup]) {
+            currentSubgroupThread -= groups[currentSubgroup];
+            currentSubgroup++;
         }
-        return result;
+
+        return new ThreadParams(
+                t, threads,
+                currentGroup, totalGroups,
+                currentSubgroup, totalSubgroups,
+                currentGroupThread, totalGroupThreads,
+                currentSubgroupThread, groups[currentSubgroup]
+        );
     }
 
     public static Method findBenchmarkMethod(Class<?> clazz, String methodName) {
@@ -182,8 +239,6 @@ class BenchmarkHandler {
         return true;
     }
 
-    private static final ExecutorType EXECUTOR_TYPE = Enum.valueOf(ExecutorType.class, System.getProperty("jmh.executor", ExecutorType.FIXED_TPE.name()));
-
     private enum ExecutorType {
 
         /**
@@ -236,6 +291,43 @@ class BenchmarkHandler {
 
         },
 
+        /**
+         * Use virtual threads, one per task (JDK 21+).
+         */
+        VIRTUAL {
+            @Override
+            ExecutorService createExecutor(int maxThreads, String prefix) throws Exception {
+                // Carrier pool is sized once, when the first virtual thread is created.
+                // Do not override the JDK settings if user had asked for them explicitly.
+                String parallelism = System.getProperty("jmh.executor.parallelism");
+                if (parallelism != null) {
+                    setIfAbsent("jdk.virtualThreadScheduler.parallelism", parallelism);
+                    setIfAbsent("jdk.virtualThreadScheduler.maxPoolSize", parallelism);
+                }
+
+                // (Aleksey):
+                // requires some of the reflection magic to untie from JDK 21 compile-time dependencies
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix + "-jmh-worker-", 1L);
+                ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+
+                Method m = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+                return (ExecutorService) m.invoke(null, factory);
+            }
+
+            @Override
+            boolean reusesThreads() {
+                return false;
+            }
+
+            private void setIfAbsent(String key, String value) {
+                if (System.getProperty(key) == null) {
+                    System.setProperty(key, value);
+                }
+            }
+        },
+
         CUSTOM {
             @Override
             ExecutorService createExecutor(int maxThreads, String prefix) throws Exception {
@@ -252,6 +344,14 @@ class BenchmarkHandler {
         boolean shutdownForbidden() {
             return false;
         }
+
+        /**
+         * @return true, if executor runs the tasks on the same set of threads
+         *         for all iterations; false, if every task gets the new thread
+         */
+        boolean reusesThreads() {
+            return true;
+        }
     }
 
     protected void startProfilers(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
@@ -280,7 +380,7 @@ class BenchmarkHandler {
      * Do required shutdown actions.
      */
     public void shutdown() {
-        if (EXECUTOR_TYPE.shutdownForbidden() || (executor == null)) {
+        if (executorType.shutdownForbidden() || (executor == null)) {
             return;
         }
         while (true) {
@@ -324,7 +424,7 @@ class BenchmarkHandler {
         // preparing the worker runnables
         BenchmarkTask[] runners = new BenchmarkTask[numThreads];
         for (int i = 0; i < runners.length; i++) {
-            runners[i] = new BenchmarkTask(control);
+            runners[i] = new BenchmarkTask(control, i);
         }
 
         long waitDeadline = System.nanoTime() + benchmarkParams.getTimeout().convertTo(TimeUnit.NANOSECONDS);
@@ -437,9 +537,11 @@ class BenchmarkHandler {
     class BenchmarkTask implements Callable<BenchmarkTaskResult> {
         private volatile Thread runner;
         private final InfraControl control;
+        private final int slot;
 
-        BenchmarkTask(InfraControl control) {
+        BenchmarkTask(InfraControl control, int slot) {
             this.control = control;
+            this.slot = slot;
         }
 
         @Override
@@ -449,7 +551,7 @@ class BenchmarkHandler {
                 runner = Thread.currentThread();
 
                 // go for the run
-                ThreadData td = threadData.get();
+                ThreadData td = getThreadData(slot);
                 return (BenchmarkTaskResult) method.invoke(td.instance, control, td.params);
             } catch (Throwable e) {
                 // about to fail the iteration;
@@ -461,19 +563,9 @@ class BenchmarkHandler {
                 control.preSetupForce();
                 control.preTearDownForce();
 
-                if (control.benchmarkParams.shouldSynchIterations()) {
-                    try {
-                        control.announceWarmupReady();
-                    } catch (Exception e1) {
-                        // more threads than expected
-                    }
-
-                    try {
-                        control.announceWarmdownReady();
-                    } catch (Exception e1) {
-                        // more threads than expected
-                    }
-                }
+                // release the iteration rendezvous, the iteration is failing anyway
+                control.warmupReadyForce();
+                control.warmdownReadyForce();
 
                 throw new Exception(e); // wrapping Throwable
             } finally {
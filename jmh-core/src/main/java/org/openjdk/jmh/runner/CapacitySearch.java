@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+/**
+ * Searches for the highest arrival rate that still meets the latency SLO.
+ * The rate is doubled while the probes pass, or halved while they fail, until
+ * the SLO is crossed; then the rate is bisected between the highest passing and
+ * the lowest failing rate, until these are within the resolution.
+ */
+class CapacitySearch {
+
+    /**
+     * Max number of probes in the search.
+     */
+    static final int MAX_PROBES = 16;
+
+    /**
+     * Relative gap between the passing and the failing rates we stop at.
+     */
+    static final double RESOLUTION = 0.05;
+
+    private final int initialRate;
+    private int probes;
+    private int passed;
+    private int failed;
+
+    /**
+     * @param initialRate rate to start with
+     */
+    public CapacitySearch(int initialRate) {
+        if (initialRate < 1) {
+            throw new IllegalArgumentException("Initial rate should be positive: " + initialRate);
+        }
+        this.initialRate = initialRate;
+    }
+
+    /**
+     * @return true, if search needs more probes
+     */
+    public boolean hasNext() {
+        if (probes >= MAX_PROBES) {
+            return false;
+        }
+        if (passed > 0 && failed > 0) {
+            return (failed - passed > 1) && (failed > passed * (1 + RESOLUTION));
+        }
+        if (failed == 1) {
+            // even the lowest rate fails
+            return false;
+        }
+        if (passed > Integer.MAX_VALUE / 2) {
+            // cannot go higher
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return next rate to probe
+     */
+    public int next() {
+        if (passed == 0 && failed == 0) {
+            return initialRate;
+        } else if (failed == 0) {
+            return passed * 2;
+        } else if (passed == 0) {
+            return Math.max(1, failed / 2);
+        } else {
+            return passed + (failed - passed) / 2;
+        }
+    }
+
+    /**
+     * @param rate probed rate
+     * @param pass true, if the SLO was met at this rate
+     */
+    public void report(int rate, boolean pass) {
+        probes++;
+        if (pass) {
+            passed = Math.max(passed, rate);
+        } else {
+            failed = (failed == 0) ? rate : Math.min(failed, rate);
+        }
+    }
+
+    /**
+     * @return the highest rate meeting the SLO; 0, if none did
+     */
+    public int getCapacity() {
+        return passed;
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.openjdk.jmh.util.Utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits the CPUs available to host VM into disjoint sets, and binds
+ * the forked VMs to them.
+ */
+class CpuSets {
+
+    private final List<List<Integer>> sets;
+    private final boolean canBind;
+
+    public CpuSets(int count) {
+        List<Integer> cpus = availableCpus();
+        this.sets = partition(cpus, count);
+        this.canBind = Utils.isLinux() && Utils.tryWith(probeCommand(cpus)).isEmpty();
+    }
+
+    /**
+     * Probes the binding with the CPU this process is actually allowed to run on:
+     * CPU 0 may be outside the allowed set, e.g. in containers, or with isolated CPUs.
+     *
+     * @param cpus available CPUs
+     * @return probe command
+     */
+    static String[] probeCommand(List<Integer> cpus) {
+        return new String[] {"taskset", "-c", String.valueOf(cpus.get(0)), "true"};
+    }
+
+    /**
+     * @return number of CPU sets
+     */
+    public int size() {
+        return sets.size();
+    }
+
+    /**
+     * @return true, if forked VMs are actually bound to CPU sets
+     */
+    public boolean canBind() {
+        return canBind;
+    }
+
+    /**
+     * @param set CPU set index
+     * @return human-readable CPU list, e.g. "0-7,16-23"
+     */
+    public String describe(int set) {
+        return toList(sets.get(set));
+    }
+
+    /**
+     * @param set CPU set index
+     * @return command prefix to bind the forked VM to the CPU set, empty if binding is not supported
+     */
+    public List<String> commandPrefix(int set) {
+        if (!canBind) {
+            return Collections.emptyList();
+        }
+        List<String> r = new ArrayList<>();
+        r.add("taskset");
+        r.add("-c");
+        r.add(describe(set));
+        return r;
+    }
+
+    static List<Integer> availableCpus() {
+        File status = new File("/proc/self/status");
+        if (status.canRead()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(status))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("Cpus_allowed_list:")) {
+                        List<Integer> cpus = parseList(line.substring("Cpus_allowed_list:".length()));
+                        if (!cpus.isEmpty()) {
+                            return cpus;
+                        }
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                // fall through
+            }
+        }
+
+        List<Integer> cpus = new ArrayList<>();
+        int count = Runtime.getRuntime().availableProcessors();
+        for (int c = 0; c < count; c++) {
+            cpus.add(c);
+        }
+        return cpus;
+    }
+
+    /**
+     * Splits the CPUs into contiguous sets, set sizes differ at most by one.
+     * There are never more sets than CPUs.
+     *
+     * @param cpus CPUs to split
+     * @param count requested number of sets
+     * @return CPU sets
+     */
+    static List<List<Integer>> partition(List<Integer> cpus, int count) {
+        int sets = Math.max(1, Math.min(count, cpus.size()));
+        List<List<Integer>> result = new ArrayList<>();
+        int start = 0;
+        for (int s = 0; s < sets; s++) {
+            int size = cpus.size() / sets + ((s < cpus.size() % sets) ? 1 : 0);
+            result.add(new ArrayList<>(cpus.subList(start, start + size)));
+            start += size;
+        }
+        return result;
+    }
+
+    /**
+     * Parses the Linux CPU list format, e.g. "0-3,8,10-11".
+     *
+     * @param src CPU list
+     * @return CPU ids
+     */
+    static List<Integer> parseList(String src) {
+        List<Integer> cpus = new ArrayList<>();
+        for (String range : src.trim().split(",")) {
+            range = range.trim();
+            if (range.isEmpty()) continue;
+            int dash = range.indexOf('-');
+            if (dash == -1) {
+                cpus.add(Integer.parseInt(range));
+            } else {
+                int from = Integer.parseInt(range.substring(0, dash));
+                int to = Integer.parseInt(range.substring(dash + 1));
+                for (int c = from; c <= to; c++) {
+                    cpus.add(c);
+                }
+            }
+        }
+        return cpus;
+    }
+
+    /**
+     * Formats the CPU ids in Linux CPU list format, collapsing the consecutive runs.
+     *
+     * @param cpus CPU ids
+     * @return CPU list
+     */
+    static String toList(List<Integer> cpus) {
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while (i < cpus.size()) {
+            int from = cpus.get(i);
+            int to = from;
+            while (i + 1 < cpus.size() && cpus.get(i + 1) == to + 1) {
+                to = cpus.get(++i);
+            }
+            i++;
+
+            if (sb.length() > 0) {
+                sb.append(",");
+            }
+            sb.append(from);
+            if (to != from) {
+                sb.append("-").append(to);
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the CPU time consumed by the current thread. Generated code reads it
+ * at iteration boundaries, so that CPU time per operation can be reported
+ * along with the wall time per operation.
+ */
+public final class CpuTimer {
+
+    private static final ThreadMXBean BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean SUPPORTED = enable();
+
+    private CpuTimer() {
+        // prevent instantiation
+    }
+
+    private static boolean enable() {
+        try {
+            if (!BEAN.isCurrentThreadCpuTimeSupported()) {
+                return false;
+            }
+            if (!BEAN.isThreadCpuTimeEnabled()) {
+                BEAN.setThreadCpuTimeEnabled(true);
+            }
+            return true;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true, if thread CPU time is available
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * @return CPU time consumed by the current thread, ns; -1 if not available
+     */
+    public static long threadCpuTime() {
+        return SUPPORTED ? BEAN.getCurrentThreadCpuTime() : -1;
+    }
+
+}
@@ -26,9 +26,11 @@ package org.openjdk.jmh.runner;
 
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.options.ArrivalProcess;
 import org.openjdk.jmh.runner.options.TimeValue;
 import org.openjdk.jmh.runner.options.VerboseMode;
 import org.openjdk.jmh.runner.options.WarmupMode;
+import org.openjdk.jmh.util.ConfidenceMethod;
 
 import java.util.concurrent.TimeUnit;
 
@@ -92,6 +94,76 @@ public class Defaults {
      */
     public static final int WARMUP_FORKS = 0;
 
+    /**
+     * Number of forks we run in parallel.
+     */
+    public static final int PARALLEL_FORKS = 1;
+
+    /**
+     * Number of benchmarks sharing the same fork.
+     */
+    public static final int BENCHMARKS_PER_FORK = 1;
+
+    /**
+     * Confidence level for adaptive measurement target error.
+     */
+    public static final double TARGET_CONFIDENCE = 0.999;
+
+    /**
+     * Max number of measurement iterations in adaptive measurement.
+     */
+    public static final int MAX_MEASUREMENT_ITERATIONS = 50;
+
+    /**
+     * Max number of forks in adaptive measurement.
+     */
+    public static final int MAX_FORKS = 10;
+
+    /**
+     * Max number of warmup iterations in steady-state warmup.
+     */
+    public static final int MAX_WARMUP_ITERATIONS = 50;
+
+    /**
+     * Should steady-state warmup wait for JIT compilation to quiesce?
+     */
+    public static final boolean WARMUP_QUIET_COMPILATION = false;
+
+    /**
+     * Default arrival rate for {@link Mode#RateLimited}, operations per second per thread.
+     */
+    public static final int ARRIVAL_RATE = 1000;
+
+    /**
+     * Default arrival process for {@link Mode#RateLimited}.
+     */
+    public static final ArrivalProcess ARRIVAL_PROCESS = ArrivalProcess.CONSTANT;
+
+    /**
+     * Latency percentile the capacity search checks against the SLO.
+     */
+    public static final double SLO_PERCENTILE = 0.99;
+
+    /**
+     * Should the calibrated timer overhead be subtracted from {@link Mode#SampleTime} samples?
+     */
+    public static final boolean TIMER_COMPENSATION = false;
+
+    /**
+     * Should JMH measure per-thread CPU time along with the wall time?
+     */
+    public static final boolean CPU_TIME = false;
+
+    /**
+     * Maximum number of in-flight operations per thread for asynchronous benchmarks.
+     */
+    public static final int MAX_IN_FLIGHT = 1;
+
+    /**
+     * Tolerated slowdown against the baseline, as the fraction of the baseline score.
+     */
+    public static final double REGRESSION_THRESHOLD = 0.05;
+
     /**
      * Should JMH fail on benchmark error?
      */
@@ -117,6 +189,16 @@ public class Defaults {
      */
     public static final String RESULT_FILE_PREFIX = "jmh-result";
 
+    /**
+     * Default {@link org.openjdk.jmh.util.ConfidenceMethod} for the primary score.
+     */
+    public static final ConfidenceMethod CONFIDENCE_METHOD = ConfidenceMethod.STUDENT;
+
+    /**
+     * Default location of the result store.
+     */
+    public static final String RESULT_STORE_DIR = System.getProperty("user.home") + "/.jmh/results";
+
     /**
      * Default {@link org.openjdk.jmh.runner.options.WarmupMode}.
      */
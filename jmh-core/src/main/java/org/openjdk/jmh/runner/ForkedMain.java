@@ -63,7 +63,7 @@ class ForkedMain {
 
             try {
                 // This assumes the exact order of arguments:
-                //   1) host name to back-connect
+                //   1) host name to back-connect, or shared memory link address
                 //   2) host port to back-connect
                 String hostName = argv[0];
                 int hostPort = Integer.parseInt(argv[1]);
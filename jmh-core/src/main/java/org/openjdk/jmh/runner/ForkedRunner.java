@@ -24,6 +24,7 @@
  */
 package org.openjdk.jmh.runner;
 
+import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.BenchmarkResultMetaData;
 import org.openjdk.jmh.results.IterationResult;
 import org.openjdk.jmh.runner.link.BinaryLinkClient;
@@ -59,9 +60,9 @@ class ForkedRunner extends BaseRunner {
                 }
 
                 @Override
-                public void acceptMeta(BenchmarkResultMetaData md) {
+                public void acceptMeta(BenchmarkParams params, BenchmarkResultMetaData md) {
                     try {
-                        link.pushResultMetadata(md);
+                        link.pushResultMetadata(params, md);
                     } catch (IOException e) {
                         // link had probably failed
                         throw new SavedIOException(e);
@@ -32,6 +32,7 @@ import org.openjdk.jmh.util.Utils;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * The InfraControl logic class.
@@ -39,6 +40,12 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class InfraControl extends InfraControlL4 {
 
+    /**
+     * Number of pooled {@link org.openjdk.jmh.annotations.State} instances for
+     * {@link org.openjdk.jmh.annotations.Level#Pooled} fixtures.
+     */
+    public static final int POOL_SIZE = Integer.getInteger("jmh.poolSize", 64);
+
     /**
      * Do the class hierarchy trick to evade false sharing, and check if it's working in runtime.
      * @see org.openjdk.jmh.infra.Blackhole description for the rationale
@@ -49,10 +56,11 @@ public class InfraControl extends InfraControlL4 {
         Utils.check(InfraControl.class, "preSetup", "preTearDown");
         Utils.check(InfraControl.class, "lastIteration");
         Utils.check(InfraControl.class, "warmupVisited", "warmdownVisited");
+        Utils.check(InfraControl.class, "warmupPending", "warmdownPending");
         Utils.check(InfraControl.class, "warmupShouldWait", "warmdownShouldWait");
         Utils.check(InfraControl.class, "warmupDone", "warmdownDone");
         Utils.check(InfraControl.class, "benchmarkParams", "iterationParams");
-        Utils.check(InfraControl.class, "shouldSynchIterations", "threads");
+        Utils.check(InfraControl.class, "shouldSynchIterations", "threads", "stripes");
     }
 
     public InfraControl(BenchmarkParams benchmarkParams, IterationParams iterationParams,
@@ -151,7 +159,13 @@ abstract class InfraControlL2 extends InfraControlL1 {
     public final CountDownLatch preTearDown;
     public final boolean lastIteration;
 
-    public final AtomicInteger warmupVisited, warmdownVisited;
+    /**
+     * Arrivals at iteration rendezvous are counted in the padded stripes, picked by thread index.
+     * Only the thread that fills up the stripe touches the shared pending counter, which keeps
+     * the contention bounded with the large number of threads.
+     */
+    public final AtomicIntegerArray warmupVisited, warmdownVisited;
+    public final AtomicInteger warmupPending, warmdownPending;
     public volatile boolean warmupShouldWait, warmdownShouldWait;
     public final CountDownLatch warmupDone, warmdownDone;
 
@@ -161,19 +175,27 @@ abstract class InfraControlL2 extends InfraControlL1 {
 
     private final boolean shouldSynchIterations;
     private final int threads;
+    private final int stripes;
+
+    private static final int THREADS_PER_STRIPE = 64;
+    private static final int MAX_STRIPES = 256;
+    private static final int STRIPE_PAD = 32;
 
     public InfraControlL2(BenchmarkParams benchmarkParams, IterationParams iterationParams,
                           CountDownLatch preSetup, CountDownLatch preTearDown, boolean lastIteration,
                           Control notifyControl) {
-        warmupVisited = new AtomicInteger();
-        warmdownVisited = new AtomicInteger();
+        shouldSynchIterations = benchmarkParams.shouldSynchIterations();
+        threads = benchmarkParams.getThreads();
+        stripes = Math.max(1, Math.min(MAX_STRIPES, threads / THREADS_PER_STRIPE));
+
+        warmupVisited = new AtomicIntegerArray(stripes * STRIPE_PAD);
+        warmdownVisited = new AtomicIntegerArray(stripes * STRIPE_PAD);
+        warmupPending = new AtomicInteger(stripes);
+        warmdownPending = new AtomicInteger(stripes);
 
         warmupDone = new CountDownLatch(1);
         warmdownDone = new CountDownLatch(1);
 
-        shouldSynchIterations = benchmarkParams.shouldSynchIterations();
-        threads = benchmarkParams.getThreads();
-
         warmupShouldWait = shouldSynchIterations;
         warmdownShouldWait = shouldSynchIterations;
 
@@ -186,31 +208,48 @@ abstract class InfraControlL2 extends InfraControlL1 {
         this.iterationParams = iterationParams;
     }
 
-    public void announceWarmupReady() {
+    public void announceWarmupReady(int threadIdx) {
         if (!shouldSynchIterations) return;
-        int v = warmupVisited.incrementAndGet();
-
-        if (v == threads) {
-            warmupShouldWait = false;
-            warmupDone.countDown();
-        }
-
-        if (v > threads) {
-            throw new IllegalStateException("More threads than expected");
+        if (arrive(warmupVisited, warmupPending, threadIdx)) {
+            warmupReadyForce();
         }
     }
 
-    public void announceWarmdownReady() {
+    public void announceWarmdownReady(int threadIdx) {
         if (!shouldSynchIterations) return;
-        int v = warmdownVisited.incrementAndGet();
-        if (v == threads) {
-            warmdownShouldWait = false;
-            warmdownDone.countDown();
+        if (arrive(warmdownVisited, warmdownPending, threadIdx)) {
+            warmdownReadyForce();
         }
+    }
+
+    /**
+     * Releases all threads waiting for warmup rendezvous, regardless of the arrivals.
+     */
+    public void warmupReadyForce() {
+        warmupShouldWait = false;
+        warmupDone.countDown();
+    }
+
+    /**
+     * Releases all threads waiting for warmdown rendezvous, regardless of the arrivals.
+     */
+    public void warmdownReadyForce() {
+        warmdownShouldWait = false;
+        warmdownDone.countDown();
+    }
+
+    /**
+     * @return true, if this was the last expected arrival
+     */
+    private boolean arrive(AtomicIntegerArray visited, AtomicInteger pending, int threadIdx) {
+        int stripe = threadIdx % stripes;
+        int quota = threads / stripes + ((stripe < threads % stripes) ? 1 : 0);
 
-        if (v > threads) {
+        int v = visited.incrementAndGet(stripe * STRIPE_PAD);
+        if (v > quota) {
             throw new IllegalStateException("More threads than expected");
         }
+        return (v == quota) && (pending.decrementAndGet() == 0);
     }
 
     public void awaitWarmupReady() {
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Adaptive bisection over the ordered values of the parameter.
+ *
+ * <p>With the threshold, probes both ends first, and then bisects every interval where the
+ * score crosses the threshold, until the crossing is between the adjacent values.</p>
+ *
+ * <p>Without the threshold, looks for the knee: probes both ends and the middle, and then
+ * keeps splitting the intervals around the probed value that deviates the most from the
+ * straight line through its neighbours, until the probe budget is exhausted.</p>
+ */
+class ParamBisection {
+
+    /**
+     * Max number of probes in the threshold search.
+     */
+    static final int MAX_PROBES = 32;
+
+    private final int count;
+    private final double threshold;
+    private final double[] scores;
+    private final int budget;
+    private int probes;
+
+    /**
+     * @param count number of parameter values
+     * @param threshold score threshold; {@link Double#NaN} to look for the knee
+     */
+    public ParamBisection(int count, double threshold) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Value count should be positive: " + count);
+        }
+        this.count = count;
+        this.threshold = threshold;
+        this.scores = new double[count];
+        Arrays.fill(scores, Double.NaN);
+        if (isKnee()) {
+            int log = 32 - Integer.numberOfLeadingZeros(count - 1);
+            this.budget = Math.min(count, 3 + 2 * log);
+        } else {
+            this.budget = MAX_PROBES;
+        }
+    }
+
+    private boolean isKnee() {
+        return Double.isNaN(threshold);
+    }
+
+    /**
+     * @return true, if search needs more probes
+     */
+    public boolean hasNext() {
+        return probes < budget && pick() >= 0;
+    }
+
+    /**
+     * @return index of the value to probe next
+     */
+    public int next() {
+        int idx = pick();
+        if (idx < 0) {
+            throw new IllegalStateException("No more values to probe");
+        }
+        return idx;
+    }
+
+    /**
+     * @param idx index of the probed value
+     * @param score score at this value
+     */
+    public void report(int idx, double score) {
+        probes++;
+        scores[idx] = score;
+    }
+
+    private int pick() {
+        if (Double.isNaN(scores[0])) {
+            return 0;
+        }
+        if (Double.isNaN(scores[count - 1])) {
+            return count - 1;
+        }
+
+        List<Integer> probed = probed();
+        if (isKnee()) {
+            if (probed.size() == 2) {
+                return (count > 2) ? (count - 1) / 2 : -1;
+            }
+
+            // split around the most deviating point first
+            double bestDev = -1;
+            int best = -1;
+            for (int i = 1; i < probed.size() - 1; i++) {
+                int a = probed.get(i - 1);
+                int m = probed.get(i);
+                int b = probed.get(i + 1);
+                if (b - a <= 2) {
+                    continue;
+                }
+                double dev = deviation(a, m, b);
+                if (dev > bestDev) {
+                    bestDev = dev;
+                    best = (m - a >= b - m) ? (a + m) / 2 : (m + b) / 2;
+                }
+            }
+            return best;
+        } else {
+            for (int i = 0; i < probed.size() - 1; i++) {
+                int a = probed.get(i);
+                int b = probed.get(i + 1);
+                if (b - a > 1 && crosses(a, b)) {
+                    return (a + b) / 2;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private List<Integer> probed() {
+        List<Integer> probed = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (!Double.isNaN(scores[i])) {
+                probed.add(i);
+            }
+        }
+        return probed;
+    }
+
+    private boolean crosses(int a, int b) {
+        return (scores[a] < threshold) != (scores[b] < threshold);
+    }
+
+    private double deviation(int a, int m, int b) {
+        double line = scores[a] + (scores[b] - scores[a]) * (m - a) / (b - a);
+        return Math.abs(scores[m] - line);
+    }
+
+    /**
+     * @return score at the value index; {@link Double#NaN} if not probed
+     */
+    public double getScore(int idx) {
+        return scores[idx];
+    }
+
+    /**
+     * @return pairs of adjacent probed value indices the score crosses the threshold between
+     */
+    public List<int[]> getCrossings() {
+        List<int[]> result = new ArrayList<>();
+        if (isKnee()) {
+            return result;
+        }
+        List<Integer> probed = probed();
+        for (int i = 0; i < probed.size() - 1; i++) {
+            int a = probed.get(i);
+            int b = probed.get(i + 1);
+            if (crosses(a, b)) {
+                result.add(new int[]{a, b});
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return index of the probed value where the slope changes the most; -1, if there is no such value
+     */
+    public int getKnee() {
+        List<Integer> probed = probed();
+        double bestDev = 0;
+        int best = -1;
+        for (int i = 1; i < probed.size() - 1; i++) {
+            double dev = deviation(probed.get(i - 1), probed.get(i), probed.get(i + 1));
+            if (dev > bestDev) {
+                bestDev = dev;
+                best = probed.get(i);
+            }
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Picks the points in the parameter space. Every point is the array of value indices,
+ * one index per parameter; {@code sizes} hold the number of values for every parameter.
+ */
+class ParamExplorer {
+
+    private ParamExplorer() {
+        // prevent instantiation
+    }
+
+    /**
+     * @return every combination of values, the first parameter changing the slowest
+     */
+    static List<int[]> full(int[] sizes) {
+        List<int[]> points = new ArrayList<>();
+        points.add(new int[sizes.length]);
+        for (int d = 0; d < sizes.length; d++) {
+            List<int[]> newPoints = new ArrayList<>();
+            for (int[] p : points) {
+                for (int v = 0; v < sizes[d]; v++) {
+                    int[] np = p.clone();
+                    np[d] = v;
+                    newPoints.add(np);
+                }
+            }
+            points = newPoints;
+        }
+        return points;
+    }
+
+    /**
+     * @return {@code budget} distinct combinations picked uniformly at random; or every
+     *         combination, if there are not more than {@code budget} of them
+     */
+    static List<int[]> random(int[] sizes, int budget, long seed) {
+        if (total(sizes) <= budget) {
+            return full(sizes);
+        }
+
+        Random r = new Random(seed);
+        Set<List<Integer>> seen = new HashSet<>();
+        List<int[]> points = new ArrayList<>();
+        while (points.size() < budget) {
+            int[] p = new int[sizes.length];
+            for (int d = 0; d < sizes.length; d++) {
+                p[d] = r.nextInt(sizes[d]);
+            }
+            if (seen.add(asList(p))) {
+                points.add(p);
+            }
+        }
+        sort(points);
+        return points;
+    }
+
+    /**
+     * Latin hypercube sampling: the range of every parameter is split into {@code budget}
+     * equal strata, and every stratum is sampled exactly once. Parameters with less values
+     * than the budget repeat the values evenly; duplicate combinations are dropped.
+     *
+     * @return combinations picked with Latin hypercube sampling; or every combination,
+     *         if there are not more than {@code budget} of them
+     */
+    static List<int[]> latinHypercube(int[] sizes, int budget, long seed) {
+        if (total(sizes) <= budget) {
+            return full(sizes);
+        }
+
+        Random r = new Random(seed);
+        int[][] points = new int[budget][sizes.length];
+        for (int d = 0; d < sizes.length; d++) {
+            List<Integer> strata = new ArrayList<>();
+            for (int i = 0; i < budget; i++) {
+                strata.add(i);
+            }
+            Collections.shuffle(strata, r);
+            for (int i = 0; i < budget; i++) {
+                points[i][d] = (int) ((strata.get(i) + r.nextDouble()) * sizes[d] / budget);
+            }
+        }
+
+        Set<List<Integer>> seen = new HashSet<>();
+        List<int[]> result = new ArrayList<>();
+        for (int[] p : points) {
+            if (seen.add(asList(p))) {
+                result.add(p);
+            }
+        }
+        sort(result);
+        return result;
+    }
+
+    /**
+     * One factor at a time: the baseline is the first value of every parameter; then every
+     * other value of each parameter, with the rest of parameters at the baseline.
+     *
+     * @return baseline, followed by the variations
+     */
+    static List<int[]> oneFactorAtATime(int[] sizes) {
+        List<int[]> points = new ArrayList<>();
+        points.add(new int[sizes.length]);
+        for (int d = 0; d < sizes.length; d++) {
+            for (int v = 1; v < sizes[d]; v++) {
+                int[] p = new int[sizes.length];
+                p[d] = v;
+                points.add(p);
+            }
+        }
+        return points;
+    }
+
+    /**
+     * @return index of the parameter this point varies from the baseline; -1 for the baseline itself
+     */
+    static int variedFactor(int[] point) {
+        for (int d = 0; d < point.length; d++) {
+            if (point[d] != 0) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    private static long total(int[] sizes) {
+        long total = 1;
+        for (int s : sizes) {
+            total *= s;
+            if (total > Integer.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return total;
+    }
+
+    private static List<Integer> asList(int[] p) {
+        List<Integer> l = new ArrayList<>(p.length);
+        for (int v : p) {
+            l.add(v);
+        }
+        return l;
+    }
+
+    private static void sort(List<int[]> points) {
+        Collections.sort(points, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] o1, int[] o2) {
+                for (int d = 0; d < o1.length; d++) {
+                    int c = Integer.compare(o1[d], o2[d]);
+                    if (c != 0) {
+                        return c;
+                    }
+                }
+                return 0;
+            }
+        });
+    }
+
+}
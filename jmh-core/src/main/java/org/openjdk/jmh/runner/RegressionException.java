@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.openjdk.jmh.results.BaselineComparison;
+import org.openjdk.jmh.results.RunResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Thrown when benchmarks regressed against the baseline. The run itself has completed,
+ * and its results are available.
+ */
+public class RegressionException extends RunnerException {
+    private static final long serialVersionUID = 2375416243215749820L;
+
+    private final transient Collection<RunResult> results;
+    private final transient List<BaselineComparison> regressions;
+
+    public RegressionException(Collection<RunResult> results, List<BaselineComparison> regressions) {
+        super(regressions.size() + " benchmark(s) regressed against the baseline, exiting.");
+        this.results = results;
+        this.regressions = regressions;
+    }
+
+    /**
+     * @return results of the run
+     */
+    public Collection<RunResult> getResults() {
+        return results;
+    }
+
+    /**
+     * @return comparisons with {@link BaselineComparison.Verdict#REGRESSION} verdict
+     */
+    public List<BaselineComparison> getRegressions() {
+        return regressions;
+    }
+}
@@ -32,7 +32,13 @@ import org.openjdk.jmh.profile.ExternalProfiler;
 import org.openjdk.jmh.profile.ProfilerException;
 import org.openjdk.jmh.profile.ProfilerFactory;
 import org.openjdk.jmh.results.*;
+import org.openjdk.jmh.results.format.JSONResultReader;
 import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.results.format.StreamingResultFormat;
+import org.openjdk.jmh.results.store.ResultStore;
+import org.openjdk.jmh.results.store.ResultStoreReport;
+import org.openjdk.jmh.results.store.StoredResult;
 import org.openjdk.jmh.runner.format.OutputFormat;
 import org.openjdk.jmh.runner.format.OutputFormatFactory;
 import org.openjdk.jmh.runner.link.BinaryLinkServer;
@@ -47,7 +53,7 @@ import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.jar.*;
 import java.util.zip.*;
 
@@ -66,6 +72,11 @@ public class Runner extends BaseRunner {
     private static final String JMH_LOCK_FILE = System.getProperty("java.io.tmpdir") + "/jmh.lock";
     private static final Boolean JMH_LOCK_IGNORE = Boolean.getBoolean("jmh.ignoreLock");
 
+    /**
+     * Synthetic workload parameter carrying the arrival rate of capacity search probes.
+     */
+    private static final String PROBE_RATE_PARAM = "arrivalRate";
+
     private final BenchmarkList list;
     private int cpuCount;
 
@@ -112,7 +123,8 @@ public class Runner extends BaseRunner {
             }
         }
 
-        return OutputFormatFactory.createFormatInstance(out, options.verbosity().orElse(Defaults.VERBOSITY));
+        return OutputFormatFactory.createFormatInstance(out, options.verbosity().orElse(Defaults.VERBOSITY),
+                options.getConfidenceMethod().orElse(Defaults.CONFIDENCE_METHOD));
     }
 
     /**
@@ -127,6 +139,46 @@ public class Runner extends BaseRunner {
         }
     }
 
+    /**
+     * Print the history, trends and change points from the result store
+     * for matching benchmarks and parameters into output.
+     * @param options options to use.
+     * @throws RunnerException if result store cannot be read
+     */
+    public void listResultStore(CommandLineOptions options) throws RunnerException {
+        File dir = new File(options.getResultStore().orElse(Defaults.RESULT_STORE_DIR));
+        if (!dir.isDirectory()) {
+            throw new RunnerException("No result store at " + dir);
+        }
+
+        try (ResultStore store = ResultStore.open(dir)) {
+            List<List<StoredResult>> histories = new ArrayList<>();
+            for (List<StoredResult> history : store.find(options.getIncludes(), options.getExcludes(),
+                    Collections.<String, Collection<String>>emptyMap())) {
+                boolean accept = true;
+                for (Map.Entry<String, String> e : history.get(0).getParams().entrySet()) {
+                    Optional<Collection<String>> values = options.getParameter(e.getKey());
+                    if (values.hasValue() && !values.get().contains(e.getValue())) {
+                        accept = false;
+                    }
+                }
+                if (accept) {
+                    histories.add(history);
+                }
+            }
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            PrintStream ps = new PrintStream(bos, true, "UTF-8");
+            boolean verbose = options.verbosity().orElse(Defaults.VERBOSITY).equalsOrHigherThan(VerboseMode.EXTRA);
+            new ResultStoreReport(ps, verbose).print(store, histories);
+            ps.flush();
+            out.print(bos.toString("UTF-8"));
+            out.flush();
+        } catch (IOException e) {
+            throw new RunnerException("Cannot read the result store at " + dir + ": " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Print matching benchmarks with parameters into output.
      * @param options options to use.
@@ -248,6 +300,13 @@ public class Runner extends BaseRunner {
             throw failedException;
         }
 
+        // If user requested the baseline, read it before the run, so that the broken baseline
+        // fails fast. This also reads it before the result file is overwritten, if that is the same file.
+        Map<String, ResultRecord> baseline = null;
+        if (options.getBaseline().hasValue()) {
+            baseline = loadBaseline(options.getBaseline().get());
+        }
+
         // If user requested the result file in one way or the other, touch the result file,
         // and prepare to write it out after the run.
         String resultFile = null;
@@ -293,6 +352,8 @@ public class Runner extends BaseRunner {
                 if (br.getMode() == Mode.All) {
                     for (Mode mode : Mode.values()) {
                         if (mode == Mode.All) continue;
+                        // open-loop runs are only done when explicitly requested
+                        if (mode == Mode.RateLimited) continue;
                         newBenchmarks.add(br.cloneWith(mode));
                     }
                 } else {
@@ -308,7 +369,7 @@ public class Runner extends BaseRunner {
         {
             List<BenchmarkListEntry> newBenchmarks = new ArrayList<>();
             for (BenchmarkListEntry br : benchmarks) {
-                if (br.getParams().hasValue()) {
+                if (br.getParams().hasValue() || options.getThreadsSweep().hasValue()) {
                     for (WorkloadParams p : explodeAllParams(br)) {
                         newBenchmarks.add(br.cloneWith(p));
                     }
@@ -320,25 +381,131 @@ public class Runner extends BaseRunner {
             benchmarks.addAll(newBenchmarks);
         }
 
-        Collection<RunResult> results = runBenchmarks(benchmarks);
+        // If the result format allows, stream the results into the result file as benchmarks complete.
+        // This keeps the completed results even if the run fails later, at the expense of the file
+        // following the completion order, rather than the sorted order of the summary.
+        ResultFormatType resultFormat = options.getResultFormat().orElse(Defaults.RESULT_FORMAT);
+        StreamingResultFormat resultStream = null;
+        if (resultFile != null && ResultFormatFactory.isStreaming(resultFormat)) {
+            try {
+                resultStream = ResultFormatFactory.getStreamingInstance(resultFormat, resultFile,
+                        options.getConfidenceMethod().orElse(Defaults.CONFIDENCE_METHOD));
+            } catch (IOException e) {
+                throw new RunnerException("Can not open the result file: " + resultFile, e);
+            }
+        }
+
+        Collection<RunResult> results;
+        try {
+            results = runBenchmarks(benchmarks, resultStream);
+        } finally {
+            if (resultStream != null) {
+                resultStream.close();
+            }
+        }
 
         // If user requested the result file, write it out.
         if (resultFile != null) {
-            ResultFormatFactory.getInstance(
-                        options.getResultFormat().orElse(Defaults.RESULT_FORMAT),
-                        resultFile
-            ).writeOut(results);
+            if (resultStream == null) {
+                ResultFormatFactory.getInstance(
+                            resultFormat,
+                            resultFile,
+                            options.getConfidenceMethod().orElse(Defaults.CONFIDENCE_METHOD)
+                ).writeOut(results);
+            }
 
             out.println("");
             out.println("Benchmark result is saved to " + resultFile);
         }
 
+        // If user requested the result store, append there.
+        if (options.getResultStore().hasValue()) {
+            File dir = new File(options.getResultStore().get());
+            try (ResultStore store = ResultStore.open(dir)) {
+                int run = store.append(results);
+                out.println("");
+                out.println("Benchmark result is appended to the result store at " + dir + ", run #" + run);
+            } catch (IOException e) {
+                out.println("");
+                out.println("WARNING: Cannot append to the result store at " + dir + ": " + e.getMessage());
+            }
+        }
+
+        List<BaselineComparison> regressions = Collections.emptyList();
+        if (baseline != null) {
+            regressions = compareWithBaseline(baseline, results);
+        }
+
         out.flush();
         out.close();
 
+        if (!regressions.isEmpty()) {
+            throw new RegressionException(results, regressions);
+        }
+
         return results;
     }
 
+    /**
+     * Reads the baseline results.
+     *
+     * @return baseline results, by their keys
+     */
+    private Map<String, ResultRecord> loadBaseline(String file) throws RunnerException {
+        Map<String, ResultRecord> baseline = new HashMap<>();
+        try {
+            for (ResultRecord r : JSONResultReader.read(new File(file))) {
+                baseline.put(r.getKey(), r);
+            }
+        } catch (IOException e) {
+            throw new RunnerException("Cannot read the baseline from " + file + ": " + e.getMessage(), e);
+        }
+        return baseline;
+    }
+
+    /**
+     * Compares the results with the baseline, and prints the comparison.
+     *
+     * @return regressed benchmarks
+     */
+    private List<BaselineComparison> compareWithBaseline(Map<String, ResultRecord> baseline, Collection<RunResult> results) {
+        String file = options.getBaseline().get();
+        double threshold = options.getRegressionThreshold().orElse(Defaults.REGRESSION_THRESHOLD);
+
+        List<BaselineComparison> comparisons = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (RunResult rr : results) {
+            ResultRecord current = ResultRecord.of(rr);
+            ResultRecord base = baseline.get(current.getKey());
+            if (base == null) {
+                skipped.add(current.getLabel() + ", " + current.getMode().shortLabel() + ": no baseline");
+            } else if (!base.getScoreUnit().equals(current.getScoreUnit())) {
+                skipped.add(current.getLabel() + ", " + current.getMode().shortLabel() + ": baseline is in " +
+                        base.getScoreUnit() + ", current is in " + current.getScoreUnit());
+            } else {
+                comparisons.add(BaselineComparison.compare(base, current, threshold));
+            }
+        }
+
+        out.println("");
+        out.println(String.format("Comparison with the baseline %s, regression threshold %.1f%%:", file, threshold * 100));
+        out.println("");
+        for (String l : BaselineComparison.formatTable(comparisons)) {
+            out.println(l);
+        }
+        for (String l : skipped) {
+            out.println("  Skipped " + l);
+        }
+
+        List<BaselineComparison> regressions = new ArrayList<>();
+        for (BaselineComparison c : comparisons) {
+            if (c.getVerdict() == BaselineComparison.Verdict.REGRESSION) {
+                regressions.add(c);
+            }
+        }
+        return regressions;
+    }
+
     private List<ActionPlan> getActionPlans(Set<BenchmarkListEntry> benchmarks) {
         ActionPlan base = new ActionPlan(ActionType.FORKED);
 
@@ -361,6 +528,16 @@ public class Runner extends BaseRunner {
 
         boolean addEmbedded = false;
 
+        int benchmarksPerFork = options.getBenchmarksPerFork().orElse(Defaults.BENCHMARKS_PER_FORK);
+        if (benchmarksPerFork > 1 && !ProfilerFactory.getSupportedExternal(options.getProfilers()).isEmpty()) {
+            out.println("# Sharing the forks between benchmarks is disabled: external profilers require forks to run a single benchmark.");
+            out.println("");
+            benchmarksPerFork = 1;
+        }
+
+        // forked plans accepting more benchmarks, by JVM, JVM args, and fork counts
+        Map<List<Object>, ActionPlan> sharedPlans = new HashMap<>();
+
         List<ActionPlan> result = new ArrayList<>();
         for (BenchmarkListEntry br : benchmarks) {
             BenchmarkParams params = newBenchmarkParams(br, ActionMode.UNDEF);
@@ -375,14 +552,22 @@ public class Runner extends BaseRunner {
             }
 
             if (params.getForks() > 0) {
-                ActionPlan r = new ActionPlan(ActionType.FORKED);
-                r.mixIn(base);
+                List<Object> key = Arrays.<Object>asList(params.getJvm(), new ArrayList<>(params.getJvmArgs()),
+                        params.getForks(), params.getWarmupForks());
+
+                ActionPlan r = sharedPlans.get(key);
+                if (r == null || r.getMeasurementActions().size() >= benchmarksPerFork) {
+                    r = new ActionPlan(ActionType.FORKED);
+                    r.mixIn(base);
+                    result.add(r);
+                    sharedPlans.put(key, r);
+                }
+
                 if (options.getWarmupMode().orElse(Defaults.WARMUP_MODE).isIndi()) {
                     r.add(newAction(br, ActionMode.WARMUP_MEASUREMENT));
                 } else {
                     r.add(newAction(br, ActionMode.MEASUREMENT));
                 }
-                result.add(r);
             }
         }
 
@@ -398,19 +583,22 @@ public class Runner extends BaseRunner {
     }
 
     private BenchmarkParams newBenchmarkParams(BenchmarkListEntry benchmark, ActionMode mode) {
+        return newBenchmarkParams(benchmark, mode, options.getArrivalRate().orElse(Defaults.ARRIVAL_RATE));
+    }
+
+    private BenchmarkParams newBenchmarkParams(BenchmarkListEntry benchmark, ActionMode mode, int arrivalRate) {
         int[] threadGroups = options.getThreadGroups().orElse(benchmark.getThreadGroups());
 
         int threads = options.getThreads().orElse(
                 benchmark.getThreads().orElse(
                         Defaults.THREADS));
 
+        if (options.getThreadsSweep().hasValue()) {
+            threads = Integer.parseInt(benchmark.getWorkloadParams().get(ThreadsSweep.PARAM));
+        }
+
         if (threads == Threads.MAX) {
-            if (cpuCount == 0) {
-                out.print("# Detecting actual CPU count: ");
-                cpuCount = Utils.figureOutHotCPUs();
-                out.println(cpuCount + " detected");
-            }
-            threads = cpuCount;
+            threads = getCpuCount();
         }
 
         threads = Utils.roundUp(threads, Utils.sum(threadGroups));
@@ -503,6 +691,23 @@ public class Runner extends BaseRunner {
         TimeValue timeout = options.getTimeout().orElse(
                 benchmark.getTimeout().orElse(Defaults.TIMEOUT));
 
+        // Executor is selected by the VM that runs the benchmark. Figure out
+        // which one it would be, so that the choice is recorded with the results.
+        String executor = System.getProperty("jmh.executor", BenchmarkParams.DEFAULT_EXECUTOR);
+        for (String arg : jvmArgs) {
+            if (arg.startsWith("-Djmh.executor=")) {
+                executor = arg.substring("-Djmh.executor=".length());
+            }
+        }
+
+        ArrivalProcess arrivalProcess = options.getArrivalProcess().orElse(Defaults.ARRIVAL_PROCESS);
+
+        TimeValue coInterval = options.getCoInterval().orElse(TimeValue.NONE);
+        TimeValue seriesInterval = options.getSeriesInterval().orElse(TimeValue.NONE);
+        boolean timerCompensation = options.shouldCompensateTimer().orElse(Defaults.TIMER_COMPENSATION);
+        boolean cpuTime = options.shouldMeasureCpuTime().orElse(Defaults.CPU_TIME);
+        int maxInFlight = options.getMaxInFlight().orElse(Defaults.MAX_IN_FLIGHT);
+
         String jdkVersion = targetProperties.getProperty("java.version");
         String vmVersion = targetProperties.getProperty("java.vm.version");
         String vmName = targetProperties.getProperty("java.vm.name");
@@ -512,54 +717,194 @@ public class Runner extends BaseRunner {
                 warmup, measurement, benchmark.getMode(), benchmark.getWorkloadParams(), timeUnit, opsPerInvocation,
                 jvm, jvmArgs,
                 jdkVersion, vmName, vmVersion, Version.getPlainVersion(),
-                timeout);
+                timeout, executor,
+                arrivalRate, arrivalProcess,
+                coInterval, seriesInterval, timerCompensation,
+                cpuTime, maxInFlight);
     }
 
     private List<WorkloadParams> explodeAllParams(BenchmarkListEntry br) throws RunnerException {
         Map<String, String[]> benchParams = br.getParams().orElse(Collections.<String, String[]>emptyMap());
+
+        List<String> keys = new ArrayList<>(benchParams.keySet());
+        List<List<String>> values = new ArrayList<>();
+        int[] sizes = new int[keys.size()];
+        for (int d = 0; d < keys.size(); d++) {
+            values.add(paramValues(br, keys.get(d)));
+            sizes[d] = values.get(d).size();
+        }
+
+        ParamExploration exploration = options.getParamExploration().orElse(null);
+        if (exploration != null && exploration.getStrategy() != ParamExploration.Strategy.FULL &&
+                benchParams.containsKey(ParamExploration.PARAM)) {
+            throw new RunnerException("Benchmark \"" + br.getUsername() +
+                    "\" defines the parameter \"" + ParamExploration.PARAM + "\", which clashes with the parameter exploration.\n" +
+                    "Rename the parameter, or run without the parameter exploration.");
+        }
+
+        if (options.getSloLatency().hasValue() && br.getMode() == Mode.RateLimited &&
+                benchParams.containsKey(PROBE_RATE_PARAM)) {
+            throw new RunnerException("Benchmark \"" + br.getUsername() +
+                    "\" defines the parameter \"" + PROBE_RATE_PARAM + "\", which clashes with the capacity search.\n" +
+                    "Rename the parameter, or run without the latency SLO.");
+        }
+
+        List<int[]> points;
+        switch ((exploration == null || keys.isEmpty()) ? ParamExploration.Strategy.FULL : exploration.getStrategy()) {
+            case FULL:
+                points = keys.isEmpty() ? Collections.<int[]>emptyList() : ParamExplorer.full(sizes);
+                break;
+            case RANDOM:
+                points = ParamExplorer.random(sizes, exploration.getBudget(), exploration.getSeed());
+                break;
+            case LHS:
+                points = ParamExplorer.latinHypercube(sizes, exploration.getBudget(), exploration.getSeed());
+                break;
+            case OFAT:
+                points = ParamExplorer.oneFactorAtATime(sizes);
+                break;
+            case BISECT: {
+                // bisected parameter is probed later, see runBisection; start from its first value
+                int target = keys.indexOf(exploration.getParam());
+                if (target < 0) {
+                    throw new RunnerException("Benchmark \"" + br.getUsername() +
+                            "\" does not define the parameter \"" + exploration.getParam() + "\" to bisect.");
+                }
+                sizes[target] = 1;
+                points = ParamExplorer.full(sizes);
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown strategy: " + exploration.getStrategy());
+        }
+
         List<WorkloadParams> ps = new ArrayList<>();
-        for (Map.Entry<String, String[]> e : benchParams.entrySet()) {
-            String k = e.getKey();
-            String[] vals = e.getValue();
-            Collection<String> values = options.getParameter(k).orElse(Arrays.asList(vals));
-            if (values.isEmpty()) {
+        for (int[] point : points) {
+            WorkloadParams al = new WorkloadParams();
+            for (int d = 0; d < keys.size(); d++) {
+                al.put(keys.get(d), values.get(d).get(point[d]), point[d]);
+            }
+            if (exploration != null && exploration.getStrategy() != ParamExploration.Strategy.FULL) {
+                al.put(ParamExploration.PARAM, explorationLabel(exploration, keys, point), 0);
+            }
+            ps.add(al);
+        }
+
+        if (options.getThreadsSweep().hasValue()) {
+            if (benchParams.containsKey(ThreadsSweep.PARAM)) {
                 throw new RunnerException("Benchmark \"" + br.getUsername() +
-                        "\" defines the parameter \"" + k + "\", but no default values.\n" +
-                        "Define the default values within the annotation, or provide the parameter values at runtime.");
+                        "\" defines the parameter \"" + ThreadsSweep.PARAM + "\", which clashes with the thread count sweep.\n" +
+                        "Rename the parameter, or run without the thread count sweep.");
             }
             if (ps.isEmpty()) {
+                ps.add(new WorkloadParams());
+            }
+            List<Integer> counts = options.getThreadsSweep().get().expand(getCpuCount());
+            if (counts.isEmpty()) {
+                throw new RunnerException("Thread count sweep \"" + options.getThreadsSweep().get() +
+                        "\" has no thread counts on this machine with " + getCpuCount() + " hardware threads.");
+            }
+            List<WorkloadParams> newPs = new ArrayList<>();
+            for (WorkloadParams p : ps) {
                 int idx = 0;
-                for (String v : values) {
-                    WorkloadParams al = new WorkloadParams();
-                    al.put(k, v, idx);
-                    ps.add(al);
+                for (int count : counts) {
+                    WorkloadParams al = p.copy();
+                    al.put(ThreadsSweep.PARAM, String.valueOf(count), idx);
+                    newPs.add(al);
                     idx++;
                 }
-            } else {
-                List<WorkloadParams> newPs = new ArrayList<>();
-                for (WorkloadParams p : ps) {
-                    int idx = 0;
-                    for (String v : values) {
-                        WorkloadParams al = p.copy();
-                        al.put(k, v, idx);
-                        newPs.add(al);
-                        idx++;
-                    }
-                }
-                ps = newPs;
             }
+            ps = newPs;
         }
         return ps;
     }
 
-    private Collection<RunResult> runBenchmarks(SortedSet<BenchmarkListEntry> benchmarks) throws RunnerException {
+    /**
+     * Values of the benchmark parameter; the values of the bisected parameter are sorted numerically.
+     */
+    private List<String> paramValues(BenchmarkListEntry br, String k) throws RunnerException {
+        String[] vals = br.getParams().get().get(k);
+        List<String> values = new ArrayList<>(options.getParameter(k).orElse(Arrays.asList(vals)));
+        if (values.isEmpty()) {
+            throw new RunnerException("Benchmark \"" + br.getUsername() +
+                    "\" defines the parameter \"" + k + "\", but no default values.\n" +
+                    "Define the default values within the annotation, or provide the parameter values at runtime.");
+        }
+
+        ParamExploration exploration = options.getParamExploration().orElse(null);
+        if (exploration != null && exploration.getStrategy() == ParamExploration.Strategy.BISECT &&
+                k.equals(exploration.getParam())) {
+            for (String v : values) {
+                try {
+                    Double.parseDouble(v);
+                } catch (NumberFormatException e) {
+                    throw new RunnerException("Parameter \"" + k + "\" of benchmark \"" + br.getUsername() +
+                            "\" should be numeric to bisect, but has the value \"" + v + "\".");
+                }
+            }
+            Collections.sort(values, new Comparator<String>() {
+                @Override
+                public int compare(String o1, String o2) {
+                    return Double.compare(Double.parseDouble(o1), Double.parseDouble(o2));
+                }
+            });
+        }
+        return values;
+    }
+
+    private static String explorationLabel(ParamExploration exploration, List<String> keys, int[] point) {
+        if (exploration.getStrategy() == ParamExploration.Strategy.OFAT) {
+            int factor = ParamExplorer.variedFactor(point);
+            return (factor < 0) ? "baseline" : "ofat:" + keys.get(factor);
+        }
+        return exploration.toString();
+    }
+
+    private int getCpuCount() {
+        if (cpuCount == 0) {
+            out.print("# Detecting actual CPU count: ");
+            cpuCount = Utils.figureOutHotCPUs();
+            out.println(cpuCount + " detected");
+        }
+        return cpuCount;
+    }
+
+    private Collection<RunResult> runBenchmarks(SortedSet<BenchmarkListEntry> benchmarks,
+                                                StreamingResultFormat resultStream) throws RunnerException {
         out.startRun();
 
+        // rate limited benchmarks with capacity search run separately, probe by probe
+        SortedSet<BenchmarkListEntry> searched = new TreeSet<>();
+        if (options.getSloLatency().hasValue()) {
+            for (BenchmarkListEntry br : benchmarks) {
+                if (br.getMode() == Mode.RateLimited) {
+                    searched.add(br);
+                }
+            }
+        }
+
+        // bisected benchmarks run separately too, picking the next value after every probe
+        SortedSet<BenchmarkListEntry> bisected = new TreeSet<>();
+        ParamExploration exploration = options.getParamExploration().orElse(null);
+        if (exploration != null && exploration.getStrategy() == ParamExploration.Strategy.BISECT) {
+            for (BenchmarkListEntry br : benchmarks) {
+                if (!searched.contains(br) && br.getWorkloadParams().containsKey(exploration.getParam())) {
+                    bisected.add(br);
+                }
+            }
+        }
+
+        SortedSet<BenchmarkListEntry> regular = new TreeSet<>(benchmarks);
+        regular.removeAll(searched);
+        regular.removeAll(bisected);
+
         Multimap<BenchmarkParams, BenchmarkResult> results = new TreeMultimap<>();
-        List<ActionPlan> plan = getActionPlans(benchmarks);
+        List<ActionPlan> plan = getActionPlans(regular);
 
         etaBeforeBenchmarks(plan);
 
+        ParallelForks parallelForks = startParallelForks(plan);
+
         try {
             for (ActionPlan r : plan) {
                 Multimap<BenchmarkParams, BenchmarkResult> res;
@@ -568,15 +913,25 @@ public class Runner extends BaseRunner {
                         res = runBenchmarksEmbedded(r);
                         break;
                     case FORKED:
-                        res = runSeparate(r);
+                        if (parallelForks != null) {
+                            res = runSeparateParallel(r, parallelForks);
+                        } else {
+                            res = runSeparate(r);
+                        }
                         break;
                     default:
                         throw new IllegalStateException("Unknown action plan type: " + r.getType());
                 }
 
-                for (BenchmarkParams br : res.keys()) {
-                    results.putAll(br, res.get(br));
-                }
+                collectResults(results, res, resultStream);
+            }
+
+            for (BenchmarkListEntry br : searched) {
+                collectResults(results, runCapacitySearch(br), resultStream);
+            }
+
+            for (BenchmarkListEntry br : bisected) {
+                collectResults(results, runBisection(br), resultStream);
             }
 
             etaAfterBenchmarks();
@@ -586,6 +941,208 @@ public class Runner extends BaseRunner {
             return runResults;
         } catch (BenchmarkException be) {
             throw new RunnerException("Benchmark caught the exception", be);
+        } finally {
+            if (parallelForks != null) {
+                parallelForks.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Runs the rate limited benchmark at the arrival rates picked by {@link CapacitySearch},
+     * until it finds the highest rate that meets the latency SLO. Every probe is a separate
+     * run, labeled with the synthetic {@link #PROBE_RATE_PARAM} parameter, so that all
+     * result formats carry the latency distribution at every probed rate.
+     */
+    private Multimap<BenchmarkParams, BenchmarkResult> runCapacitySearch(BenchmarkListEntry br) {
+        Multimap<BenchmarkParams, BenchmarkResult> results = new HashMultimap<>();
+
+        TimeValue sloLatency = options.getSloLatency().get();
+        double sloPercentile = options.getSloPercentile().orElse(Defaults.SLO_PERCENTILE);
+        long sloNs = sloLatency.convertTo(TimeUnit.NANOSECONDS);
+        String label = "p" + sloPercentile;
+
+        ActionMode mode = probeActionMode();
+
+        List<String> probeLines = new ArrayList<>();
+
+        CapacitySearch search = new CapacitySearch(options.getArrivalRate().orElse(Defaults.ARRIVAL_RATE));
+        while (search.hasNext()) {
+            int rate = search.next();
+
+            WorkloadParams wp = br.getWorkloadParams().copy();
+            wp.put(PROBE_RATE_PARAM, String.valueOf(rate), rate);
+            BenchmarkParams params = newBenchmarkParams(br.cloneWith(wp), mode, rate);
+
+            out.println("# Capacity search: probing " + rate + " ops/s per thread, " +
+                    label + " should be within " + sloLatency);
+            out.println("");
+
+            Collection<BenchmarkResult> brs = runProbe(params, mode);
+            if (brs == null || brs.isEmpty()) {
+                // benchmark failed without the exception, nothing to search for
+                out.println("# Capacity search: no results at " + rate + " ops/s, stopping");
+                out.println("");
+                break;
+            }
+            results.putAll(params, brs);
+
+            double latency = new RunResult(params, brs).getPrimaryResult().getStatistics().getPercentile(sloPercentile * 100);
+            double latencyNs = latency * params.getTimeUnit().toNanos(1);
+            boolean pass = latencyNs <= sloNs;
+            search.report(rate, pass);
+
+            probeLines.add(String.format("#   %10d ops/s: %s = %s %s, %s", rate, label,
+                    ScoreFormatter.format(latency), TimeValue.tuToString(params.getTimeUnit()),
+                    pass ? "pass" : "FAIL"));
+        }
+
+        out.println("# Capacity search for " + br.getUsername() + ", " + label + " within " + sloLatency + ":");
+        for (String l : probeLines) {
+            out.println(l);
+        }
+        if (search.getCapacity() > 0) {
+            out.println("# Capacity: " + search.getCapacity() + " ops/s per thread");
+        } else {
+            out.println("# Capacity: *** WARNING: none of the probed rates met the SLO ***");
+        }
+        out.println("");
+
+        return results;
+    }
+
+    /**
+     * Runs the benchmark at the values of the bisected parameter picked by {@link ParamBisection},
+     * with the rest of parameters fixed. Every probe is a separate run, as if the full exploration
+     * picked only these values.
+     */
+    private Multimap<BenchmarkParams, BenchmarkResult> runBisection(BenchmarkListEntry br) throws RunnerException {
+        Multimap<BenchmarkParams, BenchmarkResult> results = new HashMultimap<>();
+
+        ParamExploration exploration = options.getParamExploration().get();
+        String param = exploration.getParam();
+        List<String> values = paramValues(br, param);
+
+        ActionMode mode = probeActionMode();
+
+        StringBuilder others = new StringBuilder();
+        for (String k : br.getWorkloadParams().keys()) {
+            if (!k.equals(param) && !k.equals(ParamExploration.PARAM)) {
+                others.append(others.length() == 0 ? " (" : ", ");
+                others.append(k).append(" = ").append(br.getWorkloadParams().get(k));
+            }
+        }
+        if (others.length() > 0) {
+            others.append(")");
+        }
+
+        List<String> probeLines = new ArrayList<>();
+        String unit = "";
+
+        ParamBisection bisection = new ParamBisection(values.size(), exploration.getThreshold());
+        while (bisection.hasNext()) {
+            int idx = bisection.next();
+
+            WorkloadParams wp = br.getWorkloadParams().copy();
+            wp.put(param, values.get(idx), idx);
+            BenchmarkParams params = newBenchmarkParams(br.cloneWith(wp), mode);
+
+            out.println("# Bisection: probing " + param + " = " + values.get(idx));
+            out.println("");
+
+            Collection<BenchmarkResult> brs = runProbe(params, mode);
+            if (brs == null || brs.isEmpty()) {
+                // benchmark failed without the exception, nothing to bisect
+                out.println("# Bisection: no results at " + param + " = " + values.get(idx) + ", stopping");
+                out.println("");
+                break;
+            }
+            results.putAll(params, brs);
+
+            Result r = new RunResult(params, brs).getPrimaryResult();
+            bisection.report(idx, r.getScore());
+            unit = r.getScoreUnit();
+        }
+
+        for (int i = 0; i < values.size(); i++) {
+            if (!Double.isNaN(bisection.getScore(i))) {
+                probeLines.add(String.format("#   %s = %s: %s %s", param, values.get(i),
+                        ScoreFormatter.format(bisection.getScore(i)), unit));
+            }
+        }
+
+        out.println("# Bisection of " + param + " for " + br.getUsername() + others + ":");
+        for (String l : probeLines) {
+            out.println(l);
+        }
+        if (Double.isNaN(exploration.getThreshold())) {
+            int knee = bisection.getKnee();
+            if (knee >= 0) {
+                out.println("# Knee: the slope changes the most at " + param + " = " + values.get(knee));
+            } else {
+                out.println("# Knee: none found");
+            }
+        } else {
+            String threshold = ScoreFormatter.format(exploration.getThreshold()) + " " + unit;
+            List<int[]> crossings = bisection.getCrossings();
+            if (crossings.isEmpty()) {
+                out.println("# Threshold " + threshold + ": not crossed");
+            }
+            for (int[] c : crossings) {
+                out.println("# Threshold " + threshold + ": crossed between " +
+                        param + " = " + values.get(c[0]) + " and " + param + " = " + values.get(c[1]));
+            }
+        }
+        out.println("");
+
+        return results;
+    }
+
+    private ActionMode probeActionMode() {
+        return options.getWarmupMode().orElse(Defaults.WARMUP_MODE).isIndi() ?
+                ActionMode.WARMUP_MEASUREMENT : ActionMode.MEASUREMENT;
+    }
+
+    /**
+     * Runs a single benchmark out of the regular plan.
+     */
+    private Collection<BenchmarkResult> runProbe(BenchmarkParams params, ActionMode mode) {
+        ActionPlan plan;
+        if (params.getForks() > 0) {
+            plan = new ActionPlan(ActionType.FORKED);
+        } else {
+            plan = new ActionPlan(ActionType.EMBEDDED);
+        }
+        plan.add(new Action(params, mode));
+
+        etaExtraBenchmark(params);
+
+        Multimap<BenchmarkParams, BenchmarkResult> res;
+        if (params.getForks() > 0) {
+            res = runSeparate(plan);
+        } else {
+            res = runBenchmarksEmbedded(plan);
+        }
+        return res.get(params);
+    }
+
+    /**
+     * Adds the results of completed benchmarks, and streams them out, if requested.
+     * Every benchmark completes within a single action plan, so its results are complete here.
+     * The streamed results are sorted within the action plan only: the plans run forked benchmarks
+     * first, then embedded ones, capacity searches and bisections, and this is the order in the
+     * result file. The complete results are sorted as usual.
+     */
+    private void collectResults(Multimap<BenchmarkParams, BenchmarkResult> results,
+                                Multimap<BenchmarkParams, BenchmarkResult> res,
+                                StreamingResultFormat resultStream) {
+        for (BenchmarkParams bp : res.keys()) {
+            results.putAll(bp, res.get(bp));
+        }
+        if (resultStream != null) {
+            for (RunResult rr : mergeRunResults(res)) {
+                resultStream.writeOut(rr);
+            }
         }
     }
 
@@ -600,17 +1157,13 @@ public class Runner extends BaseRunner {
     private Multimap<BenchmarkParams, BenchmarkResult> runSeparate(ActionPlan actionPlan) {
         Multimap<BenchmarkParams, BenchmarkResult> results = new HashMultimap<>();
 
-        if (actionPlan.getMeasurementActions().size() != 1) {
-            throw new IllegalStateException("Expect only single benchmark in the action plan, but was " + actionPlan.getMeasurementActions().size());
-        }
+        List<BenchmarkParams> benchmarks = getMeasuredBenchmarks(actionPlan);
 
         BinaryLinkServer server = null;
         try {
             server = new BinaryLinkServer(options, out);
 
-            server.setPlan(actionPlan);
-
-            BenchmarkParams params = actionPlan.getMeasurementActions().get(0).getParams();
+            BenchmarkParams params = benchmarks.get(0);
 
             List<ExternalProfiler> profilers = ProfilerFactory.getSupportedExternal(options.getProfilers());
 
@@ -621,113 +1174,440 @@ public class Runner extends BaseRunner {
                 printErr &= prof.allowPrintErr();
             }
 
-            List<ExternalProfiler> profilersRev = new ArrayList<>(profilers);
-            Collections.reverse(profilersRev);
-
             boolean forcePrint = options.verbosity().orElse(Defaults.VERBOSITY).equalsOrHigherThan(VerboseMode.EXTRA);
             printOut = forcePrint || printOut;
             printErr = forcePrint || printErr;
 
-            out.startBenchmark(params);
-            out.println("");
+            startForkedBenchmarks(benchmarks);
 
             int forkCount = params.getForks();
             int warmupForkCount = params.getWarmupForks();
             int totalForks = warmupForkCount + forkCount;
+            int maxTotalForks = warmupForkCount + getMaxForks(forkCount);
+
+            for (int i = 0; i < maxTotalForks; i++) {
+                if (i >= totalForks) {
+                    if (haveConverged(benchmarks, results)) {
+                        break;
+                    }
+                    for (BenchmarkParams bp : benchmarks) {
+                        etaExtraBenchmark(bp);
+                    }
+                }
 
-            for (int i = 0; i < totalForks; i++) {
                 boolean warmupFork = (i < warmupForkCount);
                 List<String> forkedString  = getForkedMainCommand(params, profilers, server.getHost(), server.getPort());
 
+                server.setPlan(actionPlan.rotateMeasurements(i));
+
                 etaBeforeBenchmark();
 
                 if (warmupFork) {
                     out.verbosePrintln("Warmup forking using command: " + forkedString);
-                    out.println("# Warmup Fork: " + (i + 1) + " of " + warmupForkCount);
                 } else {
                     out.verbosePrintln("Forking using command: " + forkedString);
-                    out.println("# Fork: " + (i + 1 - warmupForkCount) + " of " + forkCount);
                 }
+                out.println(forkLabel(i, warmupForkCount, forkCount));
 
-                TempFile stdErr = FileUtils.weakTempFile("stderr");
-                TempFile stdOut = FileUtils.weakTempFile("stdout");
-
-                if (!profilers.isEmpty()) {
-                    out.print("# Preparing profilers: ");
-                    for (ExternalProfiler profiler : profilers) {
-                        out.print(profiler.getClass().getSimpleName() + " ");
-                        profiler.beforeTrial(params);
+                List<BenchmarkResult> brs = runFork(out, server, params, forkedString, profilers, printOut, printErr);
+                if (!warmupFork) {
+                    for (BenchmarkResult br : brs) {
+                        results.put(br.getParams(), br);
                     }
-                    out.println("");
+                }
 
-                    List<String> consumed = new ArrayList<>();
-                    if (!printOut) consumed.add("stdout");
-                    if (!printErr) consumed.add("stderr");
-                    if (!consumed.isEmpty()) {
-                        out.println("# Profilers consume " + Utils.join(consumed, " and ") + " from target VM, use -v " + VerboseMode.EXTRA + " to copy to console");
-                    }
+                for (BenchmarkParams bp : benchmarks) {
+                    etaAfterBenchmark(bp);
                 }
+                out.println("");
+            }
+
+            endForkedBenchmarks(benchmarks, results);
+
+        } catch (IOException e) {
+            results.clear();
+            throw new BenchmarkException(e);
+        } catch (BenchmarkException e) {
+            results.clear();
+            if (options.shouldFailOnError().orElse(Defaults.FAIL_ON_ERROR)) {
+                out.println("Benchmark had encountered error, and fail on error was requested");
+                throw e;
+            }
+        } finally {
+            if (server != null) {
+                server.terminate();
+            }
+            FileUtils.purgeTemps();
+        }
+
+        return results;
+    }
+
+    private String forkLabel(int i, int warmupForkCount, int forkCount) {
+        if (i < warmupForkCount) {
+            return "# Warmup Fork: " + (i + 1) + " of " + warmupForkCount;
+        }
+        int fork = i + 1 - warmupForkCount;
+        if (fork <= forkCount) {
+            return "# Fork: " + fork + " of " + forkCount;
+        } else {
+            return "# Fork: " + fork + " (adaptive, up to " + getMaxForks(forkCount) + ")";
+        }
+    }
+
+    private int getMaxForks(int forkCount) {
+        if (isAdaptive()) {
+            return Math.max(forkCount, options.getMaxForks().orElse(Defaults.MAX_FORKS));
+        } else {
+            return forkCount;
+        }
+    }
+
+    /**
+     * @return true, if all benchmarks in adaptive measurement had converged across the forks
+     */
+    private boolean haveConverged(List<BenchmarkParams> benchmarks, Multimap<BenchmarkParams, BenchmarkResult> results) {
+        for (BenchmarkParams bp : benchmarks) {
+            Collection<BenchmarkResult> rs = results.get(bp);
+            if (rs == null || rs.isEmpty()) {
+                return false;
+            }
+            if (!hasConverged(new RunResult(bp, rs).getPrimaryResult().getStatistics())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<BenchmarkParams> getMeasuredBenchmarks(ActionPlan actionPlan) {
+        List<BenchmarkParams> benchmarks = new ArrayList<>();
+        for (Action action : actionPlan.getMeasurementActions()) {
+            benchmarks.add(action.getParams());
+        }
+        if (benchmarks.isEmpty()) {
+            throw new IllegalStateException("Expect at least one benchmark in the action plan");
+        }
+        return benchmarks;
+    }
+
+    private void startForkedBenchmarks(List<BenchmarkParams> benchmarks) {
+        if (benchmarks.size() == 1) {
+            out.startBenchmark(benchmarks.get(0));
+        } else {
+            out.println("# Shared forks: " + benchmarks.size() + " benchmarks run in the same forks, rotating the order in each fork:");
+            for (BenchmarkParams bp : benchmarks) {
+                out.println("#   " + bp.id());
+            }
+            out.println("# *** WARNING: Benchmarks sharing the fork may pollute the JIT profiles for each other. ***");
+            out.println("# *** WARNING: Compare with the results in dedicated forks before trusting these numbers. ***");
+        }
+        out.println("");
+    }
 
-                long startTime = System.currentTimeMillis();
+    private void endForkedBenchmarks(List<BenchmarkParams> benchmarks, Multimap<BenchmarkParams, BenchmarkResult> results) {
+        for (BenchmarkParams bp : benchmarks) {
+            out.endBenchmark(new RunResult(bp, results.get(bp)).getAggregatedResult());
+        }
+    }
+
+    /**
+     * Runs a single fork against the given link server.
+     *
+     * @return benchmark results, one per benchmark that produced any results in the fork
+     */
+    private List<BenchmarkResult> runFork(OutputFormat output, BinaryLinkServer server, BenchmarkParams params,
+                                          List<String> forkedString, List<ExternalProfiler> profilers,
+                                          boolean printOut, boolean printErr) throws IOException {
+        List<ExternalProfiler> profilersRev = new ArrayList<>(profilers);
+        Collections.reverse(profilersRev);
+
+        TempFile stdErr = FileUtils.weakTempFile("stderr");
+        TempFile stdOut = FileUtils.weakTempFile("stdout");
+
+        if (!profilers.isEmpty()) {
+            output.print("# Preparing profilers: ");
+            for (ExternalProfiler profiler : profilers) {
+                output.print(profiler.getClass().getSimpleName() + " ");
+                profiler.beforeTrial(params);
+            }
+            output.println("");
+
+            List<String> consumed = new ArrayList<>();
+            if (!printOut) consumed.add("stdout");
+            if (!printErr) consumed.add("stderr");
+            if (!consumed.isEmpty()) {
+                output.println("# Profilers consume " + Utils.join(consumed, " and ") + " from target VM, use -v " + VerboseMode.EXTRA + " to copy to console");
+            }
+        }
+
+        long startTime = System.currentTimeMillis();
 
-                List<IterationResult> result = doFork(server, forkedString, stdOut.file(), stdErr.file(), printOut, printErr);
-                if (!result.isEmpty()) {
-                    long pid = server.getClientPid();
+        List<IterationResult> result = doFork(output, server, forkedString, stdOut.file(), stdErr.file(), printOut, printErr);
 
-                    BenchmarkResultMetaData md = server.getMetadata();
-                    if (md != null) {
-                        md.adjustStart(startTime);
+        // split the results between benchmarks, keeping the execution order
+        Map<BenchmarkParams, List<IterationResult>> byBenchmark = new LinkedHashMap<>();
+        for (IterationResult ir : result) {
+            List<IterationResult> irs = byBenchmark.get(ir.getBenchmarkParams());
+            if (irs == null) {
+                irs = new ArrayList<>();
+                byBenchmark.put(ir.getBenchmarkParams(), irs);
+            }
+            irs.add(ir);
+        }
+
+        List<BenchmarkResult> brs = new ArrayList<>();
+        for (Map.Entry<BenchmarkParams, List<IterationResult>> e : byBenchmark.entrySet()) {
+            long pid = server.getClientPid();
+
+            BenchmarkResultMetaData md = server.getMetadata(e.getKey());
+            if (md != null) {
+                md.adjustStart(startTime);
+            }
+
+            BenchmarkResult br = new BenchmarkResult(e.getKey(), e.getValue(), md);
+
+            if (!profilersRev.isEmpty()) {
+                output.print("# Processing profiler results: ");
+                for (ExternalProfiler profiler : profilersRev) {
+                    output.print(profiler.getClass().getSimpleName() + " ");
+                    for (Result profR : profiler.afterTrial(br, pid, stdOut.file(), stdErr.file())) {
+                        br.addBenchmarkResult(profR);
                     }
+                }
+                output.println("");
+            }
+
+            brs.add(br);
+        }
+
+        // we know these are not needed anymore, proactively delete
+        stdOut.delete();
+        stdErr.delete();
+
+        return brs;
+    }
+
+    private ParallelForks startParallelForks(List<ActionPlan> plans) {
+        int count = options.getParallelForks().orElse(Defaults.PARALLEL_FORKS);
+        if (count <= 1) {
+            return null;
+        }
+
+        if (!ProfilerFactory.getSupportedExternal(options.getProfilers()).isEmpty()) {
+            out.println("# Parallel forks are disabled: external profilers require forks to run exclusively.");
+            out.println("");
+            return null;
+        }
+
+        CpuSets cpuSets = new CpuSets(count);
+        out.println("# Parallel forks: " + cpuSets.size() + ", on CPU sets:");
+        for (int s = 0; s < cpuSets.size(); s++) {
+            out.println("#   " + s + ": " + cpuSets.describe(s));
+        }
+        if (!cpuSets.canBind()) {
+            out.println("# *** WARNING: Cannot bind forked VMs to CPU sets, parallel forks may interfere with each other. ***");
+        }
+        out.println("");
+
+        ParallelForks parallelForks = new ParallelForks(cpuSets);
+        for (ActionPlan plan : plans) {
+            if (plan.getType() == ActionType.FORKED) {
+                parallelForks.submit(plan);
+            }
+        }
+        return parallelForks;
+    }
+
+    private Multimap<BenchmarkParams, BenchmarkResult> runSeparateParallel(ActionPlan actionPlan, ParallelForks parallelForks) {
+        Multimap<BenchmarkParams, BenchmarkResult> results = new HashMultimap<>();
 
-                    BenchmarkResult br = new BenchmarkResult(params, result, md);
+        List<BenchmarkParams> benchmarks = getMeasuredBenchmarks(actionPlan);
+        BenchmarkParams params = benchmarks.get(0);
 
-                    if (!profilersRev.isEmpty()) {
-                        out.print("# Processing profiler results: ");
-                        for (ExternalProfiler profiler : profilersRev) {
-                            out.print(profiler.getClass().getSimpleName() + " ");
-                            for (Result profR : profiler.afterTrial(br, pid, stdOut.file(), stdErr.file())) {
-                                br.addBenchmarkResult(profR);
-                            }
+        startForkedBenchmarks(benchmarks);
+
+        int forkCount = params.getForks();
+        int warmupForkCount = params.getWarmupForks();
+        int totalForks = warmupForkCount + forkCount;
+        int maxTotalForks = warmupForkCount + getMaxForks(forkCount);
+
+        try {
+            List<Future<ForkOutcome>> forks = new ArrayList<>(parallelForks.get(actionPlan));
+            for (int i = 0; i < maxTotalForks; i++) {
+                if (i >= totalForks) {
+                    if (haveConverged(benchmarks, results)) {
+                        // drop the extra forks that are not needed anymore
+                        for (int j = i; j < forks.size(); j++) {
+                            forks.get(j).cancel(true);
                         }
-                        out.println("");
+                        break;
+                    }
+                    if (i == forks.size()) {
+                        int count = Math.min(parallelForks.cpuSets.size(), maxTotalForks - i);
+                        forks.addAll(parallelForks.submit(actionPlan, i, count));
+                    }
+                    for (BenchmarkParams bp : benchmarks) {
+                        etaExtraBenchmark(bp);
                     }
+                }
+
+                boolean warmupFork = (i < warmupForkCount);
 
-                    if (!warmupFork) {
-                        results.put(params, br);
+                ForkOutcome outcome;
+                try {
+                    outcome = forks.get(i).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new BenchmarkException(e);
+                }
+
+                etaBeforeBenchmark();
+
+                out.println(forkLabel(i, warmupForkCount, forkCount) +
+                        ", CPU set " + outcome.cpuSet + " [" + parallelForks.cpuSets.describe(outcome.cpuSet) + "]");
+
+                try {
+                    out.write(outcome.output);
+                } catch (IOException e) {
+                    throw new BenchmarkException(e);
+                }
+
+                if (outcome.exception != null) {
+                    throw outcome.exception;
+                }
+
+                if (!warmupFork) {
+                    for (BenchmarkResult br : outcome.results) {
+                        results.put(br.getParams(), br);
                     }
                 }
 
-                etaAfterBenchmark(params);
+                for (BenchmarkParams bp : benchmarks) {
+                    etaAfterBenchmark(bp);
+                }
                 out.println("");
-
-                // we know these are not needed anymore, proactively delete
-                stdOut.delete();
-                stdErr.delete();
             }
 
-            out.endBenchmark(new RunResult(params, results.get(params)).getAggregatedResult());
-
-        } catch (IOException e) {
-            results.clear();
-            throw new BenchmarkException(e);
+            endForkedBenchmarks(benchmarks, results);
         } catch (BenchmarkException e) {
             results.clear();
             if (options.shouldFailOnError().orElse(Defaults.FAIL_ON_ERROR)) {
                 out.println("Benchmark had encountered error, and fail on error was requested");
                 throw e;
             }
+        }
+
+        return results;
+    }
+
+    /**
+     * Runs a single fork bound to the given CPU set. The output is buffered,
+     * and replayed in fork order, once the fork is complete.
+     */
+    private ForkOutcome runForkIsolated(ActionPlan actionPlan, BenchmarkParams params, CpuSets cpuSets, int cpuSet) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        BinaryLinkServer server = null;
+        try {
+            PrintStream ps = new PrintStream(bos, true, Utils.guessConsoleEncoding().name());
+            OutputFormat output = OutputFormatFactory.createFormatInstance(ps, options.verbosity().orElse(Defaults.VERBOSITY));
+
+            server = new BinaryLinkServer(options, output);
+            server.setPlan(actionPlan);
+
+            List<String> forkedString = new ArrayList<>(cpuSets.commandPrefix(cpuSet));
+            forkedString.addAll(getForkedMainCommand(params, Collections.<ExternalProfiler>emptyList(), server.getHost(), server.getPort()));
+            output.verbosePrintln("Forking using command: " + forkedString);
+
+            List<BenchmarkResult> brs = runFork(output, server, params, forkedString, Collections.<ExternalProfiler>emptyList(), true, true);
+            output.flush();
+            return new ForkOutcome(cpuSet, brs, null, bos.toByteArray());
+        } catch (IOException e) {
+            return new ForkOutcome(cpuSet, Collections.<BenchmarkResult>emptyList(), new BenchmarkException(e), bos.toByteArray());
+        } catch (BenchmarkException e) {
+            return new ForkOutcome(cpuSet, Collections.<BenchmarkResult>emptyList(), e, bos.toByteArray());
         } finally {
             if (server != null) {
                 server.terminate();
             }
+        }
+    }
+
+    /**
+     * Runs the forks in parallel, each fork takes the exclusive CPU set while running.
+     */
+    private class ParallelForks {
+        private final CpuSets cpuSets;
+        private final ExecutorService executor;
+        private final BlockingQueue<Integer> freeSets;
+        private final Map<ActionPlan, List<Future<ForkOutcome>>> forks;
+
+        ParallelForks(CpuSets cpuSets) {
+            this.cpuSets = cpuSets;
+            this.executor = Executors.newFixedThreadPool(cpuSets.size(), new WorkerThreadFactory("fork"));
+            this.freeSets = new LinkedBlockingQueue<>();
+            this.forks = new IdentityHashMap<>();
+            for (int s = 0; s < cpuSets.size(); s++) {
+                freeSets.add(s);
+            }
+        }
+
+        void submit(ActionPlan actionPlan) {
+            BenchmarkParams params = getMeasuredBenchmarks(actionPlan).get(0);
+            forks.put(actionPlan, submit(actionPlan, 0, params.getWarmupForks() + params.getForks()));
+        }
+
+        List<Future<ForkOutcome>> submit(ActionPlan actionPlan, int from, int count) {
+            final BenchmarkParams params = getMeasuredBenchmarks(actionPlan).get(0);
+
+            List<Future<ForkOutcome>> fs = new ArrayList<>();
+            for (int i = from; i < from + count; i++) {
+                final ActionPlan forkPlan = actionPlan.rotateMeasurements(i);
+                fs.add(executor.submit(new Callable<ForkOutcome>() {
+                    @Override
+                    public ForkOutcome call() throws InterruptedException {
+                        int cpuSet = freeSets.take();
+                        try {
+                            return runForkIsolated(forkPlan, params, cpuSets, cpuSet);
+                        } finally {
+                            freeSets.add(cpuSet);
+                        }
+                    }
+                }));
+            }
+            return fs;
+        }
+
+        List<Future<ForkOutcome>> get(ActionPlan actionPlan) {
+            return forks.get(actionPlan);
+        }
+
+        void shutdown() {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                // ignore
+            }
             FileUtils.purgeTemps();
         }
+    }
 
-        return results;
+    private static class ForkOutcome {
+        private final int cpuSet;
+        private final List<BenchmarkResult> results;
+        private final BenchmarkException exception;
+        private final byte[] output;
+
+        ForkOutcome(int cpuSet, List<BenchmarkResult> results, BenchmarkException exception, byte[] output) {
+            this.cpuSet = cpuSet;
+            this.results = results;
+            this.exception = exception;
+            this.output = output;
+        }
     }
 
-    private List<IterationResult> doFork(BinaryLinkServer reader, List<String> commandString,
-                                                              File stdOut, File stdErr, boolean printOut, boolean printErr) {
+    private List<IterationResult> doFork(OutputFormat output, BinaryLinkServer reader, List<String> commandString,
+                                         File stdOut, File stdErr, boolean printOut, boolean printErr) {
         try (FileOutputStream fosErr = new FileOutputStream(stdErr);
              FileOutputStream fosOut = new FileOutputStream(stdOut)) {
             ProcessBuilder pb = new ProcessBuilder(commandString);
@@ -738,17 +1618,24 @@ public class Runner extends BaseRunner {
             InputStreamDrainer outDrainer = new InputStreamDrainer(p.getInputStream(), fosOut);
 
             if (printErr) {
-                errDrainer.addOutputStream(new OutputFormatAdapter(out));
+                errDrainer.addOutputStream(new OutputFormatAdapter(output));
             }
 
             if (printOut) {
-                outDrainer.addOutputStream(new OutputFormatAdapter(out));
+                outDrainer.addOutputStream(new OutputFormatAdapter(output));
             }
 
             errDrainer.start();
             outDrainer.start();
 
-            int ecode = p.waitFor();
+            int ecode;
+            try {
+                ecode = p.waitFor();
+            } catch (InterruptedException e) {
+                // do not leave the forked VM behind
+                p.destroy();
+                throw e;
+            }
 
             errDrainer.join();
             outDrainer.join();
@@ -758,19 +1645,19 @@ public class Runner extends BaseRunner {
             reader.waitFinish();
 
             if (ecode != 0) {
-                out.println("<forked VM failed with exit code " + ecode + ">");
-                out.println("<stdout last='" + TAIL_LINES_ON_ERROR + " lines'>");
+                output.println("<forked VM failed with exit code " + ecode + ">");
+                output.println("<stdout last='" + TAIL_LINES_ON_ERROR + " lines'>");
                 for (String l : FileUtils.tail(stdOut, TAIL_LINES_ON_ERROR)) {
-                    out.println(l);
+                    output.println(l);
                 }
-                out.println("</stdout>");
-                out.println("<stderr last='" + TAIL_LINES_ON_ERROR + " lines'>");
+                output.println("</stdout>");
+                output.println("<stderr last='" + TAIL_LINES_ON_ERROR + " lines'>");
                 for (String l : FileUtils.tail(stdErr, TAIL_LINES_ON_ERROR)) {
-                    out.println(l);
+                    output.println(l);
                 }
-                out.println("</stderr>");
+                output.println("</stderr>");
 
-                out.println("");
+                output.println("");
             }
 
             BenchmarkException exception = reader.getException();
@@ -785,12 +1672,12 @@ public class Runner extends BaseRunner {
             }
 
         } catch (IOException ex) {
-            out.println("<failed to invoke the VM, caught IOException: " + ex.getMessage() + ">");
-            out.println("");
+            output.println("<failed to invoke the VM, caught IOException: " + ex.getMessage() + ">");
+            output.println("");
             throw new BenchmarkException(ex);
         } catch (InterruptedException ex) {
-            out.println("<host VM has been interrupted waiting for forked VM: " + ex.getMessage() + ">");
-            out.println("");
+            output.println("<host VM has been interrupted waiting for forked VM: " + ex.getMessage() + ">");
+            output.println("");
             throw new BenchmarkException(ex);
         }
     }
@@ -832,7 +1719,7 @@ public class Runner extends BaseRunner {
         command.add(ForkedMain.class.getName());
 
         // Forked VM assumes the exact order of arguments:
-        //   1) host name to back-connect
+        //   1) host name to back-connect, or shared memory link address
         //   2) host port to back-connect
         command.add(host);
         command.add(String.valueOf(port));
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.apache.commons.math3.distribution.TDistribution;
+import org.openjdk.jmh.util.ListStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides when the warmup had reached the steady state. The last window
+ * of warmup scores is compared with the window before it: the scores are
+ * steady when there is neither a change point between the windows, nor a
+ * trend over both windows. Both the change and the trend should be
+ * statistically significant and exceed the relative tolerance to count.
+ * Optionally, no JIT compilation should have happened in the last window.
+ */
+class SteadyStateDetector {
+
+    /**
+     * Confidence level for change and trend detection.
+     */
+    static final double CONFIDENCE = 0.99;
+
+    /**
+     * Relative score change we tolerate between the windows.
+     */
+    static final double TOLERANCE = 0.02;
+
+    private final int window;
+    private final boolean quietCompilation;
+    private final List<Double> scores;
+    private final List<Long> compilationTimes;
+
+    /**
+     * @param window number of iterations in a window, at least 2
+     * @param quietCompilation true, if compilation should be quiet in the last window
+     */
+    public SteadyStateDetector(int window, boolean quietCompilation) {
+        if (window < 2) {
+            throw new IllegalArgumentException("Window should be at least 2: " + window);
+        }
+        this.window = window;
+        this.quietCompilation = quietCompilation;
+        this.scores = new ArrayList<>();
+        this.compilationTimes = new ArrayList<>();
+    }
+
+    /**
+     * @param score iteration score
+     * @param compilationTime accumulated JIT compilation time after the iteration, in ms
+     */
+    public void add(double score, long compilationTime) {
+        scores.add(score);
+        compilationTimes.add(compilationTime);
+    }
+
+    /**
+     * @return true, if the last iterations had reached the steady state
+     */
+    public boolean isSteady() {
+        int n = scores.size();
+        if (n < 2 * window) {
+            return false;
+        }
+
+        if (quietCompilation && compilationTimes.get(n - 1) > compilationTimes.get(n - window - 1)) {
+            return false;
+        }
+
+        List<Double> last = scores.subList(n - 2 * window, n);
+        return !hasChange(last) && !hasTrend(last);
+    }
+
+    private boolean hasChange(List<Double> last) {
+        ListStatistics before = new ListStatistics();
+        ListStatistics after = new ListStatistics();
+        for (int i = 0; i < window; i++) {
+            before.addValue(last.get(i));
+            after.addValue(last.get(window + i));
+        }
+
+        double shift = Math.abs(after.getMean() - before.getMean());
+        return shift > TOLERANCE * Math.abs(before.getMean()) &&
+                (isConstant(before) && isConstant(after) || before.isDifferent(after, CONFIDENCE));
+    }
+
+    private static boolean isConstant(ListStatistics s) {
+        return s.getVariance() == 0;
+    }
+
+    private static boolean hasTrend(List<Double> last) {
+        // least squares fit for score = a + b * i
+        int n = last.size();
+        double meanX = (n - 1) / 2.0;
+        double meanY = 0;
+        for (double y : last) {
+            meanY += y;
+        }
+        meanY /= n;
+
+        double sxx = 0;
+        double sxy = 0;
+        for (int i = 0; i < n; i++) {
+            sxx += (i - meanX) * (i - meanX);
+            sxy += (i - meanX) * (last.get(i) - meanY);
+        }
+        double slope = sxy / sxx;
+
+        double drift = Math.abs(slope * (n - 1));
+        if (drift <= TOLERANCE * Math.abs(meanY)) {
+            return false;
+        }
+
+        double ssr = 0;
+        for (int i = 0; i < n; i++) {
+            double r = last.get(i) - (meanY + slope * (i - meanX));
+            ssr += r * r;
+        }
+        double se = Math.sqrt(ssr / (n - 2) / sxx);
+        if (se == 0) {
+            return true;
+        }
+
+        double t = new TDistribution(n - 2).inverseCumulativeProbability(1 - (1 - CONFIDENCE) / 2);
+        return Math.abs(slope) / se > t;
+    }
+
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-thread recorder of the intra-iteration time series: splits the iteration into
+ * the fixed sub-intervals, and records the operation counts, or sampled latencies,
+ * for each of them.
+ *
+ * <p>The sub-intervals are kept in the ring allocated on construction, so that the
+ * measurement loop never allocates. The counting measurement loops do not read the
+ * timer on every operation: they report the running count at the stride returned by
+ * {@link #tick(long, long)}, which adapts to keep the timer reads rare.</p>
+ */
+public final class TimeSeriesRecorder {
+
+    /**
+     * Max number of sub-intervals to keep. With more sub-intervals in the iteration,
+     * the ring keeps the latest ones.
+     */
+    static final int MAX_SLOTS = 1 << 16;
+
+    /**
+     * Target number of running count reports per sub-interval.
+     */
+    private static final int TICKS_PER_SLOT = 64;
+
+    /**
+     * Max stride between running count reports.
+     */
+    private static final long MAX_MASK = (1L << 30) - 1;
+
+    private final long interval;
+    private final long[] counts;
+    private final long[] times;
+    private final int mask;
+
+    private long startTime;
+    private long stopTime;
+    private long lastSlot;
+    private long lastTime;
+    private long lastCount;
+    private long tickMask;
+
+    /**
+     * Creates the recorder for the iteration, if time series are requested.
+     *
+     * @param benchmarkParams benchmark parameters
+     * @param iterationParams iteration parameters
+     * @return recorder; null, if time series are not requested, or this is not a measurement iteration
+     */
+    public static TimeSeriesRecorder forIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        long interval = benchmarkParams.getSeriesInterval().convertTo(TimeUnit.NANOSECONDS);
+        if (interval <= 0 || iterationParams.getType() != IterationType.MEASUREMENT) {
+            return null;
+        }
+        long duration = iterationParams.getTime().convertTo(TimeUnit.NANOSECONDS);
+        return new TimeSeriesRecorder(interval, duration);
+    }
+
+    TimeSeriesRecorder(long interval, long expectedDuration) {
+        long slots = Math.min(MAX_SLOTS, expectedDuration / interval + 2);
+        int capacity = Integer.highestOneBit((int) slots);
+        if (capacity < slots) {
+            capacity <<= 1;
+        }
+        this.interval = interval;
+        this.counts = new long[capacity];
+        this.times = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Starts recording.
+     *
+     * @param now current time, ns
+     * @return stride mask for running count reports
+     */
+    public long start(long now) {
+        startTime = now;
+        stopTime = now;
+        lastTime = now;
+        lastSlot = 0;
+        lastCount = 0;
+        tickMask = 0;
+        Arrays.fill(counts, 0);
+        Arrays.fill(times, 0);
+        return tickMask;
+    }
+
+    /**
+     * Reports the running operation count. The operations since the last report are
+     * spread over the sub-intervals they span, proportionally to time.
+     *
+     * @param now current time, ns
+     * @param count operations done since start
+     * @return stride mask for the next report: report when {@code (count & mask) == 0}
+     */
+    public long tick(long now, long count) {
+        long delta = count - lastCount;
+        long from = lastTime;
+        long span = now - from;
+
+        long slot = slotOf(from);
+        long toSlot = slotOf(now);
+        while (slot < toSlot && delta > 0) {
+            long slotEnd = startTime + (slot + 1) * interval;
+            long part = (span > 0) ? (long) (1.0 * delta * (slotEnd - from) / span) : 0;
+            add(slot, part, 0);
+            delta -= part;
+            span -= slotEnd - from;
+            from = slotEnd;
+            slot++;
+        }
+        add(toSlot, delta, 0);
+
+        // keep the reports within the target frequency
+        long dt = now - lastTime;
+        if (dt < interval / (TICKS_PER_SLOT * 2) && tickMask < MAX_MASK) {
+            tickMask = (tickMask << 1) | 1;
+        } else if (dt > interval / (TICKS_PER_SLOT / 2) && tickMask > 0) {
+            tickMask >>>= 1;
+        }
+
+        lastTime = now;
+        lastCount = count;
+        return tickMask;
+    }
+
+    /**
+     * Records the latency sample.
+     *
+     * @param timestamp time the sampled operation started, ns
+     * @param duration sampled operation duration, ns
+     */
+    public void sample(long timestamp, long duration) {
+        add(slotOf(timestamp), 1, duration);
+    }
+
+    /**
+     * Stops recording.
+     *
+     * @param now current time, ns
+     */
+    public void stop(long now) {
+        stopTime = now;
+    }
+
+    private long slotOf(long time) {
+        return Math.max(0, time - startTime) / interval;
+    }
+
+    private void add(long slot, long count, long time) {
+        if (slot > lastSlot) {
+            // entering the new sub-intervals: clean up what is left in the ring from the old ones
+            for (long s = Math.max(lastSlot + 1, slot - mask); s <= slot; s++) {
+                counts[(int) (s & mask)] = 0;
+                times[(int) (s & mask)] = 0;
+            }
+            lastSlot = slot;
+        } else if (slot <= lastSlot - counts.length) {
+            // too old, overwritten already
+            return;
+        }
+        counts[(int) (slot & mask)] += count;
+        times[(int) (slot & mask)] += time;
+    }
+
+    private long firstSlot() {
+        return Math.max(0, lastSlot - mask);
+    }
+
+    private long slotDuration(long slot) {
+        long from = startTime + slot * interval;
+        return Math.max(0, Math.min(interval, stopTime - from));
+    }
+
+    /**
+     * @return sub-interval length, ns
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Computes the throughput in every sub-interval.
+     *
+     * @param tu time unit
+     * @param opsPerInv operations per invocation
+     * @param batchSize invocations per operation
+     * @return throughput, operations per time unit
+     */
+    public double[] throughput(TimeUnit tu, int opsPerInv, int batchSize) {
+        long first = firstSlot();
+        double[] result = new double[(int) (lastSlot - first + 1)];
+        for (int i = 0; i < result.length; i++) {
+            long slot = first + i;
+            long ops = counts[(int) (slot & mask)] * opsPerInv / batchSize;
+            long duration = slotDuration(slot);
+            result[i] = (duration > 0) ? 1.0 * ops * tu.toNanos(1) / duration : Double.NaN;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the average time in every sub-interval.
+     *
+     * @param tu time unit
+     * @param opsPerInv operations per invocation
+     * @param batchSize invocations per operation
+     * @return average time per operation; NaN for sub-intervals without completed operations
+     */
+    public double[] averageTime(TimeUnit tu, int opsPerInv, int batchSize) {
+        long first = firstSlot();
+        double[] result = new double[(int) (lastSlot - first + 1)];
+        for (int i = 0; i < result.length; i++) {
+            long slot = first + i;
+            long ops = counts[(int) (slot & mask)] * opsPerInv / batchSize;
+            long duration = slotDuration(slot);
+            result[i] = (ops > 0) ? 1.0 * duration / ops / tu.toNanos(1) : Double.NaN;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the average sampled time in every sub-interval.
+     *
+     * @param tu time unit
+     * @return average sampled time per operation; NaN for sub-intervals without samples
+     */
+    public double[] sampleTime(TimeUnit tu) {
+        long first = firstSlot();
+        double[] result = new double[(int) (lastSlot - first + 1)];
+        for (int i = 0; i < result.length; i++) {
+            int idx = (int) ((first + i) & mask);
+            result[i] = (counts[idx] > 0) ? 1.0 * times[idx] / counts[idx] / tu.toNanos(1) : Double.NaN;
+        }
+        return result;
+    }
+
+}
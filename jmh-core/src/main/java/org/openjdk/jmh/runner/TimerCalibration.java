@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+/**
+ * Calibrates {@link System#nanoTime()} in the running VM: the latency of a single
+ * call, and the effective granularity, that is, the smallest step between the
+ * distinct timestamps we can observe. The calibration runs once per VM, on the
+ * first request, and is then cached.
+ */
+public final class TimerCalibration {
+
+    /**
+     * Scores within this many timer costs are likely dominated by the timer.
+     */
+    static final int WARNING_FACTOR = 5;
+
+    private static final int LATENCY_ROUNDS = 50;
+    private static final int LATENCY_CALLS = 5_000;
+    private static final int GRANULARITY_ROUNDS = 10;
+    private static final int GRANULARITY_STEPS = 1_000;
+
+    private static long sink;
+
+    private static class Holder {
+        static final TimerCalibration INSTANCE = calibrate();
+    }
+
+    private final double latency;
+    private final double granularity;
+
+    TimerCalibration(double latency, double granularity) {
+        this.latency = latency;
+        this.granularity = granularity;
+    }
+
+    /**
+     * @return timer calibration for this VM, calibrates on the first call
+     */
+    public static TimerCalibration get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @return latency of a single {@link System#nanoTime()} call, ns
+     */
+    public double getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return smallest observable difference between timestamps, ns
+     */
+    public double getGranularity() {
+        return granularity;
+    }
+
+    /**
+     * @return the worst of latency and granularity, ns; this is what every timed operation pays
+     */
+    public double getCost() {
+        return Math.max(latency, granularity);
+    }
+
+    /**
+     * Checks if the operation time is within a few timer costs.
+     *
+     * @param nsPerSample time between the timestamps, ns
+     * @return true, if timer contributes significantly to the measured time
+     */
+    public boolean isSignificantFor(double nsPerSample) {
+        return nsPerSample < WARNING_FACTOR * getCost();
+    }
+
+    static TimerCalibration calibrate() {
+        // Rounds run the same code over and over, which gets it compiled, and
+        // minimums shake off the interpreter, as well as the scheduling hiccups.
+        double latency = Double.POSITIVE_INFINITY;
+        for (int r = 0; r < LATENCY_ROUNDS; r++) {
+            latency = Math.min(latency, measureLatency(LATENCY_CALLS));
+        }
+
+        double granularity = Double.POSITIVE_INFINITY;
+        for (int r = 0; r < GRANULARITY_ROUNDS; r++) {
+            granularity = Math.min(granularity, measureGranularity(GRANULARITY_STEPS));
+        }
+
+        return new TimerCalibration(latency, granularity);
+    }
+
+    private static double measureLatency(int calls) {
+        long s = 0;
+        long start = System.nanoTime();
+        for (int c = 0; c < calls; c++) {
+            s += System.nanoTime();
+        }
+        long stop = System.nanoTime();
+        sink += s;
+        return 1.0 * (stop - start) / calls;
+    }
+
+    private static double measureGranularity(int steps) {
+        long start = System.nanoTime();
+        long last = start;
+        for (int c = 0; c < steps; c++) {
+            long cur;
+            do {
+                cur = System.nanoTime();
+            } while (cur == last);
+            last = cur;
+        }
+        return 1.0 * (last - start) / steps;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("latency %.1f ns, granularity %.1f ns", latency, granularity);
+    }
+
+}
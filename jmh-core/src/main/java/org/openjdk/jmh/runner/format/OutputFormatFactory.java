@@ -25,6 +25,7 @@
 package org.openjdk.jmh.runner.format;
 
 import org.openjdk.jmh.runner.options.VerboseMode;
+import org.openjdk.jmh.util.ConfidenceMethod;
 
 import java.io.PrintStream;
 
@@ -38,12 +39,24 @@ public class OutputFormatFactory {
      * @return a new OutputFormat instance of given type
      */
     public static OutputFormat createFormatInstance(PrintStream out, VerboseMode mode) {
+        return createFormatInstance(out, mode, ConfidenceMethod.STUDENT);
+    }
+
+    /**
+     * Factory method for OutputFormat instances
+     *
+     * @param out  output stream to use
+     * @param mode how much verbosity to use
+     * @param method confidence interval method for the primary score
+     * @return a new OutputFormat instance of given type
+     */
+    public static OutputFormat createFormatInstance(PrintStream out, VerboseMode mode, ConfidenceMethod method) {
         switch (mode) {
             case SILENT:
                 return new SilentFormat(out, mode);
             case NORMAL:
             case EXTRA:
-                return new TextReportFormat(out, mode);
+                return new TextReportFormat(out, mode, method);
             default:
                 throw new IllegalArgumentException("Mode " + mode + " not found!");
         }
@@ -34,8 +34,12 @@ import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.results.format.ResultFormatFactory;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.options.ThreadsSweep;
 import org.openjdk.jmh.runner.options.TimeValue;
 import org.openjdk.jmh.runner.options.VerboseMode;
+import org.openjdk.jmh.util.ConfidenceMethod;
+import org.openjdk.jmh.util.ScalabilityFit;
+import org.openjdk.jmh.util.ScoreFormatter;
 import org.openjdk.jmh.util.Utils;
 
 import java.io.PrintStream;
@@ -43,6 +47,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -50,8 +57,11 @@ import java.util.concurrent.TimeUnit;
  */
 class TextReportFormat extends AbstractOutputFormat {
 
-    public TextReportFormat(PrintStream out, VerboseMode verbose) {
+    private final ConfidenceMethod method;
+
+    public TextReportFormat(PrintStream out, VerboseMode verbose, ConfidenceMethod method) {
         super(out, verbose);
+        this.method = method;
     }
 
     @Override
@@ -119,12 +129,32 @@ class TextReportFormat extends AbstractOutputFormat {
             out.print(" (" + groupCount + " " + getGroupsString(groupCount) + "; " + Utils.join(ss, ", ") + " in each group)");
         }
 
+        if (!BenchmarkParams.DEFAULT_EXECUTOR.equals(params.getExecutor())) {
+            out.print(", running on " + params.getExecutor() + " executor");
+        }
+
         out.println(params.shouldSynchIterations() ?
                 ", will synchronize iterations" :
                 (params.getMode() == Mode.SingleShotTime) ? "" : ", ***WARNING: Synchronize iterations are disabled!***");
 
 
         out.println("# Benchmark mode: " + params.getMode().longLabel());
+        if (params.getMode() == Mode.RateLimited) {
+            out.println("# Arrival rate: " + params.getArrivalRate() + " ops/s per thread, " +
+                    params.getArrivalProcess().toString().toLowerCase() + " arrivals");
+        }
+        if (params.getMode() == Mode.SampleTime && params.getCoInterval().convertTo(TimeUnit.NANOSECONDS) > 0) {
+            out.println("# Coordinated omission correction: " + params.getCoInterval() + " expected interval");
+        }
+        if (params.getMode() == Mode.SampleTime && params.shouldCompensateTimer()) {
+            out.println("# Timer compensation: calibrated timer latency is subtracted from samples");
+        }
+        if (params.shouldMeasureCpuTime()) {
+            out.println("# CPU time: measured along with the wall time");
+        }
+        if (params.getSeriesInterval().convertTo(TimeUnit.NANOSECONDS) > 0) {
+            out.println("# Time series: " + params.getSeriesInterval() + " sub-intervals");
+        }
         out.println("# Benchmark: " + params.getBenchmark());
         if (!params.getParamsKeys().isEmpty()) {
             String s = "";
@@ -238,7 +268,101 @@ class TextReportFormat extends AbstractOutputFormat {
         out.println("Do not assume the numbers tell you what you want them to tell.");
         out.println();
 
-        ResultFormatFactory.getInstance(ResultFormatType.TEXT, out).writeOut(runResults);
+        ResultFormatFactory.getInstance(ResultFormatType.TEXT, out, method).writeOut(runResults);
+
+        printScalability(runResults);
+    }
+
+    private void printScalability(Collection<RunResult> runResults) {
+        // the same benchmark, mode and parameters, except the thread count sweep
+        Map<String, List<RunResult>> groups = new TreeMap<>();
+        for (RunResult r : runResults) {
+            BenchmarkParams params = r.getParams();
+            Mode mode = params.getMode();
+            if (mode != Mode.Throughput && mode != Mode.AverageTime && mode != Mode.SampleTime) {
+                continue;
+            }
+            StringBuilder key = new StringBuilder();
+            key.append(params.getBenchmark()).append(" (").append(mode.shortLabel());
+            for (String k : params.getParamsKeys()) {
+                if (!k.equals(ThreadsSweep.PARAM)) {
+                    key.append(", ").append(k).append(" = ").append(params.getParam(k));
+                }
+            }
+            key.append(")");
+
+            List<RunResult> list = groups.get(key.toString());
+            if (list == null) {
+                list = new ArrayList<>();
+                groups.put(key.toString(), list);
+            }
+            list.add(r);
+        }
+
+        boolean header = true;
+        for (Map.Entry<String, List<RunResult>> e : groups.entrySet()) {
+            List<RunResult> list = e.getValue();
+            SortedSet<Integer> counts = new TreeSet<>();
+            for (RunResult r : list) {
+                counts.add(r.getParams().getThreads());
+            }
+            List<String> countLabels = new ArrayList<>();
+            for (int c : counts) {
+                countLabels.add(String.valueOf(c));
+            }
+            if (counts.size() < 3) {
+                continue;
+            }
+
+            int[] threads = new int[list.size()];
+            double[] throughput = new double[list.size()];
+            String unit = null;
+            boolean valid = true;
+            for (int i = 0; i < list.size(); i++) {
+                RunResult r = list.get(i);
+                Result pr = r.getPrimaryResult();
+                threads[i] = r.getParams().getThreads();
+                if (r.getParams().getMode() == Mode.Throughput) {
+                    throughput[i] = pr.getScore();
+                    unit = pr.getScoreUnit();
+                } else {
+                    // time per operation in every thread
+                    throughput[i] = threads[i] / pr.getScore();
+                    String[] parts = pr.getScoreUnit().split("/");
+                    unit = (parts.length == 2) ? parts[1].replaceAll("^op$", "ops") + "/" + parts[0] : "1/" + pr.getScoreUnit();
+                }
+                valid &= throughput[i] > 0 && !Double.isInfinite(throughput[i]);
+            }
+            if (!valid) {
+                continue;
+            }
+
+            if (header) {
+                out.println();
+                out.println("Scalability, Universal Scalability Law fit: X(N) = \u03bbN / (1 + \u03c3(N - 1) + \u03baN(N - 1))");
+                out.println("  \u03c3 is contention, \u03ba is coherency; Amdahl's Law is the fit with \u03ba = 0.");
+                header = false;
+            }
+
+            ScalabilityFit usl = ScalabilityFit.usl(threads, throughput);
+            ScalabilityFit amdahl = ScalabilityFit.amdahl(threads, throughput);
+
+            out.println();
+            out.println("Benchmark " + e.getKey() + ", threads " + Utils.join(countLabels, ", ") + ":");
+            out.println(String.format("  USL:    \u03bb = %s %s, \u03c3 = %.4g, \u03ba = %.4g, R\u00b2 = %.4f; %s",
+                    ScoreFormatter.format(usl.getLambda()), unit,
+                    usl.getContention(), usl.getCoherency(), usl.getRSquared(),
+                    (usl.getCoherency() > 0) ?
+                            String.format("knee at N = %.1f threads, %s %s",
+                                    usl.getPeakThreads(), ScoreFormatter.format(usl.getPeakThroughput()), unit) :
+                            "no knee, throughput grows monotonically"));
+            out.println(String.format("  Amdahl: \u03bb = %s %s, \u03c3 = %.4g, R\u00b2 = %.4f; %s",
+                    ScoreFormatter.format(amdahl.getLambda()), unit,
+                    amdahl.getContention(), amdahl.getRSquared(),
+                    (amdahl.getContention() > 0) ?
+                            "limit " + ScoreFormatter.format(amdahl.getPeakThroughput()) + " " + unit :
+                            "no limit, throughput scales linearly"));
+        }
     }
 
 }
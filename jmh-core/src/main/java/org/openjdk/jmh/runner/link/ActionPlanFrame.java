@@ -26,10 +26,7 @@ package org.openjdk.jmh.runner.link;
 
 import org.openjdk.jmh.runner.ActionPlan;
 
-import java.io.Serializable;
-
-class ActionPlanFrame implements Serializable {
-    private static final long serialVersionUID = 4652437412096164885L;
+class ActionPlanFrame {
 
     private final ActionPlan actionPlan;
 
@@ -24,6 +24,7 @@
  */
 package org.openjdk.jmh.runner.link;
 
+import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.BenchmarkResultMetaData;
 import org.openjdk.jmh.results.IterationResult;
 import org.openjdk.jmh.runner.ActionPlan;
@@ -35,12 +36,11 @@ import org.openjdk.jmh.util.Utils;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
-import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
@@ -51,31 +51,49 @@ import java.util.List;
 
 public final class BinaryLinkClient {
 
-    private static final int RESET_EACH = Integer.getInteger("jmh.link.resetEach", 100);
     private static final int BUFFER_SIZE = Integer.getInteger("jmh.link.bufferSize", 64*1024);
 
     private final Object lock;
 
-    private final Socket clientSocket;
-    private final ObjectOutputStream oos;
-    private final ObjectInputStream ois;
+    private final Closeable connection;
+    private final FrameWriter writer;
+    private final FrameReader reader;
     private final ForwardingPrintStream streamErr;
     private final ForwardingPrintStream streamOut;
     private final OutputFormat outputFormat;
     private volatile boolean failed;
-    private int resetToGo;
-    private final List<Serializable> delayedFrames;
+    private final List<Object> delayedFrames;
     private boolean inFrame;
 
+    /**
+     * Connects to the host VM.
+     *
+     * @param hostName host name to connect to, or the shared memory link address
+     * @param hostPort host port to connect to, ignored for shared memory link
+     * @throws IOException if connection fails
+     */
     public BinaryLinkClient(String hostName, int hostPort) throws IOException {
         this.lock = new Object();
-        this.clientSocket = new Socket(hostName, hostPort);
 
-        // Initialize the OOS first, and flush, letting the other party read the stream header.
-        this.oos = new ObjectOutputStream(new BufferedOutputStream(clientSocket.getOutputStream(), BUFFER_SIZE));
-        this.oos.flush();
+        OutputStream os;
+        InputStream is;
+        if (ShmLink.isAddress(hostName)) {
+            ShmLink link = ShmLink.attach(hostName);
+            this.connection = link;
+            os = link.forkOutput();
+            is = link.forkInput();
+        } else {
+            Socket socket = new Socket(hostName, hostPort);
+            this.connection = socket;
+            os = socket.getOutputStream();
+            is = socket.getInputStream();
+        }
+
+        // Initialize the writer first, and flush, letting the other party read the stream header.
+        this.writer = new FrameWriter(new BufferedOutputStream(os, BUFFER_SIZE));
+        this.writer.flush();
 
-        this.ois = new ObjectInputStream(new BufferedInputStream(clientSocket.getInputStream(), BUFFER_SIZE));
+        this.reader = new FrameReader(new BufferedInputStream(is, BUFFER_SIZE));
 
         this.streamErr = new ForwardingPrintStream(OutputFrame.Type.ERR);
         this.streamOut = new ForwardingPrintStream(OutputFrame.Type.OUT);
@@ -94,17 +112,12 @@ public final class BinaryLinkClient {
         this.delayedFrames = new ArrayList<>();
     }
 
-    private void pushFrame(Serializable frame) throws IOException {
+    private void pushFrame(Object frame) throws IOException {
         if (failed) {
             throw new IOException("Link had failed already");
         }
 
-        // It is important to reset the OOS to avoid garbage buildup in internal identity
-        // tables. However, we cannot do that after each frame since the huge referenced
-        // objects like benchmark and iteration parameters will be duplicated on the receiver
-        // side. This is why we reset only each RESET_EACH frames.
-        //
-        // It is as much as important to flush the stream to let the other party know we
+        // It is important to flush the stream to let the other party know we
         // pushed something out.
 
         synchronized (lock) {
@@ -120,23 +133,18 @@ public final class BinaryLinkClient {
             try {
                 inFrame = true;
 
-                if (resetToGo-- < 0) {
-                    oos.reset();
-                    resetToGo = RESET_EACH;
-                }
-
-                oos.writeObject(frame);
-                oos.flush();
+                writer.write(frame);
+                writer.flush();
 
                 // Do all delayed frames now. On the off-chance their writes produce more frames,
                 // drain them recursively.
                 while (!delayedFrames.isEmpty()) {
-                    List<Serializable> frames = new ArrayList<>(delayedFrames);
+                    List<Object> frames = new ArrayList<>(delayedFrames);
                     delayedFrames.clear();
-                    for (Serializable f : frames) {
-                        oos.writeObject(f);
+                    for (Object f : frames) {
+                        writer.write(f);
                     }
-                    oos.flush();
+                    writer.flush();
                 }
             } catch (IOException e) {
                 failed = true;
@@ -147,10 +155,10 @@ public final class BinaryLinkClient {
         }
     }
 
-    private Object readFrame() throws IOException, ClassNotFoundException {
+    private Object readFrame() throws IOException {
         try {
-            return ois.readObject();
-        } catch (ClassNotFoundException | IOException ex) {
+            return reader.read();
+        } catch (IOException ex) {
             failed = true;
             throw ex;
         }
@@ -165,14 +173,15 @@ public final class BinaryLinkClient {
         FileUtils.safelyClose(streamOut);
 
         synchronized (lock) {
-            oos.writeObject(new FinishingFrame());
-            FileUtils.safelyClose(ois);
-            FileUtils.safelyClose(oos);
-            clientSocket.close();
+            writer.write(new FinishingFrame());
+            writer.flush();
+            FileUtils.safelyClose(reader);
+            FileUtils.safelyClose(writer);
+            connection.close();
         }
     }
 
-    public Options handshake() throws IOException, ClassNotFoundException {
+    public Options handshake() throws IOException {
         synchronized (lock) {
             pushFrame(new HandshakeInitFrame(Utils.getPid()));
 
@@ -185,7 +194,7 @@ public final class BinaryLinkClient {
         }
     }
 
-    public ActionPlan requestPlan() throws IOException, ClassNotFoundException {
+    public ActionPlan requestPlan() throws IOException {
         synchronized (lock) {
             pushFrame(new InfraFrame(InfraFrame.Type.ACTION_PLAN_REQUEST));
 
@@ -206,8 +215,8 @@ public final class BinaryLinkClient {
         pushFrame(new ExceptionFrame(error));
     }
 
-    public void pushResultMetadata(BenchmarkResultMetaData res) throws IOException {
-        pushFrame(new ResultMetadataFrame(res));
+    public void pushResultMetadata(BenchmarkParams params, BenchmarkResultMetaData res) throws IOException {
+        pushFrame(new ResultMetadataFrame(params, res));
     }
 
     public PrintStream getOutStream() {
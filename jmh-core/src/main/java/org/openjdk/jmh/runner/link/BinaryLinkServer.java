@@ -24,6 +24,7 @@
  */
 package org.openjdk.jmh.runner.link;
 
+import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.BenchmarkResultMetaData;
 import org.openjdk.jmh.results.IterationResult;
 import org.openjdk.jmh.runner.ActionPlan;
@@ -36,11 +37,10 @@ import org.openjdk.jmh.util.Utils;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -55,25 +55,32 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Accepts the binary data from the forked VM and pushes it to parent VM
  * as appropriate. This server assumes there is only the one and only
  * client at any given point of time.
+ *
+ * <p>The link goes either over the loopback socket, or, with
+ * {@code -Djmh.link.transport=shm}, over the shared memory file,
+ * see {@link ShmLink}.
  */
 public final class BinaryLinkServer {
 
     private static final int BUFFER_SIZE = Integer.getInteger("jmh.link.bufferSize", 64*1024);
+    private static final String TRANSPORT = System.getProperty("jmh.link.transport", "socket");
 
     private final Options opts;
     private final OutputFormat out;
     private final Map<String, Method> methods;
     private final Set<String> forbidden;
     private final Acceptor acceptor;
+    private volatile ShmLink shmLink;
     private final AtomicReference<Handler> handler;
     private final AtomicReference<List<IterationResult>> results;
-    private final AtomicReference<BenchmarkResultMetaData> metadata;
+    private final Map<BenchmarkParams, BenchmarkResultMetaData> metadata;
     private final AtomicReference<BenchmarkException> exception;
     private final AtomicReference<ActionPlan> plan;
     private volatile long clientPid;
@@ -98,18 +105,44 @@ public final class BinaryLinkServer {
             }
         }
 
-        acceptor = new Acceptor();
-        acceptor.start();
-
         handler = new AtomicReference<>();
-        metadata = new AtomicReference<>();
+        metadata = new ConcurrentHashMap<>();
         results = new AtomicReference<List<IterationResult>>(new ArrayList<IterationResult>());
         exception = new AtomicReference<>();
         plan = new AtomicReference<>();
+
+        switch (TRANSPORT) {
+            case "socket":
+                acceptor = new Acceptor();
+                acceptor.start();
+                break;
+            case "shm":
+                acceptor = null;
+                startShmLink();
+                break;
+            default:
+                throw new IllegalStateException("Unknown binary link transport: " + TRANSPORT);
+        }
+    }
+
+    /**
+     * Shared memory link has no acceptor: set up the link for the next
+     * forked VM, and start handling it right away.
+     */
+    private void startShmLink() throws IOException {
+        ShmLink link = ShmLink.create();
+        Handler h = new Handler(link.hostInput(), link.hostOutput(), link);
+        if (!handler.compareAndSet(null, h)) {
+            throw new IllegalStateException("The handler is already registered");
+        }
+        shmLink = link;
+        h.start();
     }
 
     public void terminate() {
-        acceptor.close();
+        if (acceptor != null) {
+            acceptor.close();
+        }
 
         Handler h = handler.getAndSet(null);
         if (h != null) {
@@ -117,16 +150,29 @@ public final class BinaryLinkServer {
         }
 
         try {
-            acceptor.join();
+            if (acceptor != null) {
+                acceptor.join();
+            }
             if (h != null) {
                 h.join();
             }
         } catch (InterruptedException e) {
             // ignore
         }
+
+        ShmLink link = shmLink;
+        if (link != null) {
+            link.delete();
+        }
     }
 
     public void waitFinish() {
+        // forked VM is gone, shared memory link would not see the end of stream otherwise
+        ShmLink link = shmLink;
+        if (link != null) {
+            link.peerGone();
+        }
+
         Handler h = handler.getAndSet(null);
         if (h != null) {
             try {
@@ -135,6 +181,15 @@ public final class BinaryLinkServer {
                 // ignore
             }
         }
+
+        if (link != null) {
+            link.delete();
+            try {
+                startShmLink();
+            } catch (IOException e) {
+                throw new IllegalStateException("Can not initialize binary link.", e);
+            }
+        }
     }
 
     public BenchmarkException getException() {
@@ -150,8 +205,8 @@ public final class BinaryLinkServer {
         }
     }
 
-    public BenchmarkResultMetaData getMetadata() {
-        return metadata.getAndSet(null);
+    public BenchmarkResultMetaData getMetadata(BenchmarkParams params) {
+        return metadata.remove(params);
     }
 
     public void setPlan(ActionPlan actionPlan) {
@@ -252,39 +307,56 @@ public final class BinaryLinkServer {
         }
     }
 
+    /**
+     * @return host name for the forked VM to connect to, or the shared memory link address
+     */
     public String getHost() {
-        return acceptor.getHost();
+        if (acceptor != null) {
+            return acceptor.getHost();
+        } else {
+            return shmLink.getAddress();
+        }
     }
 
+    /**
+     * @return host port for the forked VM to connect to; 0 for shared memory link
+     */
     public int getPort() {
-        return acceptor.getPort();
+        if (acceptor != null) {
+            return acceptor.getPort();
+        } else {
+            return 0;
+        }
     }
 
     private final class Handler extends Thread {
         private final InputStream is;
-        private final Socket socket;
-        private ObjectInputStream ois;
+        private final Closeable connection;
+        private FrameReader reader;
         private final OutputStream os;
-        private ObjectOutputStream oos;
+        private final FrameWriter writer;
 
         public Handler(Socket socket) throws IOException {
-            this.socket = socket;
-            this.is = socket.getInputStream();
-            this.os = socket.getOutputStream();
+            this(socket.getInputStream(), socket.getOutputStream(), socket);
+        }
+
+        public Handler(InputStream is, OutputStream os, Closeable connection) throws IOException {
+            this.connection = connection;
+            this.is = is;
+            this.os = os;
 
-            // eager OOS initialization, let the other party read the stream header
-            oos = new ObjectOutputStream(new BufferedOutputStream(os, BUFFER_SIZE));
-            oos.flush();
+            // eager writer initialization, let the other party read the stream header
+            writer = new FrameWriter(new BufferedOutputStream(os, BUFFER_SIZE));
+            writer.flush();
         }
 
         @Override
         public void run() {
             try {
-                // late OIS initialization, otherwise we'll block reading the header
-                ois = new ObjectInputStream(new BufferedInputStream(is, BUFFER_SIZE));
+                reader = new FrameReader(new BufferedInputStream(is, BUFFER_SIZE));
 
                 Object obj;
-                while ((obj = ois.readObject()) != null) {
+                while ((obj = reader.read()) != null) {
                     if (obj instanceof OutputFormatFrame) {
                         handleOutputFormat((OutputFormatFrame) obj);
                     }
@@ -324,7 +396,7 @@ public final class BinaryLinkServer {
         }
 
         private void handleResultMetadata(ResultMetadataFrame obj) {
-            metadata.set(obj.getMD());
+            metadata.put(obj.getParams(), obj.getMD());
         }
 
         private void handleOutput(OutputFrame obj) {
@@ -352,15 +424,15 @@ public final class BinaryLinkServer {
 
         private void handleHandshake(HandshakeInitFrame obj) throws IOException {
             clientPid = obj.getPid();
-            oos.writeObject(new HandshakeResponseFrame(opts));
-            oos.flush();
+            writer.write(new HandshakeResponseFrame(opts));
+            writer.flush();
         }
 
         private void handleInfra(InfraFrame req) throws IOException {
             switch (req.getType()) {
                 case ACTION_PLAN_REQUEST:
-                    oos.writeObject(new ActionPlanFrame(plan.get()));
-                    oos.flush();
+                    writer.write(new ActionPlanFrame(plan.get()));
+                    writer.flush();
                     break;
                 default:
                     throw new IllegalStateException("Unknown infrastructure request: " + req);
@@ -385,7 +457,7 @@ public final class BinaryLinkServer {
 
         public void close() {
             try {
-                socket.close();
+                connection.close();
             } catch (IOException e) {
                 // ignore
             }
@@ -26,10 +26,7 @@ package org.openjdk.jmh.runner.link;
 
 import org.openjdk.jmh.runner.BenchmarkException;
 
-import java.io.Serializable;
-
-class ExceptionFrame implements Serializable {
-    private static final long serialVersionUID = 5595622047639653401L;
+class ExceptionFrame {
 
     private final BenchmarkException error;
 
@@ -24,8 +24,5 @@
  */
 package org.openjdk.jmh.runner.link;
 
-import java.io.Serializable;
-
-class FinishingFrame implements Serializable {
-    private static final long serialVersionUID = 2309975914801631608L;
+class FinishingFrame {
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner.link;
+
+import org.openjdk.jmh.results.ResultCodec;
+
+/**
+ * Binary link wire format. Every frame starts with the frame tag, followed
+ * by the frame fields. Hot frames (results, output, output format calls) are
+ * encoded field by field, strings and parameters are interned, so that
+ * every distinct label or benchmark parameters object is sent only once.
+ * Rarely sent frames with the complex payload (options, action plans,
+ * exceptions) are Java-serialized.
+ */
+abstract class FrameCodec {
+
+    static final int MAGIC = 0x4A4D484C; // "JMHL"
+    static final int VERSION = 1;
+
+    static final int FRAME_FINISHING          = 0;
+    static final int FRAME_HANDSHAKE_INIT     = 1;
+    static final int FRAME_HANDSHAKE_RESPONSE = 2;
+    static final int FRAME_INFRA              = 3;
+    static final int FRAME_ACTION_PLAN        = 4;
+    static final int FRAME_OUTPUT             = 5;
+    static final int FRAME_OUTPUT_FORMAT      = 6;
+    static final int FRAME_RESULTS            = 7;
+    static final int FRAME_RESULT_METADATA    = 8;
+    static final int FRAME_EXCEPTION          = 9;
+
+    static final int VALUE_NULL              = 0;
+    static final int VALUE_STRING            = 1;
+    static final int VALUE_INT               = 2;
+    static final int VALUE_LONG              = 3;
+    static final int VALUE_DOUBLE            = 4;
+    static final int VALUE_BOOLEAN           = 5;
+    static final int VALUE_BYTES             = 6;
+    static final int VALUE_BENCHMARK_PARAMS  = 7;
+    static final int VALUE_ITERATION_PARAMS  = 8;
+    static final int VALUE_ITERATION_RESULT  = 9;
+    static final int VALUE_SERIALIZED        = 10;
+
+    protected final ResultCodec codec = new ResultCodec();
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner.link;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.BenchmarkResultMetaData;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.IterationResultMetaData;
+import org.openjdk.jmh.runner.ActionPlan;
+import org.openjdk.jmh.runner.BenchmarkException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.util.Utils;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the binary link frames.
+ *
+ * @see FrameWriter
+ */
+class FrameReader extends FrameCodec implements Closeable {
+
+    private static final OutputFrame.Type[] OUTPUT_TYPES = OutputFrame.Type.values();
+    private static final InfraFrame.Type[] INFRA_TYPES = InfraFrame.Type.values();
+
+    private final DataInputStream in;
+    private final List<Object> params;
+    private boolean headerRead;
+
+    public FrameReader(InputStream is) {
+        this.in = new DataInputStream(is);
+        this.params = new ArrayList<>();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads the next frame. Header is read lazily on the first read,
+     * in order not to block the reader construction.
+     *
+     * @return frame
+     * @throws IOException if input fails, or data is malformed
+     */
+    public Object read() throws IOException {
+        if (!headerRead) {
+            int magic = in.readInt();
+            int version = in.readUnsignedByte();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Binary link header mismatch: " +
+                        Integer.toHexString(magic) + ", version " + version);
+            }
+            headerRead = true;
+        }
+
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case FRAME_OUTPUT: {
+                int type = in.readUnsignedByte();
+                if (type >= OUTPUT_TYPES.length) {
+                    throw new IOException("Unknown output type: " + type);
+                }
+                return new OutputFrame(OUTPUT_TYPES[type], codec.readBytes(in));
+            }
+            case FRAME_OUTPUT_FORMAT: {
+                String method = codec.readString(in);
+                Object[] args = new Object[readLength()];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = readValue();
+                }
+                return new OutputFormatFrame(method, args);
+            }
+            case FRAME_RESULTS:
+                return new ResultsFrame(readIterationResult());
+            case FRAME_RESULT_METADATA: {
+                BenchmarkParams bp = (BenchmarkParams) readParams();
+                long warmupTime = in.readLong();
+                long measurementTime = in.readLong();
+                long stopTime = in.readLong();
+                long warmupOps = Utils.readVarLong(in);
+                long measurementOps = Utils.readVarLong(in);
+                int warmupIterations = (int) Utils.readVarSignedLong(in);
+                double timerLatency = in.readDouble();
+                double timerGranularity = in.readDouble();
+                return new ResultMetadataFrame(bp, new BenchmarkResultMetaData(
+                        warmupTime, measurementTime, stopTime,
+                        warmupOps, measurementOps, warmupIterations,
+                        timerLatency, timerGranularity));
+            }
+            case FRAME_INFRA: {
+                int type = in.readUnsignedByte();
+                if (type >= INFRA_TYPES.length) {
+                    throw new IOException("Unknown infra type: " + type);
+                }
+                return new InfraFrame(INFRA_TYPES[type]);
+            }
+            case FRAME_HANDSHAKE_INIT:
+                return new HandshakeInitFrame(in.readLong());
+            case FRAME_HANDSHAKE_RESPONSE:
+                return new HandshakeResponseFrame((Options) codec.readSerialized(in));
+            case FRAME_ACTION_PLAN:
+                return new ActionPlanFrame((ActionPlan) codec.readSerialized(in));
+            case FRAME_EXCEPTION:
+                return new ExceptionFrame((BenchmarkException) codec.readSerialized(in));
+            case FRAME_FINISHING:
+                return new FinishingFrame();
+            default:
+                throw new IOException("Unknown frame tag: " + tag);
+        }
+    }
+
+    private int readLength() throws IOException {
+        long len = Utils.readVarLong(in);
+        if (len > Integer.MAX_VALUE) {
+            throw new IOException("Malformed length: " + len);
+        }
+        return (int) len;
+    }
+
+    private Object readValue() throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return codec.readText(in);
+            case VALUE_INT:
+                return (int) Utils.readVarSignedLong(in);
+            case VALUE_LONG:
+                return Utils.readVarSignedLong(in);
+            case VALUE_DOUBLE:
+                return in.readDouble();
+            case VALUE_BOOLEAN:
+                return in.readBoolean();
+            case VALUE_BYTES:
+                return codec.readBytes(in);
+            case VALUE_BENCHMARK_PARAMS:
+            case VALUE_ITERATION_PARAMS:
+                return readParams();
+            case VALUE_ITERATION_RESULT:
+                return readIterationResult();
+            case VALUE_SERIALIZED:
+                return codec.readSerialized(in);
+            default:
+                throw new IOException("Unknown value tag: " + tag);
+        }
+    }
+
+    private Object readParams() throws IOException {
+        long v = Utils.readVarLong(in);
+        if (v == 1) {
+            Object p = codec.readSerialized(in);
+            params.add(p);
+            return p;
+        }
+
+        long id = (v >> 1) - 1;
+        if ((v & 1) != 0 || id < 0 || id >= params.size()) {
+            throw new IOException("Malformed params reference: " + v);
+        }
+        return params.get((int) id);
+    }
+
+    private IterationResult readIterationResult() throws IOException {
+        BenchmarkParams bp = (BenchmarkParams) readParams();
+        IterationParams ip = (IterationParams) readParams();
+        long allOps = Utils.readVarLong(in);
+        long measuredOps = Utils.readVarLong(in);
+
+        IterationResult ir = new IterationResult(bp, ip, new IterationResultMetaData(allOps, measuredOps));
+
+        int primary = readLength();
+        for (int i = 0; i < primary; i++) {
+            ir.addResult(codec.readResult(in));
+        }
+
+        int secondary = readLength();
+        for (int i = 0; i < secondary; i++) {
+            ir.addResult(codec.readResult(in));
+        }
+        return ir;
+    }
+
+}
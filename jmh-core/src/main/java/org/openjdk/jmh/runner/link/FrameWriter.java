@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner.link;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.BenchmarkResultMetaData;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.util.Multimap;
+import org.openjdk.jmh.util.Utils;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Writes the binary link frames.
+ *
+ * @see FrameReader
+ */
+class FrameWriter extends FrameCodec implements Flushable, Closeable {
+
+    private final DataOutputStream out;
+    private final Map<Object, Integer> params;
+
+    public FrameWriter(OutputStream os) throws IOException {
+        this.out = new DataOutputStream(os);
+        this.params = new IdentityHashMap<>();
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    public void write(Object frame) throws IOException {
+        if (frame instanceof OutputFrame) {
+            OutputFrame f = (OutputFrame) frame;
+            out.writeByte(FRAME_OUTPUT);
+            out.writeByte(f.getType().ordinal());
+            codec.writeBytes(out, f.getData());
+        } else if (frame instanceof OutputFormatFrame) {
+            OutputFormatFrame f = (OutputFormatFrame) frame;
+            out.writeByte(FRAME_OUTPUT_FORMAT);
+            codec.writeString(out, f.method);
+            Object[] args = (f.args != null) ? f.args : new Object[0];
+            Utils.writeVarLong(out, args.length);
+            for (Object arg : args) {
+                writeValue(arg);
+            }
+        } else if (frame instanceof ResultsFrame) {
+            out.writeByte(FRAME_RESULTS);
+            writeIterationResult(((ResultsFrame) frame).getRes());
+        } else if (frame instanceof ResultMetadataFrame) {
+            ResultMetadataFrame f = (ResultMetadataFrame) frame;
+            BenchmarkResultMetaData md = f.getMD();
+            out.writeByte(FRAME_RESULT_METADATA);
+            writeParams(f.getParams());
+            out.writeLong(md.getWarmupTime());
+            out.writeLong(md.getMeasurementTime());
+            out.writeLong(md.getStopTime());
+            Utils.writeVarLong(out, md.getWarmupOps());
+            Utils.writeVarLong(out, md.getMeasurementOps());
+            Utils.writeVarSignedLong(out, md.getWarmupIterations());
+            out.writeDouble(md.getTimerLatency());
+            out.writeDouble(md.getTimerGranularity());
+        } else if (frame instanceof InfraFrame) {
+            out.writeByte(FRAME_INFRA);
+            out.writeByte(((InfraFrame) frame).getType().ordinal());
+        } else if (frame instanceof HandshakeInitFrame) {
+            out.writeByte(FRAME_HANDSHAKE_INIT);
+            out.writeLong(((HandshakeInitFrame) frame).getPid());
+        } else if (frame instanceof HandshakeResponseFrame) {
+            out.writeByte(FRAME_HANDSHAKE_RESPONSE);
+            codec.writeSerialized(out, ((HandshakeResponseFrame) frame).getOpts());
+        } else if (frame instanceof ActionPlanFrame) {
+            out.writeByte(FRAME_ACTION_PLAN);
+            codec.writeSerialized(out, ((ActionPlanFrame) frame).getActionPlan());
+        } else if (frame instanceof ExceptionFrame) {
+            out.writeByte(FRAME_EXCEPTION);
+            codec.writeSerialized(out, ((ExceptionFrame) frame).getError());
+        } else if (frame instanceof FinishingFrame) {
+            out.writeByte(FRAME_FINISHING);
+        } else {
+            throw new IllegalArgumentException("Unknown frame: " + frame);
+        }
+    }
+
+    private void writeValue(Object v) throws IOException {
+        if (v == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (v instanceof String) {
+            out.writeByte(VALUE_STRING);
+            codec.writeText(out, (String) v);
+        } else if (v instanceof Integer) {
+            out.writeByte(VALUE_INT);
+            Utils.writeVarSignedLong(out, (Integer) v);
+        } else if (v instanceof Long) {
+            out.writeByte(VALUE_LONG);
+            Utils.writeVarSignedLong(out, (Long) v);
+        } else if (v instanceof Double) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble((Double) v);
+        } else if (v instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) v);
+        } else if (v instanceof byte[]) {
+            out.writeByte(VALUE_BYTES);
+            codec.writeBytes(out, (byte[]) v);
+        } else if (v instanceof BenchmarkParams) {
+            out.writeByte(VALUE_BENCHMARK_PARAMS);
+            writeParams(v);
+        } else if (v instanceof IterationParams) {
+            out.writeByte(VALUE_ITERATION_PARAMS);
+            writeParams(v);
+        } else if (v.getClass() == IterationResult.class) {
+            out.writeByte(VALUE_ITERATION_RESULT);
+            writeIterationResult((IterationResult) v);
+        } else {
+            out.writeByte(VALUE_SERIALIZED);
+            codec.writeSerialized(out, v);
+        }
+    }
+
+    /**
+     * Benchmark and iteration parameters are immutable, and forked VM reuses
+     * the same instances for all iterations. Send each instance only once,
+     * and refer to it by index afterwards.
+     */
+    private void writeParams(Object p) throws IOException {
+        Integer id = params.get(p);
+        if (id != null) {
+            Utils.writeVarLong(out, (id + 1L) << 1);
+        } else {
+            params.put(p, params.size());
+            Utils.writeVarLong(out, 1);
+            codec.writeSerialized(out, p);
+        }
+    }
+
+    private void writeIterationResult(IterationResult ir) throws IOException {
+        writeParams(ir.getBenchmarkParams());
+        writeParams(ir.getParams());
+        Utils.writeVarLong(out, ir.getMetadata().getAllOps());
+        Utils.writeVarLong(out, ir.getMetadata().getMeasuredOps());
+
+        Collection<Result> primary = ir.getRawPrimaryResults();
+        Utils.writeVarLong(out, primary.size());
+        for (Result r : primary) {
+            codec.writeResult(out, r);
+        }
+
+        Multimap<String, Result> secondary = ir.getRawSecondaryResults();
+        Collection<Result> secondaryValues = secondary.values();
+        Utils.writeVarLong(out, secondaryValues.size());
+        for (Result r : secondaryValues) {
+            codec.writeResult(out, r);
+        }
+    }
+
+}
@@ -24,10 +24,7 @@
  */
 package org.openjdk.jmh.runner.link;
 
-import java.io.Serializable;
-
-class HandshakeInitFrame implements Serializable {
-    private static final long serialVersionUID = 2082214387637725282L;
+class HandshakeInitFrame {
 
     private final long pid;
 
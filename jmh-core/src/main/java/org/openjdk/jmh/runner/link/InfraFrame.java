@@ -24,10 +24,7 @@
  */
 package org.openjdk.jmh.runner.link;
 
-import java.io.Serializable;
-
-class InfraFrame implements Serializable {
-    private static final long serialVersionUID = 6341776120773421805L;
+class InfraFrame {
 
     private final Type type;
 
@@ -24,15 +24,12 @@
  */
 package org.openjdk.jmh.runner.link;
 
-import java.io.Serializable;
-
 /**
  * Encapsulates the OutputFormat call
  *   - method name
  *   - arguments (assumed to be serializable)
  */
-class OutputFormatFrame implements Serializable {
-    private static final long serialVersionUID = -7151852354574635295L;
+class OutputFormatFrame {
     public final String method;
     public final Object[] args;
 
@@ -24,10 +24,7 @@
  */
 package org.openjdk.jmh.runner.link;
 
-import java.io.Serializable;
-
-class OutputFrame implements Serializable {
-    private static final long serialVersionUID = 8570795333046092668L;
+class OutputFrame {
 
     private final Type type;
     private final byte[] data;
@@ -24,19 +24,23 @@
  */
 package org.openjdk.jmh.runner.link;
 
+import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.BenchmarkResultMetaData;
 
-import java.io.Serializable;
-
-class ResultMetadataFrame implements Serializable {
-    private static final long serialVersionUID = -5627086531281515824L;
+class ResultMetadataFrame {
 
+    private final BenchmarkParams params;
     private final BenchmarkResultMetaData md;
 
-    public ResultMetadataFrame(BenchmarkResultMetaData md) {
+    public ResultMetadataFrame(BenchmarkParams params, BenchmarkResultMetaData md) {
+        this.params = params;
         this.md = md;
     }
 
+    public BenchmarkParams getParams() {
+        return params;
+    }
+
     public BenchmarkResultMetaData getMD() {
         return md;
     }
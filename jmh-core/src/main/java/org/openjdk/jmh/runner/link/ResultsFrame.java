@@ -26,10 +26,7 @@ package org.openjdk.jmh.runner.link;
 
 import org.openjdk.jmh.results.IterationResult;
 
-import java.io.Serializable;
-
-class ResultsFrame implements Serializable {
-    private static final long serialVersionUID = -5627086531281515824L;
+class ResultsFrame {
 
     private final IterationResult res;
 
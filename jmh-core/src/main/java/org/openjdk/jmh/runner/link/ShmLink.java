@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner.link;
+
+import org.openjdk.jmh.util.FileUtils;
+import sun.misc.Unsafe;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Shared memory link between host and forked VMs: the pair of single-producer,
+ * single-consumer ring buffers in the memory-mapped temp file. Forked VM pushes
+ * frames into one ring, and reads replies from another one. Neither ring needs
+ * any system calls on the fast path: the data is copied into the mapped memory,
+ * and ring positions are published with ordered stores. Only when the ring is
+ * full or empty the side backs off, eventually parking.
+ *
+ * <p>File layout: file header, then fork-to-host ring, then host-to-fork ring.
+ * Every ring starts with the control block, with producer and consumer positions
+ * on different cache lines, followed by the ring data.
+ */
+class ShmLink implements Closeable {
+
+    /**
+     * Link address prefix, followed by the file name.
+     */
+    static final String PREFIX = "shm:";
+
+    private static final int MAGIC = 0x4A4D4853; // "JMHS"
+
+    private static final int HEADER_SIZE = 128;
+    private static final int CONTROL_SIZE = 256;
+
+    // control block offsets
+    private static final int TAIL = 0;
+    private static final int WRITER_CLOSED = 8;
+    private static final int HEAD = 128;
+    private static final int READER_CLOSED = 136;
+
+    private static final int DEFAULT_FORK_CAPACITY = Integer.getInteger("jmh.link.shmSize", 4 * 1024 * 1024);
+    private static final int HOST_CAPACITY = 256 * 1024;
+
+    private static final Unsafe U;
+    private static final long ADDRESS_OFFSET;
+    private static final long BYTE_ARRAY_OFFSET;
+
+    static {
+        try {
+            Field unsafe = Unsafe.class.getDeclaredField("theUnsafe");
+            unsafe.setAccessible(true);
+            U = (Unsafe) unsafe.get(null);
+            ADDRESS_OFFSET = U.objectFieldOffset(Buffer.class.getDeclaredField("address"));
+            BYTE_ARRAY_OFFSET = U.arrayBaseOffset(byte[].class);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private final Ring forkToHost;
+    private final Ring hostToFork;
+
+    private ShmLink(File file, MappedByteBuffer buffer, int forkCapacity, int hostCapacity) {
+        this.file = file;
+        this.buffer = buffer;
+
+        long base = U.getLong(buffer, ADDRESS_OFFSET);
+        this.forkToHost = new Ring(base + HEADER_SIZE, forkCapacity);
+        this.hostToFork = new Ring(base + HEADER_SIZE + CONTROL_SIZE + forkCapacity, hostCapacity);
+    }
+
+    /**
+     * Creates the new link in the temp file. Host VM side.
+     *
+     * @return link
+     * @throws IOException if file cannot be created or mapped
+     */
+    static ShmLink create() throws IOException {
+        int forkCapacity = Integer.highestOneBit(Math.max(4096, DEFAULT_FORK_CAPACITY));
+        int hostCapacity = HOST_CAPACITY;
+
+        File file = FileUtils.tempFile("link");
+        long size = HEADER_SIZE + 2 * CONTROL_SIZE + forkCapacity + hostCapacity;
+
+        MappedByteBuffer buf;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(size);
+            buf = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        buf.putInt(4, forkCapacity);
+        buf.putInt(8, hostCapacity);
+        buf.putInt(0, MAGIC);
+        buf.force();
+
+        return new ShmLink(file, buf, forkCapacity, hostCapacity);
+    }
+
+    /**
+     * Attaches to the link created by host VM. Forked VM side.
+     *
+     * @param address link address, see {@link #getAddress()}
+     * @return link
+     * @throws IOException if file cannot be mapped, or it is not a link file
+     */
+    static ShmLink attach(String address) throws IOException {
+        if (!address.startsWith(PREFIX)) {
+            throw new IOException("Not a shared memory link address: " + address);
+        }
+        File file = new File(address.substring(PREFIX.length()));
+
+        MappedByteBuffer buf;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            buf = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+        }
+
+        if (buf.getInt(0) != MAGIC) {
+            throw new IOException("Not a shared memory link file: " + file);
+        }
+        return new ShmLink(file, buf, buf.getInt(4), buf.getInt(8));
+    }
+
+    static boolean isAddress(String address) {
+        return address.startsWith(PREFIX);
+    }
+
+    String getAddress() {
+        return PREFIX + file.getAbsolutePath();
+    }
+
+    InputStream hostInput() {
+        return forkToHost.input();
+    }
+
+    OutputStream hostOutput() {
+        return hostToFork.output();
+    }
+
+    InputStream forkInput() {
+        return hostToFork.input();
+    }
+
+    OutputStream forkOutput() {
+        return forkToHost.output();
+    }
+
+    /**
+     * Host VM side: the forked VM is gone, read the rest of the data, and then
+     * report the end of stream, even if forked VM had not closed the link properly.
+     */
+    void peerGone() {
+        forkToHost.peerGone = true;
+    }
+
+    /**
+     * Closes the link on this side. The pending reads on this side see the
+     * end of stream, the pending writes fail, and the other side sees the link closed.
+     */
+    @Override
+    public void close() {
+        forkToHost.close();
+        hostToFork.close();
+    }
+
+    /**
+     * Host VM side: closes the link, and deletes the file.
+     */
+    void delete() {
+        close();
+
+        // if this fails, deleteOnExit would pick it up
+        file.delete();
+    }
+
+    private static void idle(int round) {
+        if (round < 64) {
+            // spin
+        } else if (round < 128) {
+            Thread.yield();
+        } else if (round < 1024) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        } else {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private final class Ring {
+        private final long control;
+        private final long data;
+        private final int capacity;
+        private final int mask;
+
+        // positions local to the producer and consumer, respectively
+        private long tail;
+        private long head;
+
+        private volatile boolean closed;
+        private volatile boolean peerGone;
+
+        Ring(long address, int capacity) {
+            this.control = address;
+            this.data = address + CONTROL_SIZE;
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+            this.tail = U.getLongVolatile(null, control + TAIL);
+            this.head = U.getLongVolatile(null, control + HEAD);
+        }
+
+        void write(byte[] b, int off, int len) throws IOException {
+            int round = 0;
+            while (len > 0) {
+                if (closed || U.getIntVolatile(null, control + READER_CLOSED) != 0) {
+                    throw new IOException("Link is closed");
+                }
+
+                long free = capacity - (tail - U.getLongVolatile(null, control + HEAD));
+                if (free == 0) {
+                    idle(round++);
+                    continue;
+                }
+                round = 0;
+
+                int pos = (int) (tail & mask);
+                int n = (int) Math.min(Math.min(len, free), capacity - pos);
+                U.copyMemory(b, BYTE_ARRAY_OFFSET + off, null, data + pos, n);
+                tail += n;
+                U.putOrderedLong(null, control + TAIL, tail);
+
+                off += n;
+                len -= n;
+            }
+        }
+
+        int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            int round = 0;
+            while (true) {
+                if (closed) {
+                    return -1;
+                }
+
+                // check the writer status before polling the data: once writer is closed,
+                // all its data is already published
+                boolean writerGone = peerGone || U.getIntVolatile(null, control + WRITER_CLOSED) != 0;
+
+                long avail = U.getLongVolatile(null, control + TAIL) - head;
+                if (avail == 0) {
+                    if (writerGone) {
+                        return -1;
+                    }
+                    idle(round++);
+                    continue;
+                }
+
+                int pos = (int) (head & mask);
+                int n = (int) Math.min(Math.min(len, avail), capacity - pos);
+                U.copyMemory(null, data + pos, b, BYTE_ARRAY_OFFSET + off, n);
+                head += n;
+                U.putOrderedLong(null, control + HEAD, head);
+                return n;
+            }
+        }
+
+        void close() {
+            closed = true;
+            U.putIntVolatile(null, control + WRITER_CLOSED, 1);
+            U.putIntVolatile(null, control + READER_CLOSED, 1);
+        }
+
+        InputStream input() {
+            return new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    byte[] b = new byte[1];
+                    int r = Ring.this.read(b, 0, 1);
+                    return (r == -1) ? -1 : (b[0] & 0xFF);
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return Ring.this.read(b, off, len);
+                }
+
+                @Override
+                public void close() {
+                    U.putIntVolatile(null, control + READER_CLOSED, 1);
+                }
+            };
+        }
+
+        OutputStream output() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    Ring.this.write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    Ring.this.write(b, off, len);
+                }
+
+                @Override
+                public void close() {
+                    U.putIntVolatile(null, control + WRITER_CLOSED, 1);
+                }
+            };
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ package org.openjdk.jmh.runner.options;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.profile.Profiler;
 import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.util.ConfidenceMethod;
 
 import java.util.concurrent.TimeUnit;
 
@@ -82,7 +83,8 @@ public interface ChainedOptionsBuilder {
     ChainedOptionsBuilder output(String filename);
 
     /**
-     * Output filename to write the result to
+     * Output filename to write the result to. The formats that support streaming,
+     * like JSON, write the results as benchmarks complete, in completion order.
      * @param filename file name
      * @return builder
      * @see org.openjdk.jmh.runner.Defaults#RESULT_FILE_PREFIX
@@ -152,6 +154,16 @@ public interface ChainedOptionsBuilder {
      */
     ChainedOptionsBuilder threads(int count);
 
+    /**
+     * Thread count sweep to run the benchmark with, e.g. {@code "1,2,4,...,max"},
+     * or {@code "1..64:x2"}. Every thread count is run as if it were the {@link org.openjdk.jmh.annotations.Param},
+     * and the Universal Scalability Law is fit to the results. Overrides {@link #threads(int)}.
+     * @param spec sweep spec
+     * @return builder
+     * @see ThreadsSweep
+     */
+    ChainedOptionsBuilder threadsSweep(String spec);
+
     /**
      * Subgroups thread distribution.
      * @param groups thread distribution
@@ -287,6 +299,221 @@ public interface ChainedOptionsBuilder {
      */
     ChainedOptionsBuilder warmupForks(int value);
 
+    /**
+     * Number of forks to run in parallel. Available CPUs are split into
+     * this many disjoint sets, and each fork is bound to one of the sets.
+     * @param value number of parallel forks
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#PARALLEL_FORKS
+     */
+    ChainedOptionsBuilder parallelForks(int value);
+
+    /**
+     * Maximum number of benchmarks to run in the same fork. Only the benchmarks
+     * with the same JVM, JVM arguments and fork counts share the forks. The
+     * benchmark order is rotated from fork to fork.
+     * @param value number of benchmarks per fork
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#BENCHMARKS_PER_FORK
+     */
+    ChainedOptionsBuilder benchmarksPerFork(int value);
+
+    /**
+     * Enables adaptive measurement: harness keeps adding the measurement iterations,
+     * and then forks, until the confidence interval of the score is within the
+     * given relative error. Configured iteration and fork counts are the minimums.
+     * @param value target relative error, e.g. 0.01 for 1%
+     * @return builder
+     * @see #targetConfidence(double)
+     * @see #maxMeasurementIterations(int)
+     * @see #maxForks(int)
+     */
+    ChainedOptionsBuilder targetError(double value);
+
+    /**
+     * Confidence level for the adaptive measurement target error.
+     * @param value confidence level, e.g. 0.999 for 99.9%
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#TARGET_CONFIDENCE
+     */
+    ChainedOptionsBuilder targetConfidence(double value);
+
+    /**
+     * Maximum number of measurement iterations in adaptive measurement.
+     * @param value max number of measurement iterations
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#MAX_MEASUREMENT_ITERATIONS
+     */
+    ChainedOptionsBuilder maxMeasurementIterations(int value);
+
+    /**
+     * Maximum number of forks in adaptive measurement.
+     * @param value max number of forks
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#MAX_FORKS
+     */
+    ChainedOptionsBuilder maxForks(int value);
+
+    /**
+     * Enables steady-state warmup: harness keeps running warmup iterations until
+     * the scores in the last window of iterations show neither a change nor a trend
+     * against the window before it. Configured warmup iteration count is the minimum.
+     * @param value number of warmup iterations in a window, at least 2
+     * @return builder
+     * @see #maxWarmupIterations(int)
+     * @see #warmupQuietCompilation(boolean)
+     */
+    ChainedOptionsBuilder warmupWindow(int value);
+
+    /**
+     * Maximum number of warmup iterations in steady-state warmup.
+     * @param value max number of warmup iterations
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#MAX_WARMUP_ITERATIONS
+     */
+    ChainedOptionsBuilder maxWarmupIterations(int value);
+
+    /**
+     * Should steady-state warmup also require no JIT compilation activity
+     * in the last window of iterations?
+     * @param value flag
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#WARMUP_QUIET_COMPILATION
+     */
+    ChainedOptionsBuilder warmupQuietCompilation(boolean value);
+
+    /**
+     * Target arrival rate for {@link org.openjdk.jmh.annotations.Mode#RateLimited} benchmarks.
+     * Every thread issues the operations at this rate, regardless of how long
+     * the previous operations took.
+     * @param value operations per second per thread
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#ARRIVAL_RATE
+     */
+    ChainedOptionsBuilder arrivalRate(int value);
+
+    /**
+     * Arrival process for {@link org.openjdk.jmh.annotations.Mode#RateLimited} benchmarks.
+     * @param process arrival process
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#ARRIVAL_PROCESS
+     */
+    ChainedOptionsBuilder arrivalProcess(ArrivalProcess process);
+
+    /**
+     * Enables capacity search for {@link org.openjdk.jmh.annotations.Mode#RateLimited}
+     * benchmarks: harness runs the benchmark at different arrival rates, searching for
+     * the highest rate at which the latency percentile is still within this bound.
+     * Configured arrival rate is the rate to start the search with.
+     * @param value latency bound
+     * @return builder
+     * @see #sloPercentile(double)
+     */
+    ChainedOptionsBuilder sloLatency(TimeValue value);
+
+    /**
+     * Latency percentile checked against the SLO in capacity search.
+     * @param value percentile, as fraction, e.g. 0.99 for p99
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#SLO_PERCENTILE
+     */
+    ChainedOptionsBuilder sloPercentile(double value);
+
+    /**
+     * Enables coordinated omission correction for {@link org.openjdk.jmh.annotations.Mode#SampleTime}
+     * benchmarks: every sample longer than this interval implies the samples missed while the
+     * operation stalled, and those are back-filled in the additional corrected result.
+     * @param value expected interval between operations
+     * @return builder
+     */
+    ChainedOptionsBuilder coInterval(TimeValue value);
+
+    /**
+     * Enables intra-iteration time series for {@link org.openjdk.jmh.annotations.Mode#Throughput},
+     * {@link org.openjdk.jmh.annotations.Mode#AverageTime} and {@link org.openjdk.jmh.annotations.Mode#SampleTime}
+     * benchmarks: every measurement iteration is split into sub-intervals of this length,
+     * and the score for every sub-interval is reported.
+     * @param value sub-interval length
+     * @return builder
+     */
+    ChainedOptionsBuilder seriesInterval(TimeValue value);
+
+    /**
+     * Should JMH subtract the timer overhead, calibrated in every fork,
+     * from {@link org.openjdk.jmh.annotations.Mode#SampleTime} samples?
+     * @param value flag
+     * @return builder
+     */
+    ChainedOptionsBuilder shouldCompensateTimer(boolean value);
+
+    /**
+     * Should JMH measure the CPU time consumed by benchmark threads? CPU time and
+     * wall time per operation, and their ratio, are then reported as secondary results.
+     * @param value flag
+     * @return builder
+     */
+    ChainedOptionsBuilder shouldMeasureCpuTime(boolean value);
+
+    /**
+     * Maximum number of in-flight operations per thread for asynchronous benchmarks,
+     * that is, the {@link org.openjdk.jmh.annotations.Benchmark} methods returning
+     * {@link java.util.concurrent.Future}-s. Harness waits for some operation to complete
+     * before submitting the next one, once the limit is reached.
+     * @param value max number of in-flight operations
+     * @return builder
+     */
+    ChainedOptionsBuilder maxInFlight(int value);
+
+    /**
+     * Strategy to explore the {@link org.openjdk.jmh.annotations.Param} space with, instead of running
+     * every combination of parameter values: {@code "random:N[:seed]"}, {@code "lhs:N[:seed]"},
+     * {@code "ofat"}, or {@code "bisect:param[:threshold]"}.
+     * @param spec strategy spec
+     * @return builder
+     * @see ParamExploration
+     */
+    ChainedOptionsBuilder paramExploration(String spec);
+
+    /**
+     * Baseline result file to compare the results against. The file should be in
+     * {@link org.openjdk.jmh.results.format.ResultFormatType#JSON} format. Benchmarks are matched by
+     * name, mode and parameters, and the per-iteration scores are compared with the statistical tests.
+     * Run fails with {@link org.openjdk.jmh.runner.RegressionException} if any benchmark regressed.
+     * @param file baseline file name
+     * @return builder
+     * @see #regressionThreshold(double)
+     */
+    ChainedOptionsBuilder baseline(String file);
+
+    /**
+     * Tolerated slowdown against the baseline: the significant slowdown beyond this
+     * fraction of the baseline score is the regression.
+     * @param value threshold, as fraction, e.g. 0.05 for 5%
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#REGRESSION_THRESHOLD
+     */
+    ChainedOptionsBuilder regressionThreshold(double value);
+
+    /**
+     * Confidence interval method for the primary score error in the human-readable
+     * and machine-readable results. Bootstrap methods do not assume the normal
+     * distribution, and are better suited for skewed and multimodal scores.
+     * @param method confidence interval method
+     * @return builder
+     * @see org.openjdk.jmh.runner.Defaults#CONFIDENCE_METHOD
+     */
+    ChainedOptionsBuilder confidenceMethod(ConfidenceMethod method);
+
+    /**
+     * Append the results to the local result store at the given directory. The store keeps
+     * the results of all runs, along with the source revision, host and JVM they ran with.
+     * @param dir result store directory
+     * @return builder
+     * @see org.openjdk.jmh.results.store.ResultStore
+     * @see org.openjdk.jmh.runner.Defaults#RESULT_STORE_DIR
+     */
+    ChainedOptionsBuilder resultStore(String dir);
+
     /**
      * Forked JVM to use.
      *
@@ -29,6 +29,7 @@ import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.profile.ProfilerFactory;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Defaults;
+import org.openjdk.jmh.util.ConfidenceMethod;
 import org.openjdk.jmh.util.HashMultimap;
 import org.openjdk.jmh.util.Multimap;
 import org.openjdk.jmh.util.Optional;
@@ -44,6 +45,11 @@ import java.util.concurrent.TimeUnit;
 public class CommandLineOptions implements Options {
     private static final long serialVersionUID = 5565183446360224399L;
 
+    /**
+     * The -rs value that selects {@link Defaults#RESULT_STORE_DIR}.
+     */
+    private static final String RESULT_STORE_DEFAULT = "default";
+
     private final Optional<Integer> iterations;
     private final Optional<TimeValue> timeout;
     private final Optional<TimeValue> runTime;
@@ -53,6 +59,7 @@ public class CommandLineOptions implements Options {
     private final Optional<Integer> warmupBatchSize;
     private final List<Mode> benchMode = new ArrayList<>();
     private final Optional<Integer> threads;
+    private final Optional<ThreadsSweep> threadsSweep;
     private final List<Integer> threadGroups = new ArrayList<>();
     private final Optional<Boolean> synchIterations;
     private final Optional<Boolean> gcEachIteration;
@@ -64,6 +71,29 @@ public class CommandLineOptions implements Options {
     private final List<String> regexps = new ArrayList<>();
     private final Optional<Integer> fork;
     private final Optional<Integer> warmupFork;
+    private final Optional<Integer> parallelForks;
+    private final Optional<Integer> benchmarksPerFork;
+    private final Optional<Double> targetError;
+    private final Optional<Double> targetConfidence;
+    private final Optional<Integer> maxMeasurementIterations;
+    private final Optional<Integer> maxForks;
+    private final Optional<Integer> warmupWindow;
+    private final Optional<Integer> maxWarmupIterations;
+    private final Optional<Boolean> warmupQuietCompilation;
+    private final Optional<Integer> arrivalRate;
+    private final Optional<ArrivalProcess> arrivalProcess;
+    private final Optional<TimeValue> sloLatency;
+    private final Optional<Double> sloPercentile;
+    private final Optional<TimeValue> coInterval;
+    private final Optional<TimeValue> seriesInterval;
+    private final Optional<Boolean> timerCompensation;
+    private final Optional<Boolean> cpuTime;
+    private final Optional<Integer> maxInFlight;
+    private final Optional<ParamExploration> paramExploration;
+    private final Optional<String> baseline;
+    private final Optional<Double> regressionThreshold;
+    private final Optional<ConfidenceMethod> confidenceMethod;
+    private final Optional<String> resultStore;
     private final Optional<String> output;
     private final Optional<String> result;
     private final Optional<ResultFormatType> resultFormat;
@@ -80,6 +110,7 @@ public class CommandLineOptions implements Options {
     private final boolean listResultFormats;
     private final boolean help;
     private final boolean listProfilers;
+    private final boolean listResultStore;
 
     private final transient OptionParser parser;
 
@@ -130,10 +161,14 @@ public class CommandLineOptions implements Options {
                 "(default: " + Defaults.TIMEOUT + ")")
                 .withRequiredArg().ofType(TimeValue.class).describedAs("time");
 
-        OptionSpec<Integer> optThreads = parser.accepts("t", "Number of worker threads to run with. 'max' means the " +
+        OptionSpec<ThreadsSweep> optThreads = parser.accepts("t", "Number of worker threads to run with. 'max' means the " +
                 "maximum number of hardware threads available on the machine, figured out by JMH itself. " +
+                "Thread count sweep runs the benchmark with every thread count, as if it were a @Param, and fits " +
+                "the Universal Scalability Law to the results. Sweep is the comma-separated list of thread counts " +
+                "(1,2,4,8), ranges (1..64, 2..16:+2, 1..64:x2), and '...' continuing the progression of the " +
+                "preceding two counts (1,2,4,...,max). " +
                 "(default: " + Defaults.THREADS + ")")
-                .withRequiredArg().withValuesConvertedBy(ThreadsValueConverter.INSTANCE).describedAs("int");
+                .withRequiredArg().withValuesConvertedBy(ThreadsSweepValueConverter.INSTANCE).describedAs("int");
 
         OptionSpec<String> optBenchmarkMode = parser.accepts("bm", "Benchmark mode. Available modes are: " + Mode.getKnown() + ". " +
                 "(default: " + Defaults.BENCHMARK_MODE + ")")
@@ -177,12 +212,157 @@ public class CommandLineOptions implements Options {
                 "(default: " + Defaults.WARMUP_FORKS + ")")
                 .withRequiredArg().withValuesConvertedBy(IntegerValueConverter.NON_NEGATIVE).describedAs("int");
 
+        OptionSpec<Integer> optParallelForks = parser.accepts("parallelForks", "How many forks to run in parallel. " +
+                "Available CPUs are split into this many disjoint sets, and every forked VM is bound to one of " +
+                "the sets. Forks are still reported in order, along with the CPU set they ran on. " +
+                "(default: " + Defaults.PARALLEL_FORKS + ")")
+                .withRequiredArg().withValuesConvertedBy(IntegerValueConverter.POSITIVE).describedAs("int");
+
+        OptionSpec<Integer> optBenchmarksPerFork = parser.accepts("benchmarksPerFork", "How many benchmarks can share " +
+                "the same fork. Only benchmarks with the same JVM, JVM arguments and fork counts share the forks, " +
+                "and their order is rotated from fork to fork. Sharing the fork saves on JVM startup, but benchmarks " +
+                "may pollute the JIT profiles for each other. " +
+                "(default: " + Defaults.BENCHMARKS_PER_FORK + ")")
+                .withRequiredArg().withValuesConvertedBy(IntegerValueConverter.POSITIVE).describedAs("int");
+
+        OptionSpec<Double> optTargetError = parser.accepts("targetError", "Enables adaptive measurement: keep adding " +
+                "measurement iterations, and then forks, until the confidence interval of the score is within this " +
+                "relative error, e.g. 0.01 for 1%. Measurement iteration and fork counts become the minimums, see " +
+                "-maxIterations and -maxForks for the maximums. " +
+                "(default: none, measure the fixed number of iterations and forks)")
+                .withRequiredArg().withValuesConvertedBy(FractionValueConverter.INSTANCE).describedAs("fraction");
+
+        OptionSpec<Double> optTargetConfidence = parser.accepts("targetConfidence", "Confidence level at which " +
+                "adaptive measurement evaluates the target error. " +
+                "(default: " + Defaults.TARGET_CONFIDENCE + ")")
+                .withRequiredArg().withValuesConvertedBy(FractionValueConverter.INSTANCE).describedAs("fraction");
+
+        OptionSpec<Integer> optMaxIterations = parser.accepts("maxIterations", "Maximum number of measurement " +
+                "iterations in adaptive measurement. " +
+                "(default: " + Defaults.MAX_MEASUREMENT_ITERATIONS + ")")
+                .withRequiredArg().withValuesConvertedBy(IntegerValueConverter.POSITIVE).describedAs("int");
+
+        OptionSpec<Integer> optMaxForks = parser.accepts("maxForks", "Maximum number of forks in adaptive " +
+                "measurement. " +
+                "(default: " + Defaults.MAX_FORKS + ")")
+                .withRequiredArg().withValuesConvertedBy(IntegerValueConverter.POSITIVE).describedAs("int");
+
+        OptionSpec<Integer> optWarmupWindow = parser.accepts("warmupWindow", "Enables steady-state warmup: keep " +
+                "running warmup iterations until the scores in the last window of this many iterations show neither " +
+                "a change nor a trend against the window before it. Warmup iteration count becomes the minimum, see " +
+                "-maxWarmupIterations for the maximum. " +
+                "(default: none, run the fixed number of warmup iterations)")
+                .withRequiredArg().withValuesConvertedBy(new IntegerValueConverter(2)).describedAs("int");
+
+        OptionSpec<Integer> optMaxWarmupIterations = parser.accepts("maxWarmupIterations", "Maximum number of " +
+                "warmup iterations in steady-state warmup. " +
+                "(default: " + Defaults.MAX_WARMUP_ITERATIONS + ")")
+                .withRequiredArg().withValuesConvertedBy(IntegerValueConverter.POSITIVE).describedAs("int");
+
+        OptionSpec<Boolean> optWarmupQuietJit = parser.accepts("warmupQuietJit", "Should steady-state warmup also " +
+                "wait until no JIT compilation happens in the last window of iterations? " +
+                "(default: " + Defaults.WARMUP_QUIET_COMPILATION + ")")
+                .withRequiredArg().ofType(Boolean.class).describedAs("bool");
+
+        OptionSpec<Integer> optArrivalRate = parser.accepts("rate", "Arrival rate for " + Mode.RateLimited +
+                " benchmarks, operations per second per thread. " +
+                "(default: " + Defaults.ARRIVAL_RATE + ")")
+                .withRequiredArg().withValuesConvertedBy(IntegerValueConverter.POSITIVE).describedAs("int");
+
+        OptionSpec<String> optArrivalProcess = parser.accepts("arrival", "Arrival process for " + Mode.RateLimited +
+                " benchmarks. Arrival processes are: " + Arrays.toString(ArrivalProcess.values()) + ". " +
+                "(default: " + Defaults.ARRIVAL_PROCESS + ")")
+                .withRequiredArg().ofType(String.class).describedAs("process");
+
+        OptionSpec<TimeValue> optSloLatency = parser.accepts("sloLatency", "Enables capacity search for " +
+                Mode.RateLimited + " benchmarks: run them at different arrival rates, searching for the highest " +
+                "rate at which the latency percentile (see -sloPercentile) is still within this bound. The arrival " +
+                "rate (see -rate) is the rate to start the search with. " +
+                "(default: none, run at the fixed arrival rate)")
+                .withRequiredArg().ofType(TimeValue.class).describedAs("time");
+
+        OptionSpec<Double> optSloPercentile = parser.accepts("sloPercentile", "Latency percentile checked " +
+                "against the SLO in capacity search, e.g. 0.99 for p99. " +
+                "(default: " + Defaults.SLO_PERCENTILE + ")")
+                .withRequiredArg().withValuesConvertedBy(FractionValueConverter.INSTANCE).describedAs("fraction");
+
+        OptionSpec<TimeValue> optCoInterval = parser.accepts("coInterval", "Enables coordinated omission " +
+                "correction for " + Mode.SampleTime + " benchmarks: every sample longer than this expected interval " +
+                "between operations implies the samples missed while the operation stalled. Corrected percentiles " +
+                "are reported as the additional secondary result. " +
+                "(default: none, no correction)")
+                .withRequiredArg().ofType(TimeValue.class).describedAs("time");
+
+        OptionSpec<TimeValue> optSeriesInterval = parser.accepts("series", "Enables intra-iteration time series for " +
+                Mode.Throughput + ", " + Mode.AverageTime + " and " + Mode.SampleTime + " benchmarks: every measurement " +
+                "iteration is split into sub-intervals of this length, and the score for every sub-interval is " +
+                "reported as the additional secondary result. " +
+                "(default: none, no time series)")
+                .withRequiredArg().ofType(TimeValue.class).describedAs("time");
+
+        OptionSpec<Boolean> optTimerCompensation = parser.accepts("tc", "Should JMH subtract the timer overhead " +
+                "from " + Mode.SampleTime + " samples? The overhead is calibrated in every fork before running " +
+                "the benchmark. This helps latency benchmarks in the order of the timer cost, at the expense of " +
+                "trusting the calibration. " +
+                "(default: " + Defaults.TIMER_COMPENSATION + ")")
+                .withRequiredArg().ofType(Boolean.class).describedAs("bool");
+
+        OptionSpec<Boolean> optCpuTime = parser.accepts("cpu", "Should JMH measure the CPU time consumed by benchmark " +
+                "threads? CPU time per op and wall time per op are reported side by side as secondary results, along " +
+                "with their ratio. The ratio well below 1 means the threads were blocked or descheduled. Both times " +
+                "cover the whole measurement loop, including Level.Invocation fixtures. " +
+                "(default: " + Defaults.CPU_TIME + ")")
+                .withRequiredArg().ofType(Boolean.class).describedAs("bool");
+
+        OptionSpec<Integer> optMaxInFlight = parser.accepts("inflight", "Maximum number of in-flight operations " +
+                "per thread for asynchronous benchmarks, that is, the benchmark methods returning CompletionStage " +
+                "or Future. Operations are measured to completion: throughput counts the completed operations, and " +
+                "the latency from submit to completion is recorded for every operation. " +
+                "(default: " + Defaults.MAX_IN_FLIGHT + ")")
+                .withRequiredArg().withValuesConvertedBy(IntegerValueConverter.POSITIVE).describedAs("int");
+
+        OptionSpec<String> optParamExploration = parser.accepts("pe", "Strategy to explore the @Param space with, " +
+                "instead of running every combination of parameter values. 'random:N[:seed]' and 'lhs:N[:seed]' " +
+                "pick N combinations at random, or with Latin hypercube sampling. 'ofat' varies one parameter at " +
+                "a time, with the rest at their first values. 'bisect:param[:threshold]' adaptively bisects the " +
+                "values of the numeric parameter, looking for the threshold crossing, or the largest change in " +
+                "slope without the threshold. Every explored point is labeled with the '" + ParamExploration.PARAM +
+                "' parameter. (default: full)")
+                .withRequiredArg().ofType(String.class).describedAs("strategy");
+
+        OptionSpec<String> optBaseline = parser.accepts("baseline", "Compare the results against the baseline " +
+                "result file in JSON format. Benchmarks are matched by name, mode and parameters. Per-iteration " +
+                "scores are compared with the Mann-Whitney U test, and the speedup confidence interval is estimated " +
+                "with the bootstrap. JMH exits with the non-zero code if any benchmark regressed beyond the " +
+                "threshold (see -regressionThreshold). (default: none, no comparison)")
+                .withRequiredArg().ofType(String.class).describedAs("filename");
+
+        OptionSpec<Double> optRegressionThreshold = parser.accepts("regressionThreshold", "Tolerated slowdown " +
+                "against the baseline, as fraction of the baseline score. Significant slowdowns beyond the threshold " +
+                "are regressions. (default: " + Defaults.REGRESSION_THRESHOLD + ")")
+                .withRequiredArg().withValuesConvertedBy(FractionValueConverter.INSTANCE).describedAs("fraction");
+
+        OptionSpec<String> optConfidenceMethod = parser.accepts("ci", "Confidence interval method for the " +
+                "primary score error in the human-readable and machine-readable results. Methods are: " +
+                "student (Student's t-distribution, assumes the normal distribution), percentile (bootstrap " +
+                "percentile interval), bca (bias-corrected and accelerated bootstrap interval). " +
+                "(default: " + Defaults.CONFIDENCE_METHOD.name().toLowerCase() + ")")
+                .withRequiredArg().ofType(String.class).describedAs("method");
+
+        OptionSpec<String> optResultStore = parser.accepts("rs", "Append the results to the local result store " +
+                "at a given directory. The store keeps the results of all runs, along with the source revision, host " +
+                "and JVM fingerprints. See the history, trends and change points with -lrs. " +
+                "Use \"" + RESULT_STORE_DEFAULT + "\" for " + Defaults.RESULT_STORE_DIR + ". " +
+                "(default: none, no store)")
+                .withRequiredArg().ofType(String.class).describedAs("dir");
+
         OptionSpec<String> optOutput = parser.accepts("o", "Redirect human-readable output to a given file.")
                 .withRequiredArg().ofType(String.class).describedAs("filename");
 
         OptionSpec<String> optOutputResults = parser.accepts("rff", "Write machine-readable results to a given file. " +
                 "The file format is controlled by -rf option. Please see the list of result formats for available " +
-                "formats. " +
+                "formats. The file is gzip-compressed if its name ends with .gz. JSON results are written as " +
+                "benchmarks complete, in completion order. " +
                 "(default: " + Defaults.RESULT_FILE_PREFIX + ".<result-format>)")
                 .withRequiredArg().ofType(String.class).describedAs("filename");
 
@@ -251,6 +431,8 @@ public class CommandLineOptions implements Options {
         parser.accepts("lp", "List the benchmarks that match a filter, along with parameters, and exit.");
         parser.accepts("lrf", "List machine-readable result formats, and exit.");
         parser.accepts("lprof", "List profilers, and exit.");
+        parser.accepts("lrs", "List the history, trends and change points from the result store (see -rs) " +
+                "for the benchmarks that match a filter and parameters, and exit.");
         parser.accepts("h", "Display help, and exit.");
 
         try {
@@ -314,6 +496,7 @@ public class CommandLineOptions implements Options {
             listWithParams = set.has("lp");
             listResultFormats = set.has("lrf");
             listProfilers = set.has("lprof");
+            listResultStore = set.has("lrs");
 
             iterations = toOptional(optMeasureCount, set);
             batchSize = toOptional(optMeasureBatchSize, set);
@@ -322,12 +505,79 @@ public class CommandLineOptions implements Options {
             warmupBatchSize = toOptional(optWarmupBatchSize, set);
             warmupTime = toOptional(optWarmupTime, set);
             timeout = toOptional(optTimeoutTime, set);
-            threads = toOptional(optThreads, set);
+            Optional<ThreadsSweep> threadsSpec = toOptional(optThreads, set);
+            if (threadsSpec.hasValue() && ThreadsSweep.isSweep(threadsSpec.get().toString())) {
+                threads = Optional.none();
+                threadsSweep = threadsSpec;
+            } else {
+                threads = threadsSpec.hasValue() ?
+                        Optional.of(ThreadsValueConverter.INSTANCE.convert(threadsSpec.get().toString())) :
+                        Optional.<Integer>none();
+                threadsSweep = Optional.none();
+            }
             synchIterations = toOptional(optSyncIters, set);
             gcEachIteration = toOptional(optGC, set);
             failOnError = toOptional(optFOE, set);
             fork = toOptional(optForks, set);
             warmupFork = toOptional(optWarmupForks, set);
+            parallelForks = toOptional(optParallelForks, set);
+            benchmarksPerFork = toOptional(optBenchmarksPerFork, set);
+            targetError = toOptional(optTargetError, set);
+            targetConfidence = toOptional(optTargetConfidence, set);
+            maxMeasurementIterations = toOptional(optMaxIterations, set);
+            maxForks = toOptional(optMaxForks, set);
+            warmupWindow = toOptional(optWarmupWindow, set);
+            maxWarmupIterations = toOptional(optMaxWarmupIterations, set);
+            warmupQuietCompilation = toOptional(optWarmupQuietJit, set);
+            arrivalRate = toOptional(optArrivalRate, set);
+            sloLatency = toOptional(optSloLatency, set);
+            sloPercentile = toOptional(optSloPercentile, set);
+            coInterval = toOptional(optCoInterval, set);
+            seriesInterval = toOptional(optSeriesInterval, set);
+            timerCompensation = toOptional(optTimerCompensation, set);
+            cpuTime = toOptional(optCpuTime, set);
+            maxInFlight = toOptional(optMaxInFlight, set);
+
+            if (set.has(optArrivalProcess)) {
+                try {
+                    arrivalProcess = Optional.of(ArrivalProcess.valueOf(optArrivalProcess.value(set)));
+                } catch (IllegalArgumentException iae) {
+                    throw new CommandLineOptionException(iae.getMessage(), iae);
+                }
+            } else {
+                arrivalProcess = Optional.none();
+            }
+
+            if (set.has(optParamExploration)) {
+                try {
+                    paramExploration = Optional.of(ParamExploration.valueOf(optParamExploration.value(set)));
+                } catch (IllegalArgumentException iae) {
+                    throw new CommandLineOptionException(iae.getMessage(), iae);
+                }
+            } else {
+                paramExploration = Optional.none();
+            }
+
+            baseline = toOptional(optBaseline, set);
+            regressionThreshold = toOptional(optRegressionThreshold, set);
+
+            if (set.has(optConfidenceMethod)) {
+                try {
+                    confidenceMethod = Optional.of(ConfidenceMethod.valueOf(optConfidenceMethod.value(set).toUpperCase()));
+                } catch (IllegalArgumentException iae) {
+                    throw new CommandLineOptionException(iae.getMessage(), iae);
+                }
+            } else {
+                confidenceMethod = Optional.none();
+            }
+
+            if (set.has(optResultStore)) {
+                String dir = optResultStore.value(set);
+                resultStore = Optional.of(RESULT_STORE_DEFAULT.equals(dir) ? Defaults.RESULT_STORE_DIR : dir);
+            } else {
+                resultStore = Optional.none();
+            }
+
             output = toOptional(optOutput, set);
             result = toOptional(optOutputResults, set);
 
@@ -493,6 +743,10 @@ public class CommandLineOptions implements Options {
         return listProfilers;
     }
 
+    public boolean shouldListResultStore() {
+        return listResultStore;
+    }
+
     @Override
     public Optional<WarmupMode> getWarmupMode() {
         return warmupMode;
@@ -553,6 +807,121 @@ public class CommandLineOptions implements Options {
         return warmupFork;
     }
 
+    @Override
+    public Optional<Integer> getParallelForks() {
+        return parallelForks;
+    }
+
+    @Override
+    public Optional<Integer> getBenchmarksPerFork() {
+        return benchmarksPerFork;
+    }
+
+    @Override
+    public Optional<Double> getTargetError() {
+        return targetError;
+    }
+
+    @Override
+    public Optional<Double> getTargetConfidence() {
+        return targetConfidence;
+    }
+
+    @Override
+    public Optional<Integer> getMaxMeasurementIterations() {
+        return maxMeasurementIterations;
+    }
+
+    @Override
+    public Optional<Integer> getMaxForks() {
+        return maxForks;
+    }
+
+    @Override
+    public Optional<Integer> getWarmupWindow() {
+        return warmupWindow;
+    }
+
+    @Override
+    public Optional<Integer> getMaxWarmupIterations() {
+        return maxWarmupIterations;
+    }
+
+    @Override
+    public Optional<Boolean> shouldWarmupQuietCompilation() {
+        return warmupQuietCompilation;
+    }
+
+    @Override
+    public Optional<Integer> getArrivalRate() {
+        return arrivalRate;
+    }
+
+    @Override
+    public Optional<ArrivalProcess> getArrivalProcess() {
+        return arrivalProcess;
+    }
+
+    @Override
+    public Optional<TimeValue> getSloLatency() {
+        return sloLatency;
+    }
+
+    @Override
+    public Optional<Double> getSloPercentile() {
+        return sloPercentile;
+    }
+
+    @Override
+    public Optional<TimeValue> getCoInterval() {
+        return coInterval;
+    }
+
+    @Override
+    public Optional<TimeValue> getSeriesInterval() {
+        return seriesInterval;
+    }
+
+    @Override
+    public Optional<Boolean> shouldCompensateTimer() {
+        return timerCompensation;
+    }
+
+    @Override
+    public Optional<Boolean> shouldMeasureCpuTime() {
+        return cpuTime;
+    }
+
+    @Override
+    public Optional<Integer> getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @Override
+    public Optional<ParamExploration> getParamExploration() {
+        return paramExploration;
+    }
+
+    @Override
+    public Optional<String> getBaseline() {
+        return baseline;
+    }
+
+    @Override
+    public Optional<Double> getRegressionThreshold() {
+        return regressionThreshold;
+    }
+
+    @Override
+    public Optional<ConfidenceMethod> getConfidenceMethod() {
+        return confidenceMethod;
+    }
+
+    @Override
+    public Optional<String> getResultStore() {
+        return resultStore;
+    }
+
     @Override
     public Optional<String> getOutput() {
         return output;
@@ -603,6 +972,11 @@ public class CommandLineOptions implements Options {
         return threads;
     }
 
+    @Override
+    public Optional<ThreadsSweep> getThreadsSweep() {
+        return threadsSweep;
+    }
+
     @Override
     public Optional<int[]> getThreadGroups() {
         if (threadGroups.isEmpty()) {
@@ -26,6 +26,7 @@ package org.openjdk.jmh.runner.options;
 
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.util.ConfidenceMethod;
 import org.openjdk.jmh.util.Optional;
 
 import java.io.Serializable;
@@ -97,6 +98,13 @@ public interface Options extends Serializable {
      */
     Optional<Integer> getThreads();
 
+    /**
+     * Thread count sweep: run the benchmark with every thread count, and fit the scalability model.
+     * @return thread count sweep; overrides {@link #getThreads()}
+     * @see ThreadsSweep
+     */
+    Optional<ThreadsSweep> getThreadsSweep();
+
     /**
      * Thread subgroups distribution.
      * @return array of thread ratios
@@ -201,6 +209,146 @@ public interface Options extends Serializable {
      */
     Optional<Integer> getWarmupForkCount();
 
+    /**
+     * Number of forks to run in parallel, each bound to its own CPU set
+     * @return parallel fork count; 1, to run forks sequentially
+     */
+    Optional<Integer> getParallelForks();
+
+    /**
+     * Maximum number of compatible benchmarks to run in the same fork
+     * @return benchmarks per fork; 1, to run every benchmark in its own forks
+     */
+    Optional<Integer> getBenchmarksPerFork();
+
+    /**
+     * Target relative error for adaptive measurement
+     * @return relative error of the score, e.g. 0.01 for 1%; none, to measure the fixed number of iterations and forks
+     */
+    Optional<Double> getTargetError();
+
+    /**
+     * Confidence level at which the target error is evaluated
+     * @return confidence level, e.g. 0.999 for 99.9%
+     */
+    Optional<Double> getTargetConfidence();
+
+    /**
+     * Maximum number of measurement iterations in adaptive measurement
+     * @return max measurement iterations
+     */
+    Optional<Integer> getMaxMeasurementIterations();
+
+    /**
+     * Maximum number of forks in adaptive measurement
+     * @return max forks
+     */
+    Optional<Integer> getMaxForks();
+
+    /**
+     * Window for steady-state warmup detection
+     * @return number of warmup iterations in a window; none, to run the fixed number of warmup iterations
+     */
+    Optional<Integer> getWarmupWindow();
+
+    /**
+     * Maximum number of warmup iterations in steady-state warmup
+     * @return max warmup iterations
+     */
+    Optional<Integer> getMaxWarmupIterations();
+
+    /**
+     * Should steady-state warmup also wait for JIT compilation to quiesce?
+     * @return should wait for quiet compilation?
+     */
+    Optional<Boolean> shouldWarmupQuietCompilation();
+
+    /**
+     * Arrival rate for rate limited benchmarks
+     * @return operations per second per thread
+     */
+    Optional<Integer> getArrivalRate();
+
+    /**
+     * Arrival process for rate limited benchmarks
+     * @return arrival process
+     * @see org.openjdk.jmh.runner.options.ArrivalProcess
+     */
+    Optional<ArrivalProcess> getArrivalProcess();
+
+    /**
+     * Latency SLO for capacity search of rate limited benchmarks
+     * @return latency bound; none, to run at the fixed arrival rate
+     */
+    Optional<TimeValue> getSloLatency();
+
+    /**
+     * Latency percentile for capacity search of rate limited benchmarks
+     * @return percentile, as fraction
+     */
+    Optional<Double> getSloPercentile();
+
+    /**
+     * Expected interval between operations for coordinated omission correction in sample mode
+     * @return expected interval; none, to skip the correction
+     */
+    Optional<TimeValue> getCoInterval();
+
+    /**
+     * Sub-interval length for intra-iteration time series
+     * @return sub-interval length; none, to skip the time series
+     */
+    Optional<TimeValue> getSeriesInterval();
+
+    /**
+     * Should JMH subtract the calibrated timer overhead from sample mode samples?
+     * @return should compensate the timer?
+     */
+    Optional<Boolean> shouldCompensateTimer();
+
+    /**
+     * Should JMH measure per-thread CPU time along with the wall time?
+     * @return should measure CPU time?
+     */
+    Optional<Boolean> shouldMeasureCpuTime();
+
+    /**
+     * Maximum number of in-flight operations per thread for asynchronous benchmarks.
+     * @return max number of in-flight operations
+     */
+    Optional<Integer> getMaxInFlight();
+
+    /**
+     * Strategy to explore the benchmark parameter space with.
+     * @return exploration strategy
+     * @see ParamExploration
+     */
+    Optional<ParamExploration> getParamExploration();
+
+    /**
+     * Baseline result file to compare the results against.
+     * @return file name
+     */
+    Optional<String> getBaseline();
+
+    /**
+     * Tolerated slowdown against the baseline.
+     * @return threshold, as fraction
+     */
+    Optional<Double> getRegressionThreshold();
+
+    /**
+     * Confidence interval method for the primary score.
+     * @return method
+     */
+    Optional<ConfidenceMethod> getConfidenceMethod();
+
+    /**
+     * Result store directory.
+     * @return directory
+     */
+    Optional<String> getResultStore();
+
     /**
      * JVM executable to use for forks
      * @return path to JVM executable
@@ -28,6 +28,7 @@ import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.profile.Profiler;
 import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.util.ConfidenceMethod;
 import org.openjdk.jmh.util.HashMultimap;
 import org.openjdk.jmh.util.Multimap;
 import org.openjdk.jmh.util.Optional;
@@ -55,6 +56,13 @@ public class OptionsBuilder implements Options, ChainedOptionsBuilder {
         return this;
     }
 
+    private static void checkFraction(double value, String s) {
+        if (value > 0 && value < 1) {
+            return;
+        }
+        throw new IllegalArgumentException(s + " (" + value + ") should be between 0 and 1, exclusive");
+    }
+
     private static void checkGreaterOrEqual(int value, int minValue, String s) {
         if (value >= minValue) {
             return;
@@ -290,6 +298,25 @@ public class OptionsBuilder implements Options, ChainedOptionsBuilder {
 
     // ---------------------------------------------------------------------------
 
+    private Optional<ThreadsSweep> threadsSweep = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder threadsSweep(String spec) {
+        this.threadsSweep = Optional.of(ThreadsSweep.valueOf(spec));
+        return this;
+    }
+
+    @Override
+    public Optional<ThreadsSweep> getThreadsSweep() {
+        if (otherOptions != null) {
+            return threadsSweep.orAnother(otherOptions.getThreadsSweep());
+        } else {
+            return threadsSweep;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
     private Optional<int[]> threadGroups = Optional.none();
 
     @Override
@@ -590,6 +617,455 @@ public class OptionsBuilder implements Options, ChainedOptionsBuilder {
 
     // ---------------------------------------------------------------------------
 
+    private Optional<Integer> parallelForks = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder parallelForks(int value) {
+        checkGreaterOrEqual(value, 1, "Parallel forks");
+        this.parallelForks = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Integer> getParallelForks() {
+        if (otherOptions != null) {
+            return parallelForks.orAnother(otherOptions.getParallelForks());
+        } else {
+            return parallelForks;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Integer> benchmarksPerFork = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder benchmarksPerFork(int value) {
+        checkGreaterOrEqual(value, 1, "Benchmarks per fork");
+        this.benchmarksPerFork = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Integer> getBenchmarksPerFork() {
+        if (otherOptions != null) {
+            return benchmarksPerFork.orAnother(otherOptions.getBenchmarksPerFork());
+        } else {
+            return benchmarksPerFork;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Double> targetError = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder targetError(double value) {
+        checkFraction(value, "Target error");
+        this.targetError = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Double> getTargetError() {
+        if (otherOptions != null) {
+            return targetError.orAnother(otherOptions.getTargetError());
+        } else {
+            return targetError;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Double> targetConfidence = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder targetConfidence(double value) {
+        checkFraction(value, "Target confidence");
+        this.targetConfidence = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Double> getTargetConfidence() {
+        if (otherOptions != null) {
+            return targetConfidence.orAnother(otherOptions.getTargetConfidence());
+        } else {
+            return targetConfidence;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Integer> maxMeasurementIterations = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder maxMeasurementIterations(int value) {
+        checkGreaterOrEqual(value, 1, "Max measurement iterations");
+        this.maxMeasurementIterations = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Integer> getMaxMeasurementIterations() {
+        if (otherOptions != null) {
+            return maxMeasurementIterations.orAnother(otherOptions.getMaxMeasurementIterations());
+        } else {
+            return maxMeasurementIterations;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Integer> maxForks = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder maxForks(int value) {
+        checkGreaterOrEqual(value, 1, "Max forks");
+        this.maxForks = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Integer> getMaxForks() {
+        if (otherOptions != null) {
+            return maxForks.orAnother(otherOptions.getMaxForks());
+        } else {
+            return maxForks;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Integer> warmupWindow = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder warmupWindow(int value) {
+        checkGreaterOrEqual(value, 2, "Warmup window");
+        this.warmupWindow = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Integer> getWarmupWindow() {
+        if (otherOptions != null) {
+            return warmupWindow.orAnother(otherOptions.getWarmupWindow());
+        } else {
+            return warmupWindow;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Integer> maxWarmupIterations = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder maxWarmupIterations(int value) {
+        checkGreaterOrEqual(value, 1, "Max warmup iterations");
+        this.maxWarmupIterations = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Integer> getMaxWarmupIterations() {
+        if (otherOptions != null) {
+            return maxWarmupIterations.orAnother(otherOptions.getMaxWarmupIterations());
+        } else {
+            return maxWarmupIterations;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Boolean> warmupQuietCompilation = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder warmupQuietCompilation(boolean value) {
+        this.warmupQuietCompilation = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Boolean> shouldWarmupQuietCompilation() {
+        if (otherOptions != null) {
+            return warmupQuietCompilation.orAnother(otherOptions.shouldWarmupQuietCompilation());
+        } else {
+            return warmupQuietCompilation;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Integer> arrivalRate = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder arrivalRate(int value) {
+        checkGreaterOrEqual(value, 1, "Arrival rate");
+        this.arrivalRate = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Integer> getArrivalRate() {
+        if (otherOptions != null) {
+            return arrivalRate.orAnother(otherOptions.getArrivalRate());
+        } else {
+            return arrivalRate;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<ArrivalProcess> arrivalProcess = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder arrivalProcess(ArrivalProcess process) {
+        this.arrivalProcess = Optional.of(process);
+        return this;
+    }
+
+    @Override
+    public Optional<ArrivalProcess> getArrivalProcess() {
+        if (otherOptions != null) {
+            return arrivalProcess.orAnother(otherOptions.getArrivalProcess());
+        } else {
+            return arrivalProcess;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<TimeValue> sloLatency = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder sloLatency(TimeValue value) {
+        this.sloLatency = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<TimeValue> getSloLatency() {
+        if (otherOptions != null) {
+            return sloLatency.orAnother(otherOptions.getSloLatency());
+        } else {
+            return sloLatency;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Double> sloPercentile = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder sloPercentile(double value) {
+        checkFraction(value, "SLO percentile");
+        this.sloPercentile = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Double> getSloPercentile() {
+        if (otherOptions != null) {
+            return sloPercentile.orAnother(otherOptions.getSloPercentile());
+        } else {
+            return sloPercentile;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<TimeValue> coInterval = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder coInterval(TimeValue value) {
+        this.coInterval = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<TimeValue> getCoInterval() {
+        if (otherOptions != null) {
+            return coInterval.orAnother(otherOptions.getCoInterval());
+        } else {
+            return coInterval;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<TimeValue> seriesInterval = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder seriesInterval(TimeValue value) {
+        this.seriesInterval = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<TimeValue> getSeriesInterval() {
+        if (otherOptions != null) {
+            return seriesInterval.orAnother(otherOptions.getSeriesInterval());
+        } else {
+            return seriesInterval;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Boolean> shouldCompensateTimer = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder shouldCompensateTimer(boolean value) {
+        this.shouldCompensateTimer = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Boolean> shouldCompensateTimer() {
+        if (otherOptions != null) {
+            return shouldCompensateTimer.orAnother(otherOptions.shouldCompensateTimer());
+        } else {
+            return shouldCompensateTimer;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Boolean> shouldMeasureCpuTime = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder shouldMeasureCpuTime(boolean value) {
+        this.shouldMeasureCpuTime = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Boolean> shouldMeasureCpuTime() {
+        if (otherOptions != null) {
+            return shouldMeasureCpuTime.orAnother(otherOptions.shouldMeasureCpuTime());
+        } else {
+            return shouldMeasureCpuTime;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Integer> maxInFlight = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder maxInFlight(int value) {
+        checkGreaterOrEqual(value, 1, "Max in-flight operations");
+        this.maxInFlight = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Integer> getMaxInFlight() {
+        if (otherOptions != null) {
+            return maxInFlight.orAnother(otherOptions.getMaxInFlight());
+        } else {
+            return maxInFlight;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<ParamExploration> paramExploration = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder paramExploration(String spec) {
+        this.paramExploration = Optional.of(ParamExploration.valueOf(spec));
+        return this;
+    }
+
+    @Override
+    public Optional<ParamExploration> getParamExploration() {
+        if (otherOptions != null) {
+            return paramExploration.orAnother(otherOptions.getParamExploration());
+        } else {
+            return paramExploration;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<String> baseline = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder baseline(String file) {
+        this.baseline = Optional.of(file);
+        return this;
+    }
+
+    @Override
+    public Optional<String> getBaseline() {
+        if (otherOptions != null) {
+            return baseline.orAnother(otherOptions.getBaseline());
+        } else {
+            return baseline;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<Double> regressionThreshold = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder regressionThreshold(double value) {
+        checkFraction(value, "Regression threshold");
+        this.regressionThreshold = Optional.of(value);
+        return this;
+    }
+
+    @Override
+    public Optional<Double> getRegressionThreshold() {
+        if (otherOptions != null) {
+            return regressionThreshold.orAnother(otherOptions.getRegressionThreshold());
+        } else {
+            return regressionThreshold;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<ConfidenceMethod> confidenceMethod = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder confidenceMethod(ConfidenceMethod method) {
+        this.confidenceMethod = Optional.of(method);
+        return this;
+    }
+
+    @Override
+    public Optional<ConfidenceMethod> getConfidenceMethod() {
+        if (otherOptions != null) {
+            return confidenceMethod.orAnother(otherOptions.getConfidenceMethod());
+        } else {
+            return confidenceMethod;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
+    private Optional<String> resultStore = Optional.none();
+
+    @Override
+    public ChainedOptionsBuilder resultStore(String dir) {
+        this.resultStore = Optional.of(dir);
+        return this;
+    }
+
+    @Override
+    public Optional<String> getResultStore() {
+        if (otherOptions != null) {
+            return resultStore.orAnother(otherOptions.getResultStore());
+        } else {
+            return resultStore;
+        }
+    }
+
+    // ---------------------------------------------------------------------------
+
     private Optional<String> jvmBinary = Optional.none();
 
     @Override
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner.options;
+
+import java.io.Serializable;
+
+/**
+ * Strategy to explore the {@link org.openjdk.jmh.annotations.Param} space with.
+ *
+ * <p>Spec is one of:</p>
+ * <ul>
+ *     <li>{@code full}: every combination of parameter values, the default;</li>
+ *     <li>{@code random:N[:seed]}: N combinations picked at random;</li>
+ *     <li>{@code lhs:N[:seed]}: N combinations picked with Latin hypercube sampling, so that
+ *     the values of every parameter are covered evenly;</li>
+ *     <li>{@code ofat}: one factor at a time; the baseline is the first value of every parameter,
+ *     and every other value of each parameter is run with the rest at the baseline;</li>
+ *     <li>{@code bisect:param[:threshold]}: adaptive bisection over the values of the numeric parameter,
+ *     for every combination of other parameters; with the threshold, finds the values where the score
+ *     crosses it; without the threshold, finds the value where the score changes the slope the most.</li>
+ * </ul>
+ */
+public class ParamExploration implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Workload parameter name carrying the exploration strategy the point was picked with.
+     */
+    public static final String PARAM = "exploration";
+
+    /**
+     * Default seed for random strategies.
+     */
+    public static final long DEFAULT_SEED = 42;
+
+    public enum Strategy {
+        FULL,
+        RANDOM,
+        LHS,
+        OFAT,
+        BISECT,
+    }
+
+    private final String spec;
+    private final Strategy strategy;
+    private final int budget;
+    private final long seed;
+    private final String param;
+    private final double threshold;
+
+    private ParamExploration(String spec, Strategy strategy, int budget, long seed, String param, double threshold) {
+        this.spec = spec;
+        this.strategy = strategy;
+        this.budget = budget;
+        this.seed = seed;
+        this.param = param;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Parses the exploration strategy.
+     *
+     * @param spec strategy spec
+     * @return exploration strategy
+     * @throws IllegalArgumentException if spec is malformed
+     */
+    public static ParamExploration valueOf(String spec) {
+        String s = spec.trim();
+        String[] parts = s.split(":");
+        Strategy strategy;
+        try {
+            strategy = Strategy.valueOf(parts[0].trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown parameter exploration strategy: " + s);
+        }
+
+        switch (strategy) {
+            case FULL:
+            case OFAT:
+                if (parts.length != 1) {
+                    throw new IllegalArgumentException("Strategy " + parts[0] + " takes no arguments: " + s);
+                }
+                return new ParamExploration(s, strategy, 0, DEFAULT_SEED, null, Double.NaN);
+            case RANDOM:
+            case LHS: {
+                if (parts.length < 2 || parts.length > 3) {
+                    throw new IllegalArgumentException("Strategy " + parts[0] + " takes the budget, and an optional seed: " + s);
+                }
+                int budget;
+                long seed = DEFAULT_SEED;
+                try {
+                    budget = Integer.parseInt(parts[1].trim());
+                    if (parts.length == 3) {
+                        seed = Long.parseLong(parts[2].trim());
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Unable to parse the budget or the seed: " + s);
+                }
+                if (budget < 1) {
+                    throw new IllegalArgumentException("Budget should be positive: " + s);
+                }
+                return new ParamExploration(s, strategy, budget, seed, null, Double.NaN);
+            }
+            case BISECT: {
+                if (parts.length < 2 || parts.length > 3 || parts[1].trim().isEmpty()) {
+                    throw new IllegalArgumentException("Strategy " + parts[0] + " takes the parameter name, and an optional threshold: " + s);
+                }
+                double threshold = Double.NaN;
+                if (parts.length == 3) {
+                    try {
+                        threshold = Double.parseDouble(parts[2].trim());
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Unable to parse the threshold: " + s);
+                    }
+                }
+                return new ParamExploration(s, strategy, 0, DEFAULT_SEED, parts[1].trim(), threshold);
+            }
+            default:
+                throw new IllegalStateException("Unknown strategy: " + strategy);
+        }
+    }
+
+    /**
+     * @return strategy
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return number of parameter combinations to pick, for {@link Strategy#RANDOM} and {@link Strategy#LHS}
+     */
+    public int getBudget() {
+        return budget;
+    }
+
+    /**
+     * @return random seed, for {@link Strategy#RANDOM} and {@link Strategy#LHS}
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return parameter to bisect, for {@link Strategy#BISECT}
+     */
+    public String getParam() {
+        return param;
+    }
+
+    /**
+     * @return score threshold to find the crossing for, for {@link Strategy#BISECT}; {@link Double#NaN} to find the knee
+     */
+    public double getThreshold() {
+        return threshold;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return spec.equals(((ParamExploration) o).spec);
+    }
+
+    @Override
+    public int hashCode() {
+        return spec.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner.options;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Thread count sweep: the set of thread counts to run the benchmark with.
+ *
+ * <p>The spec is a comma-separated list of items, each item is either:</p>
+ * <ul>
+ *     <li>thread count, or {@code max} for the number of hardware threads;</li>
+ *     <li>range {@code from..to}, stepping by one; {@code from..to:+K}, stepping by K;
+ *     or {@code from..to:xK}, multiplying by K; both ends are inclusive;</li>
+ *     <li>{@code ...}, continuing the progression of the preceding two thread counts up to
+ *     the following one: geometric, if the last count is a multiple of the previous one,
+ *     and arithmetic otherwise. For example, {@code 1,2,4,...,max}.</li>
+ * </ul>
+ */
+public class ThreadsSweep implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Workload parameter name the thread count sweep is expanded into.
+     */
+    public static final String PARAM = "threads";
+
+    private static final String MAX = "max";
+    private static final String ELLIPSIS = "...";
+    private static final String RANGE = "..";
+    private static final int VALIDATION_MAX_THREADS = 1024;
+
+    private final String spec;
+
+    private ThreadsSweep(String spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Parses the thread count sweep.
+     *
+     * @param spec sweep spec
+     * @return sweep
+     * @throws IllegalArgumentException if spec is malformed
+     */
+    public static ThreadsSweep valueOf(String spec) {
+        ThreadsSweep sweep = new ThreadsSweep(spec.trim());
+        // validate early, the hardware thread count does not affect the syntax
+        sweep.expand(VALIDATION_MAX_THREADS);
+        return sweep;
+    }
+
+    /**
+     * Tells if the option value is the sweep, rather than the single thread count.
+     *
+     * @param spec option value
+     * @return true, if value is the sweep
+     */
+    public static boolean isSweep(String spec) {
+        return spec.contains(",") || spec.contains(RANGE);
+    }
+
+    /**
+     * Expands the sweep into the thread counts.
+     *
+     * @param maxThreads number of hardware threads, to substitute {@code max}
+     * @return distinct thread counts, in ascending order; ranges up to {@code max} are empty if
+     *         the machine has less hardware threads than the range start
+     * @throws IllegalArgumentException if spec is malformed
+     */
+    public List<Integer> expand(int maxThreads) {
+        List<Integer> counts = new ArrayList<>();
+        String[] items = spec.split(",");
+        for (int i = 0; i < items.length; i++) {
+            String item = items[i].trim();
+            if (item.equals(ELLIPSIS)) {
+                if (counts.size() < 2 || i == items.length - 1 || isSweep(items[i + 1])) {
+                    throw new IllegalArgumentException("\"" + ELLIPSIS + "\" should follow two thread counts, " +
+                            "and precede the thread count: " + spec);
+                }
+                continueProgression(counts, parseCount(items[i + 1].trim(), maxThreads));
+            } else if (item.contains(RANGE)) {
+                expandRange(counts, item, maxThreads);
+            } else {
+                counts.add(parseCount(item, maxThreads));
+            }
+        }
+        return new ArrayList<>(new TreeSet<>(counts));
+    }
+
+    private void continueProgression(List<Integer> counts, int limit) {
+        int a = counts.get(counts.size() - 2);
+        int b = counts.get(counts.size() - 1);
+        if (b <= a) {
+            throw new IllegalArgumentException("Thread counts before \"" + ELLIPSIS + "\" should increase: " + spec);
+        }
+        if (b % a == 0) {
+            int ratio = b / a;
+            for (long v = (long) b * ratio; v < limit; v *= ratio) {
+                counts.add((int) v);
+            }
+        } else {
+            int diff = b - a;
+            for (long v = b + diff; v < limit; v += diff) {
+                counts.add((int) v);
+            }
+        }
+    }
+
+    private void expandRange(List<Integer> counts, String item, int maxThreads) {
+        String range = item;
+        String step = "+1";
+        int colon = item.indexOf(':');
+        if (colon >= 0) {
+            range = item.substring(0, colon);
+            step = item.substring(colon + 1).trim();
+        }
+
+        int sep = range.indexOf(RANGE);
+        String toSpec = range.substring(sep + RANGE.length()).trim();
+        int from = parseCount(range.substring(0, sep).trim(), maxThreads);
+        int to = parseCount(toSpec, maxThreads);
+        if (from > to && !toSpec.equalsIgnoreCase(MAX)) {
+            throw new IllegalArgumentException("Range should not be empty: " + item);
+        }
+
+        if (step.startsWith("x") || step.startsWith("*")) {
+            int factor = parseStep(step.substring(1), item);
+            if (factor < 2) {
+                throw new IllegalArgumentException("Multiplier should be at least 2: " + item);
+            }
+            for (long v = from; v <= to; v *= factor) {
+                counts.add((int) v);
+            }
+        } else {
+            int inc = parseStep(step.startsWith("+") ? step.substring(1) : step, item);
+            for (long v = from; v <= to; v += inc) {
+                counts.add((int) v);
+            }
+        }
+    }
+
+    private static int parseStep(String s, String item) {
+        try {
+            int v = Integer.parseInt(s.trim());
+            if (v < 1) {
+                throw new IllegalArgumentException("Step should be positive: " + item);
+            }
+            return v;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unable to parse the step: " + item);
+        }
+    }
+
+    private int parseCount(String s, int maxThreads) {
+        if (s.equalsIgnoreCase(MAX)) {
+            return maxThreads;
+        }
+        try {
+            int v = Integer.parseInt(s);
+            if (v < 1) {
+                throw new IllegalArgumentException("Thread count should be positive: " + s);
+            }
+            return v;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unable to parse the thread count \"" + s + "\": " + spec);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return spec.equals(((ThreadsSweep) o).spec);
+    }
+
+    @Override
+    public int hashCode() {
+        return spec.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+}
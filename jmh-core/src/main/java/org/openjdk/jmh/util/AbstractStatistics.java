@@ -67,6 +67,51 @@ public abstract class AbstractStatistics implements Statistics {
         return a * getStandardDeviation() / Math.sqrt(getN());
     }
 
+    @Override
+    public double[] getConfidenceIntervalAt(double confidence, ConfidenceMethod method) {
+        switch (method) {
+            case STUDENT:
+                return getConfidenceIntervalAt(confidence);
+            case PERCENTILE:
+            case BCA:
+                return bootstrap().interval(Bootstrap.mean(), confidence, method);
+            default:
+                throw new IllegalArgumentException("Unknown confidence method: " + method);
+        }
+    }
+
+    @Override
+    public double getMeanErrorAt(double confidence, ConfidenceMethod method) {
+        if (method == ConfidenceMethod.STUDENT) {
+            return getMeanErrorAt(confidence);
+        }
+        double[] interval = getConfidenceIntervalAt(confidence, method);
+        return (interval[1] - interval[0]) / 2;
+    }
+
+    @Override
+    public double[] getPercentileConfidenceIntervalAt(double rank, double confidence, ConfidenceMethod method) {
+        if (rank < 0.0d || rank > 100.0d)
+            throw new IllegalArgumentException("Rank should be within [0; 100]");
+
+        switch (method) {
+            case PERCENTILE:
+            case BCA:
+                return bootstrap().interval(Bootstrap.percentile(rank), confidence, method);
+            case STUDENT:
+                throw new IllegalArgumentException("Student's t interval is not applicable to percentiles");
+            default:
+                throw new IllegalArgumentException("Unknown confidence method: " + method);
+        }
+    }
+
+    /**
+     * @return bootstrap over the raw data of this statistics
+     */
+    Bootstrap bootstrap() {
+        return new Bootstrap(getRawData());
+    }
+
     @Override
     public String toString() {
         return "N:" + getN() + " Mean: " + getMean()
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.util;
+
+import org.apache.commons.math3.distribution.NormalDistribution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Bootstrap confidence intervals over the weighted samples.
+ *
+ * <p>The samples are held as the sorted distinct values with their cumulative counts,
+ * and are never expanded into the array of all samples. Resampling draws the sample
+ * indices against the cumulative counts. When the sample count is too large for that,
+ * the Poisson bootstrap is used instead: every distinct value gets the Poisson-distributed
+ * weight with the mean of its original count.</p>
+ *
+ * <p>Resamples are computed in parallel, in the fixed number of chunks with fixed seeds,
+ * so that the intervals do not depend on the number of CPUs.</p>
+ */
+class Bootstrap {
+
+    static final int RESAMPLES = Integer.getInteger("jmh.bootstrapResamples", 10000);
+
+    private static final long SEED = 42;
+    private static final int CHUNKS = 16;
+    private static final long EXACT_LIMIT = 1 << 12;
+
+    private final double[] values;
+    private final long[] cumulative;
+    private final long n;
+
+    Bootstrap(Iterator<Map.Entry<Double, Long>> data) {
+        TreeMap<Double, Long> merged = new TreeMap<>();
+        while (data.hasNext()) {
+            Map.Entry<Double, Long> e = data.next();
+            if (e.getValue() <= 0) continue;
+            Long c = merged.get(e.getKey());
+            merged.put(e.getKey(), (c == null ? 0 : c) + e.getValue());
+        }
+
+        values = new double[merged.size()];
+        cumulative = new long[merged.size()];
+
+        long cur = 0;
+        int i = 0;
+        for (Map.Entry<Double, Long> e : merged.entrySet()) {
+            cur += e.getValue();
+            values[i] = e.getKey();
+            cumulative[i] = cur;
+            i++;
+        }
+        n = cur;
+    }
+
+    /**
+     * @param values sorted distinct values
+     * @param cumulative cumulative counts for values
+     */
+    Bootstrap(double[] values, long[] cumulative) {
+        this.values = values;
+        this.cumulative = cumulative;
+        this.n = (cumulative.length > 0) ? cumulative[cumulative.length - 1] : 0;
+    }
+
+    /**
+     * Computes the confidence interval for the estimator.
+     *
+     * @param estimator estimator to compute the interval for
+     * @param confidence confidence level (e.g. 0.95)
+     * @param method bootstrap method
+     * @return the confidence interval; NaNs if there are not enough samples
+     */
+    double[] interval(Estimator estimator, double confidence, ConfidenceMethod method) {
+        if (n <= 2) {
+            return new double[] {Double.NaN, Double.NaN};
+        }
+
+        double theta = estimator.estimate(values, cumulative, n, values.length);
+        double[] boot = resample(estimator);
+        Arrays.sort(boot);
+
+        double alpha = (1 - confidence) / 2;
+        switch (method) {
+            case PERCENTILE:
+                return new double[] {quantile(boot, alpha), quantile(boot, 1 - alpha)};
+            case BCA: {
+                NormalDistribution norm = new NormalDistribution();
+
+                int less = 0;
+                int equal = 0;
+                for (double b : boot) {
+                    if (b < theta) less++;
+                    if (b == theta) equal++;
+                }
+                double p = (less + 0.5 * equal) / boot.length;
+                p = Math.min(Math.max(p, 0.5 / boot.length), 1 - 0.5 / boot.length);
+                double z0 = norm.inverseCumulativeProbability(p);
+
+                double a = acceleration(estimator);
+
+                double zl = z0 + norm.inverseCumulativeProbability(alpha);
+                double zh = z0 + norm.inverseCumulativeProbability(1 - alpha);
+                double al = norm.cumulativeProbability(z0 + zl / (1 - a * zl));
+                double ah = norm.cumulativeProbability(z0 + zh / (1 - a * zh));
+                if (Double.isNaN(al) || Double.isNaN(ah)) {
+                    al = alpha;
+                    ah = 1 - alpha;
+                }
+                return new double[] {quantile(boot, al), quantile(boot, ah)};
+            }
+            default:
+                throw new IllegalArgumentException("Not a bootstrap method: " + method);
+        }
+    }
+
+    /**
+     * Jackknife estimate of the acceleration: the skewness of leave-one-out estimates.
+     * Every sample of the same distinct value yields the same leave-one-out estimate,
+     * so the sums are weighted with counts.
+     */
+    private double acceleration(Estimator estimator) {
+        double[] jack = estimator.jackknife(values, cumulative, n);
+
+        double mean = 0;
+        for (int k = 0; k < values.length; k++) {
+            mean += count(cumulative, k) * jack[k];
+        }
+        mean /= n;
+
+        double num = 0;
+        double den = 0;
+        for (int k = 0; k < values.length; k++) {
+            double d = mean - jack[k];
+            long c = count(cumulative, k);
+            num += c * d * d * d;
+            den += c * d * d;
+        }
+
+        if (den == 0) {
+            return 0;
+        }
+        return num / (6 * Math.pow(den, 1.5));
+    }
+
+    private double[] resample(final Estimator estimator) {
+        final double[] result = new double[RESAMPLES];
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int c = 0; c < CHUNKS; c++) {
+            final int from = (int) ((long) RESAMPLES * c / CHUNKS);
+            final int to = (int) ((long) RESAMPLES * (c + 1) / CHUNKS);
+            final long seed = SEED ^ (c * 0x9E3779B97F4A7C15L);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    resample(estimator, new Random(seed), result, from, to);
+                    return null;
+                }
+            });
+        }
+
+        int threads = Math.min(CHUNKS, Runtime.getRuntime().availableProcessors());
+        try {
+            if (threads <= 1) {
+                for (Callable<Void> t : tasks) {
+                    t.call();
+                }
+            } else {
+                ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "jmh-bootstrap");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+                try {
+                    for (Future<Void> f : executor.invokeAll(tasks)) {
+                        f.get();
+                    }
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        return result;
+    }
+
+    private void resample(Estimator estimator, Random r, double[] dst, int from, int to) {
+        long[] counts = new long[values.length];
+        long[] cum = new long[values.length];
+
+        for (int i = from; i < to; i++) {
+            Arrays.fill(counts, 0);
+
+            long total;
+            if (n <= EXACT_LIMIT) {
+                for (long s = 0; s < n; s++) {
+                    long idx = (long) (r.nextDouble() * n);
+                    counts[upper(cumulative, idx)]++;
+                }
+                total = n;
+            } else {
+                do {
+                    total = 0;
+                    for (int k = 0; k < values.length; k++) {
+                        counts[k] = poisson(r, count(cumulative, k));
+                        total += counts[k];
+                    }
+                } while (total == 0);
+            }
+
+            long cur = 0;
+            for (int k = 0; k < values.length; k++) {
+                cur += counts[k];
+                cum[k] = cur;
+            }
+
+            dst[i] = estimator.estimate(values, cum, total, values.length);
+        }
+    }
+
+    private static long poisson(Random r, long mean) {
+        if (mean < 30) {
+            double limit = Math.exp(-mean);
+            long k = 0;
+            double p = r.nextDouble();
+            while (p > limit) {
+                k++;
+                p *= r.nextDouble();
+            }
+            return k;
+        } else {
+            return Math.max(0, Math.round(mean + Math.sqrt(mean) * r.nextGaussian()));
+        }
+    }
+
+    private static double quantile(double[] sorted, double p) {
+        double pos = p * (sorted.length - 1);
+        int lo = (int) Math.max(0, Math.min(sorted.length - 1, Math.floor(pos)));
+        int hi = Math.min(sorted.length - 1, lo + 1);
+        return sorted[lo] + (sorted[hi] - sorted[lo]) * (pos - lo);
+    }
+
+    private static long count(long[] cum, int k) {
+        return (k == 0) ? cum[0] : cum[k] - cum[k - 1];
+    }
+
+    /**
+     * Finds the first position with cumulative count strictly above the index.
+     */
+    private static int upper(long[] cum, long idx) {
+        int lo = 0;
+        int hi = cum.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cum[mid] > idx) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    static Estimator mean() {
+        return new Estimator() {
+            @Override
+            double estimate(double[] values, long[] cum, long n, int skip) {
+                double sum = 0;
+                for (int k = 0; k < values.length; k++) {
+                    sum += values[k] * count(cum, k);
+                }
+                if (skip < values.length) {
+                    sum -= values[skip];
+                }
+                return sum / n;
+            }
+
+            @Override
+            double[] jackknife(double[] values, long[] cum, long n) {
+                double sum = 0;
+                for (int k = 0; k < values.length; k++) {
+                    sum += values[k] * count(cum, k);
+                }
+                double[] r = new double[values.length];
+                for (int k = 0; k < values.length; k++) {
+                    r[k] = (sum - values[k]) / (n - 1);
+                }
+                return r;
+            }
+        };
+    }
+
+    static Estimator percentile(final double rank) {
+        return new Estimator() {
+            @Override
+            double estimate(double[] values, long[] cum, long n, int skip) {
+                // Same estimation as MultisetStatistics.getPercentile
+                double pos = rank * (n + 1) / 100;
+                double floorPos = Math.floor(pos);
+
+                double flooredValue = valueAt(values, cum, n, skip, (long) floorPos);
+                double nextValue = valueAt(values, cum, n, skip, (long) floorPos + 1);
+
+                return flooredValue + (nextValue - flooredValue) * (pos - floorPos);
+            }
+        };
+    }
+
+    /**
+     * Returns the value with the given 1-based index in sorted order, clamped
+     * to the actual samples. The cumulative counts at and after {@code skip}
+     * are treated as one sample less.
+     */
+    private static double valueAt(double[] values, long[] cum, long n, int skip, long index) {
+        long idx = Math.min(Math.max(index, 1), n);
+        int lo = 0;
+        int hi = cum.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            long c = (mid >= skip) ? cum[mid] - 1 : cum[mid];
+            if (c >= idx) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return values[lo];
+    }
+
+    /**
+     * Estimator over the sorted distinct values and their cumulative counts.
+     */
+    abstract static class Estimator {
+
+        /**
+         * Computes the estimate.
+         * @param values sorted distinct values
+         * @param cum cumulative counts
+         * @param n total count, accounting for skipped sample
+         * @param skip position of the value to exclude one sample of, or values.length to exclude none
+         * @return estimate
+         */
+        abstract double estimate(double[] values, long[] cum, long n, int skip);
+
+        /**
+         * Computes the leave-one-out estimates for every distinct value.
+         * @param values sorted distinct values
+         * @param cum cumulative counts
+         * @param n total count
+         * @return leave-one-out estimates
+         */
+        double[] jackknife(double[] values, long[] cum, long n) {
+            double[] r = new double[values.length];
+            for (int k = 0; k < values.length; k++) {
+                r[k] = estimate(values, cum, n - 1, k);
+            }
+            return r;
+        }
+    }
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.util;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Calculate statistics over the immutable multiset of doubles.
+ *
+ * <p>Distinct values are held in the sorted primitive array, along with the prefix sums
+ * of their counts. Summary statistics are computed once on construction, percentiles and
+ * histograms are looked up with the binary search over the prefix sums. This is the
+ * preferred representation for the large histograms that are queried many times.</p>
+ */
+public class FrozenMultisetStatistics extends AbstractStatistics {
+    private static final long serialVersionUID = -3063451432128389347L;
+
+    private final double[] values;
+    private final long[] cumulative;
+
+    private final double sum;
+    private final double variance;
+
+    /**
+     * Creates the statistics over the distinct values and their counts. Values do not have
+     * to be sorted or unique. Values with non-positive counts are ignored. Arrays are copied.
+     *
+     * @param values values
+     * @param counts counts for every value
+     */
+    public FrozenMultisetStatistics(double[] values, long[] counts) {
+        if (values.length != counts.length) {
+            throw new IllegalArgumentException("Values and counts should have the same length: " +
+                    values.length + " vs " + counts.length);
+        }
+
+        boolean sorted = true;
+        for (int i = 1; i < values.length; i++) {
+            if (!(values[i - 1] <= values[i])) {
+                sorted = false;
+                break;
+            }
+        }
+
+        double[] vs;
+        long[] cs;
+        if (sorted) {
+            vs = values;
+            cs = counts;
+        } else {
+            // Sort by value, carrying the counts along
+            Integer[] idx = new Integer[values.length];
+            for (int i = 0; i < values.length; i++) {
+                idx[i] = i;
+            }
+            final double[] keys = values;
+            Arrays.sort(idx, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    return Double.compare(keys[o1], keys[o2]);
+                }
+            });
+            vs = new double[values.length];
+            cs = new long[values.length];
+            for (int i = 0; i < idx.length; i++) {
+                vs[i] = values[idx[i]];
+                cs[i] = counts[idx[i]];
+            }
+        }
+
+        // Merge the duplicates, drop the empty entries
+        double[] v = new double[vs.length];
+        long[] cum = new long[vs.length];
+        int size = 0;
+        long total = 0;
+        for (int i = 0; i < vs.length; i++) {
+            if (cs[i] <= 0) {
+                continue;
+            }
+            total += cs[i];
+            if (size > 0 && v[size - 1] == vs[i]) {
+                cum[size - 1] = total;
+            } else {
+                v[size] = vs[i];
+                cum[size] = total;
+                size++;
+            }
+        }
+
+        this.values = Arrays.copyOf(v, size);
+        this.cumulative = Arrays.copyOf(cum, size);
+
+        double s = 0;
+        for (int i = 0; i < size; i++) {
+            s += this.values[i] * count(i);
+        }
+        this.sum = s;
+
+        if (total > 1) {
+            double m = s / total;
+            double var = 0;
+            for (int i = 0; i < size; i++) {
+                double d = this.values[i] - m;
+                var += d * d * count(i);
+            }
+            this.variance = var / (total - 1);
+        } else {
+            this.variance = Double.NaN;
+        }
+    }
+
+    /**
+     * Creates the frozen copy of the given statistics.
+     *
+     * @param other statistics to copy
+     * @return frozen statistics
+     */
+    public static FrozenMultisetStatistics of(Statistics other) {
+        if (other instanceof FrozenMultisetStatistics) {
+            return (FrozenMultisetStatistics) other;
+        }
+
+        double[] vs = new double[16];
+        long[] cs = new long[16];
+        int size = 0;
+        Iterator<Map.Entry<Double, Long>> it = other.getRawData();
+        while (it.hasNext()) {
+            Map.Entry<Double, Long> e = it.next();
+            if (size == vs.length) {
+                vs = Arrays.copyOf(vs, size * 2);
+                cs = Arrays.copyOf(cs, size * 2);
+            }
+            vs[size] = e.getKey();
+            cs[size] = e.getValue();
+            size++;
+        }
+        return new FrozenMultisetStatistics(Arrays.copyOf(vs, size), Arrays.copyOf(cs, size));
+    }
+
+    private long count(int i) {
+        return (i == 0) ? cumulative[0] : cumulative[i] - cumulative[i - 1];
+    }
+
+    /**
+     * @return number of distinct values
+     */
+    public int getDistinctCount() {
+        return values.length;
+    }
+
+    @Override
+    Bootstrap bootstrap() {
+        return new Bootstrap(values, cumulative);
+    }
+
+    @Override
+    public double getMax() {
+        return (values.length > 0) ? values[values.length - 1] : Double.NaN;
+    }
+
+    @Override
+    public double getMin() {
+        return (values.length > 0) ? values[0] : Double.NaN;
+    }
+
+    @Override
+    public long getN() {
+        return (values.length > 0) ? cumulative[cumulative.length - 1] : 0;
+    }
+
+    @Override
+    public double getSum() {
+        return (values.length > 0) ? sum : Double.NaN;
+    }
+
+    @Override
+    public double getVariance() {
+        return variance;
+    }
+
+    /**
+     * Returns the value at given 1-based index in sorted order.
+     */
+    private double get(long index) {
+        // First position with the cumulative count at or above the index
+        int lo = 0;
+        int hi = cumulative.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] >= index) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return (lo < values.length) ? values[lo] : getMax();
+    }
+
+    @Override
+    public double getPercentile(double rank) {
+        if (rank < 0.0d || rank > 100.0d)
+            throw new IllegalArgumentException("Rank should be within [0; 100]");
+
+        if (rank == 0.0d) {
+            return getMin();
+        }
+
+        // Same estimation as MultisetStatistics does
+        double pos = rank * (getN() + 1) / 100;
+        double floorPos = Math.floor(pos);
+
+        double flooredValue = get((long) floorPos);
+        double nextValue = get((long) floorPos + 1);
+
+        return flooredValue + (nextValue - flooredValue) * (pos - floorPos);
+    }
+
+    /**
+     * Returns the total count of values strictly below the given level.
+     */
+    private long countBelow(double level) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < level) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return (lo == 0) ? 0 : cumulative[lo - 1];
+    }
+
+    @Override
+    public int[] getHistogram(double[] levels) {
+        if (levels.length < 2) {
+            throw new IllegalArgumentException("Expected more than two levels");
+        }
+
+        int[] result = new int[levels.length - 1];
+
+        long below = countBelow(levels[0]);
+        for (int c = 0; c < result.length; c++) {
+            long next = countBelow(levels[c + 1]);
+            result[c] = (int) (next - below);
+            below = next;
+        }
+
+        return result;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Double, Long>> getRawData() {
+        return new Iterator<Map.Entry<Double, Long>>() {
+            private int idx;
+
+            @Override
+            public boolean hasNext() {
+                return idx < values.length;
+            }
+
+            @Override
+            public Map.Entry<Double, Long> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<Double, Long> e = new AbstractMap.SimpleImmutableEntry<>(values[idx], count(idx));
+                idx++;
+                return e;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Element cannot be removed.");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads and writes {@link SampleBuffer}-s in HdrHistogram interval log format,
+ * which is understood by HdrHistogram log processing tools.
+ */
+public class HistogramLog {
+
+    private static final String VERSION_LINE = "#[Histogram log format version 1.3]";
+    private static final String LEGEND_LINE = "\"StartTimestamp\",\"Interval_Length\",\"Interval_Max\",\"Interval_Compressed_Histogram\"";
+    private static final String TAG_PREFIX = "Tag=";
+
+    /**
+     * Values are in nanoseconds, interval maximums are reported in milliseconds,
+     * the same as HdrHistogram log writers do by default.
+     */
+    private static final double MAX_VALUE_UNIT_RATIO = 1000000.0;
+
+    private static final String BASE64 = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+
+    private HistogramLog() {
+        // prevent instantiation
+    }
+
+    /**
+     * Encodes the buffer into a Base64 string of compressed HdrHistogram encoding,
+     * the same as stored in interval logs.
+     *
+     * @param buffer buffer
+     * @return encoded string
+     */
+    public static String encode(SampleBuffer buffer) {
+        byte[] bytes = buffer.encodeHdrHistogram();
+
+        StringBuilder sb = new StringBuilder((bytes.length + 2) / 3 * 4);
+        for (int i = 0; i < bytes.length; i += 3) {
+            int b0 = bytes[i] & 0xFF;
+            int b1 = (i + 1 < bytes.length) ? bytes[i + 1] & 0xFF : 0;
+            int b2 = (i + 2 < bytes.length) ? bytes[i + 2] & 0xFF : 0;
+            int v = (b0 << 16) | (b1 << 8) | b2;
+            sb.append(BASE64.charAt((v >> 18) & 0x3F));
+            sb.append(BASE64.charAt((v >> 12) & 0x3F));
+            sb.append((i + 1 < bytes.length) ? BASE64.charAt((v >> 6) & 0x3F) : '=');
+            sb.append((i + 2 < bytes.length) ? BASE64.charAt(v & 0x3F) : '=');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Decodes the buffer encoded by {@link #encode(SampleBuffer)}, or by HdrHistogram.
+     *
+     * @param s encoded string
+     * @return sample buffer
+     * @throws IOException if data is malformed
+     */
+    public static SampleBuffer decode(String s) throws IOException {
+        String str = s.trim();
+        int len = str.length();
+        while (len > 0 && str.charAt(len - 1) == '=') {
+            len--;
+        }
+        if (len % 4 == 1) {
+            throw new IOException("Malformed Base64 string, length = " + str.length());
+        }
+
+        byte[] bytes = new byte[len * 3 / 4];
+        int acc = 0;
+        int bits = 0;
+        int pos = 0;
+        for (int i = 0; i < len; i++) {
+            int v = BASE64.indexOf(str.charAt(i));
+            if (v < 0) {
+                throw new IOException("Malformed Base64 string, unexpected character: " + str.charAt(i));
+            }
+            acc = (acc << 6) | v;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                bytes[pos++] = (byte) (acc >> bits);
+            }
+        }
+        return SampleBuffer.decodeHdrHistogram(bytes);
+    }
+
+    /**
+     * Writes the log header.
+     *
+     * @param out output
+     */
+    public static void writeHeader(PrintStream out) {
+        out.println(VERSION_LINE);
+        out.println(LEGEND_LINE);
+    }
+
+    /**
+     * Writes the single interval line.
+     *
+     * @param out output
+     * @param interval interval to write
+     */
+    public static void writeInterval(PrintStream out, Interval interval) {
+        double max = interval.getBuffer().getStatistics(1D / MAX_VALUE_UNIT_RATIO).getMax();
+        if (interval.getBuffer().count() == 0) {
+            max = 0;
+        }
+        if (interval.getTag() != null) {
+            out.print(TAG_PREFIX + interval.getTag() + ",");
+        }
+        out.println(String.format(Locale.ROOT, "%.3f,%.3f,%.3f,%s",
+                interval.getStartTime(), interval.getLength(), max, encode(interval.getBuffer())));
+    }
+
+    /**
+     * Reads all intervals from the interval log.
+     *
+     * @param reader reader
+     * @return intervals, in the log order
+     * @throws IOException if input fails, or data is malformed
+     */
+    public static List<Interval> read(BufferedReader reader) throws IOException {
+        List<Interval> intervals = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("\"StartTimestamp\"")) {
+                continue;
+            }
+
+            String tag = null;
+            if (line.startsWith(TAG_PREFIX)) {
+                int comma = line.indexOf(',');
+                if (comma < 0) {
+                    throw new IOException("Malformed interval log line: " + line);
+                }
+                tag = line.substring(TAG_PREFIX.length(), comma);
+                line = line.substring(comma + 1);
+            }
+
+            String[] parts = line.split(",");
+            if (parts.length != 4) {
+                throw new IOException("Malformed interval log line: " + line);
+            }
+            try {
+                intervals.add(new Interval(tag,
+                        Double.parseDouble(parts[0]),
+                        Double.parseDouble(parts[1]),
+                        decode(parts[3])));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed interval log line: " + line, e);
+            }
+        }
+        return intervals;
+    }
+
+    /**
+     * Converts the arbitrary string to the tag: tags cannot have commas and whitespace.
+     *
+     * @param s string
+     * @return tag
+     */
+    public static String toTag(String s) {
+        return s.replaceAll("[,\\s]", "_");
+    }
+
+    /**
+     * The single interval in the log.
+     */
+    public static class Interval {
+        private final String tag;
+        private final double startTime;
+        private final double length;
+        private final SampleBuffer buffer;
+
+        /**
+         * @param tag interval tag, or null if untagged
+         * @param startTime interval start, in seconds
+         * @param length interval length, in seconds
+         * @param buffer histogram
+         */
+        public Interval(String tag, double startTime, double length, SampleBuffer buffer) {
+            this.tag = tag;
+            this.startTime = startTime;
+            this.length = length;
+            this.buffer = buffer;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        public double getStartTime() {
+            return startTime;
+        }
+
+        public double getLength() {
+            return length;
+        }
+
+        public SampleBuffer getBuffer() {
+            return buffer;
+        }
+    }
+
+}
@@ -41,6 +41,12 @@ public class ListStatistics extends AbstractStatistics {
     private double[] values;
     private int count;
 
+    /**
+     * Percentile over the copy of current values. Keeps the partially sorted data
+     * around, so that subsequent percentile queries do not re-sort from scratch.
+     */
+    private transient Percentile percentile;
+
     public ListStatistics() {
         values = new double[0];
         count = 0;
@@ -66,6 +72,7 @@ public class ListStatistics extends AbstractStatistics {
         }
         values[count] = d;
         count++;
+        percentile = null;
     }
 
     @Override
@@ -122,11 +129,12 @@ public class ListStatistics extends AbstractStatistics {
             return getMin();
         }
 
-        // trim
-        values = Arrays.copyOf(values, count);
-
-        Percentile p = new Percentile();
-        return p.evaluate(values, rank);
+        if (percentile == null) {
+            Percentile p = new Percentile();
+            p.setData(values, 0, count);
+            percentile = p;
+        }
+        return percentile.evaluate(rank);
     }
 
     @Override
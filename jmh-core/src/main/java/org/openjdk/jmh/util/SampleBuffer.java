@@ -24,85 +24,603 @@
  */
 package org.openjdk.jmh.util;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 /**
  * Sampling buffer accepts samples.
+ *
+ * <p>This is a high-dynamic-range histogram with the bin layout of HdrHistogram:
+ * every bin is narrower than the value it records by at least the configured
+ * number of significant decimal digits. Bins are allocated in chunks of the
+ * same magnitude: samples usually span only a few magnitudes, and so the buffer
+ * stays small. The chunks for the expected range of samples are allocated up front
+ * with {@link #reserve(long, long)}, so that recording does not allocate; other
+ * chunks are allocated when the first sample of that magnitude is recorded.
+ * Samples above the highest trackable value are recorded into the highest bin.
  */
 public class SampleBuffer implements Serializable {
-    private static final long serialVersionUID = 6124923853916845327L;
+    private static final long serialVersionUID = -3434672547324735912L;
+
+    /**
+     * Default number of significant digits.
+     */
+    public static final int DEFAULT_DIGITS = Integer.getInteger("jmh.histogram.digits", 3);
+
+    /**
+     * Default highest trackable value: an hour, in nanoseconds.
+     */
+    public static final long DEFAULT_HIGHEST_VALUE = TimeUnit.HOURS.toNanos(1);
+
+    /**
+     * Default highest value to reserve the bins for, when the range of samples
+     * is not known yet: a millisecond, in nanoseconds.
+     */
+    public static final long DEFAULT_RESERVED_VALUE = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /*
+     * HdrHistogram V2 encoding cookies, with the word size nibble set to
+     * mark the zero-run-length-encoded counts.
+     */
+    private static final int ENCODING_COOKIE = 0x1c849303 | 0x10;
+    private static final int COMPRESSED_ENCODING_COOKIE = 0x1c849304 | 0x10;
+    private static final int COOKIE_BASE_MASK = ~0xf0;
+    private static final int ENCODING_HEADER_SIZE = 40;
 
-    private static final int PRECISION_BITS = 10;
-    private static final int BUCKETS = Long.SIZE - PRECISION_BITS;
+    private final int digits;
+    private final long highestValue;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
 
-    private final int[][] hdr;
+    private final int length;
+
+    /**
+     * Bin counts, chunked by the magnitude: the bin index is split into
+     * the chunk index and the index within the chunk. Chunks are allocated
+     * on the first use.
+     */
+    private transient long[][] counts;
 
     public SampleBuffer() {
-        hdr = new int[BUCKETS][];
+        this(DEFAULT_DIGITS, DEFAULT_HIGHEST_VALUE);
+    }
+
+    /**
+     * @param digits number of significant decimal digits to maintain, 0..5
+     * @param highestValue highest trackable value, at least 2
+     */
+    public SampleBuffer(int digits, long highestValue) {
+        if (digits < 0 || digits > 5) {
+            throw new IllegalArgumentException("Significant digits should be between 0 and 5: " + digits);
+        }
+        if (highestValue < 2) {
+            throw new IllegalArgumentException("Highest trackable value should be at least 2: " + highestValue);
+        }
+        this.digits = digits;
+        this.highestValue = highestValue;
+
+        long largestSingleUnitValue = 2 * (long) Math.pow(10, digits);
+        int subBucketCountMagnitude = (int) Math.ceil(Math.log(largestSingleUnitValue) / Math.log(2));
+        subBucketHalfCountMagnitude = Math.max(subBucketCountMagnitude, 1) - 1;
+        subBucketHalfCount = 1 << subBucketHalfCountMagnitude;
+        subBucketMask = (2L << subBucketHalfCountMagnitude) - 1;
+        leadingZeroCountBase = Long.SIZE - subBucketHalfCountMagnitude - 1;
+
+        length = lengthFor(highestValue);
+        counts = new long[length >> subBucketHalfCountMagnitude][];
+    }
+
+    private int lengthFor(long value) {
+        long smallestUntrackable = 2L << subBucketHalfCountMagnitude;
+        int buckets = 1;
+        while (smallestUntrackable <= value) {
+            if (smallestUntrackable > Long.MAX_VALUE / 2) {
+                buckets++;
+                break;
+            }
+            smallestUntrackable <<= 1;
+            buckets++;
+        }
+        return (buckets + 1) << subBucketHalfCountMagnitude;
+    }
+
+    private int indexOf(long value) {
+        long v = Math.min(Math.max(value, 0), highestValue);
+        int bucket = leadingZeroCountBase - Long.numberOfLeadingZeros(v | subBucketMask);
+        int subBucket = (int) (v >>> bucket);
+        return ((bucket + 1) << subBucketHalfCountMagnitude) + (subBucket - subBucketHalfCount);
+    }
+
+    private static long valueAt(int index, int halfCountMagnitude, int unitMagnitude) {
+        int halfCount = 1 << halfCountMagnitude;
+        int bucket = (index >> halfCountMagnitude) - 1;
+        int subBucket = (index & (halfCount - 1)) + halfCount;
+        if (bucket < 0) {
+            subBucket -= halfCount;
+            bucket = 0;
+        }
+        return (long) subBucket << (bucket + unitMagnitude);
+    }
+
+    private long valueAt(int index) {
+        return valueAt(index, subBucketHalfCountMagnitude, 0);
+    }
+
+    private long get(int index) {
+        long[] chunk = counts[index >> subBucketHalfCountMagnitude];
+        return (chunk == null) ? 0 : chunk[index & (subBucketHalfCount - 1)];
+    }
+
+    private void inc(int index, long count) {
+        int ci = index >> subBucketHalfCountMagnitude;
+        long[] chunk = counts[ci];
+        if (chunk == null) {
+            chunk = new long[subBucketHalfCount];
+            counts[ci] = chunk;
+        }
+        chunk[index & (subBucketHalfCount - 1)] += count;
+    }
+
+    private int indexAt(int chunk, int offset) {
+        return (chunk << subBucketHalfCountMagnitude) + offset;
+    }
+
+    public int getDigits() {
+        return digits;
+    }
+
+    public long getHighestValue() {
+        return highestValue;
     }
 
     public void half() {
-        for (int[] bucket : hdr) {
-            if (bucket != null) {
-                for (int j = 0; j < bucket.length; j++) {
-                    int nV = bucket[j] / 2;
-                    if (nV != 0) { // prevent halving to zero
-                        bucket[j] = nV;
-                    }
+        for (long[] chunk : counts) {
+            if (chunk == null) {
+                continue;
+            }
+            for (int i = 0; i < chunk.length; i++) {
+                long nV = chunk[i] / 2;
+                if (nV != 0) { // prevent halving to zero
+                    chunk[i] = nV;
                 }
             }
         }
     }
 
     public void add(long sample) {
-        int bucket = Math.max(0, BUCKETS - Long.numberOfLeadingZeros(sample));
-        int subBucket = (int) (sample >> bucket);
+        inc(indexOf(sample), 1);
+    }
+
+    /**
+     * Records the sample several times.
+     *
+     * @param sample sample
+     * @param count number of times to record
+     */
+    public void add(long sample, long count) {
+        inc(indexOf(sample), count);
+    }
+
+    /**
+     * Allocates the bins for the samples between the given values, and for the
+     * magnitudes next to them, so that recording these samples does not allocate.
+     * This is meant to be called before the measurement starts.
+     *
+     * @param lowestValue lowest expected sample
+     * @param highestValue highest expected sample
+     */
+    public void reserve(long lowestValue, long highestValue) {
+        int from = Math.max((indexOf(lowestValue) >> subBucketHalfCountMagnitude) - 1, 0);
+        int to = Math.min((indexOf(highestValue) >> subBucketHalfCountMagnitude) + 1, counts.length - 1);
+        for (int ci = from; ci <= to; ci++) {
+            if (counts[ci] == null) {
+                counts[ci] = new long[subBucketHalfCount];
+            }
+        }
+    }
 
-        int[] b = hdr[bucket];
-        if (b == null) {
-            b = new int[1 << PRECISION_BITS];
-            hdr[bucket] = b;
+    private int nonEmptyBins() {
+        int bins = 0;
+        for (long[] chunk : counts) {
+            if (chunk == null) {
+                continue;
+            }
+            for (long c : chunk) {
+                if (c != 0) {
+                    bins++;
+                }
+            }
         }
-        b[subBucket]++;
+        return bins;
     }
 
     public Statistics getStatistics(double multiplier) {
-        MultisetStatistics stat = new MultisetStatistics();
-        for (int i = 0; i < hdr.length; i++) {
-            int[] bucket = hdr[i];
-            if (bucket != null) {
-                for (int j = 0; j < bucket.length; j++) {
-                    long ns = (long) j << i;
-                    stat.addValue(multiplier * ns, bucket[j]);
+        int bins = nonEmptyBins();
+
+        // Bins are already sorted by value
+        double[] vs = new double[bins];
+        long[] cs = new long[bins];
+        int b = 0;
+        for (int ci = 0; ci < counts.length; ci++) {
+            long[] chunk = counts[ci];
+            if (chunk == null) {
+                continue;
+            }
+            for (int i = 0; i < chunk.length; i++) {
+                long c = chunk[i];
+                if (c != 0) {
+                    vs[b] = multiplier * valueAt(indexAt(ci, i));
+                    cs[b] = c;
+                    b++;
                 }
             }
         }
-        return stat;
+        return new FrozenMultisetStatistics(vs, cs);
     }
 
     public void addAll(SampleBuffer other) {
-        for (int i = 0; i < other.hdr.length; i++) {
-            int[] otherBucket = other.hdr[i];
-            if (otherBucket != null) {
-                int[] myBucket = hdr[i];
-                if (myBucket == null) {
-                    myBucket = new int[1 << PRECISION_BITS];
-                    hdr[i] = myBucket;
+        boolean sameLayout = (other.subBucketHalfCountMagnitude == subBucketHalfCountMagnitude);
+        for (int ci = 0; ci < other.counts.length; ci++) {
+            long[] chunk = other.counts[ci];
+            if (chunk == null) {
+                continue;
+            }
+            for (int i = 0; i < chunk.length; i++) {
+                long c = chunk[i];
+                if (c != 0) {
+                    int idx = other.indexAt(ci, i);
+                    if (sameLayout && idx < length) {
+                        inc(idx, c);
+                    } else {
+                        add(other.valueAt(idx), c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Produces the copy of this buffer corrected for coordinated omission, the same
+     * way as HdrHistogram's {@code recordValueWithExpectedInterval} does: every sample
+     * larger than expected interval implies the samples that were not taken while
+     * it stalled, linearly decreasing down to the expected interval.
+     *
+     * @param expectedInterval expected interval between samples
+     * @return corrected buffer
+     */
+    public SampleBuffer copyCorrectedForCoordinatedOmission(long expectedInterval) {
+        SampleBuffer result = new SampleBuffer(digits, highestValue);
+        result.addAll(this);
+        if (expectedInterval <= 0) {
+            return result;
+        }
+
+        for (int ci = 0; ci < counts.length; ci++) {
+            long[] chunk = counts[ci];
+            if (chunk == null) {
+                continue;
+            }
+            for (int i = 0; i < chunk.length; i++) {
+                long c = chunk[i];
+                if (c == 0) {
+                    continue;
+                }
+
+                // Implied samples from the same bin go together, without walking them one by one.
+                long missing = valueAt(indexAt(ci, i)) - expectedInterval;
+                while (missing >= expectedInterval) {
+                    int idx = indexOf(missing);
+                    long binLow = Math.max(valueAt(idx), expectedInterval);
+                    long n = (missing - binLow) / expectedInterval + 1;
+                    result.inc(idx, n * c);
+                    missing -= n * expectedInterval;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the compact representation of this buffer: the layout, and
+     * only non-empty bins, with the bin indexes delta-encoded.
+     *
+     * @param out output
+     * @throws IOException if output fails
+     * @see #read(DataInput)
+     */
+    public void write(DataOutput out) throws IOException {
+        Utils.writeVarLong(out, digits);
+        Utils.writeVarLong(out, highestValue);
+
+        Utils.writeVarLong(out, nonEmptyBins());
+
+        int lastIdx = 0;
+        for (int ci = 0; ci < counts.length; ci++) {
+            long[] chunk = counts[ci];
+            if (chunk == null) {
+                continue;
+            }
+            for (int i = 0; i < chunk.length; i++) {
+                if (chunk[i] != 0) {
+                    int idx = indexAt(ci, i);
+                    Utils.writeVarLong(out, idx - lastIdx);
+                    Utils.writeVarLong(out, chunk[i]);
+                    lastIdx = idx;
                 }
-                for (int j = 0; j < otherBucket.length; j++) {
-                    myBucket[j] += otherBucket[j];
+            }
+        }
+    }
+
+    /**
+     * Reads the buffer written by {@link #write(DataOutput)}.
+     *
+     * @param in input
+     * @return sample buffer
+     * @throws IOException if input fails, or data is malformed
+     */
+    public static SampleBuffer read(DataInput in) throws IOException {
+        long digits = Utils.readVarLong(in);
+        long highestValue = Utils.readVarLong(in);
+        if (digits > 5 || highestValue < 2) {
+            throw new IOException("Malformed sample buffer, digits = " + digits + ", highest value = " + highestValue);
+        }
+
+        SampleBuffer buf = new SampleBuffer((int) digits, highestValue);
+
+        long bins = Utils.readVarLong(in);
+        long idx = 0;
+        for (long b = 0; b < bins; b++) {
+            idx += Utils.readVarLong(in);
+            if (idx >= buf.length) {
+                throw new IOException("Malformed sample buffer, bin index: " + idx);
+            }
+            buf.inc((int) idx, Utils.readVarLong(in));
+        }
+        return buf;
+    }
+
+    /**
+     * Encodes this buffer into the compressed HdrHistogram V2 encoding, which
+     * is understood by {@code Histogram.decodeFromCompressedByteBuffer} and
+     * interval log readers.
+     *
+     * @return encoded histogram
+     * @see #decodeHdrHistogram(byte[])
+     */
+    public byte[] encodeHdrHistogram() {
+        int limit = length;
+        while (limit > 0 && get(limit - 1) == 0) {
+            limit--;
+        }
+
+        // every count takes at most 9 bytes in LEB128-64b9B encoding
+        ByteBuffer buf = ByteBuffer.allocate(ENCODING_HEADER_SIZE + limit * 9);
+        buf.putInt(ENCODING_COOKIE);
+        buf.putInt(0); // payload length, filled below
+        buf.putInt(0); // normalizing index offset
+        buf.putInt(digits);
+        buf.putLong(1); // lowest discernible value
+        buf.putLong(highestValue);
+        buf.putDouble(1.0); // integer to double conversion ratio
+
+        int idx = 0;
+        while (idx < limit) {
+            long c = get(idx++);
+            long zeros = 0;
+            if (c == 0) {
+                zeros = 1;
+                while (idx < limit && get(idx) == 0) {
+                    zeros++;
+                    idx++;
                 }
             }
+            putZigZag(buf, (zeros > 1) ? -zeros : c);
         }
+        buf.putInt(4, buf.position() - ENCODING_HEADER_SIZE);
+
+        Deflater deflater = new Deflater();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try {
+            deflater.setInput(buf.array(), 0, buf.position());
+            deflater.finish();
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) {
+                int len = deflater.deflate(chunk);
+                bos.write(chunk, 0, len);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteBuffer result = ByteBuffer.allocate(8 + bos.size());
+        result.putInt(COMPRESSED_ENCODING_COOKIE);
+        result.putInt(bos.size());
+        result.put(bos.toByteArray());
+        return result.array();
     }
 
-    public int count() {
-        int count = 0;
-        for (int[] bucket : hdr) {
-            if (bucket != null) {
-                for (int v : bucket) {
-                    count += v;
+    /**
+     * Decodes the histogram in compressed HdrHistogram V2 encoding, as produced
+     * by {@code Histogram.encodeIntoCompressedByteBuffer}, or {@link #encodeHdrHistogram()}.
+     *
+     * @param bytes encoded histogram
+     * @return sample buffer
+     * @throws IOException if data is malformed, or is not supported
+     */
+    public static SampleBuffer decodeHdrHistogram(byte[] bytes) throws IOException {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            int cookie = buf.getInt();
+            if ((cookie & COOKIE_BASE_MASK) != (COMPRESSED_ENCODING_COOKIE & COOKIE_BASE_MASK)) {
+                throw new IOException("Not a compressed HdrHistogram, cookie: " + Integer.toHexString(cookie));
+            }
+            int compressedLength = buf.getInt();
+            if (compressedLength < 0 || compressedLength > buf.remaining()) {
+                throw new IOException("Malformed HdrHistogram, compressed length = " + compressedLength);
+            }
+
+            Inflater inflater = new Inflater();
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            try {
+                inflater.setInput(bytes, 8, compressedLength);
+                byte[] chunk = new byte[4096];
+                while (!inflater.finished()) {
+                    int len = inflater.inflate(chunk);
+                    if (len == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IOException("Malformed HdrHistogram, truncated compressed data");
+                    }
+                    bos.write(chunk, 0, len);
                 }
+            } catch (DataFormatException e) {
+                throw new IOException("Malformed HdrHistogram", e);
+            } finally {
+                inflater.end();
+            }
+
+            ByteBuffer payload = ByteBuffer.wrap(bos.toByteArray());
+            cookie = payload.getInt();
+            if ((cookie & COOKIE_BASE_MASK) != (ENCODING_COOKIE & COOKIE_BASE_MASK)) {
+                throw new IOException("Unsupported HdrHistogram encoding, cookie: " + Integer.toHexString(cookie));
+            }
+            int payloadLength = payload.getInt();
+            int normalizingOffset = payload.getInt();
+            int digits = payload.getInt();
+            long lowestValue = payload.getLong();
+            long highestValue = payload.getLong();
+            payload.getDouble(); // integer to double conversion ratio, unused
+
+            if (normalizingOffset != 0) {
+                throw new IOException("Unsupported HdrHistogram, shifted by " + normalizingOffset);
+            }
+            if (digits < 0 || digits > 5 || lowestValue < 1) {
+                throw new IOException("Malformed HdrHistogram, digits = " + digits + ", lowest value = " + lowestValue);
+            }
+
+            // the encoded layout can have the unit other than 1, remap the bins into our layout
+            int unitMagnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(lowestValue);
+            SampleBuffer sb = new SampleBuffer(digits, Math.max(highestValue, 2));
+            int halfCountMagnitude = sb.subBucketHalfCountMagnitude;
+
+            int end = payload.position() + payloadLength;
+            long idx = 0;
+            while (payload.position() < end) {
+                long c = getZigZag(payload);
+                if (c < 0) {
+                    idx -= c;
+                } else {
+                    if (c > 0) {
+                        if ((idx >> halfCountMagnitude) + unitMagnitude >= Long.SIZE - 1) {
+                            throw new IOException("Malformed HdrHistogram, bin index: " + idx);
+                        }
+                        sb.add(valueAt((int) idx, halfCountMagnitude, unitMagnitude), c);
+                    }
+                    idx++;
+                }
+            }
+            return sb;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Malformed HdrHistogram, truncated data", e);
+        }
+    }
+
+    /*
+     * HdrHistogram counts are ZigZag LEB128-64b9B encoded: 7 bits per byte for the
+     * first eight bytes, and the full last byte.
+     */
+
+    private static void putZigZag(ByteBuffer buf, long value) {
+        long v = (value << 1) ^ (value >> 63);
+        for (int b = 0; b < 8; b++) {
+            if ((v >>> 7) == 0) {
+                buf.put((byte) v);
+                return;
+            }
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    private static long getZigZag(ByteBuffer buf) {
+        long v = 0;
+        for (int shift = 0; shift < 56; shift += 7) {
+            int b = buf.get();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (v >>> 1) ^ -(v & 1);
+            }
+        }
+        v |= (long) (buf.get() & 0xFF) << 56;
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        write(out);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        counts = read(in).counts;
+    }
+
+    /**
+     * @return lowest recorded sample, within the bin precision; 0, if buffer is empty
+     */
+    public long getMinValue() {
+        for (int ci = 0; ci < counts.length; ci++) {
+            long[] chunk = counts[ci];
+            if (chunk == null) {
+                continue;
+            }
+            for (int i = 0; i < chunk.length; i++) {
+                if (chunk[i] != 0) {
+                    return valueAt(indexAt(ci, i));
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return highest recorded sample, within the bin precision; 0, if buffer is empty
+     */
+    public long getMaxValue() {
+        for (int ci = counts.length - 1; ci >= 0; ci--) {
+            long[] chunk = counts[ci];
+            if (chunk == null) {
+                continue;
+            }
+            for (int i = chunk.length - 1; i >= 0; i--) {
+                if (chunk[i] != 0) {
+                    return valueAt(indexAt(ci, i));
+                }
+            }
+        }
+        return 0;
+    }
+
+    public long count() {
+        long count = 0;
+        for (long[] chunk : counts) {
+            if (chunk == null) {
+                continue;
+            }
+            for (long c : chunk) {
+                count += c;
             }
         }
         return count;
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.util;
+
+import java.io.Serializable;
+
+/**
+ * Scalability model fit to the throughput measured at the different thread counts.
+ *
+ * <p>Universal Scalability Law models the throughput at N threads as
+ * {@code X(N) = λN / (1 + σ(N - 1) + κN(N - 1))}, where λ is the single-thread throughput,
+ * σ is the contention coefficient (serialized fraction of work), and κ is the coherency
+ * coefficient (the cost of keeping shared data consistent). Amdahl's Law is the special
+ * case of κ = 0. With κ &gt; 0, throughput peaks at {@code N* = sqrt((1 - σ) / κ)},
+ * and declines after that.</p>
+ *
+ * <p>The model is fit with least squares over the linearized form
+ * {@code N / X(N) = 1/λ + (σ/λ)(N - 1) + (κ/λ)N(N - 1)}, and λ is then refined against
+ * the measured throughput; both coefficients are kept non-negative.</p>
+ */
+public class ScalabilityFit implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final double lambda;
+    private final double sigma;
+    private final double kappa;
+    private final double rSquared;
+
+    private ScalabilityFit(double lambda, double sigma, double kappa, int[] threads, double[] throughput) {
+        this.lambda = lambda;
+        this.sigma = sigma;
+        this.kappa = kappa;
+
+        double mean = 0;
+        for (double x : throughput) {
+            mean += x;
+        }
+        mean /= throughput.length;
+
+        double ssRes = 0;
+        double ssTot = 0;
+        for (int i = 0; i < threads.length; i++) {
+            double d = throughput[i] - predict(threads[i]);
+            ssRes += d * d;
+            ssTot += (throughput[i] - mean) * (throughput[i] - mean);
+        }
+        this.rSquared = (ssTot == 0) ? 1 : 1 - ssRes / ssTot;
+    }
+
+    /**
+     * Fits the Universal Scalability Law.
+     *
+     * @param threads thread counts
+     * @param throughput throughput measured at the respective thread counts
+     * @return fit
+     * @throws IllegalArgumentException if there are less than two data points, or throughput is not positive
+     */
+    public static ScalabilityFit usl(int[] threads, double[] throughput) {
+        return fit(threads, throughput, true);
+    }
+
+    /**
+     * Fits the Amdahl's Law, that is, Universal Scalability Law without the coherency term.
+     *
+     * @param threads thread counts
+     * @param throughput throughput measured at the respective thread counts
+     * @return fit
+     * @throws IllegalArgumentException if there are less than two data points, or throughput is not positive
+     */
+    public static ScalabilityFit amdahl(int[] threads, double[] throughput) {
+        return fit(threads, throughput, false);
+    }
+
+    private static ScalabilityFit fit(int[] threads, double[] throughput, boolean coherency) {
+        if (threads.length != throughput.length) {
+            throw new IllegalArgumentException("Thread counts and throughput should have the same length");
+        }
+        if (threads.length < 2) {
+            throw new IllegalArgumentException("At least two data points are required");
+        }
+        for (int i = 0; i < threads.length; i++) {
+            if (threads[i] < 1) {
+                throw new IllegalArgumentException("Thread count should be positive: " + threads[i]);
+            }
+            if (!(throughput[i] > 0)) {
+                throw new IllegalArgumentException("Throughput should be positive: " + throughput[i]);
+            }
+        }
+
+        // N / X(N) = 1/λ + (σ/λ)(N - 1) + (κ/λ)N(N - 1) is linear in the unknowns;
+        // try the full model first, then drop the terms that come out negative.
+        boolean[][] candidates = coherency ?
+                new boolean[][] { {true, true}, {true, false}, {false, true}, {false, false} } :
+                new boolean[][] { {true, false}, {false, false} };
+
+        ScalabilityFit best = null;
+        double bestResidual = Double.POSITIVE_INFINITY;
+        for (int ci = 0; ci < candidates.length; ci++) {
+            boolean[] c = candidates[ci];
+            double[] coeffs = solve(threads, throughput, c[0], c[1]);
+            if (coeffs == null || !(coeffs[0] > 0) || coeffs[1] < 0 || coeffs[2] < 0) {
+                continue;
+            }
+            double sigma = coeffs[1] / coeffs[0];
+            double kappa = coeffs[2] / coeffs[0];
+
+            // refine λ with least squares in the throughput space
+            double sxf = 0, sff = 0;
+            for (int i = 0; i < threads.length; i++) {
+                double f = shape(threads[i], sigma, kappa);
+                sxf += throughput[i] * f;
+                sff += f * f;
+            }
+            double lambda = sxf / sff;
+
+            double residual = residual(threads, throughput, lambda, sigma, kappa);
+            if (residual < bestResidual) {
+                best = new ScalabilityFit(lambda, sigma, kappa, threads, throughput);
+                bestResidual = residual;
+            }
+            if (ci == 0) {
+                // the full model is admissible, reduced models would not fit better
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Solves {@code N / X = a + b(N - 1) + cN(N - 1)} with least squares.
+     * @return {a, b, c}, with excluded terms set to zero; null, if the system is degenerate
+     */
+    private static double[] solve(int[] threads, double[] throughput, boolean withSigma, boolean withKappa) {
+        int k = 1 + (withSigma ? 1 : 0) + (withKappa ? 1 : 0);
+        double[][] m = new double[k][k + 1];
+        for (int i = 0; i < threads.length; i++) {
+            double n = threads[i];
+            double[] row = new double[k];
+            int j = 0;
+            row[j++] = 1;
+            if (withSigma) {
+                row[j++] = n - 1;
+            }
+            if (withKappa) {
+                row[j] = n * (n - 1);
+            }
+            double y = n / throughput[i];
+            for (int r = 0; r < k; r++) {
+                for (int q = 0; q < k; q++) {
+                    m[r][q] += row[r] * row[q];
+                }
+                m[r][k] += row[r] * y;
+            }
+        }
+
+        // Gaussian elimination with partial pivoting
+        for (int col = 0; col < k; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < k; r++) {
+                if (Math.abs(m[r][col]) > Math.abs(m[pivot][col])) {
+                    pivot = r;
+                }
+            }
+            double[] t = m[col];
+            m[col] = m[pivot];
+            m[pivot] = t;
+            if (Math.abs(m[col][col]) < 1e-300) {
+                return null;
+            }
+            for (int r = 0; r < k; r++) {
+                if (r != col) {
+                    double f = m[r][col] / m[col][col];
+                    for (int q = col; q <= k; q++) {
+                        m[r][q] -= f * m[col][q];
+                    }
+                }
+            }
+        }
+
+        double[] result = new double[3];
+        int j = 0;
+        result[0] = m[j][k] / m[j][j];
+        j++;
+        if (withSigma) {
+            result[1] = m[j][k] / m[j][j];
+            j++;
+        }
+        if (withKappa) {
+            result[2] = m[j][k] / m[j][j];
+        }
+        return result;
+    }
+
+    private static double shape(double n, double sigma, double kappa) {
+        return n / (1 + sigma * (n - 1) + kappa * n * (n - 1));
+    }
+
+    private static double residual(int[] threads, double[] throughput, double lambda, double sigma, double kappa) {
+        double ss = 0;
+        for (int i = 0; i < threads.length; i++) {
+            double d = throughput[i] - lambda * shape(threads[i], sigma, kappa);
+            ss += d * d;
+        }
+        return ss;
+    }
+
+    /**
+     * @return single-thread throughput, λ
+     */
+    public double getLambda() {
+        return lambda;
+    }
+
+    /**
+     * @return contention coefficient, σ
+     */
+    public double getContention() {
+        return sigma;
+    }
+
+    /**
+     * @return coherency coefficient, κ
+     */
+    public double getCoherency() {
+        return kappa;
+    }
+
+    /**
+     * @return coefficient of determination of the fit
+     */
+    public double getRSquared() {
+        return rSquared;
+    }
+
+    /**
+     * Predicts the throughput.
+     *
+     * @param threads thread count
+     * @return modeled throughput at this thread count
+     */
+    public double predict(double threads) {
+        return lambda * shape(threads, sigma, kappa);
+    }
+
+    /**
+     * The knee point: thread count at which the modeled throughput peaks.
+     *
+     * @return peak thread count; {@link Double#POSITIVE_INFINITY} if throughput grows without bound
+     */
+    public double getPeakThreads() {
+        if (kappa > 0) {
+            return Math.max(1, Math.sqrt(Math.max(0, 1 - sigma) / kappa));
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return modeled throughput at the peak; or the asymptotic limit, if throughput grows without bound
+     */
+    public double getPeakThroughput() {
+        if (kappa > 0) {
+            return predict(getPeakThreads());
+        }
+        if (sigma > 0) {
+            return lambda / sigma;
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+}
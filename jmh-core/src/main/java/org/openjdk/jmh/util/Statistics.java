@@ -47,6 +47,36 @@ public interface Statistics extends Serializable, StatisticalSummary, Comparable
      */
     double getMeanErrorAt(double confidence);
 
+    /**
+     * Gets the confidence interval for the mean at given confidence level,
+     * computed with the given method.
+     * @param confidence confidence level (e.g. 0.95)
+     * @param method confidence interval method
+     * @return the interval in which mean lies with the given confidence level
+     */
+    double[] getConfidenceIntervalAt(double confidence, ConfidenceMethod method);
+
+    /**
+     * Gets the mean error at given confidence level, computed with the given method.
+     * Bootstrap intervals are not necessarily symmetric around the mean, the error
+     * is the half-width of the interval.
+     * @param confidence confidence level (e.g. 0.95)
+     * @param method confidence interval method
+     * @return the mean error with the given confidence level
+     */
+    double getMeanErrorAt(double confidence, ConfidenceMethod method);
+
+    /**
+     * Gets the confidence interval for the percentile at given rank and given
+     * confidence level. Use rank 50 for the median. Only bootstrap methods
+     * are applicable to percentiles.
+     * @param rank the rank, [0..100]
+     * @param confidence confidence level (e.g. 0.95)
+     * @param method confidence interval method
+     * @return the interval in which percentile lies with the given confidence level
+     */
+    double[] getPercentileConfidenceIntervalAt(double rank, double confidence, ConfidenceMethod method);
+
     /**
      * Checks if this statistics statistically different from the given one
      * with the given confidence level.
@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.util;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Calculate statistics over the streaming quantile sketch.
+ *
+ * <p>This is the merging t-digest: incoming values are buffered, and the buffer is
+ * periodically merged into the sorted centroids, bounded by the scale function that
+ * keeps the centroids small at the tails. The memory footprint is bounded by the
+ * compression, regardless of the number of samples. Percentiles are approximate, with
+ * the error that is smallest at the tails. Count, sum, mean, variance, min and max are
+ * tracked exactly. As long as no distinct values were merged into one centroid, percentiles
+ * are also exact.</p>
+ *
+ * <p>Sketches are mergeable, see {@link #addAll(Statistics)}. The raw data for
+ * this statistics are the centroids: their means and counts.</p>
+ */
+public class TDigestStatistics extends AbstractStatistics {
+    private static final long serialVersionUID = 5174213208217434093L;
+
+    /**
+     * Default compression: the sketch holds around this many centroids.
+     */
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+
+    private double[] means;
+    private long[] weights;
+    private int centroids;
+    private boolean exact;
+
+    private final double[] bufMeans;
+    private final long[] bufWeights;
+    private int buffered;
+
+    private long n;
+    private double sum;
+    private double mean;
+    private double m2;
+    private double min;
+    private double max;
+
+    public TDigestStatistics() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigestStatistics(double compression) {
+        if (!(compression >= 10)) {
+            throw new IllegalArgumentException("Compression should be at least 10: " + compression);
+        }
+        this.compression = compression;
+        this.means = new double[16];
+        this.weights = new long[16];
+        int bufSize = (int) Math.ceil(compression * 5);
+        this.bufMeans = new double[bufSize];
+        this.bufWeights = new long[bufSize];
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+        this.exact = true;
+    }
+
+    public void addValue(double d) {
+        addValue(d, 1);
+    }
+
+    public void addValue(double d, long count) {
+        if (count <= 0) {
+            return;
+        }
+
+        // Weighted Welford update keeps the variance exact and stable
+        long newN = n + count;
+        double delta = d - mean;
+        mean += delta * count / newN;
+        m2 += delta * (d - mean) * count;
+        n = newN;
+        sum += d * count;
+        min = Math.min(min, d);
+        max = Math.max(max, d);
+
+        buffer(d, count);
+    }
+
+    /**
+     * Adds all samples from another statistics. Other t-digests are merged
+     * centroid by centroid, other statistics are merged value by value.
+     *
+     * @param other statistics to add
+     */
+    public void addAll(Statistics other) {
+        if (other instanceof TDigestStatistics) {
+            TDigestStatistics o = (TDigestStatistics) other;
+            if (o.n == 0) {
+                return;
+            }
+            o.compress();
+            exact &= o.exact;
+
+            // Chan et al. parallel update for the moments
+            long newN = n + o.n;
+            double delta = o.mean - mean;
+            m2 += o.m2 + delta * delta * n * o.n / newN;
+            mean += delta * o.n / newN;
+            n = newN;
+            sum += o.sum;
+            min = Math.min(min, o.min);
+            max = Math.max(max, o.max);
+
+            for (int i = 0; i < o.centroids; i++) {
+                buffer(o.means[i], o.weights[i]);
+            }
+        } else {
+            Iterator<Map.Entry<Double, Long>> it = other.getRawData();
+            while (it.hasNext()) {
+                Map.Entry<Double, Long> e = it.next();
+                addValue(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return compression for this sketch
+     */
+    public double getCompression() {
+        return compression;
+    }
+
+    /**
+     * @return number of centroids currently held by the sketch
+     */
+    public int getCentroidCount() {
+        compress();
+        return centroids;
+    }
+
+    private void buffer(double d, long count) {
+        if (buffered == bufMeans.length) {
+            compress();
+        }
+        bufMeans[buffered] = d;
+        bufWeights[buffered] = count;
+        buffered++;
+    }
+
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+
+        sort(bufMeans, bufWeights, 0, buffered);
+
+        // Merge sorted buffer with sorted centroids
+        int total = centroids + buffered;
+        double[] m = new double[total];
+        long[] w = new long[total];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            if (j >= buffered || (i < centroids && means[i] <= bufMeans[j])) {
+                m[k] = means[i];
+                w[k] = weights[i];
+                i++;
+            } else {
+                m[k] = bufMeans[j];
+                w[k] = bufWeights[j];
+                j++;
+            }
+        }
+        buffered = 0;
+
+        // Greedily fold the neighbours while the centroid stays within its size limit
+        if (means.length < total) {
+            means = new double[total];
+            weights = new long[total];
+        }
+
+        int out = 0;
+        double curMean = m[0];
+        long curWeight = w[0];
+        long weightSoFar = 0;
+        double limit = n * qLimit(0);
+
+        for (int k = 1; k < total; k++) {
+            if (weightSoFar + curWeight + w[k] <= limit) {
+                if (m[k] != curMean) {
+                    exact = false;
+                }
+                curWeight += w[k];
+                curMean += (m[k] - curMean) * w[k] / curWeight;
+            } else {
+                means[out] = curMean;
+                weights[out] = curWeight;
+                out++;
+                weightSoFar += curWeight;
+                limit = n * qLimit((double) weightSoFar / n);
+                curMean = m[k];
+                curWeight = w[k];
+            }
+        }
+        means[out] = curMean;
+        weights[out] = curWeight;
+        out++;
+
+        centroids = out;
+    }
+
+    /**
+     * Returns the upper quantile the centroid starting at quantile q can grow to.
+     * Uses k1 scale function: k(q) = compression / (2 * pi) * asin(2q - 1).
+     */
+    private double qLimit(double q) {
+        double k = compression / (2 * Math.PI) * Math.asin(2 * q - 1) + 1;
+        if (k >= compression / 4) {
+            return 1;
+        }
+        return (Math.sin(k * 2 * Math.PI / compression) + 1) / 2;
+    }
+
+    private static void sort(double[] m, long[] w, int lo, int hi) {
+        while (hi - lo > 16) {
+            double pivot = m[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi - 1;
+            while (i <= j) {
+                while (Double.compare(m[i], pivot) < 0) i++;
+                while (Double.compare(m[j], pivot) > 0) j--;
+                if (i <= j) {
+                    swap(m, w, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (j - lo < hi - i) {
+                sort(m, w, lo, j + 1);
+                lo = i;
+            } else {
+                sort(m, w, i, hi);
+                hi = j + 1;
+            }
+        }
+        for (int i = lo + 1; i < hi; i++) {
+            for (int j = i; j > lo && Double.compare(m[j - 1], m[j]) > 0; j--) {
+                swap(m, w, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(double[] m, long[] w, int i, int j) {
+        double tm = m[i];
+        m[i] = m[j];
+        m[j] = tm;
+        long tw = w[i];
+        w[i] = w[j];
+        w[j] = tw;
+    }
+
+    @Override
+    public double getMax() {
+        return (n > 0) ? max : Double.NaN;
+    }
+
+    @Override
+    public double getMin() {
+        return (n > 0) ? min : Double.NaN;
+    }
+
+    @Override
+    public long getN() {
+        return n;
+    }
+
+    @Override
+    public double getSum() {
+        return (n > 0) ? sum : Double.NaN;
+    }
+
+    @Override
+    public double getVariance() {
+        return (n > 1) ? m2 / (n - 1) : Double.NaN;
+    }
+
+    @Override
+    public double getPercentile(double rank) {
+        if (rank < 0.0d || rank > 100.0d)
+            throw new IllegalArgumentException("Rank should be within [0; 100]");
+
+        if (n == 0) {
+            return Double.NaN;
+        }
+
+        if (rank == 0.0d) {
+            return min;
+        }
+        if (rank == 100.0d) {
+            return max;
+        }
+
+        compress();
+
+        if (exact) {
+            // Every centroid holds the copies of a single value.
+            // Use the same estimation as ListStatistics does.
+            double pos = rank * (n + 1) / 100;
+            double floorPos = Math.floor(pos);
+
+            double flooredValue = valueAt((long) floorPos);
+            double nextValue = valueAt((long) floorPos + 1);
+
+            return flooredValue + (nextValue - flooredValue) * (pos - floorPos);
+        }
+
+        // Interpolate between the centroid centers, and between the outermost
+        // centroids and the exact min and max.
+        double index = rank / 100 * n;
+
+        double firstHalf = weights[0] / 2.0;
+        if (index < firstHalf) {
+            return min + (means[0] - min) * index / firstHalf;
+        }
+
+        double cum = firstHalf;
+        for (int i = 0; i < centroids - 1; i++) {
+            double dw = (weights[i] + weights[i + 1]) / 2.0;
+            if (cum + dw > index) {
+                return means[i] + (means[i + 1] - means[i]) * (index - cum) / dw;
+            }
+            cum += dw;
+        }
+
+        double lastHalf = weights[centroids - 1] / 2.0;
+        double last = means[centroids - 1];
+        return Math.min(max, last + (max - last) * (index - cum) / lastHalf);
+    }
+
+    /**
+     * Returns the value with the given 1-based index in sorted order,
+     * clamped to the actual samples.
+     */
+    private double valueAt(long index) {
+        long idx = Math.min(Math.max(index, 1), n);
+        long cum = 0;
+        for (int i = 0; i < centroids; i++) {
+            cum += weights[i];
+            if (cum >= idx) {
+                return means[i];
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public int[] getHistogram(double[] levels) {
+        if (levels.length < 2) {
+            throw new IllegalArgumentException("Expected more than two levels");
+        }
+
+        compress();
+
+        int[] result = new int[levels.length - 1];
+
+        int c = 0;
+        values: for (int i = 0; i < centroids; i++) {
+            double v = means[i];
+            while (levels[c] > v || v >= levels[c + 1]) {
+                c++;
+                if (c > levels.length - 2) break values;
+            }
+            result[c] += weights[i];
+        }
+
+        return result;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Double, Long>> getRawData() {
+        compress();
+        final double[] ms = Arrays.copyOf(means, centroids);
+        final long[] ws = Arrays.copyOf(weights, centroids);
+        return new Iterator<Map.Entry<Double, Long>>() {
+            private int idx;
+
+            @Override
+            public boolean hasNext() {
+                return idx < ms.length;
+            }
+
+            @Override
+            public Map.Entry<Double, Long> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<Double, Long> e = new AbstractMap.SimpleImmutableEntry<>(ms[idx], ws[idx]);
+                idx++;
+                return e;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Element cannot be removed.");
+            }
+        };
+    }
+
+}
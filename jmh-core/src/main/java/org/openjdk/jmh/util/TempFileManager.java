@@ -31,6 +31,10 @@ import java.lang.ref.WeakReference;
 import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * Tracks the temporary files, and deletes them once they are not referenced.
+ * Thread-safe: parallel forks create their temporary files concurrently.
+ */
 public class TempFileManager {
 
     private final ReferenceQueue<TempFile> rq;
@@ -41,7 +45,7 @@ public class TempFileManager {
         refs = new HashSet<>();
     }
 
-    public TempFile create(String suffix) throws IOException {
+    public synchronized TempFile create(String suffix) throws IOException {
         purge();
         File file = File.createTempFile("jmh", suffix);
         file.deleteOnExit();
@@ -50,7 +54,7 @@ public class TempFileManager {
         return tf;
     }
 
-    public void purge() {
+    public synchronized void purge() {
         TempFileReference ref;
         while ((ref = (TempFileReference) rq.poll()) != null) {
             if (ref.file != null) {
@@ -367,6 +367,10 @@ public class Utils {
         return System.getProperty("os.name").contains("indows");
     }
 
+    public static boolean isLinux() {
+        return System.getProperty("os.name").contains("Linux");
+    }
+
     public static String getCurrentJvm() {
         return System.getProperty("java.home") +
                 File.separator +
@@ -559,4 +563,63 @@ public class Utils {
         };
     }
 
+    /**
+     * Writes unsigned variable-length long: 7 bits per byte, low bits first,
+     * high bit set on all bytes except the last one.
+     *
+     * @param out output
+     * @param v value, treated as unsigned
+     * @throws IOException if output fails
+     */
+    public static void writeVarLong(DataOutput out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    /**
+     * Reads unsigned variable-length long written by {@link #writeVarLong(DataOutput, long)}.
+     *
+     * @param in input
+     * @return value
+     * @throws IOException if input fails, or the value is malformed
+     */
+    public static long readVarLong(DataInput in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        throw new IOException("Malformed variable-length long");
+    }
+
+    /**
+     * Writes signed variable-length long, zigzag-encoded to keep small
+     * negative values short.
+     *
+     * @param out output
+     * @param v value
+     * @throws IOException if output fails
+     */
+    public static void writeVarSignedLong(DataOutput out, long v) throws IOException {
+        writeVarLong(out, (v << 1) ^ (v >> 63));
+    }
+
+    /**
+     * Reads signed variable-length long written by {@link #writeVarSignedLong(DataOutput, long)}.
+     *
+     * @param in input
+     * @return value
+     * @throws IOException if input fails, or the value is malformed
+     */
+    public static long readVarSignedLong(DataInput in) throws IOException {
+        long v = readVarLong(in);
+        return (v >>> 1) ^ -(v & 1);
+    }
+
 }
@@ -178,5 +178,40 @@ public class ResultAggregationTest {
         Assert.assertEquals(2, rr.getBenchmarkResults().size());
     }
 
+    @Test
+    public void testThroughputFolding() {
+        IterationResult ir = new IterationResult(null, null, null);
+        for (int c = 0; c < 5_000; c++) {
+            ir.addResult(new ThroughputResult(ResultRole.PRIMARY, "", 10, 1, TimeUnit.NANOSECONDS));
+            ir.addResult(new ThroughputResult(ResultRole.SECONDARY, "sec", 5, 1, TimeUnit.NANOSECONDS));
+        }
+        Assert.assertEquals(50_000.0, ir.getPrimaryResult().getScore());
+        Assert.assertEquals(25_000.0, ir.getSecondaryResults().get("sec").getScore());
+        Assert.assertTrue(ir.getRawPrimaryResults().size() < 1024);
+        Assert.assertTrue(ir.getRawSecondaryResults().get("sec").size() < 1024);
+    }
+
+    @Test
+    public void testSampleTimeFolding() {
+        IterationResult ir = new IterationResult(null, null, null);
+        for (int c = 0; c < 5_000; c++) {
+            SampleBuffer sb = new SampleBuffer();
+            sb.add(10_000);
+            ir.addResult(new SampleTimeResult(ResultRole.PRIMARY, "", sb, TimeUnit.NANOSECONDS));
+        }
+        Assert.assertEquals(10_000.0, ir.getPrimaryResult().getScore(), 100.0);
+        Assert.assertEquals(5_000, ir.getPrimaryResult().getSampleCount());
+        Assert.assertTrue(ir.getRawPrimaryResults().size() < 1024);
+    }
+
+    @Test
+    public void testAverageTimeNoFolding() {
+        IterationResult ir = new IterationResult(null, null, null);
+        for (int c = 0; c < 5_000; c++) {
+            ir.addResult(new AverageTimeResult(ResultRole.PRIMARY, "", 1, 10_000, TimeUnit.NANOSECONDS));
+        }
+        Assert.assertEquals(10_000.0, ir.getPrimaryResult().getScore());
+        Assert.assertEquals(5_000, ir.getRawPrimaryResults().size());
+    }
 
 }
@@ -30,6 +30,7 @@ import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.infra.IterationParams;
 import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.Defaults;
 import org.openjdk.jmh.runner.options.TimeValue;
 import org.openjdk.jmh.util.Utils;
 import org.openjdk.jmh.util.Version;
@@ -58,7 +59,10 @@ public class TestAggregateResult {
                         Mode.Throughput, null, TimeUnit.SECONDS, 1,
                         Utils.getCurrentJvm(), Collections.<String>emptyList(),
                         System.getProperty("java.version"), System.getProperty("java.vm.name"), System.getProperty("java.vm.version"), Version.getPlainVersion(),
-                        TimeValue.days(1)),
+                        TimeValue.days(1), BenchmarkParams.DEFAULT_EXECUTOR,
+                        Defaults.ARRIVAL_RATE, Defaults.ARRIVAL_PROCESS,
+                        TimeValue.NONE, TimeValue.NONE, false,
+                        false, 1),
                 new IterationParams(IterationType.MEASUREMENT, 1, TimeValue.days(1), 1),
                 null
         );
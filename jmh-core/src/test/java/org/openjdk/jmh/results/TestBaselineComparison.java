@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Mode;
+
+import java.util.Collections;
+import java.util.Random;
+
+public class TestBaselineComparison {
+
+    private static ResultRecord record(Mode mode, double mean, double noise, int n, long seed) {
+        Random r = new Random(seed);
+        double[] data = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            data[i] = mean + noise * r.nextGaussian();
+            sum += data[i];
+        }
+        return new ResultRecord("bench", mode, Collections.singletonMap("p", "1"),
+                mode == Mode.Throughput ? "ops/s" : "s/op", sum / n, data);
+    }
+
+    @Test
+    public void testSame() {
+        BaselineComparison c = BaselineComparison.compare(
+                record(Mode.Throughput, 100, 5, 20, 1),
+                record(Mode.Throughput, 100, 5, 20, 2), 0.05);
+        Assert.assertEquals(BaselineComparison.Verdict.SAME, c.getVerdict());
+        Assert.assertTrue(c.getSpeedupLow() < 1 && c.getSpeedupHigh() > 1);
+    }
+
+    @Test
+    public void testFasterThroughput() {
+        BaselineComparison c = BaselineComparison.compare(
+                record(Mode.Throughput, 100, 2, 20, 1),
+                record(Mode.Throughput, 150, 2, 20, 2), 0.05);
+        Assert.assertEquals(BaselineComparison.Verdict.FASTER, c.getVerdict());
+        Assert.assertEquals(1.5, c.getSpeedup(), 0.05);
+        Assert.assertTrue(c.getPValue() < BaselineComparison.ALPHA);
+    }
+
+    @Test
+    public void testRegressionAverageTime() {
+        // time per op doubled
+        BaselineComparison c = BaselineComparison.compare(
+                record(Mode.AverageTime, 100, 2, 20, 1),
+                record(Mode.AverageTime, 200, 2, 20, 2), 0.05);
+        Assert.assertEquals(BaselineComparison.Verdict.REGRESSION, c.getVerdict());
+        Assert.assertEquals(0.5, c.getSpeedup(), 0.05);
+    }
+
+    @Test
+    public void testSlowerWithinThreshold() {
+        BaselineComparison c = BaselineComparison.compare(
+                record(Mode.Throughput, 100, 0.5, 30, 1),
+                record(Mode.Throughput, 97, 0.5, 30, 2), 0.05);
+        Assert.assertEquals(BaselineComparison.Verdict.SLOWER, c.getVerdict());
+    }
+
+    @Test
+    public void testUnknown() {
+        BaselineComparison c = BaselineComparison.compare(
+                record(Mode.Throughput, 100, 2, 1, 1),
+                record(Mode.Throughput, 50, 2, 20, 2), 0.05);
+        Assert.assertEquals(BaselineComparison.Verdict.UNKNOWN, c.getVerdict());
+        Assert.assertTrue(Double.isNaN(c.getPValue()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDifferentUnits() {
+        BaselineComparison.compare(
+                record(Mode.Throughput, 100, 2, 20, 1),
+                new ResultRecord("bench", Mode.Throughput, Collections.singletonMap("p", "1"), "ops/ms", 1, new double[]{1, 2}), 0.05);
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.util.ListStatistics;
+import org.openjdk.jmh.util.SampleBuffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class TestResultCodec {
+
+    private static Result roundTrip(Result r) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new ResultCodec().writeResult(new DataOutputStream(bos), r);
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        Result res = new ResultCodec().readResult(dis);
+        Assert.assertEquals(0, dis.available());
+        return res;
+    }
+
+    private static void assertSame(Result expected, Result actual) {
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        Assert.assertEquals(expected.getRole(), actual.getRole());
+        Assert.assertEquals(expected.getLabel(), actual.getLabel());
+        Assert.assertEquals(expected.getScoreUnit(), actual.getScoreUnit());
+        Assert.assertEquals(expected.getStatistics().getN(), actual.getStatistics().getN());
+        Assert.assertEquals(expected.getScore(), actual.getScore(), 0);
+        Assert.assertEquals(expected.getScoreError(), actual.getScoreError(), 0);
+        Assert.assertEquals(expected.extendedInfo(), actual.extendedInfo());
+    }
+
+    @Test
+    public void testThroughput() throws IOException {
+        Result r = new ThroughputResult(ResultRole.PRIMARY, "test", 1000, 1000 * 1000, TimeUnit.MILLISECONDS);
+        assertSame(r, roundTrip(r));
+    }
+
+    @Test
+    public void testAverageTime() throws IOException {
+        Result r = new AverageTimeResult(ResultRole.PRIMARY, "test", 1000, 1000 * 1000, TimeUnit.NANOSECONDS);
+        assertSame(r, roundTrip(r));
+    }
+
+    @Test
+    public void testSingleShot() throws IOException {
+        Result r = new SingleShotResult(ResultRole.PRIMARY, "test", 1000 * 1000, TimeUnit.MICROSECONDS);
+        assertSame(r, roundTrip(r));
+    }
+
+    @Test
+    public void testScalar() throws IOException {
+        Result r = new ScalarResult("test", 42, "units", AggregationPolicy.MAX);
+        assertSame(r, roundTrip(r));
+        r = new ScalarDerivativeResult("test", 42, "units", AggregationPolicy.MIN);
+        assertSame(r, roundTrip(r));
+    }
+
+    @Test
+    public void testListStatistics() throws IOException {
+        Result r = new ScalarResult("test", new ListStatistics(new double[]{1, 2, 3, 5, 8}), "units", AggregationPolicy.AVG);
+        assertSame(r, roundTrip(r));
+    }
+
+    @Test
+    public void testSampleTime() throws IOException {
+        SampleBuffer buffer = new SampleBuffer();
+        for (int i = 0; i < 1000; i++) {
+            buffer.add(i * i);
+        }
+        buffer.add(Long.MAX_VALUE);
+
+        SampleTimeResult r = new SampleTimeResult(ResultRole.PRIMARY, "test", buffer, TimeUnit.MICROSECONDS);
+        SampleTimeResult copy = (SampleTimeResult) roundTrip(r);
+        assertSame(r, copy);
+        for (double p : new double[]{0, 50, 90, 99, 99.9, 100}) {
+            Assert.assertEquals(r.getStatistics().getPercentile(p), copy.getStatistics().getPercentile(p), 0);
+        }
+    }
+
+    @Test
+    public void testText() throws IOException {
+        Result r = new TextResult("some\nmultiline\noutput", "test");
+        assertSame(r, roundTrip(r));
+    }
+
+    @Test
+    public void testSerializedFallback() throws IOException {
+        Result r = new CustomResult("test", 42);
+        assertSame(r, roundTrip(r));
+    }
+
+    @Test
+    public void testStringInterning() throws IOException {
+        ResultCodec writer = new ResultCodec();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+
+        Result r = new ThroughputResult(ResultRole.PRIMARY, "some-long-label", 1000, 1000 * 1000, TimeUnit.MILLISECONDS);
+        writer.writeResult(dos, r);
+        int first = bos.size();
+        writer.writeResult(dos, r);
+        int second = bos.size() - first;
+        Assert.assertTrue("Second write should be shorter: " + first + " vs " + second, second < first);
+
+        ResultCodec reader = new ResultCodec();
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        assertSame(r, reader.readResult(dis));
+        assertSame(r, reader.readResult(dis));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformed() throws IOException {
+        new ResultCodec().readResult(new DataInputStream(new ByteArrayInputStream(new byte[]{42})));
+    }
+
+    static class CustomResult extends ScalarResult {
+        private static final long serialVersionUID = 1L;
+
+        CustomResult(String label, double n) {
+            super(label, n, "custom", AggregationPolicy.AVG);
+        }
+    }
+
+}
@@ -25,11 +25,16 @@
 package org.openjdk.jmh.results;
 
 import org.junit.Test;
+import org.openjdk.jmh.util.ListStatistics;
+import org.openjdk.jmh.util.TDigestStatistics;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
 
 public class TestThroughputResult {
 
@@ -136,4 +141,33 @@ public class TestThroughputResult {
         assertEquals("ops/ms", result.getScoreUnit());
         assertEquals(200_000_000.0, result.getScore());
     }
+
+    @Test
+    public void testIterationAggregatorSketch() {
+        List<ThroughputResult> rs = new ArrayList<>();
+        double sum = 0;
+        for (int i = 1; i <= AggregatorUtils.SKETCH_THRESHOLD + 1; i++) {
+            rs.add(new ThroughputResult(ResultRole.PRIMARY, "test1", i, 1_000_000L, TimeUnit.MILLISECONDS));
+            sum += i;
+        }
+        Result result = rs.get(0).getIterationAggregator().aggregate(rs);
+
+        assertTrue(result.getStatistics() instanceof TDigestStatistics);
+        assertEquals(rs.size(), result.getSampleCount());
+        assertEquals(sum / rs.size(), result.getScore(), 1e-9);
+        assertEquals(1.0, result.getStatistics().getMin(), 0.0);
+        assertEquals(rs.size(), result.getStatistics().getMax(), 0.0);
+    }
+
+    @Test
+    public void testIterationAggregatorNoSketch() {
+        List<ThroughputResult> rs = new ArrayList<>();
+        for (int i = 1; i <= AggregatorUtils.SKETCH_THRESHOLD; i++) {
+            rs.add(new ThroughputResult(ResultRole.PRIMARY, "test1", i, 1_000_000L, TimeUnit.MILLISECONDS));
+        }
+        Result result = rs.get(0).getIterationAggregator().aggregate(rs);
+
+        assertTrue(result.getStatistics() instanceof ListStatistics);
+    }
+
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestTimeSeriesResult {
+
+    private static final long INTERVAL = 100_000_000L;
+
+    private static TimeSeriesResult series(AggregationPolicy policy, double... values) {
+        return new TimeSeriesResult(ResultRole.SECONDARY, TimeSeriesResult.LABEL, values, INTERVAL, "ops/ms", policy);
+    }
+
+    @Test
+    public void testScore() {
+        TimeSeriesResult r = series(AggregationPolicy.SUM, 1, 2, Double.NaN, 3);
+        assertEquals(2.0, r.getScore(), 0);
+        assertEquals(3, r.getSampleCount());
+    }
+
+    @Test
+    public void testThreadAggregatorSum() {
+        TimeSeriesResult r1 = series(AggregationPolicy.SUM, 1, 2, 3);
+        TimeSeriesResult r2 = series(AggregationPolicy.SUM, 10, Double.NaN, 30, 40);
+        TimeSeriesResult result = r1.getThreadAggregator().aggregate(Arrays.asList(r1, r2));
+
+        assertArrayEquals(new double[]{11, 2, 33, 40}, result.getValues(), 0);
+        assertEquals("ops/ms", result.getScoreUnit());
+    }
+
+    @Test
+    public void testThreadAggregatorAvg() {
+        TimeSeriesResult r1 = series(AggregationPolicy.AVG, 1, 2, Double.NaN);
+        TimeSeriesResult r2 = series(AggregationPolicy.AVG, 3, Double.NaN, Double.NaN);
+        TimeSeriesResult result = r1.getThreadAggregator().aggregate(Arrays.asList(r1, r2));
+
+        assertArrayEquals(new double[]{2, 2, Double.NaN}, result.getValues(), 0);
+    }
+
+    @Test
+    public void testIterationAggregator() {
+        TimeSeriesResult r1 = series(AggregationPolicy.SUM, 1, 2);
+        TimeSeriesResult r2 = series(AggregationPolicy.SUM, 3, 4);
+        TimeSeriesResult r3 = series(AggregationPolicy.SUM, 5, 6);
+        TimeSeriesResult i12 = r1.getIterationAggregator().aggregate(Arrays.asList(r1, r2));
+        TimeSeriesResult all = r1.getIterationAggregator().aggregate(Arrays.asList(i12, r3));
+
+        assertArrayEquals(new double[]{2, 3}, i12.getValues(), 0);
+
+        // all iterations are kept for the report
+        String info = all.extendedInfo();
+        assertTrue(info, info.contains("  1: "));
+        assertTrue(info, info.contains("  3: "));
+    }
+
+    @Test
+    public void testSparkline() {
+        assertEquals("▁▅█ ", TimeSeriesResult.sparkline(new double[]{0, 5, 10, Double.NaN}, 0, 10));
+        assertEquals("██", TimeSeriesResult.sparkline(new double[]{1, 1}, 1, 1));
+    }
+
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results.format;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.*;
+import org.openjdk.jmh.runner.Defaults;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.WorkloadParams;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.util.ConfidenceMethod;
+import org.openjdk.jmh.util.FileUtils;
+import org.openjdk.jmh.util.SampleBuffer;
+import org.openjdk.jmh.util.TDigestStatistics;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+public class JSONResultReaderTest {
+
+    private static RunResult stub(Mode mode, String paramValue) {
+        return stub(mode, paramValue, 3);
+    }
+
+    private static RunResult stub(Mode mode, String paramValue, int iterations) {
+        WorkloadParams ps = new WorkloadParams();
+        ps.put("param", paramValue, 0);
+        BenchmarkParams params = new BenchmarkParams(
+                "benchmark", "generated", false,
+                1, new int[]{1}, Collections.<String>emptyList(),
+                2, 0,
+                new IterationParams(IterationType.WARMUP, 1, TimeValue.seconds(1), 1),
+                new IterationParams(IterationType.MEASUREMENT, 3, TimeValue.seconds(1), 1),
+                mode, ps, TimeUnit.MILLISECONDS, 1,
+                "jvm", Collections.<String>emptyList(),
+                "1.8", "vm", "4711", "1.18",
+                TimeValue.days(1), BenchmarkParams.DEFAULT_EXECUTOR,
+                Defaults.ARRIVAL_RATE, Defaults.ARRIVAL_PROCESS,
+                TimeValue.NONE, TimeValue.NONE, false,
+                false, 1);
+
+        Random r = new Random(42);
+        Collection<BenchmarkResult> brs = new ArrayList<>();
+        for (int f = 0; f < 2; f++) {
+            Collection<IterationResult> irs = new ArrayList<>();
+            for (int i = 0; i < iterations; i++) {
+                IterationResult ir = new IterationResult(params, params.getMeasurement(), null);
+                if (mode == Mode.SampleTime) {
+                    SampleBuffer buf = new SampleBuffer();
+                    for (int s = 0; s < 100; s++) {
+                        buf.add(1000 + r.nextInt(1000));
+                    }
+                    ir.addResult(new SampleTimeResult(ResultRole.PRIMARY, "test", buf, TimeUnit.MILLISECONDS));
+                } else {
+                    ir.addResult(new ThroughputResult(ResultRole.PRIMARY, "test", 1000 + r.nextInt(1000), 1000 * 1000, TimeUnit.MILLISECONDS));
+                }
+                irs.add(ir);
+            }
+            brs.add(new BenchmarkResult(params, irs));
+        }
+        return new RunResult(params, brs);
+    }
+
+    private static List<ResultRecord> roundTrip(Collection<RunResult> results) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(bos, true, "UTF-8");
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, ps).writeOut(results);
+        ps.close();
+        return JSONResultReader.read(new StringReader(bos.toString("UTF-8")));
+    }
+
+    @Test
+    public void testThroughput() throws IOException {
+        RunResult rr = stub(Mode.Throughput, "[\"tricky\", {value}]");
+        List<ResultRecord> records = roundTrip(Collections.singleton(rr));
+        Assert.assertEquals(1, records.size());
+
+        ResultRecord expected = ResultRecord.of(rr);
+        ResultRecord actual = records.get(0);
+        Assert.assertEquals(expected.getKey(), actual.getKey());
+        Assert.assertEquals(expected.getScoreUnit(), actual.getScoreUnit());
+        Assert.assertEquals(expected.getScore(), actual.getScore(), 1e-9);
+        Assert.assertEquals(6, actual.getRawData().length);
+        Assert.assertArrayEquals(expected.getRawData(), actual.getRawData(), 1e-9);
+    }
+
+    @Test
+    public void testSampleTime() throws IOException {
+        RunResult rr = stub(Mode.SampleTime, "1");
+        List<ResultRecord> records = roundTrip(Collections.singleton(rr));
+        Assert.assertEquals(1, records.size());
+
+        ResultRecord expected = ResultRecord.of(rr);
+        ResultRecord actual = records.get(0);
+        Assert.assertEquals(Mode.SampleTime, actual.getMode());
+        Assert.assertArrayEquals(expected.getRawData(), actual.getRawData(), 1e-9);
+    }
+
+    @Test
+    public void testSketch() throws IOException {
+        // past the default sketch threshold, aggregated scores are emitted as the sketch
+        RunResult rr = stub(Mode.Throughput, "1", 10_000);
+        Assert.assertTrue(rr.getPrimaryResult().getStatistics() instanceof TDigestStatistics);
+
+        List<ResultRecord> records = roundTrip(Collections.singleton(rr));
+        Assert.assertEquals(1, records.size());
+
+        ResultRecord expected = ResultRecord.of(rr);
+        ResultRecord actual = records.get(0);
+        Assert.assertEquals(expected.getScore(), actual.getScore(), 1e-9);
+        Assert.assertEquals(20_000, actual.getRawData().length);
+
+        double sum = 0;
+        for (double d : actual.getRawData()) {
+            sum += d;
+        }
+        Assert.assertEquals(expected.getScore(), sum / actual.getRawData().length, 1e-6);
+    }
+
+    @Test
+    public void testGolden() throws IOException {
+        try (Reader r = new InputStreamReader(JSONResultReaderTest.class.getResourceAsStream("/org/openjdk/jmh/results/format/output-golden.json"), "UTF-8")) {
+            List<ResultRecord> records = JSONResultReader.read(r);
+            Assert.assertFalse(records.isEmpty());
+            for (ResultRecord rec : records) {
+                Assert.assertEquals(Mode.Throughput, rec.getMode());
+                Assert.assertEquals("'value3'", rec.getParams().get("param3"));
+                Assert.assertEquals("\"value4\"", rec.getParams().get("param4"));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testMalformed() throws IOException {
+        JSONResultReader.read(new StringReader("[{\"benchmark\" : \"b\", "));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotResults() throws IOException {
+        JSONResultReader.read(new StringReader("{\"benchmark\" : \"b\"}"));
+    }
+
+    @Test
+    public void testNext() throws IOException {
+        List<RunResult> rrs = Arrays.asList(stub(Mode.Throughput, "1"), stub(Mode.Throughput, "2"));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(bos, true, "UTF-8");
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, ps).writeOut(rrs);
+        ps.close();
+
+        try (JSONResultReader reader = new JSONResultReader(new StringReader(bos.toString("UTF-8")))) {
+            Assert.assertEquals("1", reader.next().getParams().get("param"));
+            Assert.assertEquals("2", reader.next().getParams().get("param"));
+            Assert.assertNull(reader.next());
+            Assert.assertNull(reader.next());
+        }
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        List<RunResult> rrs = Arrays.asList(stub(Mode.Throughput, "1"), stub(Mode.SampleTime, "2"));
+
+        File streamed = FileUtils.tempFile("streamed.json");
+        StreamingResultFormat srf = ResultFormatFactory.getStreamingInstance(ResultFormatType.JSON,
+                streamed.getAbsolutePath(), ConfidenceMethod.STUDENT);
+        for (RunResult rr : rrs) {
+            srf.writeOut(rr);
+        }
+        srf.close();
+
+        // streamed document is the same as written at once
+        File whole = FileUtils.tempFile("whole.json");
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, whole.getAbsolutePath()).writeOut(rrs);
+        Assert.assertEquals(FileUtils.readAllLines(whole), FileUtils.readAllLines(streamed));
+    }
+
+    @Test
+    public void testStreamingEmpty() throws IOException {
+        File file = FileUtils.tempFile("empty.json");
+        ResultFormatFactory.getStreamingInstance(ResultFormatType.JSON,
+                file.getAbsolutePath(), ConfidenceMethod.STUDENT).close();
+        Assert.assertTrue(JSONResultReader.read(file).isEmpty());
+    }
+
+    @Test
+    public void testStreamingGzip() throws IOException {
+        File file = FileUtils.tempFile("results.json.gz");
+        StreamingResultFormat srf = ResultFormatFactory.getStreamingInstance(ResultFormatType.JSON,
+                file.getAbsolutePath(), ConfidenceMethod.STUDENT);
+        srf.writeOut(stub(Mode.Throughput, "1"));
+        srf.writeOut(stub(Mode.Throughput, "2"));
+        srf.close();
+
+        try (InputStream is = new FileInputStream(file)) {
+            Assert.assertEquals(0x1f, is.read());
+            Assert.assertEquals(0x8b, is.read());
+        }
+
+        List<ResultRecord> records = JSONResultReader.read(file);
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals("2", records.get(1).getParams().get("param"));
+    }
+
+    @Test
+    public void testStreamingInProgress() throws IOException {
+        File file = FileUtils.tempFile("progress.json.gz");
+        StreamingResultFormat srf = ResultFormatFactory.getStreamingInstance(ResultFormatType.JSON,
+                file.getAbsolutePath(), ConfidenceMethod.STUDENT);
+        srf.writeOut(stub(Mode.Throughput, "1"));
+
+        // completed results are readable before the document is finished
+        try (JSONResultReader reader = JSONResultReader.open(file)) {
+            Assert.assertEquals("1", reader.next().getParams().get("param"));
+            try {
+                reader.next();
+                Assert.fail();
+            } catch (IOException e) {
+                // expected, the document is not finished yet
+            }
+        } finally {
+            srf.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStreamingUnsupported() throws IOException {
+        ResultFormatFactory.getStreamingInstance(ResultFormatType.CSV,
+                FileUtils.tempFile("results.csv").getAbsolutePath(), ConfidenceMethod.STUDENT);
+    }
+
+}
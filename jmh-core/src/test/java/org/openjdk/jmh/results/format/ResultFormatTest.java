@@ -30,6 +30,7 @@ import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.infra.IterationParams;
 import org.openjdk.jmh.results.*;
+import org.openjdk.jmh.runner.Defaults;
 import org.openjdk.jmh.runner.IterationType;
 import org.openjdk.jmh.runner.WorkloadParams;
 import org.openjdk.jmh.runner.options.TimeValue;
@@ -91,7 +92,10 @@ public class ResultFormatTest {
                     JVM_DUMMY,
                     Collections.<String>emptyList(),
                     JDK_VERSION_DUMMY, VM_NAME_DUMMY, VM_VERSION_DUMMY, JMH_VERSION_DUMMY,
-                    TimeValue.days(1));
+                    TimeValue.days(1), BenchmarkParams.DEFAULT_EXECUTOR,
+                    Defaults.ARRIVAL_RATE, Defaults.ARRIVAL_PROCESS,
+                    TimeValue.NONE, TimeValue.NONE, false,
+                    false, 1);
 
             Collection<BenchmarkResult> benchmarkResults = new ArrayList<>();
             for (int f = 0; f < r.nextInt(10); f++) {
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results.store;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Mode;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class TestResultStore {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("jmh-store").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        delete(dir);
+    }
+
+    private static void delete(File f) {
+        File[] fs = f.listFiles();
+        if (fs != null) {
+            for (File c : fs) {
+                delete(c);
+            }
+        }
+        f.delete();
+    }
+
+    private static SortedMap<String, String> params(String... kvs) {
+        SortedMap<String, String> map = new TreeMap<>();
+        for (int i = 0; i < kvs.length; i += 2) {
+            map.put(kvs[i], kvs[i + 1]);
+        }
+        return map;
+    }
+
+    private static StoredResult entry(String bench, SortedMap<String, String> params, double score, String rev) {
+        return new StoredResult(0, 1000L, bench, Mode.Throughput, params, "jvm", rev, "host",
+                score, 1.0, "ops/s", 10);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        try (ResultStore store = ResultStore.open(dir)) {
+            Assert.assertEquals(0, store.size());
+            Assert.assertEquals(1, store.appendEntries(Arrays.asList(
+                    entry("bench.A", params("size", "1"), 10, "r1"),
+                    entry("bench.A", params("size", "2"), 20, "r1"),
+                    entry("bench.B", params(), 30, "r1"))));
+            Assert.assertEquals(2, store.appendEntries(Arrays.asList(
+                    entry("bench.A", params("size", "1"), 11, "r2"),
+                    entry("bench.B", params(), 31, "r2"))));
+            Assert.assertEquals(5, store.size());
+        }
+
+        try (ResultStore store = ResultStore.open(dir)) {
+            Assert.assertEquals(5, store.size());
+            Assert.assertEquals(2, store.getRunCount());
+            Assert.assertEquals(Arrays.asList("bench.A", "bench.B"), Arrays.asList(store.getBenchmarks().toArray()));
+
+            List<StoredResult> h = store.history("bench.A", Mode.Throughput, params("size", "1"));
+            Assert.assertEquals(2, h.size());
+            Assert.assertEquals(1, h.get(0).getRun());
+            Assert.assertEquals(10, h.get(0).getScore(), 0);
+            Assert.assertEquals("r1", h.get(0).getRevision());
+            Assert.assertEquals(2, h.get(1).getRun());
+            Assert.assertEquals(11, h.get(1).getScore(), 0);
+            Assert.assertEquals("r2", h.get(1).getRevision());
+            Assert.assertEquals(params("size", "1"), h.get(1).getParams());
+            Assert.assertEquals("ops/s", h.get(1).getScoreUnit());
+            Assert.assertEquals(10, h.get(1).getSampleCount());
+
+            Assert.assertTrue(store.history("bench.A", Mode.AverageTime, params("size", "1")).isEmpty());
+            Assert.assertTrue(store.history("bench.C", Mode.Throughput, params()).isEmpty());
+        }
+    }
+
+    @Test
+    public void testFind() throws IOException {
+        try (ResultStore store = ResultStore.open(dir)) {
+            store.appendEntries(Arrays.asList(
+                    entry("bench.A", params("size", "1"), 10, "r1"),
+                    entry("bench.A", params("size", "2"), 20, "r1"),
+                    entry("bench.B", params(), 30, "r1")));
+
+            Map<String, Collection<String>> noFilter = Collections.emptyMap();
+            Assert.assertEquals(3, store.find(Collections.<String>emptyList(), Collections.<String>emptyList(), noFilter).size());
+            Assert.assertEquals(2, store.find(Collections.singletonList("A"), Collections.<String>emptyList(), noFilter).size());
+            Assert.assertEquals(1, store.find(Collections.<String>emptyList(), Collections.singletonList("A"), noFilter).size());
+
+            Map<String, Collection<String>> filter = new HashMap<>();
+            filter.put("size", Collections.singletonList("2"));
+            List<List<StoredResult>> found = store.find(Collections.<String>emptyList(), Collections.<String>emptyList(), filter);
+            Assert.assertEquals(2, found.size());
+            Assert.assertEquals(params("size", "2"), found.get(0).get(0).getParams());
+            Assert.assertEquals("bench.B", found.get(1).get(0).getBenchmark());
+        }
+    }
+
+    @Test
+    public void testConcurrentStores() throws IOException {
+        try (ResultStore s1 = ResultStore.open(dir);
+             ResultStore s2 = ResultStore.open(dir)) {
+            Assert.assertEquals(1, s1.appendEntries(Collections.singletonList(entry("bench.A", params(), 1, "r1"))));
+            Assert.assertEquals(2, s2.appendEntries(Collections.singletonList(entry("bench.A", params(), 2, "r2"))));
+            Assert.assertEquals(3, s1.appendEntries(Collections.singletonList(entry("bench.B", params(), 3, "r3"))));
+            Assert.assertEquals(3, s1.history("bench.A", Mode.Throughput, params()).size() +
+                    s1.history("bench.B", Mode.Throughput, params()).size());
+        }
+    }
+
+    @Test
+    public void testTornTail() throws IOException {
+        try (ResultStore store = ResultStore.open(dir)) {
+            store.appendEntries(Collections.singletonList(entry("bench.A", params(), 1, "r1")));
+        }
+
+        // simulate the crash in the middle of the append
+        try (RandomAccessFile f = new RandomAccessFile(new File(dir, "score.col"), "rw")) {
+            f.seek(f.length());
+            f.write(new byte[] {1, 2, 3});
+        }
+        try (RandomAccessFile f = new RandomAccessFile(new File(dir, "strings.dat"), "rw")) {
+            f.seek(f.length());
+            f.writeInt(100);
+            f.write(new byte[] {'a', 'b'});
+        }
+        try (RandomAccessFile f = new RandomAccessFile(new File(dir, "time.col"), "rw")) {
+            f.seek(f.length());
+            f.writeLong(42);
+            f.writeLong(43);
+        }
+
+        try (ResultStore store = ResultStore.open(dir)) {
+            Assert.assertEquals(1, store.size());
+            Assert.assertEquals(2, store.appendEntries(Collections.singletonList(entry("bench.A", params(), 2, "r2"))));
+        }
+
+        try (ResultStore store = ResultStore.open(dir)) {
+            Assert.assertEquals(2, store.size());
+            List<StoredResult> h = store.history("bench.A", Mode.Throughput, params());
+            Assert.assertEquals(1, h.get(0).getScore(), 0);
+            Assert.assertEquals(2, h.get(1).getScore(), 0);
+            Assert.assertEquals("r2", h.get(1).getRevision());
+            Assert.assertEquals(1000L, h.get(1).getTime());
+        }
+
+        // stale tail is overwritten in place, and ignored past the last record
+        Assert.assertEquals(3 * 8, new File(dir, "time.col").length());
+    }
+
+    @Test
+    public void testStaleStrings() throws IOException {
+        try (ResultStore store = ResultStore.open(dir)) {
+            store.appendEntries(Collections.singletonList(entry("bench.A", params(), 1, "r1")));
+        }
+
+        // complete string from the torn append, not referred to by any record
+        try (RandomAccessFile f = new RandomAccessFile(new File(dir, "strings.dat"), "rw")) {
+            f.seek(f.length());
+            f.writeInt(5);
+            f.write("stale".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try (ResultStore first = ResultStore.open(dir);
+             ResultStore second = ResultStore.open(dir)) {
+            second.appendEntries(Collections.singletonList(entry("bench.A", params(), 2, "r2")));
+            first.appendEntries(Collections.singletonList(entry("bench.A", params(), 3, "r3")));
+        }
+
+        try (ResultStore store = ResultStore.open(dir)) {
+            List<StoredResult> h = store.history("bench.A", Mode.Throughput, params());
+            Assert.assertEquals(3, h.size());
+            Assert.assertEquals("r1", h.get(0).getRevision());
+            Assert.assertEquals("r2", h.get(1).getRevision());
+            Assert.assertEquals("r3", h.get(2).getRevision());
+        }
+    }
+
+    @Test
+    public void testVersion() throws IOException {
+        ResultStore.open(dir).close();
+        Files.write(new File(dir, "VERSION").toPath(), "42\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            ResultStore.open(dir);
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Unsupported result store version 42"));
+        }
+    }
+
+    @Test
+    public void testParamsEncoding() {
+        SortedMap<String, String> ps = params("a", "x,y=z", "b\\c", "", "d", "1");
+        Assert.assertEquals(ps, ResultStore.decodeParams(ResultStore.encodeParams(ps)));
+        Assert.assertEquals(params(), ResultStore.decodeParams(ResultStore.encodeParams(params())));
+        Assert.assertEquals(params("", ""), ResultStore.decodeParams(ResultStore.encodeParams(params("", ""))));
+    }
+
+    private static File gitRepo(File root, String head) throws IOException {
+        File git = new File(root, ".git");
+        Assert.assertTrue(new File(git, "refs/heads").mkdirs());
+        Files.write(new File(git, "HEAD").toPath(), (head + "\n").getBytes(StandardCharsets.UTF_8));
+        return git;
+    }
+
+    @Test
+    public void testRevisionBranch() throws IOException {
+        File git = gitRepo(dir, "ref: refs/heads/master");
+        Files.write(new File(git, "refs/heads/master").toPath(), "abc123\n".getBytes(StandardCharsets.UTF_8));
+
+        File sub = new File(dir, "a/b");
+        Assert.assertTrue(sub.mkdirs());
+        Assert.assertEquals("abc123", Provenance.revision(sub));
+    }
+
+    @Test
+    public void testRevisionPacked() throws IOException {
+        File git = gitRepo(dir, "ref: refs/heads/master");
+        Files.write(new File(git, "packed-refs").toPath(),
+                ("# pack-refs with: peeled fully-peeled sorted\n" +
+                 "def456 refs/heads/master\n").getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals("def456", Provenance.revision(dir));
+    }
+
+    @Test
+    public void testRevisionDetached() throws IOException {
+        gitRepo(dir, "0123456789abcdef");
+        Assert.assertEquals("0123456789abcdef", Provenance.revision(dir));
+    }
+
+    @Test
+    public void testRevisionWorktree() throws IOException {
+        File main = new File(dir, "main");
+        File git = gitRepo(main, "ref: refs/heads/master");
+        Files.write(new File(git, "refs/heads/feature").toPath(), "fea7\n".getBytes(StandardCharsets.UTF_8));
+
+        File wtGit = new File(git, "worktrees/wt");
+        Assert.assertTrue(wtGit.mkdirs());
+        Files.write(new File(wtGit, "HEAD").toPath(), "ref: refs/heads/feature\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(wtGit, "commondir").toPath(), "../..\n".getBytes(StandardCharsets.UTF_8));
+
+        File wt = new File(dir, "wt");
+        Assert.assertTrue(wt.mkdirs());
+        Files.write(new File(wt, ".git").toPath(), ("gitdir: " + wtGit.getAbsolutePath() + "\n").getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals("fea7", Provenance.revision(wt));
+    }
+
+    @Test
+    public void testRevisionUnborn() throws IOException {
+        gitRepo(dir, "ref: refs/heads/master");
+        Assert.assertEquals(Provenance.UNKNOWN, Provenance.revision(dir));
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.results.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+public class TestTrendAnalysis {
+
+    private static double[] noise(int n, double mean, double sd, long seed) {
+        Random r = new Random(seed);
+        double[] vs = new double[n];
+        for (int i = 0; i < n; i++) {
+            vs[i] = mean + sd * r.nextGaussian();
+        }
+        return vs;
+    }
+
+    @Test
+    public void testSlopeFlat() {
+        Assert.assertEquals(0, TrendAnalysis.slope(noise(100, 100, 1, 1)), 0.05);
+    }
+
+    @Test
+    public void testSlopeGrowing() {
+        double[] vs = noise(100, 100, 1, 1);
+        for (int i = 0; i < vs.length; i++) {
+            vs[i] += i;
+        }
+        // about 1 per run against the median about 150
+        Assert.assertEquals(100.0 / 150, TrendAnalysis.slope(vs), 0.05);
+    }
+
+    @Test
+    public void testSlopeOutliers() {
+        double[] vs = new double[50];
+        for (int i = 0; i < vs.length; i++) {
+            vs[i] = 100 + i;
+        }
+        vs[10] = 1e6;
+        vs[40] = -1e6;
+        Assert.assertEquals(100.0 / 124.5, TrendAnalysis.slope(vs), 0.01);
+    }
+
+    @Test
+    public void testSlopeTooShort() {
+        Assert.assertTrue(Double.isNaN(TrendAnalysis.slope(new double[] {1, 2})));
+    }
+
+    @Test
+    public void testNoChangePoints() {
+        Assert.assertTrue(TrendAnalysis.changePoints(noise(200, 100, 1, 2)).isEmpty());
+    }
+
+    @Test
+    public void testChangePoints() {
+        double[] vs = noise(300, 100, 1, 3);
+        for (int i = 100; i < 200; i++) {
+            vs[i] += 10;
+        }
+        for (int i = 200; i < 300; i++) {
+            vs[i] -= 20;
+        }
+
+        List<TrendAnalysis.ChangePoint> cps = TrendAnalysis.changePoints(vs);
+        Assert.assertEquals(2, cps.size());
+        Assert.assertEquals(100, cps.get(0).getIndex());
+        Assert.assertEquals(0.10, cps.get(0).getShift(), 0.01);
+        Assert.assertEquals(200, cps.get(1).getIndex());
+        Assert.assertEquals(80, cps.get(1).getAfter(), 0.5);
+        Assert.assertTrue(cps.get(1).getPValue() < TrendAnalysis.SIGNIFICANCE);
+    }
+
+    @Test
+    public void testSmallShiftIgnored() {
+        // significant, but below the minimal shift
+        double[] vs = noise(400, 100, 0.1, 4);
+        for (int i = 200; i < 400; i++) {
+            vs[i] += 1;
+        }
+        Assert.assertTrue(TrendAnalysis.changePoints(vs).isEmpty());
+    }
+
+    @Test
+    public void testNoiselessStep() {
+        double[] vs = {5, 5, 5, 5, 7, 7, 7, 7};
+        List<TrendAnalysis.ChangePoint> cps = TrendAnalysis.changePoints(vs);
+        Assert.assertEquals(1, cps.size());
+        Assert.assertEquals(4, cps.get(0).getIndex());
+    }
+
+}
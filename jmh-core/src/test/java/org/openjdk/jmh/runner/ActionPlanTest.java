@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2014, 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ActionPlanTest {
+
+    private static ActionPlan plan() {
+        ActionPlan plan = new ActionPlan(ActionType.FORKED);
+        plan.add(new Action(null, ActionMode.WARMUP));
+        plan.add(new Action(null, ActionMode.MEASUREMENT));
+        plan.add(new Action(null, ActionMode.MEASUREMENT));
+        plan.add(new Action(null, ActionMode.WARMUP_MEASUREMENT));
+        return plan;
+    }
+
+    @Test
+    public void testRotateZero() {
+        ActionPlan plan = plan();
+        List<Action> rotated = plan.rotateMeasurements(0).getActions();
+        Assert.assertEquals(plan.getActions(), rotated);
+    }
+
+    @Test
+    public void testRotate() {
+        ActionPlan plan = plan();
+        List<Action> actions = plan.getActions();
+
+        List<Action> r1 = plan.rotateMeasurements(1).getActions();
+        Assert.assertEquals(4, r1.size());
+        Assert.assertSame(actions.get(0), r1.get(0));
+        Assert.assertSame(actions.get(2), r1.get(1));
+        Assert.assertSame(actions.get(3), r1.get(2));
+        Assert.assertSame(actions.get(1), r1.get(3));
+
+        List<Action> r4 = plan.rotateMeasurements(4).getActions();
+        Assert.assertSame(actions.get(0), r4.get(0));
+        Assert.assertSame(actions.get(2), r4.get(1));
+        Assert.assertSame(actions.get(3), r4.get(2));
+        Assert.assertSame(actions.get(1), r4.get(3));
+    }
+
+    @Test
+    public void testRotateKeepsType() {
+        Assert.assertEquals(ActionType.FORKED, plan().rotateMeasurements(1).getType());
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2014, 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.runner.options.ArrivalProcess;
+
+public class ArrivalScheduleTest {
+
+    private static long elapsed(ArrivalSchedule s, int count) {
+        s.start(0);
+        long first = s.intended();
+        for (int c = 0; c < count; c++) {
+            s.advance();
+        }
+        return s.intended() - first;
+    }
+
+    @Test
+    public void testConstant() {
+        ArrivalSchedule s = new ArrivalSchedule(1000, ArrivalProcess.CONSTANT, 0, 1);
+        s.start(0);
+        Assert.assertEquals(0, s.intended());
+        s.advance();
+        Assert.assertEquals(1000000, s.intended());
+        s.advance();
+        Assert.assertEquals(2000000, s.intended());
+    }
+
+    @Test
+    public void testPoissonMean() {
+        ArrivalSchedule s = new ArrivalSchedule(1000, ArrivalProcess.POISSON, 0, 1);
+
+        // normalized to the exact mean over the precomputed intervals, modulo rounding
+        Assert.assertEquals(4096L * 1000000, elapsed(s, 4096), 4096);
+    }
+
+    @Test
+    public void testPoissonVaries() {
+        ArrivalSchedule s = new ArrivalSchedule(1000, ArrivalProcess.POISSON, 0, 1);
+        s.start(0);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int c = 0; c < 1000; c++) {
+            long prev = s.intended();
+            s.advance();
+            long interval = s.intended() - prev;
+            Assert.assertTrue(interval >= 0);
+            min = Math.min(min, interval);
+            max = Math.max(max, interval);
+        }
+
+        // exponential: the shortest intervals are way shorter than the mean, the longest are way longer
+        Assert.assertTrue("min = " + min, min < 100000);
+        Assert.assertTrue("max = " + max, max > 3000000);
+    }
+
+    @Test
+    public void testThreadsSpread() {
+        int[] expected = {0, 250000, 500000, 750000};
+        for (int t = 0; t < expected.length; t++) {
+            ArrivalSchedule s = new ArrivalSchedule(1000, ArrivalProcess.CONSTANT, t, expected.length);
+            s.start(0);
+            Assert.assertEquals(expected[t], s.intended());
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.util.SampleBuffer;
+import org.openjdk.jmh.util.Statistics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncTrackerTest {
+
+    private static final Callable<Integer> ONE = new Callable<Integer>() {
+        @Override
+        public Integer call() {
+            return 1;
+        }
+    };
+
+    @Test
+    public void testComplete() throws Throwable {
+        AsyncTracker tracker = new AsyncTracker(4, 1);
+        for (int c = 0; c < 10; c++) {
+            int slot = tracker.begin();
+            tracker.complete(slot, null);
+        }
+        tracker.drain();
+        Assert.assertEquals(10, tracker.completed());
+    }
+
+    @Test
+    public void testSlotsAreDistinct() throws Throwable {
+        AsyncTracker tracker = new AsyncTracker(2, 1);
+        int s1 = tracker.begin();
+        int s2 = tracker.begin();
+        Assert.assertNotEquals(s1, s2);
+        tracker.complete(s2, null);
+        tracker.complete(s1, null);
+        tracker.drain();
+        Assert.assertEquals(2, tracker.completed());
+    }
+
+    @Test
+    public void testWaitsForFreeSlot() throws Throwable {
+        final AsyncTracker tracker = new AsyncTracker(1, 1);
+        final int slot = tracker.begin();
+
+        Thread completer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(100);
+                } catch (InterruptedException e) {
+                    // do nothing
+                }
+                tracker.complete(slot, null);
+            }
+        };
+        completer.start();
+
+        long start = System.nanoTime();
+        int next = tracker.begin();
+        long waited = System.nanoTime() - start;
+        completer.join();
+
+        Assert.assertEquals(slot, next);
+        Assert.assertEquals(1, tracker.completed());
+        Assert.assertTrue("Should wait for the in-flight operation: " + waited, waited >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        tracker.complete(next, null);
+        tracker.drain();
+        Assert.assertEquals(2, tracker.completed());
+    }
+
+    @Test
+    public void testInterruptedWhileWaitingForFreeSlot() throws Throwable {
+        AsyncTracker tracker = new AsyncTracker(1, 1);
+        tracker.begin(); // never completes
+
+        Thread.currentThread().interrupt();
+        try {
+            tracker.begin();
+            Assert.fail("Should be interrupted");
+        } catch (InterruptedException e) {
+            // expected
+        }
+        Assert.assertFalse(Thread.interrupted());
+    }
+
+    @Test
+    public void testFuture() throws Throwable {
+        AsyncTracker tracker = new AsyncTracker(2, 1);
+        FutureTask<Integer> task = new FutureTask<>(ONE);
+        tracker.track(tracker.begin(), task);
+        task.run();
+        tracker.drain();
+        Assert.assertEquals(1, tracker.completed());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailure() throws Throwable {
+        AsyncTracker tracker = new AsyncTracker(2, 1);
+        tracker.complete(tracker.begin(), new IllegalStateException("Expected"));
+        tracker.drain();
+    }
+
+    @Test(expected = CancellationException.class)
+    public void testCancelledFuture() throws Throwable {
+        AsyncTracker tracker = new AsyncTracker(2, 1);
+        FutureTask<Integer> task = new FutureTask<>(ONE);
+        tracker.track(tracker.begin(), task);
+        task.cancel(false);
+        tracker.drain();
+    }
+
+    @Test
+    public void testLatency() throws Throwable {
+        AsyncTracker tracker = new AsyncTracker(2, 2);
+        SampleBuffer buffer = new SampleBuffer();
+
+        // not recorded
+        tracker.complete(tracker.begin(), null);
+        tracker.drain();
+
+        tracker.record(buffer, null);
+        long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10);
+        tracker.complete(tracker.begin(start), null);
+        tracker.drain();
+        tracker.record(null, null);
+
+        Statistics s = buffer.getStatistics(1);
+        Assert.assertEquals(1, s.getN());
+        Assert.assertTrue("Latency is divided by ops per invocation: " + s.getMin(),
+                s.getMin() >= TimeUnit.MILLISECONDS.toNanos(5) * 0.99);
+        Assert.assertEquals(2, tracker.completed());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroCapacity() {
+        new AsyncTracker(0, 1);
+    }
+
+}
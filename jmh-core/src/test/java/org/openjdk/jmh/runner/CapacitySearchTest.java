@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2014, 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CapacitySearchTest {
+
+    /**
+     * Runs the search against the system that meets the SLO up to the given rate.
+     */
+    private static List<Integer> search(int initial, int capacity) {
+        List<Integer> probes = new ArrayList<>();
+        CapacitySearch s = new CapacitySearch(initial);
+        while (s.hasNext()) {
+            int rate = s.next();
+            probes.add(rate);
+            s.report(rate, rate <= capacity);
+        }
+        Assert.assertTrue("Too many probes: " + probes, probes.size() <= CapacitySearch.MAX_PROBES);
+        return probes;
+    }
+
+    @Test
+    public void testUp() {
+        Assert.assertEquals(Arrays.asList(100, 200, 400, 800, 600, 700, 650, 675),
+                search(100, 680));
+    }
+
+    @Test
+    public void testDown() {
+        Assert.assertEquals(Arrays.asList(1000, 500, 250, 125, 187, 218, 202, 210),
+                search(1000, 210));
+    }
+
+    @Test
+    public void testResolution() {
+        CapacitySearch s = new CapacitySearch(1000);
+        s.report(1000, true);
+        s.report(2000, false);
+        Assert.assertTrue(s.hasNext());
+        s.report(1960, true);
+        Assert.assertFalse(s.hasNext());
+        Assert.assertEquals(1960, s.getCapacity());
+    }
+
+    @Test
+    public void testNothingPasses() {
+        Assert.assertEquals(Arrays.asList(8, 4, 2, 1), search(8, 0));
+    }
+
+    @Test
+    public void testInconsistent() {
+        CapacitySearch s = new CapacitySearch(1000);
+        s.report(1000, false);
+        s.report(500, true);
+        s.report(750, true);
+        s.report(600, false);
+        Assert.assertFalse(s.hasNext());
+        Assert.assertEquals(750, s.getCapacity());
+    }
+
+    @Test
+    public void testMaxProbes() {
+        List<Integer> probes = search(1, Integer.MAX_VALUE);
+        Assert.assertEquals(CapacitySearch.MAX_PROBES, probes.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroRate() {
+        new CapacitySearch(0);
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014, 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CpuSetsTest {
+
+    @Test
+    public void testParseList() {
+        Assert.assertEquals(Arrays.asList(0), CpuSets.parseList("0"));
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3), CpuSets.parseList("0-3"));
+        Assert.assertEquals(Arrays.asList(0, 1, 4, 6, 7), CpuSets.parseList("\t0-1,4,6-7\n"));
+    }
+
+    @Test
+    public void testToList() {
+        Assert.assertEquals("0", CpuSets.toList(Arrays.asList(0)));
+        Assert.assertEquals("0-3", CpuSets.toList(Arrays.asList(0, 1, 2, 3)));
+        Assert.assertEquals("0-1,4,6-7", CpuSets.toList(Arrays.asList(0, 1, 4, 6, 7)));
+    }
+
+    @Test
+    public void testProbeAllowedCpu() {
+        // CPU 0 is not allowed, e.g. in the cgroup cpuset
+        List<Integer> cpus = CpuSets.parseList("4-7");
+        Assert.assertEquals(Arrays.asList("taskset", "-c", "4", "true"), Arrays.asList(CpuSets.probeCommand(cpus)));
+    }
+
+    @Test
+    public void testPartitionEven() {
+        List<List<Integer>> sets = CpuSets.partition(CpuSets.parseList("0-7"), 4);
+        Assert.assertEquals(4, sets.size());
+        Assert.assertEquals("0-1", CpuSets.toList(sets.get(0)));
+        Assert.assertEquals("2-3", CpuSets.toList(sets.get(1)));
+        Assert.assertEquals("4-5", CpuSets.toList(sets.get(2)));
+        Assert.assertEquals("6-7", CpuSets.toList(sets.get(3)));
+    }
+
+    @Test
+    public void testPartitionUneven() {
+        List<List<Integer>> sets = CpuSets.partition(CpuSets.parseList("0-2,8-11"), 3);
+        Assert.assertEquals(3, sets.size());
+        Assert.assertEquals("0-2", CpuSets.toList(sets.get(0)));
+        Assert.assertEquals("8-9", CpuSets.toList(sets.get(1)));
+        Assert.assertEquals("10-11", CpuSets.toList(sets.get(2)));
+    }
+
+    @Test
+    public void testPartitionMoreSetsThanCpus() {
+        List<List<Integer>> sets = CpuSets.partition(CpuSets.parseList("0-1"), 4);
+        Assert.assertEquals(2, sets.size());
+        Assert.assertEquals("0", CpuSets.toList(sets.get(0)));
+        Assert.assertEquals("1", CpuSets.toList(sets.get(1)));
+    }
+
+}
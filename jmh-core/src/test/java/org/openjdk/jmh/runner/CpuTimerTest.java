@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class CpuTimerTest {
+
+    @Test
+    public void testProgress() {
+        Assume.assumeTrue(CpuTimer.isSupported());
+
+        long start = CpuTimer.threadCpuTime();
+        double d = 0;
+        for (int c = 0; c < 10_000_000; c++) {
+            d += Math.sqrt(c);
+        }
+        long stop = CpuTimer.threadCpuTime();
+
+        Assert.assertTrue(d > 0);
+        Assert.assertTrue(start >= 0);
+        Assert.assertTrue("CPU time should advance: " + start + " -> " + stop, stop > start);
+    }
+
+    @Test
+    public void testSleepIsNotCounted() throws InterruptedException {
+        Assume.assumeTrue(CpuTimer.isSupported());
+
+        long wallStart = System.nanoTime();
+        long cpuStart = CpuTimer.threadCpuTime();
+        Thread.sleep(200);
+        long cpu = CpuTimer.threadCpuTime() - cpuStart;
+        long wall = System.nanoTime() - wallStart;
+
+        Assert.assertTrue("Sleeping should not burn CPU: cpu = " + cpu + ", wall = " + wall, cpu < wall / 2);
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ParamBisectionTest {
+
+    private static List<Integer> run(ParamBisection b, double[] scores) {
+        List<Integer> probes = new ArrayList<>();
+        while (b.hasNext()) {
+            int idx = b.next();
+            probes.add(idx);
+            b.report(idx, scores[idx]);
+        }
+        return probes;
+    }
+
+    @Test
+    public void testThreshold() {
+        double[] scores = {100, 90, 80, 70, 60, 50, 40, 30, 20, 10, 0};
+        ParamBisection b = new ParamBisection(scores.length, 45);
+        Assert.assertEquals(Arrays.asList(0, 10, 5, 7, 6), run(b, scores));
+        Assert.assertEquals(1, b.getCrossings().size());
+        Assert.assertArrayEquals(new int[]{5, 6}, b.getCrossings().get(0));
+    }
+
+    @Test
+    public void testThresholdNotCrossed() {
+        double[] scores = {100, 90, 80, 70};
+        ParamBisection b = new ParamBisection(scores.length, 5);
+        Assert.assertEquals(Arrays.asList(0, 3), run(b, scores));
+        Assert.assertTrue(b.getCrossings().isEmpty());
+    }
+
+    @Test
+    public void testKnee() {
+        // flat until index 20, then drops linearly
+        double[] scores = new double[64];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = (i <= 20) ? 100 : 100 - 2 * (i - 20);
+        }
+        ParamBisection b = new ParamBisection(scores.length, Double.NaN);
+        List<Integer> probes = run(b, scores);
+        Assert.assertTrue("Too many probes: " + probes, probes.size() < scores.length / 2);
+        Assert.assertEquals(20, b.getKnee());
+    }
+
+    @Test
+    public void testKneeLinear() {
+        double[] scores = {1, 2, 3, 4, 5, 6, 7, 8};
+        ParamBisection b = new ParamBisection(scores.length, Double.NaN);
+        run(b, scores);
+        Assert.assertEquals(-1, b.getKnee());
+    }
+
+    @Test
+    public void testSingleValue() {
+        ParamBisection b = new ParamBisection(1, Double.NaN);
+        Assert.assertEquals(Arrays.asList(0), run(b, new double[]{42}));
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ParamExplorerTest {
+
+    private static final int[] SIZES = {6, 6, 6, 6, 6};
+
+    private static Set<String> distinct(List<int[]> points) {
+        Set<String> set = new HashSet<>();
+        for (int[] p : points) {
+            StringBuilder sb = new StringBuilder();
+            for (int v : p) {
+                sb.append(v).append(",");
+            }
+            set.add(sb.toString());
+        }
+        return set;
+    }
+
+    @Test
+    public void testFull() {
+        List<int[]> points = ParamExplorer.full(new int[]{2, 3});
+        Assert.assertEquals(6, points.size());
+        Assert.assertArrayEquals(new int[]{0, 0}, points.get(0));
+        Assert.assertArrayEquals(new int[]{0, 1}, points.get(1));
+        Assert.assertArrayEquals(new int[]{1, 2}, points.get(5));
+    }
+
+    @Test
+    public void testRandom() {
+        List<int[]> points = ParamExplorer.random(SIZES, 50, 1);
+        Assert.assertEquals(50, points.size());
+        Assert.assertEquals(50, distinct(points).size());
+    }
+
+    @Test
+    public void testRandomReproducible() {
+        Assert.assertEquals(distinct(ParamExplorer.random(SIZES, 20, 7)), distinct(ParamExplorer.random(SIZES, 20, 7)));
+    }
+
+    @Test
+    public void testRandomOverBudget() {
+        Assert.assertEquals(6, ParamExplorer.random(new int[]{2, 3}, 100, 1).size());
+    }
+
+    @Test
+    public void testLatinHypercube() {
+        int budget = 12;
+        List<int[]> points = ParamExplorer.latinHypercube(SIZES, budget, 1);
+        Assert.assertEquals(distinct(points).size(), points.size());
+
+        // every value of every parameter is covered evenly
+        for (int d = 0; d < SIZES.length; d++) {
+            int[] counts = new int[SIZES[d]];
+            for (int[] p : points) {
+                counts[p[d]]++;
+            }
+            for (int c : counts) {
+                Assert.assertTrue(c <= budget / SIZES[d]);
+            }
+        }
+    }
+
+    @Test
+    public void testOneFactorAtATime() {
+        List<int[]> points = ParamExplorer.oneFactorAtATime(SIZES);
+        Assert.assertEquals(1 + 5 * 5, points.size());
+        Assert.assertEquals(-1, ParamExplorer.variedFactor(points.get(0)));
+        for (int[] p : points.subList(1, points.size())) {
+            int nonBaseline = 0;
+            for (int v : p) {
+                if (v != 0) {
+                    nonBaseline++;
+                }
+            }
+            Assert.assertEquals(1, nonBaseline);
+        }
+        Assert.assertEquals(4, ParamExplorer.variedFactor(points.get(points.size() - 1)));
+    }
+
+}
@@ -67,7 +67,10 @@ public class RunnerTest {
                 Mode.Throughput, null, TimeUnit.SECONDS, 1,
                 Utils.getCurrentJvm(), Collections.<String>emptyList(),
                 System.getProperty("java.version"), System.getProperty("java.vm.name"), System.getProperty("java.vm.version"), Version.getPlainVersion(),
-                TimeValue.days(1));
+                TimeValue.days(1), BenchmarkParams.DEFAULT_EXECUTOR,
+                Defaults.ARRIVAL_RATE, Defaults.ARRIVAL_PROCESS,
+                TimeValue.NONE, TimeValue.NONE, false,
+                false, 1);
         List<String> command = blade.getForkedMainCommand(bp, Collections.<ExternalProfiler>emptyList(), DUMMY_HOST, DUMMY_PORT);
 
         // expecting 1 compile command file
@@ -99,7 +102,10 @@ public class RunnerTest {
                 Mode.Throughput, null, TimeUnit.SECONDS, 1,
                 Utils.getCurrentJvm(), Collections.singletonList(CompilerHints.XX_COMPILE_COMMAND_FILE + tempHints),
                 System.getProperty("java.version"), System.getProperty("java.vm.name"), System.getProperty("java.vm.version"), Version.getPlainVersion(),
-                TimeValue.days(1));
+                TimeValue.days(1), BenchmarkParams.DEFAULT_EXECUTOR,
+                Defaults.ARRIVAL_RATE, Defaults.ARRIVAL_PROCESS,
+                TimeValue.NONE, TimeValue.NONE, false,
+                false, 1);
         List<String> command = blade.getForkedMainCommand(bp, Collections.<ExternalProfiler>emptyList(), DUMMY_HOST, DUMMY_PORT);
 
         // expecting 1 compile command file
@@ -136,7 +142,10 @@ public class RunnerTest {
                 Utils.getCurrentJvm(),
                 Arrays.asList(CompilerHints.XX_COMPILE_COMMAND_FILE + tempHints1, CompilerHints.XX_COMPILE_COMMAND_FILE + tempHints2),
                 System.getProperty("java.version"), System.getProperty("java.vm.name"), System.getProperty("java.vm.version"), Version.getPlainVersion(),
-                TimeValue.days(1));
+                TimeValue.days(1), BenchmarkParams.DEFAULT_EXECUTOR,
+                Defaults.ARRIVAL_RATE, Defaults.ARRIVAL_PROCESS,
+                TimeValue.NONE, TimeValue.NONE, false,
+                false, 1);
         List<String> command = blade.getForkedMainCommand(bp, Collections.<ExternalProfiler>emptyList(), DUMMY_HOST, DUMMY_PORT);
 
         // expecting 1 compile command file
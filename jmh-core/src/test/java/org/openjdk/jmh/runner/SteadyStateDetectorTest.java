@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2014, 2014, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+public class SteadyStateDetectorTest {
+
+    private static final double[] NOISE = { 0.3, -0.5, 0.1, 0.4, -0.2, -0.3, 0.5, -0.1, 0.2, -0.4 };
+
+    @Test
+    public void testNotEnoughIterations() {
+        SteadyStateDetector d = new SteadyStateDetector(3, false);
+        for (int i = 0; i < 5; i++) {
+            d.add(100, 0);
+            Assert.assertFalse(d.isSteady());
+        }
+        d.add(100, 0);
+        Assert.assertTrue(d.isSteady());
+    }
+
+    @Test
+    public void testNoisySteady() {
+        SteadyStateDetector d = new SteadyStateDetector(5, false);
+        for (double n : NOISE) {
+            d.add(100 + n, 0);
+        }
+        Assert.assertTrue(d.isSteady());
+    }
+
+    @Test
+    public void testChangePoint() {
+        SteadyStateDetector d = new SteadyStateDetector(5, false);
+        for (int i = 0; i < NOISE.length; i++) {
+            d.add((i < 5 ? 50 : 100) + NOISE[i], 0);
+        }
+        Assert.assertFalse(d.isSteady());
+
+        for (int i = 0; i < 5; i++) {
+            d.add(100 + NOISE[i], 0);
+        }
+        Assert.assertTrue(d.isSteady());
+    }
+
+    @Test
+    public void testTrend() {
+        SteadyStateDetector d = new SteadyStateDetector(5, false);
+        for (int i = 0; i < NOISE.length; i++) {
+            d.add(100 + 2 * i + NOISE[i], 0);
+        }
+        Assert.assertFalse(d.isSteady());
+    }
+
+    @Test
+    public void testSmallTrendTolerated() {
+        SteadyStateDetector d = new SteadyStateDetector(5, false);
+        for (int i = 0; i < NOISE.length; i++) {
+            d.add(100 + 0.1 * i, 0);
+        }
+        Assert.assertTrue(d.isSteady());
+    }
+
+    @Test
+    public void testQuietCompilation() {
+        SteadyStateDetector d = new SteadyStateDetector(2, true);
+        d.add(100, 10);
+        d.add(100, 20);
+        d.add(100, 20);
+        d.add(100, 30);
+        Assert.assertFalse(d.isSteady());
+
+        d.add(100, 30);
+        Assert.assertFalse(d.isSteady());
+
+        d.add(100, 30);
+        Assert.assertTrue(d.isSteady());
+    }
+
+    @Test
+    public void testCompilationIgnored() {
+        SteadyStateDetector d = new SteadyStateDetector(2, false);
+        for (int i = 0; i < 4; i++) {
+            d.add(100, i * 10);
+        }
+        Assert.assertTrue(d.isSteady());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowTooSmall() {
+        new SteadyStateDetector(1, false);
+    }
+
+}
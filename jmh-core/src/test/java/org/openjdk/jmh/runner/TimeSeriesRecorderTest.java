@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TimeSeriesRecorderTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testThroughput() {
+        TimeSeriesRecorder r = new TimeSeriesRecorder(100 * MS, 300 * MS);
+        r.start(0);
+        r.tick(100 * MS, 1000);
+        r.tick(200 * MS, 3000);
+        r.tick(300 * MS, 6000);
+        r.stop(300 * MS);
+
+        double[] tp = r.throughput(TimeUnit.MILLISECONDS, 1, 1);
+        Assert.assertEquals(10, tp[0], 0.001);
+        Assert.assertEquals(20, tp[1], 0.001);
+        Assert.assertEquals(30, tp[2], 0.001);
+    }
+
+    @Test
+    public void testSpread() {
+        TimeSeriesRecorder r = new TimeSeriesRecorder(100 * MS, 400 * MS);
+        r.start(0);
+
+        // single report over four sub-intervals, spread evenly
+        r.tick(400 * MS - 1, 4000);
+        r.stop(400 * MS - 1);
+
+        double[] tp = r.throughput(TimeUnit.MILLISECONDS, 1, 1);
+        Assert.assertEquals(4, tp.length);
+        for (double v : tp) {
+            Assert.assertEquals(10, v, 0.1);
+        }
+    }
+
+    @Test
+    public void testOpsPerInvAndBatch() {
+        TimeSeriesRecorder r = new TimeSeriesRecorder(100 * MS, 100 * MS);
+        r.start(0);
+        r.tick(50 * MS, 1000);
+        r.stop(50 * MS);
+
+        Assert.assertEquals(40, r.throughput(TimeUnit.MILLISECONDS, 4, 2)[0], 0.001);
+        Assert.assertEquals(0.025, r.averageTime(TimeUnit.MILLISECONDS, 4, 2)[0], 0.0001);
+    }
+
+    @Test
+    public void testPartialLastSlot() {
+        TimeSeriesRecorder r = new TimeSeriesRecorder(100 * MS, 200 * MS);
+        r.start(0);
+        r.tick(100 * MS - 1, 1000);
+        r.tick(150 * MS, 1500);
+        r.stop(150 * MS);
+
+        double[] tp = r.throughput(TimeUnit.MILLISECONDS, 1, 1);
+        Assert.assertEquals(2, tp.length);
+        Assert.assertEquals(10, tp[0], 0.001);
+        Assert.assertEquals(10, tp[1], 0.001);
+    }
+
+    @Test
+    public void testSamples() {
+        TimeSeriesRecorder r = new TimeSeriesRecorder(100 * MS, 300 * MS);
+        r.start(0);
+        r.sample(10 * MS, 100);
+        r.sample(20 * MS, 300);
+        r.sample(250 * MS, 1000);
+        r.stop(300 * MS);
+
+        double[] st = r.sampleTime(TimeUnit.NANOSECONDS);
+        Assert.assertEquals(3, st.length);
+        Assert.assertEquals(200, st[0], 0);
+        Assert.assertTrue(Double.isNaN(st[1]));
+        Assert.assertEquals(1000, st[2], 0);
+    }
+
+    @Test
+    public void testRingKeepsLatest() {
+        TimeSeriesRecorder r = new TimeSeriesRecorder(MS, 2 * MS);
+        r.start(0);
+        for (int s = 0; s < 100; s++) {
+            r.sample(s * MS, s);
+        }
+        r.stop(100 * MS);
+
+        double[] st = r.sampleTime(TimeUnit.NANOSECONDS);
+        Assert.assertEquals(4, st.length);
+        Assert.assertEquals(96, st[0], 0);
+        Assert.assertEquals(99, st[3], 0);
+    }
+
+    @Test
+    public void testStrideAdapts() {
+        TimeSeriesRecorder r = new TimeSeriesRecorder(100 * MS, 1000 * MS);
+        long mask = r.start(0);
+        Assert.assertEquals(0, mask);
+
+        // reports are way too frequent, back off
+        long t = 0;
+        for (int i = 1; i <= 10; i++) {
+            t += 1000;
+            mask = r.tick(t, i);
+        }
+        Assert.assertEquals(1023, mask);
+
+        // reports are way too rare, come closer
+        mask = r.tick(t + 50 * MS, 20);
+        Assert.assertEquals(511, mask);
+    }
+
+    @Test
+    public void testRestart() {
+        TimeSeriesRecorder r = new TimeSeriesRecorder(100 * MS, 100 * MS);
+        r.start(0);
+        r.tick(50 * MS, 1000);
+        r.stop(50 * MS);
+
+        r.start(1000 * MS);
+        r.tick(1050 * MS, 500);
+        r.stop(1050 * MS);
+        Assert.assertEquals(10, r.throughput(TimeUnit.MILLISECONDS, 1, 1)[0], 0.001);
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimerCalibrationTest {
+
+    @Test
+    public void testCalibrate() {
+        TimerCalibration timer = TimerCalibration.get();
+
+        Assert.assertTrue(timer.toString(), timer.getLatency() > 0);
+        Assert.assertTrue(timer.toString(), timer.getGranularity() > 0);
+        Assert.assertTrue(timer.toString(), timer.getLatency() < 1_000_000);
+        Assert.assertTrue(timer.toString(), timer.getGranularity() < 1_000_000);
+        Assert.assertSame(timer, TimerCalibration.get());
+    }
+
+    @Test
+    public void testCost() {
+        Assert.assertEquals(30, new TimerCalibration(30, 1).getCost(), 0);
+        Assert.assertEquals(1000, new TimerCalibration(30, 1000).getCost(), 0);
+    }
+
+    @Test
+    public void testSignificant() {
+        TimerCalibration timer = new TimerCalibration(20, 20);
+        Assert.assertTrue(timer.isSignificantFor(20));
+        Assert.assertTrue(timer.isSignificantFor(99));
+        Assert.assertFalse(timer.isSignificantFor(100));
+        Assert.assertFalse(timer.isSignificantFor(10_000));
+    }
+
+}
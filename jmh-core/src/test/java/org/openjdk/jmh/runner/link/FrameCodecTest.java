@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner.link;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.BenchmarkResultMetaData;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.IterationResultMetaData;
+import org.openjdk.jmh.results.ResultRole;
+import org.openjdk.jmh.results.ScalarResult;
+import org.openjdk.jmh.results.ThroughputResult;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.Defaults;
+import org.openjdk.jmh.runner.WorkloadParams;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.util.Utils;
+import org.openjdk.jmh.util.Version;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class FrameCodecTest {
+
+    private static final IterationParams ITERATION = new IterationParams(IterationType.MEASUREMENT, 1, TimeValue.seconds(1), 1);
+
+    private static final BenchmarkParams PARAMS = new BenchmarkParams("blah", "blah", false,
+            1, new int[]{1}, Collections.<String>emptyList(),
+            1, 1,
+            new IterationParams(IterationType.WARMUP, 1, TimeValue.seconds(1), 1),
+            ITERATION,
+            Mode.Throughput, new WorkloadParams(), TimeUnit.SECONDS, 1,
+            Utils.getCurrentJvm(), Collections.<String>emptyList(),
+            System.getProperty("java.version"), System.getProperty("java.vm.name"), System.getProperty("java.vm.version"), Version.getPlainVersion(),
+            TimeValue.days(1), BenchmarkParams.DEFAULT_EXECUTOR,
+            Defaults.ARRIVAL_RATE, Defaults.ARRIVAL_PROCESS,
+            TimeValue.NONE, TimeValue.NONE, false,
+            false, 1);
+
+    private static IterationResult result(double ops) {
+        IterationResult ir = new IterationResult(PARAMS, ITERATION, new IterationResultMetaData(100, 10));
+        ir.addResult(new ThroughputResult(ResultRole.PRIMARY, "test", ops, 1000 * 1000, TimeUnit.MILLISECONDS));
+        ir.addResult(new ThroughputResult(ResultRole.PRIMARY, "test", ops * 2, 1000 * 1000, TimeUnit.MILLISECONDS));
+        ir.addResult(new ScalarResult("secondary", ops, "units", AggregationPolicy.AVG));
+        return ir;
+    }
+
+    private static FrameReader roundTrip(Object... frames) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        FrameWriter writer = new FrameWriter(bos);
+        for (Object f : frames) {
+            writer.write(f);
+        }
+        writer.flush();
+        return new FrameReader(new ByteArrayInputStream(bos.toByteArray()));
+    }
+
+    private static void assertSame(IterationResult expected, IterationResult actual) {
+        Assert.assertEquals(expected.getBenchmarkParams(), actual.getBenchmarkParams());
+        Assert.assertEquals(expected.getParams(), actual.getParams());
+        Assert.assertEquals(expected.getMetadata().getAllOps(), actual.getMetadata().getAllOps());
+        Assert.assertEquals(expected.getMetadata().getMeasuredOps(), actual.getMetadata().getMeasuredOps());
+        Assert.assertEquals(expected.getRawPrimaryResults().size(), actual.getRawPrimaryResults().size());
+        Assert.assertEquals(expected.getPrimaryResult().getScore(), actual.getPrimaryResult().getScore(), 0);
+        Assert.assertEquals(expected.getSecondaryResults().keySet(), actual.getSecondaryResults().keySet());
+        Assert.assertEquals(expected.getSecondaryResults().get("secondary").getScore(),
+                actual.getSecondaryResults().get("secondary").getScore(), 0);
+    }
+
+    @Test
+    public void testResults() throws IOException {
+        IterationResult r1 = result(1000);
+        IterationResult r2 = result(2000);
+        FrameReader reader = roundTrip(new ResultsFrame(r1), new ResultsFrame(r2));
+
+        IterationResult c1 = ((ResultsFrame) reader.read()).getRes();
+        IterationResult c2 = ((ResultsFrame) reader.read()).getRes();
+        assertSame(r1, c1);
+        assertSame(r2, c2);
+
+        // params are sent once, and then referenced
+        Assert.assertSame(c1.getBenchmarkParams(), c2.getBenchmarkParams());
+        Assert.assertSame(c1.getParams(), c2.getParams());
+    }
+
+    @Test
+    public void testParamsSentOnce() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        FrameWriter writer = new FrameWriter(bos);
+        writer.write(new ResultsFrame(result(1000)));
+        writer.flush();
+        int first = bos.size();
+        writer.write(new ResultsFrame(result(1000)));
+        writer.flush();
+        int second = bos.size() - first;
+        Assert.assertTrue("Second frame should be much shorter: " + first + " vs " + second, second * 5 < first);
+    }
+
+    @Test
+    public void testOutputFormat() throws IOException {
+        IterationResult r = result(1000);
+        FrameReader reader = roundTrip(
+                new OutputFormatFrame("iterationResult", new Object[]{PARAMS, ITERATION, 42, r}),
+                new OutputFormatFrame("println", new Object[]{"Hello"}),
+                new OutputFormatFrame("flush", null),
+                new OutputFormatFrame("write", new Object[]{new byte[]{1, 2, 3}}),
+                new OutputFormatFrame("other", new Object[]{null, 42L, 1.5D, true, TimeValue.seconds(3)})
+        );
+
+        OutputFormatFrame f = (OutputFormatFrame) reader.read();
+        Assert.assertEquals("iterationResult", f.method);
+        Assert.assertEquals(PARAMS, f.args[0]);
+        Assert.assertEquals(ITERATION, f.args[1]);
+        Assert.assertEquals(42, f.args[2]);
+        assertSame(r, (IterationResult) f.args[3]);
+
+        f = (OutputFormatFrame) reader.read();
+        Assert.assertEquals("println", f.method);
+        Assert.assertArrayEquals(new Object[]{"Hello"}, f.args);
+
+        f = (OutputFormatFrame) reader.read();
+        Assert.assertEquals("flush", f.method);
+        Assert.assertEquals(0, f.args.length);
+
+        f = (OutputFormatFrame) reader.read();
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) f.args[0]);
+
+        f = (OutputFormatFrame) reader.read();
+        Assert.assertArrayEquals(new Object[]{null, 42L, 1.5D, true, TimeValue.seconds(3)}, f.args);
+    }
+
+    @Test
+    public void testInfraFrames() throws IOException {
+        BenchmarkResultMetaData md = new BenchmarkResultMetaData(1, 2, 3, 4, 5, 6, 17.5, 30);
+        FrameReader reader = roundTrip(
+                new HandshakeInitFrame(12345),
+                new InfraFrame(InfraFrame.Type.ACTION_PLAN_REQUEST),
+                new OutputFrame(OutputFrame.Type.ERR, new byte[]{'a', 'b'}),
+                new ResultMetadataFrame(PARAMS, md),
+                new FinishingFrame()
+        );
+
+        Assert.assertEquals(12345, ((HandshakeInitFrame) reader.read()).getPid());
+        Assert.assertEquals(InfraFrame.Type.ACTION_PLAN_REQUEST, ((InfraFrame) reader.read()).getType());
+
+        OutputFrame of = (OutputFrame) reader.read();
+        Assert.assertEquals(OutputFrame.Type.ERR, of.getType());
+        Assert.assertArrayEquals(new byte[]{'a', 'b'}, of.getData());
+
+        ResultMetadataFrame mf = (ResultMetadataFrame) reader.read();
+        Assert.assertEquals(PARAMS, mf.getParams());
+        Assert.assertEquals(md.getWarmupTime(), mf.getMD().getWarmupTime());
+        Assert.assertEquals(md.getMeasurementTime(), mf.getMD().getMeasurementTime());
+        Assert.assertEquals(md.getStopTime(), mf.getMD().getStopTime());
+        Assert.assertEquals(md.getWarmupOps(), mf.getMD().getWarmupOps());
+        Assert.assertEquals(md.getMeasurementOps(), mf.getMD().getMeasurementOps());
+        Assert.assertEquals(md.getWarmupIterations(), mf.getMD().getWarmupIterations());
+        Assert.assertEquals(md.getTimerLatency(), mf.getMD().getTimerLatency(), 0);
+        Assert.assertEquals(md.getTimerGranularity(), mf.getMD().getTimerGranularity(), 0);
+
+        Assert.assertTrue(reader.read() instanceof FinishingFrame);
+    }
+
+    @Test(expected = IOException.class)
+    public void testHeaderMismatch() throws IOException {
+        new FrameReader(new ByteArrayInputStream(new byte[]{(byte) 0xAC, (byte) 0xED, 0, 5, 0, 0})).read();
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner.link;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+public class ShmLinkTest {
+
+    private ShmLink host;
+    private ShmLink fork;
+
+    @Before
+    public void setUp() throws IOException {
+        host = ShmLink.create();
+        Assert.assertTrue(ShmLink.isAddress(host.getAddress()));
+        fork = ShmLink.attach(host.getAddress());
+    }
+
+    @After
+    public void tearDown() {
+        fork.close();
+        host.delete();
+    }
+
+    @Test
+    public void testNotAddress() {
+        Assert.assertFalse(ShmLink.isAddress("localhost"));
+        Assert.assertFalse(ShmLink.isAddress("127.0.0.1"));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        OutputStream os = fork.forkOutput();
+        os.write(42);
+        os.write(new byte[]{1, 2, 3});
+
+        InputStream is = host.hostInput();
+        Assert.assertEquals(42, is.read());
+        byte[] b = new byte[3];
+        new DataInputStream(is).readFully(b);
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, b);
+
+        host.hostOutput().write(17);
+        Assert.assertEquals(17, fork.forkInput().read());
+    }
+
+    @Test
+    public void testWrapAround() throws Exception {
+        final byte[] data = new byte[10 * 1024 * 1024];
+        new Random(42).nextBytes(data);
+
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    OutputStream os = fork.forkOutput();
+                    int off = 0;
+                    while (off < data.length) {
+                        int len = Math.min(data.length - off, 12345);
+                        os.write(data, off, len);
+                        off += len;
+                    }
+                    os.close();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        writer.start();
+
+        byte[] actual = new byte[data.length];
+        new DataInputStream(host.hostInput()).readFully(actual);
+        Assert.assertArrayEquals(data, actual);
+        Assert.assertEquals(-1, host.hostInput().read());
+
+        writer.join();
+    }
+
+    @Test
+    public void testWriterClosed() throws IOException {
+        OutputStream os = fork.forkOutput();
+        os.write(1);
+        os.close();
+
+        InputStream is = host.hostInput();
+        Assert.assertEquals(1, is.read());
+        Assert.assertEquals(-1, is.read());
+    }
+
+    @Test
+    public void testPeerGone() throws IOException {
+        fork.forkOutput().write(1);
+        host.peerGone();
+
+        InputStream is = host.hostInput();
+        Assert.assertEquals(1, is.read());
+        Assert.assertEquals(-1, is.read());
+    }
+
+    @Test
+    public void testReaderClosed() throws IOException {
+        host.hostInput().close();
+        try {
+            fork.forkOutput().write(1);
+            Assert.fail("Should have failed");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testClosedRead() throws IOException {
+        host.close();
+        Assert.assertEquals(-1, host.hostInput().read());
+    }
+
+}
@@ -30,11 +30,14 @@ import org.junit.Test;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Defaults;
+import org.openjdk.jmh.util.ConfidenceMethod;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
 public class TestOptions {
@@ -292,6 +295,46 @@ public class TestOptions {
         Assert.assertEquals(EMPTY_BUILDER.getThreads(), EMPTY_CMDLINE.getThreads());
     }
 
+    @Test
+    public void testThreadsSweep() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-t", "1,2,4,...,max");
+        Options builder = new OptionsBuilder().threadsSweep("1,2,4,...,max").build();
+        Assert.assertEquals(builder.getThreadsSweep(), cmdLine.getThreadsSweep());
+        Assert.assertFalse(cmdLine.getThreads().hasValue());
+    }
+
+    @Test
+    public void testThreadsSweep_Single() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-t", "4");
+        Assert.assertFalse(cmdLine.getThreadsSweep().hasValue());
+        Assert.assertEquals(Integer.valueOf(4), cmdLine.getThreads().get());
+    }
+
+    @Test
+    public void testThreadsSweep_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getThreadsSweep(), EMPTY_CMDLINE.getThreadsSweep());
+    }
+
+    @Test
+    public void testThreadsSweep_Zero() {
+        try {
+            new CommandLineOptions("-t", "0..4");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("Cannot parse argument '0..4' of option ['t']. Thread count should be positive: 0", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testThreadsSweep_Zero_OptionsBuilder() {
+        try {
+            new OptionsBuilder().threadsSweep("0,1");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Thread count should be positive: 0", e.getMessage());
+        }
+    }
+
     @Test
     public void testThreadGroups() throws Exception {
         CommandLineOptions cmdLine = new CommandLineOptions("-tg", "3,4");
@@ -612,6 +655,492 @@ public class TestOptions {
         }
     }
 
+    @Test
+    public void testParallelForks() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-parallelForks", "4");
+        Options builder = new OptionsBuilder().parallelForks(4).build();
+        Assert.assertEquals(builder.getParallelForks(), cmdLine.getParallelForks());
+    }
+
+    @Test
+    public void testParallelForks_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getParallelForks(), EMPTY_CMDLINE.getParallelForks());
+    }
+
+    @Test
+    public void testParallelForks_Zero() {
+        try {
+            new CommandLineOptions("-parallelForks", "0");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("Cannot parse argument '0' of option ['parallelForks']. The given value 0 should be positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testParallelForks_Zero_OptionsBuilder() {
+        try {
+            new OptionsBuilder().parallelForks(0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Parallel forks (0) should be positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBenchmarksPerFork() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-benchmarksPerFork", "10");
+        Options builder = new OptionsBuilder().benchmarksPerFork(10).build();
+        Assert.assertEquals(builder.getBenchmarksPerFork(), cmdLine.getBenchmarksPerFork());
+    }
+
+    @Test
+    public void testBenchmarksPerFork_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getBenchmarksPerFork(), EMPTY_CMDLINE.getBenchmarksPerFork());
+    }
+
+    @Test
+    public void testBenchmarksPerFork_Zero() {
+        try {
+            new CommandLineOptions("-benchmarksPerFork", "0");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("Cannot parse argument '0' of option ['benchmarksPerFork']. The given value 0 should be positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBenchmarksPerFork_Zero_OptionsBuilder() {
+        try {
+            new OptionsBuilder().benchmarksPerFork(0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Benchmarks per fork (0) should be positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testTargetError() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-targetError", "0.02");
+        Options builder = new OptionsBuilder().targetError(0.02).build();
+        Assert.assertEquals(builder.getTargetError(), cmdLine.getTargetError());
+    }
+
+    @Test
+    public void testTargetError_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getTargetError(), EMPTY_CMDLINE.getTargetError());
+    }
+
+    @Test
+    public void testTargetError_One() {
+        try {
+            new CommandLineOptions("-targetError", "1");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("Cannot parse argument '1' of option ['targetError']. The given value 1 should be between 0 and 1, exclusive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testTargetError_Zero_OptionsBuilder() {
+        try {
+            new OptionsBuilder().targetError(0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Target error (0.0) should be between 0 and 1, exclusive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testTargetConfidence() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-targetConfidence", "0.99");
+        Options builder = new OptionsBuilder().targetConfidence(0.99).build();
+        Assert.assertEquals(builder.getTargetConfidence(), cmdLine.getTargetConfidence());
+    }
+
+    @Test
+    public void testTargetConfidence_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getTargetConfidence(), EMPTY_CMDLINE.getTargetConfidence());
+    }
+
+    @Test
+    public void testMaxIterations() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-maxIterations", "30");
+        Options builder = new OptionsBuilder().maxMeasurementIterations(30).build();
+        Assert.assertEquals(builder.getMaxMeasurementIterations(), cmdLine.getMaxMeasurementIterations());
+    }
+
+    @Test
+    public void testMaxIterations_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getMaxMeasurementIterations(), EMPTY_CMDLINE.getMaxMeasurementIterations());
+    }
+
+    @Test
+    public void testMaxForks() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-maxForks", "7");
+        Options builder = new OptionsBuilder().maxForks(7).build();
+        Assert.assertEquals(builder.getMaxForks(), cmdLine.getMaxForks());
+    }
+
+    @Test
+    public void testMaxForks_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getMaxForks(), EMPTY_CMDLINE.getMaxForks());
+    }
+
+    @Test
+    public void testWarmupWindow() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-warmupWindow", "4");
+        Options builder = new OptionsBuilder().warmupWindow(4).build();
+        Assert.assertEquals(builder.getWarmupWindow(), cmdLine.getWarmupWindow());
+    }
+
+    @Test
+    public void testWarmupWindow_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getWarmupWindow(), EMPTY_CMDLINE.getWarmupWindow());
+    }
+
+    @Test
+    public void testWarmupWindow_One() {
+        try {
+            new CommandLineOptions("-warmupWindow", "1");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("Cannot parse argument '1' of option ['warmupWindow']. The given value 1 should be greater or equal than 2", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testWarmupWindow_One_OptionsBuilder() {
+        try {
+            new OptionsBuilder().warmupWindow(1);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Warmup window (1) should be greater or equal than 2", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMaxWarmupIterations() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-maxWarmupIterations", "30");
+        Options builder = new OptionsBuilder().maxWarmupIterations(30).build();
+        Assert.assertEquals(builder.getMaxWarmupIterations(), cmdLine.getMaxWarmupIterations());
+    }
+
+    @Test
+    public void testMaxWarmupIterations_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getMaxWarmupIterations(), EMPTY_CMDLINE.getMaxWarmupIterations());
+    }
+
+    @Test
+    public void testWarmupQuietCompilation() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-warmupQuietJit", "true");
+        Options builder = new OptionsBuilder().warmupQuietCompilation(true).build();
+        Assert.assertEquals(builder.shouldWarmupQuietCompilation(), cmdLine.shouldWarmupQuietCompilation());
+    }
+
+    @Test
+    public void testWarmupQuietCompilation_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.shouldWarmupQuietCompilation(), EMPTY_CMDLINE.shouldWarmupQuietCompilation());
+    }
+
+    @Test
+    public void testArrivalRate() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-rate", "500");
+        Options builder = new OptionsBuilder().arrivalRate(500).build();
+        Assert.assertEquals(builder.getArrivalRate(), cmdLine.getArrivalRate());
+    }
+
+    @Test
+    public void testArrivalRate_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getArrivalRate(), EMPTY_CMDLINE.getArrivalRate());
+    }
+
+    @Test
+    public void testArrivalRate_Zero() {
+        try {
+            new CommandLineOptions("-rate", "0");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("Cannot parse argument '0' of option ['rate']. The given value 0 should be positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testArrivalRate_Zero_OptionsBuilder() {
+        try {
+            new OptionsBuilder().arrivalRate(0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Arrival rate (0) should be positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testArrivalProcess() throws Exception {
+        for (ArrivalProcess process : ArrivalProcess.values()) {
+            CommandLineOptions cmdLine = new CommandLineOptions("-arrival", process.toString());
+            Options builder = new OptionsBuilder().arrivalProcess(process).build();
+            Assert.assertEquals(builder.getArrivalProcess(), cmdLine.getArrivalProcess());
+        }
+    }
+
+    @Test
+    public void testArrivalProcess_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getArrivalProcess(), EMPTY_CMDLINE.getArrivalProcess());
+    }
+
+    @Test
+    public void testSloLatency() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-sloLatency", "2ms");
+        Options builder = new OptionsBuilder().sloLatency(TimeValue.milliseconds(2)).build();
+        Assert.assertEquals(builder.getSloLatency(), cmdLine.getSloLatency());
+    }
+
+    @Test
+    public void testSloLatency_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getSloLatency(), EMPTY_CMDLINE.getSloLatency());
+    }
+
+    @Test
+    public void testSloPercentile() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-sloPercentile", "0.999");
+        Options builder = new OptionsBuilder().sloPercentile(0.999).build();
+        Assert.assertEquals(builder.getSloPercentile(), cmdLine.getSloPercentile());
+    }
+
+    @Test
+    public void testSloPercentile_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getSloPercentile(), EMPTY_CMDLINE.getSloPercentile());
+    }
+
+    @Test
+    public void testSloPercentile_One() {
+        try {
+            new CommandLineOptions("-sloPercentile", "1");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("Cannot parse argument '1' of option ['sloPercentile']. The given value 1 should be between 0 and 1, exclusive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSloPercentile_One_OptionsBuilder() {
+        try {
+            new OptionsBuilder().sloPercentile(1);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("SLO percentile (1.0) should be between 0 and 1, exclusive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testCoInterval() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-coInterval", "10us");
+        Options builder = new OptionsBuilder().coInterval(TimeValue.microseconds(10)).build();
+        Assert.assertEquals(builder.getCoInterval(), cmdLine.getCoInterval());
+    }
+
+    @Test
+    public void testCoInterval_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getCoInterval(), EMPTY_CMDLINE.getCoInterval());
+    }
+
+    @Test
+    public void testSeriesInterval() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-series", "100ms");
+        Options builder = new OptionsBuilder().seriesInterval(TimeValue.milliseconds(100)).build();
+        Assert.assertEquals(builder.getSeriesInterval(), cmdLine.getSeriesInterval());
+    }
+
+    @Test
+    public void testSeriesInterval_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getSeriesInterval(), EMPTY_CMDLINE.getSeriesInterval());
+    }
+
+    @Test
+    public void testTimerCompensation_True() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-tc", "true");
+        Options builder = new OptionsBuilder().shouldCompensateTimer(true).build();
+        Assert.assertEquals(builder.shouldCompensateTimer(), cmdLine.shouldCompensateTimer());
+    }
+
+    @Test
+    public void testTimerCompensation_False() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-tc", "false");
+        Options builder = new OptionsBuilder().shouldCompensateTimer(false).build();
+        Assert.assertEquals(builder.shouldCompensateTimer(), cmdLine.shouldCompensateTimer());
+    }
+
+    @Test
+    public void testTimerCompensation_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.shouldCompensateTimer(), EMPTY_CMDLINE.shouldCompensateTimer());
+    }
+
+    @Test
+    public void testCpuTime_True() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-cpu", "true");
+        Options builder = new OptionsBuilder().shouldMeasureCpuTime(true).build();
+        Assert.assertEquals(builder.shouldMeasureCpuTime(), cmdLine.shouldMeasureCpuTime());
+    }
+
+    @Test
+    public void testCpuTime_False() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-cpu", "false");
+        Options builder = new OptionsBuilder().shouldMeasureCpuTime(false).build();
+        Assert.assertEquals(builder.shouldMeasureCpuTime(), cmdLine.shouldMeasureCpuTime());
+    }
+
+    @Test
+    public void testCpuTime_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.shouldMeasureCpuTime(), EMPTY_CMDLINE.shouldMeasureCpuTime());
+    }
+
+    @Test
+    public void testMaxInFlight() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-inflight", "16");
+        Options builder = new OptionsBuilder().maxInFlight(16).build();
+        Assert.assertEquals(builder.getMaxInFlight(), cmdLine.getMaxInFlight());
+    }
+
+    @Test
+    public void testMaxInFlight_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getMaxInFlight(), EMPTY_CMDLINE.getMaxInFlight());
+    }
+
+    @Test
+    public void testMaxInFlight_Zero() {
+        try {
+            new CommandLineOptions("-inflight", "0");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("Cannot parse argument '0' of option ['inflight']. The given value 0 should be positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMaxInFlight_Zero_OptionsBuilder() {
+        try {
+            new OptionsBuilder().maxInFlight(0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Max in-flight operations (0) should be positive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testParamExploration() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-pe", "lhs:16:3");
+        Options builder = new OptionsBuilder().paramExploration("lhs:16:3").build();
+        Assert.assertEquals(builder.getParamExploration(), cmdLine.getParamExploration());
+    }
+
+    @Test
+    public void testParamExploration_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getParamExploration(), EMPTY_CMDLINE.getParamExploration());
+    }
+
+    @Test
+    public void testParamExploration_Unknown() {
+        try {
+            new CommandLineOptions("-pe", "genetic");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("Unknown parameter exploration strategy: genetic", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testBaseline() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-baseline", "base.json");
+        Options builder = new OptionsBuilder().baseline("base.json").build();
+        Assert.assertEquals(builder.getBaseline(), cmdLine.getBaseline());
+    }
+
+    @Test
+    public void testBaseline_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getBaseline(), EMPTY_CMDLINE.getBaseline());
+    }
+
+    @Test
+    public void testRegressionThreshold() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-regressionThreshold", "0.1");
+        Options builder = new OptionsBuilder().regressionThreshold(0.1).build();
+        Assert.assertEquals(builder.getRegressionThreshold(), cmdLine.getRegressionThreshold());
+    }
+
+    @Test
+    public void testRegressionThreshold_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getRegressionThreshold(), EMPTY_CMDLINE.getRegressionThreshold());
+    }
+
+    @Test
+    public void testRegressionThreshold_One() {
+        try {
+            new CommandLineOptions("-regressionThreshold", "1");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("Cannot parse argument '1' of option ['regressionThreshold']. The given value 1 should be between 0 and 1, exclusive", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testConfidenceMethod() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-ci", "bca");
+        Options builder = new OptionsBuilder().confidenceMethod(ConfidenceMethod.BCA).build();
+        Assert.assertEquals(builder.getConfidenceMethod(), cmdLine.getConfidenceMethod());
+    }
+
+    @Test
+    public void testConfidenceMethod_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getConfidenceMethod(), EMPTY_CMDLINE.getConfidenceMethod());
+    }
+
+    @Test
+    public void testConfidenceMethod_Unknown() {
+        try {
+            new CommandLineOptions("-ci", "jackknife");
+            Assert.fail();
+        } catch (CommandLineOptionException e) {
+            Assert.assertEquals("No enum constant org.openjdk.jmh.util.ConfidenceMethod.JACKKNIFE", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testResultStore() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-rs", "store");
+        Options builder = new OptionsBuilder().resultStore("store").build();
+        Assert.assertEquals(builder.getResultStore(), cmdLine.getResultStore());
+    }
+
+    @Test
+    public void testResultStore_DefaultDir() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-rs", "default");
+        Assert.assertEquals(Defaults.RESULT_STORE_DIR, cmdLine.getResultStore().get());
+    }
+
+    @Test
+    public void testResultStore_KeepsRegexp() throws Exception {
+        CommandLineOptions cmdLine = new CommandLineOptions("-rs", "store", "MyBench");
+        Assert.assertEquals("store", cmdLine.getResultStore().get());
+        Assert.assertEquals(Collections.singletonList("MyBench"), cmdLine.getIncludes());
+    }
+
+    @Test(expected = CommandLineOptionException.class)
+    public void testResultStore_NoDir() throws Exception {
+        new CommandLineOptions("-rs");
+    }
+
+    @Test
+    public void testResultStore_Default() {
+        Assert.assertEquals(EMPTY_BUILDER.getResultStore(), EMPTY_CMDLINE.getResultStore());
+    }
+
+    @Test
+    public void testListResultStore() throws Exception {
+        Assert.assertTrue(new CommandLineOptions("-lrs").shouldListResultStore());
+        Assert.assertFalse(EMPTY_CMDLINE.shouldListResultStore());
+    }
+
     @Test
     public void testJvm() throws Exception {
         CommandLineOptions cmdLine = new CommandLineOptions("--jvm", "sample.jar");
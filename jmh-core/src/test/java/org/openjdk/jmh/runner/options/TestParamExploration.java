@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner.options;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestParamExploration {
+
+    @Test
+    public void testFull() {
+        Assert.assertEquals(ParamExploration.Strategy.FULL, ParamExploration.valueOf("full").getStrategy());
+    }
+
+    @Test
+    public void testRandom() {
+        ParamExploration pe = ParamExploration.valueOf("random:100");
+        Assert.assertEquals(ParamExploration.Strategy.RANDOM, pe.getStrategy());
+        Assert.assertEquals(100, pe.getBudget());
+        Assert.assertEquals(ParamExploration.DEFAULT_SEED, pe.getSeed());
+    }
+
+    @Test
+    public void testLatinHypercube() {
+        ParamExploration pe = ParamExploration.valueOf("lhs:32:7");
+        Assert.assertEquals(ParamExploration.Strategy.LHS, pe.getStrategy());
+        Assert.assertEquals(32, pe.getBudget());
+        Assert.assertEquals(7, pe.getSeed());
+    }
+
+    @Test
+    public void testBisect() {
+        ParamExploration pe = ParamExploration.valueOf("bisect:size");
+        Assert.assertEquals(ParamExploration.Strategy.BISECT, pe.getStrategy());
+        Assert.assertEquals("size", pe.getParam());
+        Assert.assertTrue(Double.isNaN(pe.getThreshold()));
+    }
+
+    @Test
+    public void testBisectThreshold() {
+        ParamExploration pe = ParamExploration.valueOf("bisect:size:1500.5");
+        Assert.assertEquals("size", pe.getParam());
+        Assert.assertEquals(1500.5, pe.getThreshold(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknown() {
+        ParamExploration.valueOf("genetic:10");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoBudget() {
+        ParamExploration.valueOf("lhs");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroBudget() {
+        ParamExploration.valueOf("random:0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfatArgs() {
+        ParamExploration.valueOf("ofat:size");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBisectNoParam() {
+        ParamExploration.valueOf("bisect");
+    }
+
+}
@@ -28,6 +28,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.util.ConfidenceMethod;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -439,6 +440,27 @@ public class TestParentOptions {
         Assert.assertEquals(Integer.valueOf(84), builder.getThreads().get());
     }
 
+    @Test
+    public void testThreadsSweep_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getThreadsSweep().hasValue());
+    }
+
+    @Test
+    public void testThreadsSweep_Parent() {
+        Options parent = new OptionsBuilder().threadsSweep("1,2,4").build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals("1,2,4", builder.getThreadsSweep().get().toString());
+    }
+
+    @Test
+    public void testThreadsSweep_Merged() {
+        Options parent = new OptionsBuilder().threadsSweep("1,2,4").build();
+        Options builder = new OptionsBuilder().parent(parent).threadsSweep("1..8:x2").build();
+        Assert.assertEquals("1..8:x2", builder.getThreadsSweep().get().toString());
+    }
+
     @Test
     public void testTimeUnit_Empty() {
         Options parent = new OptionsBuilder().build();
@@ -523,6 +545,489 @@ public class TestParentOptions {
         Assert.assertEquals(Integer.valueOf(84), builder.getWarmupForkCount().get());
     }
 
+    @Test
+    public void testParallelForks_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getParallelForks().hasValue());
+    }
+
+    @Test
+    public void testParallelForks_Parent() {
+        Options parent = new OptionsBuilder().parallelForks(42).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Integer.valueOf(42), builder.getParallelForks().get());
+    }
+
+    @Test
+    public void testParallelForks_Merge() {
+        Options parent = new OptionsBuilder().parallelForks(42).build();
+        Options builder = new OptionsBuilder().parent(parent).parallelForks(84).build();
+        Assert.assertEquals(Integer.valueOf(84), builder.getParallelForks().get());
+    }
+
+    @Test
+    public void testBenchmarksPerFork_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getBenchmarksPerFork().hasValue());
+    }
+
+    @Test
+    public void testBenchmarksPerFork_Parent() {
+        Options parent = new OptionsBuilder().benchmarksPerFork(42).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Integer.valueOf(42), builder.getBenchmarksPerFork().get());
+    }
+
+    @Test
+    public void testBenchmarksPerFork_Merge() {
+        Options parent = new OptionsBuilder().benchmarksPerFork(42).build();
+        Options builder = new OptionsBuilder().parent(parent).benchmarksPerFork(84).build();
+        Assert.assertEquals(Integer.valueOf(84), builder.getBenchmarksPerFork().get());
+    }
+
+    @Test
+    public void testTargetError_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getTargetError().hasValue());
+    }
+
+    @Test
+    public void testTargetError_Parent() {
+        Options parent = new OptionsBuilder().targetError(0.1).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Double.valueOf(0.1), builder.getTargetError().get());
+    }
+
+    @Test
+    public void testTargetError_Merge() {
+        Options parent = new OptionsBuilder().targetError(0.1).build();
+        Options builder = new OptionsBuilder().parent(parent).targetError(0.2).build();
+        Assert.assertEquals(Double.valueOf(0.2), builder.getTargetError().get());
+    }
+
+    @Test
+    public void testTargetConfidence_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getTargetConfidence().hasValue());
+    }
+
+    @Test
+    public void testTargetConfidence_Parent() {
+        Options parent = new OptionsBuilder().targetConfidence(0.9).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Double.valueOf(0.9), builder.getTargetConfidence().get());
+    }
+
+    @Test
+    public void testTargetConfidence_Merge() {
+        Options parent = new OptionsBuilder().targetConfidence(0.9).build();
+        Options builder = new OptionsBuilder().parent(parent).targetConfidence(0.99).build();
+        Assert.assertEquals(Double.valueOf(0.99), builder.getTargetConfidence().get());
+    }
+
+    @Test
+    public void testMaxIterations_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getMaxMeasurementIterations().hasValue());
+    }
+
+    @Test
+    public void testMaxIterations_Parent() {
+        Options parent = new OptionsBuilder().maxMeasurementIterations(42).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Integer.valueOf(42), builder.getMaxMeasurementIterations().get());
+    }
+
+    @Test
+    public void testMaxIterations_Merge() {
+        Options parent = new OptionsBuilder().maxMeasurementIterations(42).build();
+        Options builder = new OptionsBuilder().parent(parent).maxMeasurementIterations(84).build();
+        Assert.assertEquals(Integer.valueOf(84), builder.getMaxMeasurementIterations().get());
+    }
+
+    @Test
+    public void testMaxForks_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getMaxForks().hasValue());
+    }
+
+    @Test
+    public void testMaxForks_Parent() {
+        Options parent = new OptionsBuilder().maxForks(42).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Integer.valueOf(42), builder.getMaxForks().get());
+    }
+
+    @Test
+    public void testMaxForks_Merge() {
+        Options parent = new OptionsBuilder().maxForks(42).build();
+        Options builder = new OptionsBuilder().parent(parent).maxForks(84).build();
+        Assert.assertEquals(Integer.valueOf(84), builder.getMaxForks().get());
+    }
+
+    @Test
+    public void testWarmupWindow_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getWarmupWindow().hasValue());
+    }
+
+    @Test
+    public void testWarmupWindow_Parent() {
+        Options parent = new OptionsBuilder().warmupWindow(4).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Integer.valueOf(4), builder.getWarmupWindow().get());
+    }
+
+    @Test
+    public void testWarmupWindow_Merge() {
+        Options parent = new OptionsBuilder().warmupWindow(4).build();
+        Options builder = new OptionsBuilder().parent(parent).warmupWindow(8).build();
+        Assert.assertEquals(Integer.valueOf(8), builder.getWarmupWindow().get());
+    }
+
+    @Test
+    public void testMaxWarmupIterations_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getMaxWarmupIterations().hasValue());
+    }
+
+    @Test
+    public void testMaxWarmupIterations_Parent() {
+        Options parent = new OptionsBuilder().maxWarmupIterations(42).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Integer.valueOf(42), builder.getMaxWarmupIterations().get());
+    }
+
+    @Test
+    public void testMaxWarmupIterations_Merge() {
+        Options parent = new OptionsBuilder().maxWarmupIterations(42).build();
+        Options builder = new OptionsBuilder().parent(parent).maxWarmupIterations(84).build();
+        Assert.assertEquals(Integer.valueOf(84), builder.getMaxWarmupIterations().get());
+    }
+
+    @Test
+    public void testWarmupQuietCompilation_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.shouldWarmupQuietCompilation().hasValue());
+    }
+
+    @Test
+    public void testWarmupQuietCompilation_Parent() {
+        Options parent = new OptionsBuilder().warmupQuietCompilation(false).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Boolean.valueOf(false), builder.shouldWarmupQuietCompilation().get());
+    }
+
+    @Test
+    public void testWarmupQuietCompilation_Merge() {
+        Options parent = new OptionsBuilder().warmupQuietCompilation(false).build();
+        Options builder = new OptionsBuilder().parent(parent).warmupQuietCompilation(true).build();
+        Assert.assertEquals(Boolean.valueOf(true), builder.shouldWarmupQuietCompilation().get());
+    }
+
+    @Test
+    public void testArrivalRate_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getArrivalRate().hasValue());
+    }
+
+    @Test
+    public void testArrivalRate_Parent() {
+        Options parent = new OptionsBuilder().arrivalRate(100).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Integer.valueOf(100), builder.getArrivalRate().get());
+    }
+
+    @Test
+    public void testArrivalRate_Merge() {
+        Options parent = new OptionsBuilder().arrivalRate(100).build();
+        Options builder = new OptionsBuilder().parent(parent).arrivalRate(200).build();
+        Assert.assertEquals(Integer.valueOf(200), builder.getArrivalRate().get());
+    }
+
+    @Test
+    public void testArrivalProcess_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getArrivalProcess().hasValue());
+    }
+
+    @Test
+    public void testArrivalProcess_Parent() {
+        Options parent = new OptionsBuilder().arrivalProcess(ArrivalProcess.POISSON).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(ArrivalProcess.POISSON, builder.getArrivalProcess().get());
+    }
+
+    @Test
+    public void testArrivalProcess_Merge() {
+        Options parent = new OptionsBuilder().arrivalProcess(ArrivalProcess.POISSON).build();
+        Options builder = new OptionsBuilder().parent(parent).arrivalProcess(ArrivalProcess.CONSTANT).build();
+        Assert.assertEquals(ArrivalProcess.CONSTANT, builder.getArrivalProcess().get());
+    }
+
+    @Test
+    public void testSloLatency_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getSloLatency().hasValue());
+    }
+
+    @Test
+    public void testSloLatency_Parent() {
+        Options parent = new OptionsBuilder().sloLatency(TimeValue.milliseconds(2)).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(TimeValue.milliseconds(2), builder.getSloLatency().get());
+    }
+
+    @Test
+    public void testSloLatency_Merge() {
+        Options parent = new OptionsBuilder().sloLatency(TimeValue.milliseconds(2)).build();
+        Options builder = new OptionsBuilder().parent(parent).sloLatency(TimeValue.milliseconds(5)).build();
+        Assert.assertEquals(TimeValue.milliseconds(5), builder.getSloLatency().get());
+    }
+
+    @Test
+    public void testSloPercentile_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getSloPercentile().hasValue());
+    }
+
+    @Test
+    public void testSloPercentile_Parent() {
+        Options parent = new OptionsBuilder().sloPercentile(0.9).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(0.9, builder.getSloPercentile().get(), 0);
+    }
+
+    @Test
+    public void testSloPercentile_Merge() {
+        Options parent = new OptionsBuilder().sloPercentile(0.9).build();
+        Options builder = new OptionsBuilder().parent(parent).sloPercentile(0.99).build();
+        Assert.assertEquals(0.99, builder.getSloPercentile().get(), 0);
+    }
+
+    @Test
+    public void testCoInterval_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getCoInterval().hasValue());
+    }
+
+    @Test
+    public void testCoInterval_Parent() {
+        Options parent = new OptionsBuilder().coInterval(TimeValue.microseconds(10)).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(TimeValue.microseconds(10), builder.getCoInterval().get());
+    }
+
+    @Test
+    public void testCoInterval_Merge() {
+        Options parent = new OptionsBuilder().coInterval(TimeValue.microseconds(10)).build();
+        Options builder = new OptionsBuilder().parent(parent).coInterval(TimeValue.microseconds(20)).build();
+        Assert.assertEquals(TimeValue.microseconds(20), builder.getCoInterval().get());
+    }
+
+    @Test
+    public void testSeriesInterval_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getSeriesInterval().hasValue());
+    }
+
+    @Test
+    public void testSeriesInterval_Parent() {
+        Options parent = new OptionsBuilder().seriesInterval(TimeValue.milliseconds(100)).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(TimeValue.milliseconds(100), builder.getSeriesInterval().get());
+    }
+
+    @Test
+    public void testSeriesInterval_Merge() {
+        Options parent = new OptionsBuilder().seriesInterval(TimeValue.milliseconds(100)).build();
+        Options builder = new OptionsBuilder().parent(parent).seriesInterval(TimeValue.milliseconds(10)).build();
+        Assert.assertEquals(TimeValue.milliseconds(10), builder.getSeriesInterval().get());
+    }
+
+    @Test
+    public void testTimerCompensation_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.shouldCompensateTimer().hasValue());
+    }
+
+    @Test
+    public void testTimerCompensation_Parent() {
+        Options parent = new OptionsBuilder().shouldCompensateTimer(true).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertTrue(builder.shouldCompensateTimer().get());
+    }
+
+    @Test
+    public void testTimerCompensation_Merge() {
+        Options parent = new OptionsBuilder().shouldCompensateTimer(true).build();
+        Options builder = new OptionsBuilder().parent(parent).shouldCompensateTimer(false).build();
+        Assert.assertFalse(builder.shouldCompensateTimer().get());
+    }
+
+    @Test
+    public void testCpuTime_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.shouldMeasureCpuTime().hasValue());
+    }
+
+    @Test
+    public void testCpuTime_Parent() {
+        Options parent = new OptionsBuilder().shouldMeasureCpuTime(true).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertTrue(builder.shouldMeasureCpuTime().get());
+    }
+
+    @Test
+    public void testCpuTime_Merge() {
+        Options parent = new OptionsBuilder().shouldMeasureCpuTime(true).build();
+        Options builder = new OptionsBuilder().parent(parent).shouldMeasureCpuTime(false).build();
+        Assert.assertFalse(builder.shouldMeasureCpuTime().get());
+    }
+
+    @Test
+    public void testMaxInFlight_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getMaxInFlight().hasValue());
+    }
+
+    @Test
+    public void testMaxInFlight_Parent() {
+        Options parent = new OptionsBuilder().maxInFlight(8).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(Integer.valueOf(8), builder.getMaxInFlight().get());
+    }
+
+    @Test
+    public void testMaxInFlight_Merge() {
+        Options parent = new OptionsBuilder().maxInFlight(8).build();
+        Options builder = new OptionsBuilder().parent(parent).maxInFlight(16).build();
+        Assert.assertEquals(Integer.valueOf(16), builder.getMaxInFlight().get());
+    }
+
+    @Test
+    public void testParamExploration_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getParamExploration().hasValue());
+    }
+
+    @Test
+    public void testParamExploration_Parent() {
+        Options parent = new OptionsBuilder().paramExploration("ofat").build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals("ofat", builder.getParamExploration().get().toString());
+    }
+
+    @Test
+    public void testParamExploration_Merge() {
+        Options parent = new OptionsBuilder().paramExploration("ofat").build();
+        Options builder = new OptionsBuilder().parent(parent).paramExploration("random:10").build();
+        Assert.assertEquals("random:10", builder.getParamExploration().get().toString());
+    }
+
+    @Test
+    public void testBaseline_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getBaseline().hasValue());
+    }
+
+    @Test
+    public void testBaseline_Parent() {
+        Options parent = new OptionsBuilder().baseline("base.json").build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals("base.json", builder.getBaseline().get());
+    }
+
+    @Test
+    public void testBaseline_Merge() {
+        Options parent = new OptionsBuilder().baseline("base.json").build();
+        Options builder = new OptionsBuilder().parent(parent).baseline("other.json").build();
+        Assert.assertEquals("other.json", builder.getBaseline().get());
+    }
+
+    @Test
+    public void testRegressionThreshold_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getRegressionThreshold().hasValue());
+    }
+
+    @Test
+    public void testRegressionThreshold_Parent() {
+        Options parent = new OptionsBuilder().regressionThreshold(0.1).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(0.1, builder.getRegressionThreshold().get(), 0);
+    }
+
+    @Test
+    public void testRegressionThreshold_Merge() {
+        Options parent = new OptionsBuilder().regressionThreshold(0.1).build();
+        Options builder = new OptionsBuilder().parent(parent).regressionThreshold(0.2).build();
+        Assert.assertEquals(0.2, builder.getRegressionThreshold().get(), 0);
+    }
+
+    @Test
+    public void testConfidenceMethod_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getConfidenceMethod().hasValue());
+    }
+
+    @Test
+    public void testConfidenceMethod_Parent() {
+        Options parent = new OptionsBuilder().confidenceMethod(ConfidenceMethod.PERCENTILE).build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals(ConfidenceMethod.PERCENTILE, builder.getConfidenceMethod().get());
+    }
+
+    @Test
+    public void testConfidenceMethod_Merge() {
+        Options parent = new OptionsBuilder().confidenceMethod(ConfidenceMethod.PERCENTILE).build();
+        Options builder = new OptionsBuilder().parent(parent).confidenceMethod(ConfidenceMethod.BCA).build();
+        Assert.assertEquals(ConfidenceMethod.BCA, builder.getConfidenceMethod().get());
+    }
+
+    @Test
+    public void testResultStore_Empty() {
+        Options parent = new OptionsBuilder().build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertFalse(builder.getResultStore().hasValue());
+    }
+
+    @Test
+    public void testResultStore_Parent() {
+        Options parent = new OptionsBuilder().resultStore("parent").build();
+        Options builder = new OptionsBuilder().parent(parent).build();
+        Assert.assertEquals("parent", builder.getResultStore().get());
+    }
+
+    @Test
+    public void testResultStore_Merge() {
+        Options parent = new OptionsBuilder().resultStore("parent").build();
+        Options builder = new OptionsBuilder().parent(parent).resultStore("child").build();
+        Assert.assertEquals("child", builder.getResultStore().get());
+    }
+
     @Test
     public void testWarmupIters_Empty() {
         Options parent = new OptionsBuilder().build();
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.runner.options;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class TestThreadsSweep {
+
+    @Test
+    public void testList() {
+        Assert.assertEquals(Arrays.asList(1, 2, 4, 8), ThreadsSweep.valueOf("8, 4,2,1,2").expand(16));
+    }
+
+    @Test
+    public void testMax() {
+        Assert.assertEquals(Arrays.asList(1, 2, 16), ThreadsSweep.valueOf("1,2,max").expand(16));
+    }
+
+    @Test
+    public void testEllipsisGeometric() {
+        Assert.assertEquals(Arrays.asList(1, 2, 4, 8, 16, 24), ThreadsSweep.valueOf("1,2,4,...,max").expand(24));
+    }
+
+    @Test
+    public void testEllipsisArithmetic() {
+        Assert.assertEquals(Arrays.asList(2, 4, 6, 8, 10), ThreadsSweep.valueOf("2,4,6,...,10").expand(16));
+    }
+
+    @Test
+    public void testRange() {
+        Assert.assertEquals(Arrays.asList(3, 4, 5), ThreadsSweep.valueOf("3..5").expand(16));
+    }
+
+    @Test
+    public void testRangeMultiply() {
+        Assert.assertEquals(Arrays.asList(1, 2, 4, 8, 16, 32, 64), ThreadsSweep.valueOf("1..64:x2").expand(16));
+    }
+
+    @Test
+    public void testRangeIncrement() {
+        Assert.assertEquals(Arrays.asList(2, 5, 8, 11), ThreadsSweep.valueOf("2..max:+3").expand(12));
+    }
+
+    @Test
+    public void testIsSweep() {
+        Assert.assertTrue(ThreadsSweep.isSweep("1,2"));
+        Assert.assertTrue(ThreadsSweep.isSweep("1..2"));
+        Assert.assertFalse(ThreadsSweep.isSweep("max"));
+        Assert.assertFalse(ThreadsSweep.isSweep("4"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBrokenEllipsis() {
+        ThreadsSweep.valueOf("1,...,8");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTrailingEllipsis() {
+        ThreadsSweep.valueOf("1,2,...");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyRange() {
+        ThreadsSweep.valueOf("8..4");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadMultiplier() {
+        ThreadsSweep.valueOf("1..8:x1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGarbage() {
+        ThreadsSweep.valueOf("1,two");
+    }
+
+}
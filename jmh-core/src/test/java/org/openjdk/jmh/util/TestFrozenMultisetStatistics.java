@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for FrozenMultisetStatistics
+ */
+public class TestFrozenMultisetStatistics {
+
+    private static final double[] RANKS = {0, 0.1, 1, 10, 25, 50, 75, 90, 99, 99.9, 99.99, 100};
+
+    private static void assertSame(Statistics expected, Statistics actual) {
+        assertEquals(expected.getN(), actual.getN());
+        assertEquals(expected.getMin(), actual.getMin(), 0.0);
+        assertEquals(expected.getMax(), actual.getMax(), 0.0);
+        assertEquals(expected.getSum(), actual.getSum(), 1e-9 * Math.abs(expected.getSum()));
+        assertEquals(expected.getMean(), actual.getMean(), 1e-9 * Math.abs(expected.getMean()));
+        assertEquals(expected.getVariance(), actual.getVariance(), 1e-9 * Math.abs(expected.getVariance()));
+        for (double r : RANKS) {
+            assertEquals("Rank " + r, expected.getPercentile(r), actual.getPercentile(r), 0.0);
+        }
+    }
+
+    @Test
+    public void testMatchesMultiset() {
+        Random r = new Random(42);
+        MultisetStatistics ms = new MultisetStatistics();
+        double[] vs = new double[10_000];
+        long[] cs = new long[vs.length];
+        for (int i = 0; i < vs.length; i++) {
+            vs[i] = r.nextInt(5_000) * 0.5;
+            cs[i] = 1 + r.nextInt(100);
+            ms.addValue(vs[i], cs[i]);
+        }
+
+        FrozenMultisetStatistics fs = new FrozenMultisetStatistics(vs, cs);
+        assertSame(ms, fs);
+        assertEquals(ms.getN(), fs.getN());
+        Assert.assertTrue(fs.getDistinctCount() <= 5_000);
+
+        double[] levels = {0, 10, 100, 500, 1000, 2000, 2500};
+        Assert.assertArrayEquals(ms.getHistogram(levels), fs.getHistogram(levels));
+    }
+
+    @Test
+    public void testOf() {
+        MultisetStatistics ms = new MultisetStatistics();
+        for (int c = 1; c <= 10; c++) {
+            ms.addValue(c * 10, c);
+        }
+        FrozenMultisetStatistics fs = FrozenMultisetStatistics.of(ms);
+        assertSame(ms, fs);
+        Assert.assertSame(fs, FrozenMultisetStatistics.of(fs));
+
+        int itemCount = 0;
+        for (Map.Entry<Double, Long> entry : Utils.adaptForLoop(fs.getRawData())) {
+            assertEquals(entry.getKey(), (double) (entry.getValue() * 10), 0.0);
+            itemCount++;
+        }
+        assertEquals(10, itemCount);
+    }
+
+    @Test
+    public void testSingle() {
+        FrozenMultisetStatistics fs = new FrozenMultisetStatistics(new double[] {42}, new long[] {1});
+        assertEquals(1, fs.getN());
+        assertEquals(42, fs.getMean(), 0.0);
+        assertEquals(42, fs.getPercentile(50), 0.0);
+        assertEquals(Double.NaN, fs.getVariance(), 0.0);
+    }
+
+    @Test
+    public void testEmpty() {
+        FrozenMultisetStatistics fs = new FrozenMultisetStatistics(new double[] {1, 2}, new long[] {0, 0});
+        assertEquals(0, fs.getN());
+        assertEquals(Double.NaN, fs.getMean(), 0.0);
+        assertEquals(Double.NaN, fs.getMin(), 0.0);
+        assertEquals(Double.NaN, fs.getMax(), 0.0);
+        assertEquals(Double.NaN, fs.getSum(), 0.0);
+        Assert.assertArrayEquals(new int[] {0}, fs.getHistogram(new double[] {0, 10}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMismatchedLengths() {
+        new FrozenMultisetStatistics(new double[] {1, 2}, new long[] {1});
+    }
+
+    @Test
+    public void testBootstrapMatchesMultiset() {
+        MultisetStatistics ms = new MultisetStatistics();
+        double[] vs = new double[100];
+        long[] cs = new long[100];
+        for (int i = 0; i < 100; i++) {
+            vs[i] = i * i;
+            cs[i] = 1 + i % 7;
+            ms.addValue(vs[i], cs[i]);
+        }
+        FrozenMultisetStatistics fs = new FrozenMultisetStatistics(vs, cs);
+
+        double[] expected = ms.getPercentileConfidenceIntervalAt(99, 0.99, ConfidenceMethod.BCA);
+        double[] actual = fs.getPercentileConfidenceIntervalAt(99, 0.99, ConfidenceMethod.BCA);
+        Assert.assertArrayEquals(expected, actual, 0.0);
+    }
+
+    @Test
+    public void testUnsorted() {
+        FrozenMultisetStatistics fs = new FrozenMultisetStatistics(
+                new double[] {3, 1, 2, 1}, new long[] {1, 2, 3, 4});
+        MultisetStatistics ms = new MultisetStatistics();
+        ms.addValue(1, 6);
+        ms.addValue(2, 3);
+        ms.addValue(3, 1);
+        assertSame(ms, fs);
+        assertEquals(3, fs.getDistinctCount());
+        Assert.assertArrayEquals(new int[] {6, 3, 1}, fs.getHistogram(new double[] {1, 2, 3, 4}));
+        Assert.assertArrayEquals(new double[] {1, 2, 3}, toArray(fs), 0.0);
+    }
+
+    private static double[] toArray(Statistics s) {
+        double[] r = new double[0];
+        for (Map.Entry<Double, Long> e : Utils.adaptForLoop(s.getRawData())) {
+            r = Arrays.copyOf(r, r.length + 1);
+            r[r.length - 1] = e.getKey();
+        }
+        return r;
+    }
+
+}
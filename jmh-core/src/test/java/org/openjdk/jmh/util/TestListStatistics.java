@@ -410,4 +410,84 @@ public class TestListStatistics {
         Assert.assertFalse(listIter.hasNext());
     }
 
+    /**
+     * Test of bootstrap confidence intervals for the mean.
+     */
+    @Test
+    public strictfp void testBootstrapConfidenceInterval() {
+        double[] student = instance.getConfidenceIntervalAt(0.999);
+        for (ConfidenceMethod m : new ConfidenceMethod[] {ConfidenceMethod.PERCENTILE, ConfidenceMethod.BCA}) {
+            double[] ci = instance.getConfidenceIntervalAt(0.999, m);
+            Assert.assertTrue(ci[0] < instance.getMean());
+            Assert.assertTrue(instance.getMean() < ci[1]);
+
+            // bootstrap is narrower than Student's t for small samples, but not dramatically
+            Assert.assertTrue(ci[0] > student[0]);
+            Assert.assertTrue(ci[1] < student[1]);
+            Assert.assertTrue(ci[1] - ci[0] > (student[1] - student[0]) / 2);
+
+            Assert.assertEquals((ci[1] - ci[0]) / 2, instance.getMeanErrorAt(0.999, m), 1e-10);
+        }
+    }
+
+    /**
+     * Test of Student's t confidence intervals with the method selector.
+     */
+    @Test
+    public strictfp void testStudentConfidenceInterval() {
+        double[] expected = instance.getConfidenceIntervalAt(0.999);
+        double[] actual = instance.getConfidenceIntervalAt(0.999, ConfidenceMethod.STUDENT);
+        assertEquals(expected[0], actual[0], 0.0);
+        assertEquals(expected[1], actual[1], 0.0);
+        assertEquals(instance.getMeanErrorAt(0.999), instance.getMeanErrorAt(0.999, ConfidenceMethod.STUDENT), 0.0);
+    }
+
+    /**
+     * Test of bootstrap confidence intervals for the median.
+     */
+    @Test
+    public strictfp void testBootstrapPercentileConfidenceInterval() {
+        double median = instance.getPercentile(50);
+        for (ConfidenceMethod m : new ConfidenceMethod[] {ConfidenceMethod.PERCENTILE, ConfidenceMethod.BCA}) {
+            double[] ci = instance.getPercentileConfidenceIntervalAt(50, 0.95, m);
+            Assert.assertTrue(ci[0] < median);
+            Assert.assertTrue(median < ci[1]);
+            Assert.assertTrue(ci[0] >= instance.getMin());
+            Assert.assertTrue(ci[1] <= instance.getMax());
+        }
+    }
+
+    /**
+     * Test of bootstrap being deterministic.
+     */
+    @Test
+    public strictfp void testBootstrapDeterministic() {
+        double[] ci1 = instance.getPercentileConfidenceIntervalAt(90, 0.99, ConfidenceMethod.BCA);
+        double[] ci2 = instance.getPercentileConfidenceIntervalAt(90, 0.99, ConfidenceMethod.BCA);
+        assertEquals(ci1[0], ci2[0], 0.0);
+        assertEquals(ci1[1], ci2[1], 0.0);
+    }
+
+    /**
+     * Test of Student's t being rejected for percentiles.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public strictfp void testStudentPercentileConfidenceInterval() {
+        instance.getPercentileConfidenceIntervalAt(50, 0.99, ConfidenceMethod.STUDENT);
+    }
+
+    /**
+     * Test of bootstrap with too few samples.
+     */
+    @Test
+    public strictfp void testBootstrapConfidenceInterval_small() {
+        ListStatistics s = new ListStatistics();
+        s.addValue(1);
+        s.addValue(2);
+        double[] ci = s.getConfidenceIntervalAt(0.99, ConfidenceMethod.BCA);
+        Assert.assertTrue(Double.isNaN(ci[0]));
+        Assert.assertTrue(Double.isNaN(ci[1]));
+        Assert.assertTrue(Double.isNaN(s.getMeanErrorAt(0.99, ConfidenceMethod.PERCENTILE)));
+    }
+
 }
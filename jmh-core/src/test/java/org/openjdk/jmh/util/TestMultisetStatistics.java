@@ -434,4 +434,57 @@ public class TestMultisetStatistics {
         Assert.assertEquals(itemCount, 10);
     }
 
+    /**
+     * Test of bootstrap confidence intervals matching the expanded samples.
+     */
+    @Test
+    public strictfp void testBootstrapConfidenceInterval_duplicates() {
+        MultisetStatistics ms = new MultisetStatistics();
+        ListStatistics ls = new ListStatistics();
+        for (int c = 1; c <= 10; c++) {
+            ms.addValue(c * 10, c);
+            for (int i = 0; i < c; i++) {
+                ls.addValue(c * 10);
+            }
+        }
+
+        for (ConfidenceMethod m : new ConfidenceMethod[] {ConfidenceMethod.PERCENTILE, ConfidenceMethod.BCA}) {
+            double[] mCI = ms.getConfidenceIntervalAt(0.99, m);
+            double[] lCI = ls.getConfidenceIntervalAt(0.99, m);
+            assertEquals(lCI[0], mCI[0], 0.0);
+            assertEquals(lCI[1], mCI[1], 0.0);
+
+            double[] mPCI = ms.getPercentileConfidenceIntervalAt(90, 0.99, m);
+            double[] lPCI = ls.getPercentileConfidenceIntervalAt(90, 0.99, m);
+            assertEquals(lPCI[0], mPCI[0], 0.0);
+            assertEquals(lPCI[1], mPCI[1], 0.0);
+        }
+    }
+
+    /**
+     * Test of bootstrap confidence intervals for the large multisets.
+     */
+    @Test
+    public strictfp void testBootstrapConfidenceInterval_large() {
+        MultisetStatistics s = new MultisetStatistics();
+        for (int c = 0; c < 100; c++) {
+            s.addValue(c, 10_000);
+        }
+        s.addValue(10_000, 100);
+
+        double[] student = s.getConfidenceIntervalAt(0.999);
+        for (ConfidenceMethod m : new ConfidenceMethod[] {ConfidenceMethod.PERCENTILE, ConfidenceMethod.BCA}) {
+            double[] ci = s.getConfidenceIntervalAt(0.999, m);
+            Assert.assertTrue(ci[0] < s.getMean());
+            Assert.assertTrue(s.getMean() < ci[1]);
+            assertEquals(student[0], ci[0], (student[1] - student[0]) / 2);
+            assertEquals(student[1], ci[1], (student[1] - student[0]) / 2);
+
+            double[] pci = s.getPercentileConfidenceIntervalAt(50, 0.999, m);
+            Assert.assertTrue(pci[0] <= s.getPercentile(50));
+            Assert.assertTrue(s.getPercentile(50) <= pci[1]);
+            Assert.assertTrue(pci[1] - pci[0] <= 2);
+        }
+    }
+
 }
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.util.List;
+
+public class TestSampleBuffer {
+
+    private static SampleBuffer sample(int digits) {
+        SampleBuffer buffer = new SampleBuffer(digits, SampleBuffer.DEFAULT_HIGHEST_VALUE);
+        for (int i = 0; i < 10000; i++) {
+            buffer.add((long) i * i);
+        }
+        buffer.add(1000000007L, 3);
+        return buffer;
+    }
+
+    private static void assertSameStats(SampleBuffer expected, SampleBuffer actual) {
+        Statistics es = expected.getStatistics(1);
+        Statistics as = actual.getStatistics(1);
+        Assert.assertEquals(es.getN(), as.getN());
+        for (double p : new double[]{0, 10, 50, 90, 99, 99.9, 100}) {
+            Assert.assertEquals(es.getPercentile(p), as.getPercentile(p), 0);
+        }
+        Assert.assertEquals(es.getSum(), as.getSum(), 0);
+    }
+
+    @Test
+    public void testPrecision() {
+        for (int digits = 1; digits <= 5; digits++) {
+            SampleBuffer buffer = new SampleBuffer(digits, SampleBuffer.DEFAULT_HIGHEST_VALUE);
+            double error = Math.pow(10, -digits);
+            for (long v = 1; v < SampleBuffer.DEFAULT_HIGHEST_VALUE; v = v * 3 + 1) {
+                SampleBuffer b = new SampleBuffer(digits, SampleBuffer.DEFAULT_HIGHEST_VALUE);
+                b.add(v);
+                double actual = b.getStatistics(1).getMax();
+                Assert.assertTrue("digits = " + digits + ", value = " + v + ", recorded = " + actual,
+                        actual <= v && (v - actual) <= v * error);
+            }
+            buffer.add(42);
+            Assert.assertEquals(digits, buffer.getDigits());
+        }
+    }
+
+    @Test
+    public void testExactSmall() {
+        SampleBuffer buffer = new SampleBuffer();
+        for (int v = 0; v < 2000; v++) {
+            buffer.add(v);
+        }
+        Statistics s = buffer.getStatistics(1);
+        Assert.assertEquals(0, s.getMin(), 0);
+        Assert.assertEquals(1999, s.getMax(), 0);
+        Assert.assertEquals(2000, s.getN());
+    }
+
+    @Test
+    public void testClamp() {
+        SampleBuffer buffer = new SampleBuffer(2, 1000);
+        buffer.add(-1);
+        buffer.add(Long.MAX_VALUE);
+        Statistics s = buffer.getStatistics(1);
+        Assert.assertEquals(0, s.getMin(), 0);
+        Assert.assertTrue(s.getMax() <= 1000 && s.getMax() >= 990);
+        Assert.assertEquals(2, buffer.count());
+    }
+
+    @Test
+    public void testLongCounts() {
+        SampleBuffer buffer = new SampleBuffer();
+        buffer.add(100, Integer.MAX_VALUE);
+        buffer.add(100, Integer.MAX_VALUE);
+        buffer.add(200);
+        Assert.assertEquals(2L * Integer.MAX_VALUE + 1, buffer.count());
+
+        buffer.half();
+        Assert.assertEquals((long) Integer.MAX_VALUE + 1, buffer.count());
+    }
+
+    @Test
+    public void testSparseMagnitudes() throws IOException {
+        // only the touched magnitudes get their bins allocated
+        SampleBuffer buffer = new SampleBuffer();
+        Assert.assertEquals(0, buffer.count());
+        buffer.add(1);
+        buffer.add(1_000_000, 2);
+        buffer.add(1_000_000_000_000L);
+
+        Statistics s = buffer.getStatistics(1);
+        Assert.assertEquals(4, s.getN());
+        Assert.assertEquals(1, s.getMin(), 0);
+        Assert.assertEquals(1_000_000, s.getPercentile(50), 1_000_000 * 1e-3);
+        Assert.assertEquals(1_000_000_000_000L, s.getMax(), 1_000_000_000_000L * 1e-3);
+
+        SampleBuffer copy = new SampleBuffer();
+        copy.addAll(buffer);
+        copy.half();
+        Assert.assertEquals(3, copy.count());
+
+        assertSameStats(buffer, SampleBuffer.decodeHdrHistogram(buffer.encodeHdrHistogram()));
+    }
+
+    @Test
+    public void testReserve() throws Exception {
+        SampleBuffer buffer = new SampleBuffer();
+        Assert.assertEquals(0, buffer.getMinValue());
+        Assert.assertEquals(0, buffer.getMaxValue());
+
+        buffer.reserve(100, 1_000_000);
+        int reserved = allocatedChunks(buffer);
+        Assert.assertTrue(reserved > 0);
+        Assert.assertEquals(0, buffer.count());
+
+        // samples within the reserved range do not allocate
+        buffer.add(100);
+        buffer.add(20_000);
+        buffer.add(1_000_000);
+        Assert.assertEquals(reserved, allocatedChunks(buffer));
+
+        Assert.assertEquals(100, buffer.getMinValue());
+        Assert.assertEquals(1_000_000, buffer.getMaxValue(), 1_000_000 * 1e-3);
+
+        // reserved bins are not visible in any representation
+        SampleBuffer plain = new SampleBuffer();
+        plain.add(100);
+        plain.add(20_000);
+        plain.add(1_000_000);
+        assertSameStats(plain, buffer);
+        Assert.assertArrayEquals(plain.encodeHdrHistogram(), buffer.encodeHdrHistogram());
+    }
+
+    private static int allocatedChunks(SampleBuffer buffer) throws Exception {
+        Field f = SampleBuffer.class.getDeclaredField("counts");
+        f.setAccessible(true);
+        int chunks = 0;
+        for (long[] chunk : (long[][]) f.get(buffer)) {
+            if (chunk != null) {
+                chunks++;
+            }
+        }
+        return chunks;
+    }
+
+    @Test
+    public void testAddAllSameLayout() {
+        SampleBuffer b1 = sample(3);
+        SampleBuffer b2 = new SampleBuffer();
+        b2.addAll(b1);
+        assertSameStats(b1, b2);
+        b2.addAll(b1);
+        Assert.assertEquals(2 * b1.count(), b2.count());
+    }
+
+    @Test
+    public void testAddAllDifferentLayout() {
+        SampleBuffer b2 = sample(2);
+        SampleBuffer b3 = new SampleBuffer(3, SampleBuffer.DEFAULT_HIGHEST_VALUE);
+        b3.addAll(b2);
+        // coarser bins are exactly representable with finer ones
+        assertSameStats(b2, b3);
+    }
+
+    @Test
+    public void testCoordinatedOmission() {
+        SampleBuffer buffer = new SampleBuffer();
+        buffer.add(50, 5);
+        buffer.add(1000);
+
+        SampleBuffer corrected = buffer.copyCorrectedForCoordinatedOmission(100);
+        Assert.assertEquals(6, buffer.count());
+        Assert.assertEquals(15, corrected.count());
+
+        // 1000 implies 900, 800, ..., 100
+        Statistics s = corrected.getStatistics(1);
+        Assert.assertEquals(50, s.getMin(), 0);
+        Assert.assertEquals(1000, s.getMax(), 0);
+        Assert.assertEquals(5 * 50 + 5500, s.getSum(), 0);
+    }
+
+    @Test
+    public void testCoordinatedOmissionLongStall() {
+        SampleBuffer buffer = new SampleBuffer();
+        buffer.add(1000, 1000);
+        buffer.add(1L << 30);
+
+        // the stall implies 2^30 / 1000 - 1 samples below it
+        SampleBuffer corrected = buffer.copyCorrectedForCoordinatedOmission(1000);
+        Assert.assertEquals(1000 + 1 + 1073740, corrected.count());
+        Assert.assertEquals(1000, buffer.getStatistics(1).getPercentile(99), 0);
+        Assert.assertTrue(corrected.getStatistics(1).getPercentile(99.9) > 900000000);
+    }
+
+    @Test
+    public void testCoordinatedOmissionDisabled() {
+        SampleBuffer buffer = sample(3);
+        assertSameStats(buffer, buffer.copyCorrectedForCoordinatedOmission(0));
+    }
+
+    @Test
+    public void testWriteRead() throws IOException {
+        for (int digits = 0; digits <= 5; digits++) {
+            SampleBuffer buffer = sample(digits);
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            buffer.write(new DataOutputStream(bos));
+            SampleBuffer copy = SampleBuffer.read(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+            Assert.assertEquals(digits, copy.getDigits());
+            assertSameStats(buffer, copy);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadMalformed() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        Utils.writeVarLong(dos, 3);
+        Utils.writeVarLong(dos, 1000);
+        Utils.writeVarLong(dos, 1);
+        Utils.writeVarLong(dos, 1000000);
+        Utils.writeVarLong(dos, 1);
+        SampleBuffer.read(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+    }
+
+    @Test
+    public void testJavaSerialization() throws IOException, ClassNotFoundException {
+        SampleBuffer buffer = sample(3);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(buffer);
+        oos.close();
+
+        // compact: only non-empty bins are written
+        Assert.assertTrue("Serialized size: " + bos.size(), bos.size() < 64 * 1024);
+
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        assertSameStats(buffer, (SampleBuffer) ois.readObject());
+    }
+
+    @Test
+    public void testHdrHistogramRoundTrip() throws IOException {
+        for (int digits = 0; digits <= 5; digits++) {
+            SampleBuffer buffer = sample(digits);
+            SampleBuffer copy = SampleBuffer.decodeHdrHistogram(buffer.encodeHdrHistogram());
+            Assert.assertEquals(digits, copy.getDigits());
+            Assert.assertEquals(buffer.getHighestValue(), copy.getHighestValue());
+            assertSameStats(buffer, copy);
+        }
+    }
+
+    @Test
+    public void testHdrHistogramEmpty() throws IOException {
+        SampleBuffer copy = HistogramLog.decode(HistogramLog.encode(new SampleBuffer()));
+        Assert.assertEquals(0, copy.count());
+    }
+
+    @Test
+    public void testHdrHistogramCookie() {
+        // compressed V2 cookie 0x1c849314, familiar from all interval logs
+        Assert.assertTrue(HistogramLog.encode(sample(3)).startsWith("HISTFA"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testHdrHistogramMalformed() throws IOException {
+        SampleBuffer.decodeHdrHistogram(new byte[]{0x1c, (byte) 0x84, (byte) 0x93, 0x14, 0, 0, 0, 10, 1, 2, 3});
+    }
+
+    @Test
+    public void testIntervalLog() throws IOException {
+        SampleBuffer b1 = sample(3);
+        SampleBuffer b2 = sample(2);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(bos, true, "UTF-8");
+        HistogramLog.writeHeader(ps);
+        HistogramLog.writeInterval(ps, new HistogramLog.Interval(null, 0, 1, b1));
+        HistogramLog.writeInterval(ps, new HistogramLog.Interval(HistogramLog.toTag("bench:p=a, b"), 1, 1, b2));
+        ps.close();
+
+        String log = bos.toString("UTF-8");
+        Assert.assertTrue(log, log.startsWith("#[Histogram log format version 1.3]"));
+        Assert.assertTrue(log, log.contains("\nTag=bench:p=a__b,1.000,1.000,998."));
+
+        List<HistogramLog.Interval> intervals = HistogramLog.read(new BufferedReader(new StringReader(log)));
+        Assert.assertEquals(2, intervals.size());
+
+        Assert.assertNull(intervals.get(0).getTag());
+        Assert.assertEquals(0, intervals.get(0).getStartTime(), 0);
+        assertSameStats(b1, intervals.get(0).getBuffer());
+
+        Assert.assertEquals("bench:p=a__b", intervals.get(1).getTag());
+        Assert.assertEquals(1, intervals.get(1).getStartTime(), 0);
+        Assert.assertEquals(1, intervals.get(1).getLength(), 0);
+        assertSameStats(b2, intervals.get(1).getBuffer());
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestScalabilityFit {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    private static double[] usl(double lambda, double sigma, double kappa) {
+        double[] xs = new double[THREADS.length];
+        for (int i = 0; i < THREADS.length; i++) {
+            double n = THREADS[i];
+            xs[i] = lambda * n / (1 + sigma * (n - 1) + kappa * n * (n - 1));
+        }
+        return xs;
+    }
+
+    @Test
+    public void testExactUSL() {
+        ScalabilityFit fit = ScalabilityFit.usl(THREADS, usl(100, 0.05, 0.002));
+        Assert.assertEquals(100, fit.getLambda(), 1e-6);
+        Assert.assertEquals(0.05, fit.getContention(), 1e-6);
+        Assert.assertEquals(0.002, fit.getCoherency(), 1e-6);
+        Assert.assertEquals(1.0, fit.getRSquared(), 1e-9);
+        Assert.assertEquals(Math.sqrt(0.95 / 0.002), fit.getPeakThreads(), 1e-3);
+    }
+
+    @Test
+    public void testExactAmdahl() {
+        ScalabilityFit fit = ScalabilityFit.amdahl(THREADS, usl(10, 0.1, 0));
+        Assert.assertEquals(10, fit.getLambda(), 1e-6);
+        Assert.assertEquals(0.1, fit.getContention(), 1e-6);
+        Assert.assertEquals(0, fit.getCoherency(), 0);
+        Assert.assertTrue(Double.isInfinite(fit.getPeakThreads()));
+        Assert.assertEquals(100, fit.getPeakThroughput(), 1e-3);
+    }
+
+    @Test
+    public void testLinear() {
+        ScalabilityFit fit = ScalabilityFit.usl(THREADS, usl(10, 0, 0));
+        Assert.assertEquals(10, fit.getLambda(), 1e-6);
+        Assert.assertEquals(0, fit.getContention(), 1e-9);
+        Assert.assertEquals(0, fit.getCoherency(), 1e-9);
+    }
+
+    @Test
+    public void testNoSingleThread() {
+        int[] threads = {2, 4, 8, 16};
+        double[] xs = new double[threads.length];
+        for (int i = 0; i < threads.length; i++) {
+            double n = threads[i];
+            xs[i] = 50 * n / (1 + 0.02 * (n - 1) + 0.001 * n * (n - 1));
+        }
+        ScalabilityFit fit = ScalabilityFit.usl(threads, xs);
+        Assert.assertEquals(50, fit.getLambda(), 1e-3);
+        Assert.assertEquals(0.02, fit.getContention(), 1e-4);
+        Assert.assertEquals(0.001, fit.getCoherency(), 1e-5);
+    }
+
+    @Test
+    public void testNonNegative() {
+        // superlinear scaling does not produce negative coefficients
+        ScalabilityFit fit = ScalabilityFit.usl(new int[] {1, 2, 4}, new double[] {10, 25, 60});
+        Assert.assertTrue(fit.getContention() >= 0);
+        Assert.assertTrue(fit.getCoherency() >= 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewPoints() {
+        ScalabilityFit.usl(new int[] {1}, new double[] {10});
+    }
+
+}
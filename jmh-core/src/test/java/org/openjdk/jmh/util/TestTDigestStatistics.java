@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2005, 2013, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.openjdk.jmh.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for TDigestStatistics
+ */
+public class TestTDigestStatistics {
+
+    private static final double[] VALUES = {
+        60.89053178, 3.589312005, 42.73638635, 85.55397805, 96.66786311,
+        29.31809699, 63.50268147, 52.24157468, 64.68049085, 2.34517545,
+        92.62435741, 7.50775664, 31.92395987, 82.68609724, 71.07171954,
+        15.78967174, 34.43339987, 65.40063304, 69.86288638, 22.55130769,
+        36.99130073, 60.17648239, 33.1484382, 56.4605944, 93.67454206
+    };
+
+    private static final double[] RANKS = {0, 0.1, 1, 10, 25, 50, 75, 90, 99, 99.9, 100};
+
+    private static double[] lognormal(int count, long seed) {
+        Random r = new Random(seed);
+        double[] vs = new double[count];
+        for (int i = 0; i < count; i++) {
+            vs[i] = Math.exp(r.nextGaussian());
+        }
+        return vs;
+    }
+
+    /**
+     * Fraction of the sorted values at or below the given one.
+     */
+    private static double rankOf(double[] sorted, double v) {
+        int idx = Arrays.binarySearch(sorted, v);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        return (double) idx / sorted.length;
+    }
+
+    @Test
+    public void testEmpty() {
+        TDigestStatistics s = new TDigestStatistics();
+        assertEquals(0, s.getN());
+        assertEquals(Double.NaN, s.getMean(), 0.0);
+        assertEquals(Double.NaN, s.getMin(), 0.0);
+        assertEquals(Double.NaN, s.getMax(), 0.0);
+        assertEquals(Double.NaN, s.getPercentile(50), 0.0);
+    }
+
+    @Test
+    public void testSmallIsExact() {
+        TDigestStatistics t = new TDigestStatistics();
+        ListStatistics l = new ListStatistics();
+        for (double v : VALUES) {
+            t.addValue(v);
+            l.addValue(v);
+        }
+
+        assertEquals(l.getN(), t.getN());
+        assertEquals(l.getSum(), t.getSum(), 1e-9);
+        assertEquals(l.getMean(), t.getMean(), 1e-9);
+        assertEquals(l.getVariance(), t.getVariance(), 1e-9);
+        assertEquals(l.getMin(), t.getMin(), 0.0);
+        assertEquals(l.getMax(), t.getMax(), 0.0);
+        for (double r : RANKS) {
+            assertEquals("Rank " + r, l.getPercentile(r), t.getPercentile(r), 1e-9);
+        }
+    }
+
+    @Test
+    public void testLargeIsBounded() {
+        double[] vs = lognormal(1_000_000, 42);
+
+        TDigestStatistics t = new TDigestStatistics();
+        ListStatistics l = new ListStatistics();
+        for (double v : vs) {
+            t.addValue(v);
+            l.addValue(v);
+        }
+
+        Assert.assertTrue("Centroids: " + t.getCentroidCount(), t.getCentroidCount() <= 2 * t.getCompression());
+
+        assertEquals(l.getMean(), t.getMean(), 1e-9);
+        assertEquals(l.getVariance(), t.getVariance(), 1e-6);
+        assertEquals(l.getMin(), t.getMin(), 0.0);
+        assertEquals(l.getMax(), t.getMax(), 0.0);
+
+        double[] sorted = vs.clone();
+        Arrays.sort(sorted);
+        for (double r : RANKS) {
+            double q = r / 100;
+            double err = Math.abs(rankOf(sorted, t.getPercentile(r)) - q);
+            // t-digest error is proportional to q(1-q)
+            Assert.assertTrue("Rank " + r + " error: " + err, err <= 0.001 + 0.02 * q * (1 - q));
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        double[] vs = lognormal(100_000, 1);
+
+        TDigestStatistics whole = new TDigestStatistics();
+        TDigestStatistics left = new TDigestStatistics();
+        TDigestStatistics right = new TDigestStatistics();
+        for (int i = 0; i < vs.length; i++) {
+            whole.addValue(vs[i]);
+            if (i % 3 == 0) {
+                left.addValue(vs[i]);
+            } else {
+                right.addValue(vs[i]);
+            }
+        }
+        left.addAll(right);
+
+        assertEquals(whole.getN(), left.getN());
+        assertEquals(whole.getMean(), left.getMean(), 1e-9);
+        assertEquals(whole.getVariance(), left.getVariance(), 1e-9);
+        assertEquals(whole.getMin(), left.getMin(), 0.0);
+        assertEquals(whole.getMax(), left.getMax(), 0.0);
+
+        double[] sorted = vs.clone();
+        Arrays.sort(sorted);
+        for (double r : RANKS) {
+            double q = r / 100;
+            double err = Math.abs(rankOf(sorted, left.getPercentile(r)) - q);
+            Assert.assertTrue("Rank " + r + " error: " + err, err <= 0.001 + 0.02 * q * (1 - q));
+        }
+    }
+
+    @Test
+    public void testMergeOther() {
+        MultisetStatistics m = new MultisetStatistics();
+        for (int c = 1; c <= 10; c++) {
+            m.addValue(c * 10, c);
+        }
+
+        TDigestStatistics t = new TDigestStatistics();
+        t.addAll(m);
+
+        assertEquals(m.getN(), t.getN());
+        assertEquals(m.getMean(), t.getMean(), 1e-9);
+        assertEquals(m.getVariance(), t.getVariance(), 1e-9);
+        assertEquals(m.getPercentile(50), t.getPercentile(50), 1e-9);
+    }
+
+    @Test
+    public void testRawData() {
+        TDigestStatistics t = new TDigestStatistics();
+        for (double v : lognormal(100_000, 2)) {
+            t.addValue(v);
+        }
+
+        long count = 0;
+        double sum = 0;
+        double last = Double.NEGATIVE_INFINITY;
+        for (java.util.Map.Entry<Double, Long> e : Utils.adaptForLoop(t.getRawData())) {
+            Assert.assertTrue(e.getKey() >= last);
+            last = e.getKey();
+            count += e.getValue();
+            sum += e.getKey() * e.getValue();
+        }
+        assertEquals(t.getN(), count);
+        assertEquals(t.getSum(), sum, 1e-6 * t.getSum());
+    }
+
+    @Test
+    public void testHistogram() {
+        TDigestStatistics t = new TDigestStatistics();
+        for (double v : lognormal(100_000, 3)) {
+            t.addValue(v);
+        }
+
+        int[] histo = t.getHistogram(new double[] {0, 1, 2, 5, Double.MAX_VALUE});
+        int total = 0;
+        for (int h : histo) {
+            total += h;
+        }
+        assertEquals(100_000, total);
+        // P(lognormal <= 1) = 0.5
+        assertEquals(50_000, histo[0], 1_000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompressionTooLow() {
+        new TDigestStatistics(1);
+    }
+
+}
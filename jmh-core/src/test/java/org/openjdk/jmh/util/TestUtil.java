@@ -27,6 +27,11 @@ package org.openjdk.jmh.util;
 import junit.framework.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 
 public class TestUtil {
@@ -46,4 +51,33 @@ public class TestUtil {
         Assert.assertEquals(Arrays.asList("moo", "-Dopt=bar baz"), Utils.splitQuotedEscape("moo  -Dopt=\"bar baz\""));
     }
 
+    @Test
+    public void testVarLong() throws IOException {
+        long[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        for (long v : values) {
+            Utils.writeVarLong(dos, v);
+            Utils.writeVarSignedLong(dos, v);
+        }
+
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        for (long v : values) {
+            Assert.assertEquals(v, Utils.readVarLong(dis));
+            Assert.assertEquals(v, Utils.readVarSignedLong(dis));
+        }
+        Assert.assertEquals(0, dis.available());
+    }
+
+    @Test
+    public void testVarLongCompact() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bos);
+        Utils.writeVarLong(dos, 127);
+        Assert.assertEquals(1, bos.size());
+        Utils.writeVarSignedLong(dos, -64);
+        Assert.assertEquals(2, bos.size());
+    }
+
 }